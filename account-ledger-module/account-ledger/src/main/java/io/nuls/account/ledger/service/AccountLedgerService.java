@@ -29,6 +29,7 @@ import io.nuls.account.ledger.model.TransactionInfo;
 import io.nuls.account.model.Balance;
 import io.nuls.account.ledger.model.CoinDataResult;
 import io.nuls.core.tools.crypto.ECKey;
+import io.nuls.core.tools.page.Page;
 import io.nuls.kernel.exception.NulsException;
 import io.nuls.kernel.model.Coin;
 import io.nuls.kernel.model.Na;
@@ -192,6 +193,12 @@ public interface AccountLedgerService {
      */
     Result<List<TransactionInfo>> getTxInfoList(byte[] address);
 
+    /**
+     * 按高度倒序分页查询交易列表，type小于等于0时查询所有类型
+     * Page the transaction list ordered by height descending, all types are returned when type is less than or equal to 0.
+     */
+    Result<Page<TransactionInfo>> getTxInfoList(byte[] address, int type, int pageNumber, int pageSize);
+
     /**
      * 查询锁定的未花费交易
      */
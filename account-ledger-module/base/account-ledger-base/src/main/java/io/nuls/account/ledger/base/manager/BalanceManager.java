@@ -211,19 +211,11 @@ public class BalanceManager {
 
     public List<Coin> getCoinListByAddress(byte[] address) {
         List<Coin> coinList = new ArrayList<>();
-        Collection<Entry<byte[], byte[]>> rawList = localUtxoStorageService.loadAllCoinList();
-        for (Entry<byte[], byte[]> coinEntry : rawList) {
-            Coin coin = new Coin();
-            try {
-                coin.parse(coinEntry.getValue());
-            } catch (NulsException e) {
-                Log.info("parse coin form db error");
-                continue;
-            }
-            if (Arrays.equals(coin.getOwner(), address)) {
-                coin.setOwner(coinEntry.getKey());
-                coinList.add(coin);
-            }
+        List<Entry<byte[], Coin>> rawList = localUtxoStorageService.getCoinListByOwner(address);
+        for (Entry<byte[], Coin> coinEntry : rawList) {
+            Coin coin = coinEntry.getValue();
+            coin.setOwner(coinEntry.getKey());
+            coinList.add(coin);
         }
         return coinList;
     }
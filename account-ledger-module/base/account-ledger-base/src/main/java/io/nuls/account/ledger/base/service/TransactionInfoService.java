@@ -27,6 +27,7 @@ package io.nuls.account.ledger.base.service;
 
 import io.nuls.account.ledger.model.TransactionInfo;
 import io.nuls.account.ledger.storage.po.TransactionInfoPo;
+import io.nuls.core.tools.page.Page;
 import io.nuls.kernel.lite.annotation.Component;
 import io.nuls.kernel.model.Result;
 
@@ -41,6 +42,12 @@ public interface TransactionInfoService {
 
     Result<List<TransactionInfo>> getTxInfoList(byte[] address);
 
+    /**
+     * 按高度倒序分页查询地址的交易记录，type小于等于0时不按类型过滤
+     * Page the transaction info of the address ordered by height descending, no type filter when type is less than or equal to 0.
+     */
+    Result<Page<TransactionInfo>> getTxInfoList(byte[] address, int type, int pageNumber, int pageSize);
+
     Result<Integer> saveTransactionInfo(TransactionInfoPo infoPo, List<byte[]> addresses);
 
     Result deleteTransactionInfo(TransactionInfoPo infoPo);
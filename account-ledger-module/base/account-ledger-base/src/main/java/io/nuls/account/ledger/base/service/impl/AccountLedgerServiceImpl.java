@@ -44,6 +44,7 @@ import io.nuls.core.tools.crypto.Base58;
 import io.nuls.core.tools.crypto.ECKey;
 import io.nuls.core.tools.crypto.Hex;
 import io.nuls.core.tools.log.Log;
+import io.nuls.core.tools.page.Page;
 import io.nuls.core.tools.param.AssertUtil;
 import io.nuls.core.tools.str.StringUtils;
 import io.nuls.kernel.cfg.NulsConfig;
@@ -684,6 +685,11 @@ public class AccountLedgerServiceImpl implements AccountLedgerService, Initializ
         return transactionInfoService.getTxInfoList(address);
     }
 
+    @Override
+    public Result<Page<TransactionInfo>> getTxInfoList(byte[] address, int type, int pageNumber, int pageSize) {
+        return transactionInfoService.getTxInfoList(address, type, pageNumber, pageSize);
+    }
+
     @Override
     public Result<List<Coin>> getLockedUtxo(byte[] address) {
         Result<List<Coin>> result = new Result<>();
@@ -25,15 +25,13 @@
 package io.nuls.account.ledger.base.service.impl;
 
 import io.nuls.account.ledger.base.service.TransactionInfoService;
-import io.nuls.account.ledger.base.util.TxInfoComparator;
-import io.nuls.account.ledger.constant.AccountLedgerErrorCode;
 import io.nuls.account.ledger.model.TransactionInfo;
 import io.nuls.account.ledger.storage.po.TransactionInfoPo;
 import io.nuls.account.ledger.storage.service.TransactionInfoStorageService;
-import io.nuls.account.ledger.storage.service.impl.TransactionInfoStorageServiceImpl;
 import io.nuls.consensus.constant.ConsensusConstant;
 import io.nuls.core.tools.array.ArraysTool;
 import io.nuls.core.tools.log.Log;
+import io.nuls.core.tools.page.Page;
 import io.nuls.kernel.constant.KernelErrorCode;
 import io.nuls.kernel.exception.NulsException;
 import io.nuls.kernel.lite.annotation.Autowired;
@@ -41,9 +39,7 @@ import io.nuls.kernel.lite.annotation.Component;
 import io.nuls.kernel.model.Result;
 import io.nuls.kernel.utils.AddressTool;
 
-import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -61,13 +57,11 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
             List<TransactionInfoPo> infoPoList = transactionInfoStorageService.getTransactionInfoListByAddress(address);
             List<TransactionInfo> infoList = new ArrayList<>();
             for (TransactionInfoPo po : infoPoList) {
-                if (po.getTxType() == ConsensusConstant.TX_TYPE_RED_PUNISH || po.getTxType() == ConsensusConstant.TX_TYPE_YELLOW_PUNISH) {
+                if (isPunishTx(po.getTxType())) {
                     continue;
                 }
                 infoList.add(po.toTransactionInfo());
             }
-
-            Collections.sort(infoList, TxInfoComparator.getInstance());
             return Result.getSuccess().setData(infoList);
         } catch (NulsException e) {
             Log.error(e);
@@ -75,6 +69,36 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
         }
     }
 
+    @Override
+    public Result<Page<TransactionInfo>> getTxInfoList(byte[] address, int type, int pageNumber, int pageSize) {
+        if (address == null || pageNumber <= 0 || pageSize <= 0) {
+            return Result.getFailed(KernelErrorCode.PARAMETER_ERROR);
+        }
+        try {
+            Page<TransactionInfo> page = new Page<>(pageNumber, pageSize);
+            int start = (pageNumber - 1) * pageSize;
+            List<TransactionInfoPo> infoPoList;
+            if (type <= 0) {
+                page.setTotal(transactionInfoStorageService.getTransactionInfoCount(address));
+                infoPoList = transactionInfoStorageService.getTransactionInfoListByAddress(address, start, pageSize);
+            } else {
+                page.setTotal(transactionInfoStorageService.getTransactionInfoCount(address, type));
+                infoPoList = transactionInfoStorageService.getTransactionInfoListByAddress(address, type, start, pageSize);
+            }
+            // 红黄牌交易不会保存，分页结果无需再过滤
+            // Punish transactions are never stored, the page needs no further filtering
+            List<TransactionInfo> infoList = new ArrayList<>();
+            for (TransactionInfoPo po : infoPoList) {
+                infoList.add(po.toTransactionInfo());
+            }
+            page.setList(infoList);
+            return Result.getSuccess().setData(page);
+        } catch (NulsException e) {
+            Log.error(e);
+            return Result.getFailed(e.getErrorCode());
+        }
+    }
+
     @Override
     public Result<Integer> saveTransactionInfo(TransactionInfoPo infoPo, List<byte[]> addresses) {
         if (infoPo == null) {
@@ -85,43 +109,35 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
             return Result.getSuccess().setData(new Integer(0));
         }
 
-        List<byte[]> savedKeyList = new ArrayList<>();
+        // 红黄牌交易不展示在交易记录中，不需要保存
+        if (isPunishTx(infoPo.getTxType())) {
+            return Result.getSuccess().setData(new Integer(0));
+        }
 
-        try {
-            for (int i = 0; i < addresses.size(); i++) {
-                byte[] infoKey = new byte[AddressTool.HASH_LENGTH + infoPo.getTxHash().size()];
-                System.arraycopy(addresses.get(i), 0, infoKey, 0, AddressTool.HASH_LENGTH);
-                System.arraycopy(infoPo.getTxHash().serialize(), 0, infoKey, AddressTool.HASH_LENGTH, infoPo.getTxHash().size());
-                transactionInfoStorageService.saveTransactionInfo(infoKey, infoPo);
-                savedKeyList.add(infoKey);
-            }
-        } catch (IOException e) {
-            for (int i = 0; i < savedKeyList.size(); i++) {
-                transactionInfoStorageService.deleteTransactionInfo(savedKeyList.get(i));
+        List<byte[]> savedAddressList = new ArrayList<>();
+        for (int i = 0; i < addresses.size(); i++) {
+            Result result = transactionInfoStorageService.saveTransactionInfo(addresses.get(i), infoPo);
+            if (result.isFailed()) {
+                for (int j = 0; j < savedAddressList.size(); j++) {
+                    transactionInfoStorageService.deleteTransactionInfo(savedAddressList.get(j), infoPo.getTxHash());
+                }
+                return result;
             }
-            return Result.getFailed(AccountLedgerErrorCode.IO_ERROR);
+            savedAddressList.add(addresses.get(i));
         }
         return Result.getSuccess().setData(new Integer(addresses.size()));
     }
 
     @Override
     public Result deleteTransactionInfo(TransactionInfoPo infoPo) {
-        byte[] infoBytes = null;
-        if (infoPo == null) {
+        if (infoPo == null || infoPo.getTxHash() == null) {
             return Result.getFailed(KernelErrorCode.NULL_PARAMETER);
         }
 
-        try {
-            infoBytes = infoPo.serialize();
-        } catch (IOException e) {
-            return Result.getFailed(AccountLedgerErrorCode.IO_ERROR);
-        }
-
-        if (ArraysTool.isEmptyOrNull(infoBytes)) {
+        byte[] addresses = infoPo.getAddresses();
+        if (ArraysTool.isEmptyOrNull(addresses)) {
             return Result.getFailed(KernelErrorCode.NULL_PARAMETER);
         }
-
-        byte[] addresses = infoPo.getAddresses();
         if (addresses.length % AddressTool.HASH_LENGTH != 0) {
             return Result.getFailed(KernelErrorCode.PARAMETER_ERROR);
         }
@@ -129,17 +145,15 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
         int addressCount = addresses.length / AddressTool.HASH_LENGTH;
 
         for (int i = 0; i < addressCount; i++) {
-
-            byte[] infoKey = new byte[AddressTool.HASH_LENGTH + infoPo.getTxHash().size()];
-            System.arraycopy(addresses, i * AddressTool.HASH_LENGTH, infoKey, 0, AddressTool.HASH_LENGTH);
-            try {
-                System.arraycopy(infoPo.getTxHash().serialize(), 0, infoKey, AddressTool.HASH_LENGTH, infoPo.getTxHash().size());
-            } catch (IOException e) {
-                Log.info(e.getMessage());
-            }
-            transactionInfoStorageService.deleteTransactionInfo(infoKey);
+            byte[] address = new byte[AddressTool.HASH_LENGTH];
+            System.arraycopy(addresses, i * AddressTool.HASH_LENGTH, address, 0, AddressTool.HASH_LENGTH);
+            transactionInfoStorageService.deleteTransactionInfo(address, infoPo.getTxHash());
         }
 
         return Result.getSuccess().setData(new Integer(addressCount));
     }
+
+    private boolean isPunishTx(int txType) {
+        return txType == ConsensusConstant.TX_TYPE_RED_PUNISH || txType == ConsensusConstant.TX_TYPE_YELLOW_PUNISH;
+    }
 }
@@ -384,39 +384,18 @@ public class AccountLedgerResource {
             return Result.getFailed(AccountLedgerErrorCode.PARAMETER_ERROR).toRpcClientResult();
         }
 
-        Result<List<TransactionInfo>> rawResult = accountLedgerService.getTxInfoList(addressBytes);
+        Result<Page<TransactionInfo>> rawResult = accountLedgerService.getTxInfoList(addressBytes, type, pageNumber, pageSize);
         if (rawResult.isFailed()) {
             dtoResult.setSuccess(false);
             dtoResult.setErrorCode(rawResult.getErrorCode());
             return dtoResult.toRpcClientResult();
         }
 
-        List<TransactionInfo> result = new ArrayList<TransactionInfo>();
-        if (type == -1) {
-            result = rawResult.getData();
-        } else {
-            for (TransactionInfo txInfo : rawResult.getData()) {
-                if (txInfo.getTxType() == type) {
-                    result.add(txInfo);
-                }
-            }
-        }
-
-        Page<TransactionInfoDto> page = new Page<>(pageNumber, pageSize, result.size());
-        int start = pageNumber * pageSize - pageSize;
-        if (start >= page.getTotal()) {
-            dtoResult.setData(page);
-            return dtoResult.toRpcClientResult();
-        }
-
-        int end = start + pageSize;
-        if (end > page.getTotal()) {
-            end = (int) page.getTotal();
-        }
+        Page<TransactionInfoDto> page = new Page<>(pageNumber, pageSize);
+        page.setTotal(rawResult.getData().getTotal());
 
         List<TransactionInfoDto> infoDtoList = new ArrayList<>();
-        for (int i = start; i < end; i++) {
-            TransactionInfo info = result.get(i);
+        for (TransactionInfo info : rawResult.getData().getList()) {
             Transaction tx = ledgerService.getTx(info.getTxHash());
             if (tx == null) {
                 tx = accountLedgerService.getUnconfirmedTransaction(info.getTxHash()).getData();
@@ -39,5 +39,10 @@ public interface AccountLedgerStorageConstant {
     String DB_NAME_ACCOUNT_LEDGER_TX_INDEX = "account_ledger_tx_index";
     String DB_NAME_ACCOUNT_LEDGER_TX = "account_ledger_tx";
     String DB_NAME_ACCOUNT_LEDGER_COINDATA = "account_ledger_coindata";
+    /**
+     * 按地址查询本地UTXO的索引表，key = owner + UTXO key(txHash + index)
+     * The index table for looking up the local UTXOs of an address, key = owner + UTXO key(txHash + index)
+     */
+    String DB_NAME_ACCOUNT_LEDGER_COINDATA_OWNER = "account_ledger_coindata_owner";
 
 }
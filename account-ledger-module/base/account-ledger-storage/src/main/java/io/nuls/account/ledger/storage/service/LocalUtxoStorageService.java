@@ -28,7 +28,6 @@ import io.nuls.db.model.Entry;
 import io.nuls.kernel.model.Coin;
 import io.nuls.kernel.model.Result;
 
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -47,7 +46,14 @@ public interface LocalUtxoStorageService {
 
     Result batchDeleteUTXO(Set<byte[]> utxos);
 
-    Collection<Entry<byte[], byte[]>> loadAllCoinList();
+    /**
+     * 获取指定地址的所有本地UTXO，key为UTXO的key(txHash + index)
+     * Get all the local UTXOs owned by the address, the key of each entry is the UTXO key (txHash + index).
+     *
+     * @param owner
+     * @return
+     */
+    List<Entry<byte[], Coin>> getCoinListByOwner(byte[] owner);
 
     Result batchSaveAndDeleteUTXO(List<Entry<byte[], byte[]>> utxosToSave, List<byte[]> utxosToDelete);
 
@@ -26,6 +26,7 @@ package io.nuls.account.ledger.storage.service;
 
 import io.nuls.account.ledger.storage.po.TransactionInfoPo;
 import io.nuls.kernel.exception.NulsException;
+import io.nuls.kernel.model.NulsDigestData;
 import io.nuls.kernel.model.Result;
 
 import java.util.List;
@@ -36,9 +37,41 @@ import java.util.List;
  */
 public interface TransactionInfoStorageService {
 
-    Result saveTransactionInfo(byte[] key, TransactionInfoPo tx);
+    /**
+     * 保存地址相关的交易记录，交易已存在时(如确认后)更新其高度和状态
+     * Save the transaction info of the address, update the height and status if it already exists (e.g. after confirmation).
+     */
+    Result saveTransactionInfo(byte[] address, TransactionInfoPo tx);
 
-    Result deleteTransactionInfo(byte[] infoKey);
+    Result deleteTransactionInfo(byte[] address, NulsDigestData txHash);
 
+    /**
+     * 按高度倒序获取地址的所有交易记录
+     * Get all the transaction info of the address, ordered by height descending.
+     */
     List<TransactionInfoPo> getTransactionInfoListByAddress(byte[] address) throws NulsException;
+
+    /**
+     * 按高度倒序分页获取地址的交易记录，只读取[start, start + limit)范围内的记录
+     * Get a page of the transaction info of the address ordered by height descending, only [start, start + limit) is read.
+     */
+    List<TransactionInfoPo> getTransactionInfoListByAddress(byte[] address, int start, int limit) throws NulsException;
+
+    /**
+     * 按高度倒序分页获取地址某一类型的交易记录，只读取该类型[start, start + limit)范围内的记录
+     * Get a page of the transaction info of the address with the tx type ordered by height descending, only [start, start + limit) of that type is read.
+     */
+    List<TransactionInfoPo> getTransactionInfoListByAddress(byte[] address, int txType, int start, int limit) throws NulsException;
+
+    /**
+     * 获取地址的交易记录总数
+     * Get the total count of the transaction info of the address.
+     */
+    long getTransactionInfoCount(byte[] address);
+
+    /**
+     * 获取地址某一类型的交易记录总数
+     * Get the total count of the transaction info of the address with the tx type.
+     */
+    long getTransactionInfoCount(byte[] address, int txType);
 }
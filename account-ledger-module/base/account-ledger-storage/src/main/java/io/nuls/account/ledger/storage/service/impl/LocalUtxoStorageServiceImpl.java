@@ -26,10 +26,12 @@ package io.nuls.account.ledger.storage.service.impl;
 
 import io.nuls.account.ledger.storage.constant.AccountLedgerStorageConstant;
 import io.nuls.account.ledger.storage.service.LocalUtxoStorageService;
+import io.nuls.core.tools.array.ArraysTool;
 import io.nuls.core.tools.log.Log;
 import io.nuls.db.constant.DBErrorCode;
 import io.nuls.db.model.Entry;
 import io.nuls.db.service.BatchOperation;
+import io.nuls.db.service.DBCursor;
 import io.nuls.db.service.DBService;
 import io.nuls.kernel.exception.NulsException;
 import io.nuls.kernel.exception.NulsRuntimeException;
@@ -43,11 +45,34 @@ import io.nuls.ledger.service.LedgerService;
 import java.util.*;
 
 /**
+ * 本地UTXO存储
+ * DB_NAME_ACCOUNT_LEDGER_COINDATA: UTXO key(txHash + index) -> coin
+ * DB_NAME_ACCOUNT_LEDGER_COINDATA_OWNER: owner + UTXO key -> empty, prefix scanned by owner; 重建完成标记
+ *
+ * Local UTXO storage
+ * DB_NAME_ACCOUNT_LEDGER_COINDATA: UTXO key(txHash + index) -> coin
+ * DB_NAME_ACCOUNT_LEDGER_COINDATA_OWNER: owner + UTXO key -> empty, prefix scanned by owner; the rebuild completion marker
+ *
  * @author Facjas
  * @date 2018/5/10.
  */
 @Component
 public class LocalUtxoStorageServiceImpl implements LocalUtxoStorageService, InitializingBean {
+
+    private static final byte[] EMPTY_VALUE = new byte[0];
+
+    /**
+     * 索引重建完成的标记，比地址短，不会出现在任何owner前缀下
+     * The marker of a completed index rebuild, shorter than an address so it is never under an owner prefix.
+     */
+    private static final byte[] OWNER_INDEX_REBUILT_KEY = "owner_index_rebuilt".getBytes();
+
+    /**
+     * 重建索引时每个批量操作最多写入的行数
+     * The max rows written by one batch while rebuilding the index.
+     */
+    private static final int REBUILD_BATCH_SIZE = 10000;
+
     /**
      * 通用数据存储服务
      * Universal data storage services.
@@ -58,8 +83,6 @@ public class LocalUtxoStorageServiceImpl implements LocalUtxoStorageService, Ini
     @Autowired
     private LedgerService ledgerService;
 
-    private Map<String, Entry<byte[], byte[]>> cacheMap;
-
     @Override
     public void afterPropertiesSet() throws NulsException {
 
@@ -67,110 +90,141 @@ public class LocalUtxoStorageServiceImpl implements LocalUtxoStorageService, Ini
         if (result.isFailed() && !DBErrorCode.DB_AREA_EXIST.equals(result.getErrorCode())) {
             throw new NulsRuntimeException(result.getErrorCode());
         }
+        result = dbService.createArea(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA_OWNER);
+        if (result.isFailed() && !DBErrorCode.DB_AREA_EXIST.equals(result.getErrorCode())) {
+            throw new NulsRuntimeException(result.getErrorCode());
+        }
+        if (dbService.get(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA_OWNER, OWNER_INDEX_REBUILT_KEY) == null) {
+            rebuildOwnerIndex();
+        }
     }
 
     @Override
-    public Collection<Entry<byte[], byte[]>> loadAllCoinList() {
-        if(cacheMap == null) {
-            cacheMap = new HashMap<>();
-
-            List<Entry<byte[], byte[]>> coinList = dbService.entryList(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA);
-            for(Entry<byte[], byte[]> entry : coinList) {
-                cacheMap.put(new String(entry.getKey()), entry);
+    public List<Entry<byte[], Coin>> getCoinListByOwner(byte[] owner) {
+        List<Entry<byte[], Coin>> coinList = new ArrayList<>();
+        if (owner == null) {
+            return coinList;
+        }
+        try (DBCursor cursor = dbService.seek(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA_OWNER, owner)) {
+            if (cursor == null) {
+                return coinList;
+            }
+            byte[] ownerKey;
+            while (cursor.hasNext()) {
+                ownerKey = cursor.next().getKey();
+                if (ownerKey.length <= owner.length) {
+                    continue;
+                }
+                byte[] utxoKey = Arrays.copyOfRange(ownerKey, owner.length, ownerKey.length);
+                // 索引先于UTXO写入、晚于UTXO删除，以UTXO表为准
+                // the index is written before and deleted after the UTXO, so the UTXO table is authoritative
+                byte[] coinBytes = dbService.get(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA, utxoKey);
+                if (coinBytes == null) {
+                    continue;
+                }
+                Coin coin = new Coin();
+                try {
+                    coin.parse(coinBytes);
+                } catch (NulsException e) {
+                    Log.info("parse coin form db error");
+                    continue;
+                }
+                if (Arrays.equals(coin.getOwner(), owner)) {
+                    coinList.add(new Entry<>(utxoKey, coin));
+                }
             }
         }
-        return cacheMap.values();
+        return coinList;
     }
 
     @Override
     public Result saveUTXO(byte[] key, byte[] value) {
-        Result result = dbService.put(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA, key, value);
-
-        if(result.isSuccess() && cacheMap != null) {
-            cacheMap.put(new String(key), new Entry(key, value));
+        byte[] ownerKey = getOwnerKey(key, value);
+        if (ownerKey != null) {
+            Result result = dbService.put(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA_OWNER, ownerKey, EMPTY_VALUE);
+            if (result.isFailed()) {
+                return result;
+            }
         }
-
-        return result;
+        return dbService.put(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA, key, value);
     }
 
     @Override
     public Result<Integer> batchSaveUTXO(Map<byte[], byte[]> utxos) {
         BatchOperation batch = dbService.createWriteBatch(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA);
+        BatchOperation ownerBatch = dbService.createWriteBatch(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA_OWNER);
         Set<Map.Entry<byte[], byte[]>> utxosToSaveEntries = utxos.entrySet();
         for(Map.Entry<byte[], byte[]> entry : utxosToSaveEntries) {
             batch.put(entry.getKey(), entry.getValue());
+            putOwnerIndex(ownerBatch, entry.getKey(), entry.getValue());
         }
-        Result batchResult = batch.executeBatch();
+        Result batchResult = ownerBatch.executeBatch();
         if (batchResult.isFailed()) {
             return batchResult;
         }
-        Result result = Result.getSuccess().setData(new Integer(utxos.size()));
-
-        if(result.isSuccess() && cacheMap != null) {
-            for(Map.Entry<byte[], byte[]> entry : utxosToSaveEntries) {
-                cacheMap.put(new String(entry.getKey()), new Entry(entry.getKey(), entry.getValue()));
-            }
+        batchResult = batch.executeBatch();
+        if (batchResult.isFailed()) {
+            return batchResult;
         }
-
-        return result;
+        return Result.getSuccess().setData(new Integer(utxos.size()));
     }
 
     @Override
     public Result deleteUTXO(byte[] key) {
+        byte[] ownerKey = getOwnerKey(key, getUtxoBytes(key));
         Result result = dbService.delete(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA, key);
-        if(result.isSuccess() && cacheMap != null) {
-            cacheMap.remove(new String(key));
+        if (result.isFailed() || ownerKey == null) {
+            return result;
         }
-        return result;
+        return dbService.delete(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA_OWNER, ownerKey);
     }
 
     @Override
     public Result batchDeleteUTXO(Set<byte[]> utxos) {
         BatchOperation batch = dbService.createWriteBatch(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA);
+        BatchOperation ownerBatch = dbService.createWriteBatch(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA_OWNER);
         for (byte[] key : utxos) {
             batch.delete(key);
+            deleteOwnerIndex(ownerBatch, key);
         }
         Result batchResult = batch.executeBatch();
         if (batchResult.isFailed()) {
             return batchResult;
         }
-        Result result = Result.getSuccess().setData(new Integer(utxos.size()));
-
-        if(result.isSuccess() && cacheMap != null) {
-            for (byte[] key : utxos) {
-                cacheMap.remove(new String(key));
-            }
+        batchResult = ownerBatch.executeBatch();
+        if (batchResult.isFailed()) {
+            return batchResult;
         }
-        return result;
+        return Result.getSuccess().setData(new Integer(utxos.size()));
     }
 
     @Override
     public Result batchSaveAndDeleteUTXO(List<Entry<byte[], byte[]>> utxosToSave, List<byte[]> utxosToDelete) {
         BatchOperation batch = dbService.createWriteBatch(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA);
+        BatchOperation ownerSaveBatch = dbService.createWriteBatch(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA_OWNER);
+        BatchOperation ownerDeleteBatch = dbService.createWriteBatch(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA_OWNER);
         for (byte[] key : utxosToDelete) {
             batch.delete(key);
+            deleteOwnerIndex(ownerDeleteBatch, key);
         }
         for(Entry<byte[], byte[]> entry : utxosToSave) {
             batch.put(entry.getKey(), entry.getValue());
+            putOwnerIndex(ownerSaveBatch, entry.getKey(), entry.getValue());
         }
-        Result batchResult = batch.executeBatch();
+        Result batchResult = ownerSaveBatch.executeBatch();
         if (batchResult.isFailed()) {
             return batchResult;
         }
-        Result result = Result.getSuccess().setData(new Integer(utxosToSave.size() + utxosToDelete.size()));
-
-        if(result.isSuccess() && cacheMap != null) {
-            for(Entry<byte[], byte[]> entry : utxosToSave) {
-                cacheMap.put(new String(entry.getKey()), entry);
-            }
-            for (byte[] key : utxosToDelete) {
-                cacheMap.remove(new String(key));
-            }
+        batchResult = batch.executeBatch();
+        if (batchResult.isFailed()) {
+            return batchResult;
         }
-
-        return result;
+        batchResult = ownerDeleteBatch.executeBatch();
+        if (batchResult.isFailed()) {
+            return batchResult;
+        }
+        return Result.getSuccess().setData(new Integer(utxosToSave.size() + utxosToDelete.size()));
     }
-
     @Override
     public byte[] getUtxoBytes(byte[] owner) {
         if (owner == null) {
@@ -194,4 +248,73 @@ public class LocalUtxoStorageServiceImpl implements LocalUtxoStorageService, Ini
         }
         return coin;
     }
+
+    private void putOwnerIndex(BatchOperation ownerBatch, byte[] key, byte[] value) {
+        byte[] ownerKey = getOwnerKey(key, value);
+        if (ownerKey != null) {
+            ownerBatch.put(ownerKey, EMPTY_VALUE);
+        }
+    }
+
+    private void deleteOwnerIndex(BatchOperation ownerBatch, byte[] key) {
+        byte[] ownerKey = getOwnerKey(key, getUtxoBytes(key));
+        if (ownerKey != null) {
+            ownerBatch.delete(ownerKey);
+        }
+    }
+
+    private byte[] getOwnerKey(byte[] key, byte[] value) {
+        if (key == null || value == null) {
+            return null;
+        }
+        Coin coin = new Coin();
+        try {
+            coin.parse(value);
+        } catch (NulsException e) {
+            Log.info("parse coin form db error");
+            return null;
+        }
+        if (coin.getOwner() == null) {
+            return null;
+        }
+        return ArraysTool.joinintTogether(coin.getOwner(), key);
+    }
+
+    /**
+     * 没有完成标记时从已有的UTXO表重建索引，按REBUILD_BATCH_SIZE分批提交，最后写入完成标记，
+     * 中途中断时下次启动重新执行，重复写入的索引行相同
+     * Rebuild the owner index from the existing UTXO table while the completion marker is missing, committed in batches of
+     * REBUILD_BATCH_SIZE and the marker written at last, an interrupted rebuild runs again on the next start,
+     * the index rows written again are identical.
+     */
+    private void rebuildOwnerIndex() {
+        BatchOperation ownerBatch = dbService.createWriteBatch(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA_OWNER);
+        if (ownerBatch == null) {
+            return;
+        }
+        int batchSize = 0;
+        try (DBCursor cursor = dbService.seek(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA, null)) {
+            if (cursor != null) {
+                Entry<byte[], byte[]> entry;
+                while (cursor.hasNext()) {
+                    entry = cursor.next();
+                    putOwnerIndex(ownerBatch, entry.getKey(), entry.getValue());
+                    if (++batchSize >= REBUILD_BATCH_SIZE) {
+                        Result result = ownerBatch.executeBatch();
+                        if (result.isFailed()) {
+                            Log.error("rebuild utxo owner index error: " + result.getMsg());
+                            return;
+                        }
+                        ownerBatch = dbService.createWriteBatch(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_COINDATA_OWNER);
+                        batchSize = 0;
+                    }
+                }
+            }
+        }
+        ownerBatch.put(OWNER_INDEX_REBUILT_KEY, new byte[]{1});
+        Result result = ownerBatch.executeBatch();
+        if (result.isFailed()) {
+            Log.error("rebuild utxo owner index error: " + result.getMsg());
+        }
+    }
 }
@@ -25,12 +25,18 @@
 package io.nuls.account.ledger.storage.service.impl;
 
 import io.nuls.account.ledger.constant.AccountLedgerErrorCode;
+import io.nuls.account.ledger.model.TransactionInfo;
 import io.nuls.account.ledger.storage.constant.AccountLedgerStorageConstant;
 import io.nuls.account.ledger.storage.po.TransactionInfoPo;
 import io.nuls.account.ledger.storage.service.TransactionInfoStorageService;
+import io.nuls.consensus.constant.ConsensusConstant;
 import io.nuls.core.tools.array.ArraysTool;
+import io.nuls.core.tools.crypto.Hex;
 import io.nuls.core.tools.log.Log;
 import io.nuls.db.constant.DBErrorCode;
+import io.nuls.db.model.Entry;
+import io.nuls.db.service.BatchOperation;
+import io.nuls.db.service.DBCursor;
 import io.nuls.db.service.DBService;
 import io.nuls.kernel.constant.KernelErrorCode;
 import io.nuls.kernel.exception.NulsException;
@@ -38,57 +44,205 @@ import io.nuls.kernel.exception.NulsRuntimeException;
 import io.nuls.kernel.lite.annotation.Autowired;
 import io.nuls.kernel.lite.annotation.Component;
 import io.nuls.kernel.lite.core.bean.InitializingBean;
+import io.nuls.kernel.model.NulsDigestData;
 import io.nuls.kernel.model.Result;
 import io.nuls.kernel.utils.AddressTool;
+import io.nuls.kernel.utils.SerializeUtils;
 
-import javax.naming.PartialResultException;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * 交易记录存储，一条交易记录的所有行都在DB_NAME_ACCOUNT_LEDGER_TX_INDEX中，保存和删除用一个批量操作提交
+ * address + txHash -> 交易记录
+ * address -> 该地址的交易总数
+ * address + TYPE_COUNT_ROW + txType -> 该地址该类型的交易总数
+ * address + HISTORY_ROW + 倒序高度 + txHash -> 交易记录，按地址前缀分页查询
+ * address + TYPE_HISTORY_ROW + txType + 倒序高度 + txHash -> 交易记录，按地址和类型前缀分页查询
+ * 红黄牌交易不展示在交易记录中，不保存
+ * Transaction info storage, all the rows of a transaction info are in DB_NAME_ACCOUNT_LEDGER_TX_INDEX,
+ * saving and deleting commit them in one batch.
+ * address + txHash -> transaction info
+ * address -> the transaction count of the address
+ * address + TYPE_COUNT_ROW + txType -> the transaction count of the address with the type
+ * address + HISTORY_ROW + inverted height + txHash -> transaction info, paged by address prefix
+ * address + TYPE_HISTORY_ROW + txType + inverted height + txHash -> transaction info, paged by address + type prefix
+ * Red/yellow punish transactions are not shown in the history and are not stored
+ *
  * author Facjas
  * date 2018/5/22.
  */
 @Component
 public class TransactionInfoStorageServiceImpl implements TransactionInfoStorageService, InitializingBean {
+
+    private static final int HEIGHT_LENGTH = 8;
+
+    /**
+     * 地址后的行类型标记，txHash序列化后的第一个字节是摘要算法(0或1)，不会与这些标记相同
+     * The row type tags after the address, the first byte of a serialized txHash is the digest algorithm (0 or 1),
+     * which never equals these tags.
+     */
+    private static final byte TYPE_COUNT_ROW = (byte) 0xFD;
+    private static final byte HISTORY_ROW = (byte) 0xFE;
+    private static final byte TYPE_HISTORY_ROW = (byte) 0xFF;
+
+    /**
+     * 分页索引重建完成的标记，比地址短，不会出现在任何地址前缀下
+     * The marker of a completed paging index rebuild, shorter than an address so it is never under an address prefix.
+     */
+    private static final byte[] HISTORY_REBUILT_KEY = "tx_history_rebuilt".getBytes();
+
+    /**
+     * 重建分页索引时每个批量操作最多写入的行数
+     * The max rows written by one batch while rebuilding the paging indexes.
+     */
+    private static final int REBUILD_BATCH_SIZE = 10000;
+
     @Autowired
     private DBService dbService;
 
+    private Lock lock = new ReentrantLock();
+
     @Override
     public void afterPropertiesSet() throws NulsException {
         Result result = dbService.createArea(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_TX_INDEX);
         if (result.isFailed() && !DBErrorCode.DB_AREA_EXIST.equals(result.getErrorCode())) {
             throw new NulsRuntimeException(result.getErrorCode());
         }
+        if (dbService.get(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_TX_INDEX, HISTORY_REBUILT_KEY) == null) {
+            rebuildHistory();
+        }
     }
 
     @Override
-    public Result saveTransactionInfo(byte[] infoKey, TransactionInfoPo infoPo) {
-        try {
-            dbService.put(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_TX_INDEX, infoKey, infoPo.serialize());
+    public Result saveTransactionInfo(byte[] address, TransactionInfoPo infoPo) {
+        if (address == null || infoPo == null || infoPo.getTxHash() == null) {
+            return Result.getFailed(KernelErrorCode.NULL_PARAMETER);
+        }
+        if (isPunishTx(infoPo.getTxType())) {
             return Result.getSuccess();
+        }
+        lock.lock();
+        try {
+            byte[] indexKey = getIndexKey(address, infoPo.getTxHash());
+            byte[] historyKey = getHistoryKey(address, infoPo);
+            byte[] typeHistoryKey = getTypeHistoryKey(address, infoPo);
+            byte[] infoBytes = infoPo.serialize();
+
+            BatchOperation batch = dbService.createWriteBatch(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_TX_INDEX);
+            if (batch == null) {
+                return Result.getFailed(KernelErrorCode.DB_UNKOWN_EXCEPTION);
+            }
+            byte[] oldInfoBytes = dbService.get(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_TX_INDEX, indexKey);
+            if (oldInfoBytes == null) {
+                batch.put(address, SerializeUtils.uint64ToByteArray(getTransactionInfoCount(address) + 1));
+                batch.put(getTypeCountKey(address, infoPo.getTxType()), SerializeUtils.uint64ToByteArray(getTransactionInfoCount(address, infoPo.getTxType()) + 1));
+            } else {
+                // 交易确认后高度和状态改变，需要删除旧的分页索引
+                TransactionInfoPo oldInfoPo = new TransactionInfoPo();
+                oldInfoPo.parse(oldInfoBytes);
+                byte[] oldHistoryKey = getHistoryKey(address, oldInfoPo);
+                if (!Arrays.equals(oldHistoryKey, historyKey)) {
+                    batch.delete(oldHistoryKey);
+                }
+                byte[] oldTypeHistoryKey = getTypeHistoryKey(address, oldInfoPo);
+                if (!Arrays.equals(oldTypeHistoryKey, typeHistoryKey)) {
+                    batch.delete(oldTypeHistoryKey);
+                }
+            }
+            batch.put(historyKey, infoBytes);
+            batch.put(typeHistoryKey, infoBytes);
+            batch.put(indexKey, infoBytes);
+            return batch.executeBatch();
+        } catch (Exception e) {
+            Log.error(e);
+            return Result.getFailed(AccountLedgerErrorCode.IO_ERROR);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Result deleteTransactionInfo(byte[] address, NulsDigestData txHash) {
+        if (address == null || txHash == null) {
+            return Result.getFailed(KernelErrorCode.NULL_PARAMETER);
+        }
+        lock.lock();
+        try {
+            byte[] indexKey = getIndexKey(address, txHash);
+            byte[] infoBytes = dbService.get(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_TX_INDEX, indexKey);
+            if (infoBytes == null) {
+                return Result.getSuccess();
+            }
+            TransactionInfoPo infoPo = new TransactionInfoPo();
+            infoPo.parse(infoBytes);
+
+            BatchOperation batch = dbService.createWriteBatch(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_TX_INDEX);
+            if (batch == null) {
+                return Result.getFailed(KernelErrorCode.DB_UNKOWN_EXCEPTION);
+            }
+            batch.delete(getHistoryKey(address, infoPo));
+            batch.delete(getTypeHistoryKey(address, infoPo));
+            batch.delete(indexKey);
+            long count = getTransactionInfoCount(address) - 1;
+            if (count > 0) {
+                batch.put(address, SerializeUtils.uint64ToByteArray(count));
+            } else {
+                batch.delete(address);
+            }
+            byte[] typeCountKey = getTypeCountKey(address, infoPo.getTxType());
+            long typeCount = getTransactionInfoCount(address, infoPo.getTxType()) - 1;
+            if (typeCount > 0) {
+                batch.put(typeCountKey, SerializeUtils.uint64ToByteArray(typeCount));
+            } else {
+                batch.delete(typeCountKey);
+            }
+            return batch.executeBatch();
         } catch (Exception e) {
-            return Result.getFailed();
+            Log.error(e);
+            return Result.getFailed(AccountLedgerErrorCode.IO_ERROR);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public List<TransactionInfoPo> getTransactionInfoListByAddress(byte[] address) throws NulsException {
+        return getTransactionInfoListByAddress(address, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<TransactionInfoPo> getTransactionInfoListByAddress(byte[] address, int start, int limit) throws NulsException {
+        if (address == null) {
+            return new ArrayList<>();
+        }
+        // 地址定长，按address + HISTORY_ROW前缀遍历即为该地址按高度倒序的交易记录
+        return getTransactionInfoList(getHistoryPrefix(address), start, limit);
+    }
+
+    @Override
+    public List<TransactionInfoPo> getTransactionInfoListByAddress(byte[] address, int txType, int start, int limit) throws NulsException {
+        if (address == null) {
+            return new ArrayList<>();
+        }
+        return getTransactionInfoList(getTypeHistoryPrefix(address, txType), start, limit);
+    }
+
+    private List<TransactionInfoPo> getTransactionInfoList(byte[] prefix, int start, int limit) throws NulsException {
         List<TransactionInfoPo> infoPoList = new ArrayList<>();
-        Set<byte[]> keySet = dbService.keySet(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_TX_INDEX);
-        if (keySet == null || keySet.isEmpty()) {
+        if (limit <= 0) {
             return infoPoList;
         }
-
-        byte[] addressKey = new byte[AddressTool.HASH_LENGTH];
-        for (byte[] key : keySet) {
-            System.arraycopy(key, 0, addressKey, 0, AddressTool.HASH_LENGTH);
-            if (java.util.Arrays.equals(addressKey, address)) {
-                byte[] values = dbService.get(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_TX_INDEX, key);
+        try (DBCursor cursor = dbService.seek(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_TX_INDEX, prefix)) {
+            if (cursor == null) {
+                return infoPoList;
+            }
+            cursor.skip(start).limit(limit);
+            while (cursor.hasNext()) {
                 TransactionInfoPo transactionInfoPo = new TransactionInfoPo();
-                transactionInfoPo.parse(values);
+                transactionInfoPo.parse(cursor.next().getValue());
                 infoPoList.add(transactionInfoPo);
             }
         }
@@ -96,7 +250,168 @@ public class TransactionInfoStorageServiceImpl implements TransactionInfoStorage
     }
 
     @Override
-    public Result deleteTransactionInfo(byte[] infoKey) {
-        return dbService.delete(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_TX_INDEX, infoKey);
+    public long getTransactionInfoCount(byte[] address) {
+        if (address == null) {
+            return 0L;
+        }
+        return getCount(address);
+    }
+
+    @Override
+    public long getTransactionInfoCount(byte[] address, int txType) {
+        if (address == null) {
+            return 0L;
+        }
+        return getCount(getTypeCountKey(address, txType));
+    }
+
+    private long getCount(byte[] countKey) {
+        byte[] countBytes = dbService.get(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_TX_INDEX, countKey);
+        if (countBytes == null) {
+            return 0L;
+        }
+        return SerializeUtils.readInt64(countBytes, 0);
+    }
+
+    /**
+     * 旧版本只有address + txHash的记录行，没有完成标记时从中重建分页索引，并统计每个地址及每个类型的交易总数；
+     * 分页索引行按REBUILD_BATCH_SIZE分批提交，计数和完成标记最后一起提交，中途中断时下次启动重新执行，
+     * 重复写入的行相同，计数整体覆盖；旧版本保存的红黄牌交易记录在此时删除，不进入分页索引
+     * Older versions only have the address + txHash rows, rebuild the paging indexes from them while the completion marker
+     * is missing, and count the transactions of each address and each type.
+     * The paging index rows are committed in batches of REBUILD_BATCH_SIZE, the counts and the completion marker are committed
+     * together at last, an interrupted rebuild runs again on the next start, the rows written again are identical and the counts
+     * are overwritten as a whole. Red/yellow punish records saved by older versions are deleted here
+     * and never reach the paging indexes.
+     */
+    private void rebuildHistory() {
+        BatchOperation batch = dbService.createWriteBatch(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_TX_INDEX);
+        if (batch == null) {
+            return;
+        }
+        Map<String, Long> countMap = new HashMap<>();
+        int batchSize = 0;
+        int punishCount = 0;
+        try (DBCursor cursor = dbService.seek(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_TX_INDEX, null)) {
+            if (cursor != null) {
+                Entry<byte[], byte[]> entry;
+                while (cursor.hasNext()) {
+                    entry = cursor.next();
+                    if (!isIndexKey(entry.getKey())) {
+                        continue;
+                    }
+                    byte[] address = Arrays.copyOf(entry.getKey(), AddressTool.HASH_LENGTH);
+                    TransactionInfoPo infoPo = new TransactionInfoPo();
+                    try {
+                        infoPo.parse(entry.getValue());
+                        if (isPunishTx(infoPo.getTxType())) {
+                            batch.delete(entry.getKey());
+                            batchSize++;
+                            punishCount++;
+                        } else {
+                            batch.put(getHistoryKey(address, infoPo), entry.getValue());
+                            batch.put(getTypeHistoryKey(address, infoPo), entry.getValue());
+                            batchSize += 2;
+                            increase(countMap, Hex.encode(address));
+                            increase(countMap, Hex.encode(getTypeCountKey(address, infoPo.getTxType())));
+                        }
+                    } catch (Exception e) {
+                        Log.warn("rebuild transaction history error", e);
+                        continue;
+                    }
+                    if (batchSize >= REBUILD_BATCH_SIZE) {
+                        Result result = batch.executeBatch();
+                        if (result.isFailed()) {
+                            Log.error("rebuild transaction history error: " + result.getMsg());
+                            return;
+                        }
+                        batch = dbService.createWriteBatch(AccountLedgerStorageConstant.DB_NAME_ACCOUNT_LEDGER_TX_INDEX);
+                        batchSize = 0;
+                    }
+                }
+            }
+        }
+        for (Map.Entry<String, Long> entry : countMap.entrySet()) {
+            batch.put(Hex.decode(entry.getKey()), SerializeUtils.uint64ToByteArray(entry.getValue()));
+        }
+        batch.put(HISTORY_REBUILT_KEY, new byte[]{1});
+        Result result = batch.executeBatch();
+        if (result.isFailed()) {
+            Log.error("rebuild transaction history error: " + result.getMsg());
+            return;
+        }
+        if (punishCount > 0) {
+            Log.info("removed " + punishCount + " punish transaction records from the transaction history");
+        }
+    }
+
+    /**
+     * 是否为address + txHash的记录行，计数行、分页索引行和完成标记都不是
+     * Whether it is an address + txHash row, the count rows, the paging index rows and the completion marker are not.
+     */
+    private static boolean isIndexKey(byte[] key) {
+        if (key.length <= AddressTool.HASH_LENGTH) {
+            return false;
+        }
+        byte tag = key[AddressTool.HASH_LENGTH];
+        return tag != TYPE_COUNT_ROW && tag != HISTORY_ROW && tag != TYPE_HISTORY_ROW;
+    }
+
+    private static void increase(Map<String, Long> countMap, String key) {
+        Long count = countMap.get(key);
+        countMap.put(key, count == null ? 1L : count + 1);
+    }
+
+    private static boolean isPunishTx(int txType) {
+        return txType == ConsensusConstant.TX_TYPE_RED_PUNISH || txType == ConsensusConstant.TX_TYPE_YELLOW_PUNISH;
+    }
+
+    private byte[] getIndexKey(byte[] address, NulsDigestData txHash) throws IOException {
+        return ArraysTool.joinintTogether(address, txHash.serialize());
+    }
+
+    private byte[] getHistoryKey(byte[] address, TransactionInfoPo infoPo) throws IOException {
+        return ArraysTool.joinintTogether(getHistoryPrefix(address), invertHeight(infoPo), infoPo.getTxHash().serialize());
+    }
+
+    private byte[] getTypeHistoryKey(byte[] address, TransactionInfoPo infoPo) throws IOException {
+        return ArraysTool.joinintTogether(getTypeHistoryPrefix(address, infoPo.getTxType()), invertHeight(infoPo), infoPo.getTxHash().serialize());
+    }
+
+    private static byte[] getHistoryPrefix(byte[] address) {
+        return ArraysTool.joinintTogether(address, new byte[]{HISTORY_ROW});
+    }
+
+    private static byte[] getTypeCountKey(byte[] address, int txType) {
+        return ArraysTool.joinintTogether(address, new byte[]{TYPE_COUNT_ROW}, encodeType(txType));
+    }
+
+    private static byte[] getTypeHistoryPrefix(byte[] address, int txType) {
+        return ArraysTool.joinintTogether(address, new byte[]{TYPE_HISTORY_ROW}, encodeType(txType));
+    }
+
+    /**
+     * 大端编码的交易类型
+     * The tx type in big endian.
+     */
+    private static byte[] encodeType(int txType) {
+        return new byte[]{(byte) ((txType >> 8) & 0xFF), (byte) (txType & 0xFF)};
+    }
+
+    /**
+     * 高度按大端倒序编码，新的交易排在前面，未确认的交易排在最前面
+     * Encode the height inverted in big endian, so newer transactions come first and unconfirmed ones come before all.
+     */
+    private static byte[] invertHeight(TransactionInfoPo infoPo) {
+        long value = 0L;
+        if (infoPo.getStatus() == TransactionInfo.CONFIRMED) {
+            value = Long.MAX_VALUE - infoPo.getBlockHeight();
+        }
+        byte[] bytes = new byte[HEIGHT_LENGTH];
+        for (int i = HEIGHT_LENGTH - 1; i >= 0; i--) {
+            bytes[i] = (byte) (value & 0xFF);
+            value >>>= 8;
+        }
+        return bytes;
     }
 }
@@ -80,13 +80,10 @@ public class AccountCacheService {
      * @return
      */
     public Account getAccountByAddress(String address) {
-        List<Account> list = this.getAccountList();
-        for (Account account : list) {
-            if (account.getAddress().toString().equalsIgnoreCase(address)) {
-                return account;
-            }
+        if (null == address) {
+            return null;
         }
-        return null;
+        return this.cacheMap.get(address);
     }
 
     /**
@@ -50,4 +50,10 @@ public interface AccountStorageConstant {
      */
     String DB_NAME_ACCOUNT_ALIAS = "account_alias";
 
+    /**
+     * 别名存储对象的编解码器id，写入存储数据中，不能修改
+     * The codec id of the alias po, it is written into the stored data and must never change.
+     */
+    int CODEC_ID_ACCOUNT_ALIAS = 2;
+
 }
@@ -29,6 +29,8 @@ import io.nuls.account.storage.constant.AccountStorageConstant;
 import io.nuls.account.storage.po.AliasPo;
 import io.nuls.account.storage.service.AliasStorageService;
 import io.nuls.core.tools.log.Log;
+import io.nuls.db.codec.ModelCodecManager;
+import io.nuls.db.codec.NulsDataCodec;
 import io.nuls.db.constant.DBErrorCode;
 import io.nuls.db.service.DBService;
 import io.nuls.kernel.cfg.NulsConfig;
@@ -62,6 +64,7 @@ public class AliasStorageServiceImpl implements AliasStorageService, Initializin
         if (result.isFailed() && !DBErrorCode.DB_AREA_EXIST.equals(result.getErrorCode())) {
             throw new NulsRuntimeException(result.getErrorCode());
         }
+        ModelCodecManager.register(AccountStorageConstant.CODEC_ID_ACCOUNT_ALIAS, AliasPo.class, new NulsDataCodec<>(AliasPo.class));
     }
 
     @Override
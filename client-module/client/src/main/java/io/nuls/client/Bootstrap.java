@@ -46,6 +46,7 @@ import io.nuls.kernel.module.service.ModuleService;
 import io.nuls.kernel.thread.manager.TaskManager;
 import io.nuls.network.model.Node;
 import io.nuls.network.service.NetworkService;
+import io.nuls.protocol.cache.SignatureCache;
 import io.nuls.protocol.service.BlockService;
 
 import java.io.File;
@@ -92,7 +93,9 @@ public class Bootstrap {
                 Block bestBlock = NulsContext.getInstance().getBestBlock();
                 Collection<Node> nodes = NulsContext.getServiceBean(NetworkService.class).getAvailableNodes();
 
-                Log.info("bestHeight:" + bestBlock.getHeader().getHeight() + " , txCount : " + bestBlock.getHeader().getTxCount() + " , tx memory pool count : " + TxMemoryPool.getInstance().getAll().size() + " , hash : " + bestBlock.getHeader().getHash() + ",nodeCount:" + nodes.size());
+                Log.info("bestHeight:" + bestBlock.getHeader().getHeight() + " , txCount : " + bestBlock.getHeader().getTxCount() + " , tx memory pool count : " + TxMemoryPool.getInstance().size() + " , hash : " + bestBlock.getHeader().getHash() + ",nodeCount:" + nodes.size());
+                SignatureCache signatureCache = SignatureCache.getInstance();
+                Log.info("signature cache size : " + signatureCache.size() + " , hit : " + signatureCache.getHitCount() + " , miss : " + signatureCache.getMissCount() + " , hit rate : " + String.format("%.2f", signatureCache.getHitRate()));
                 for (Node node : nodes) {
                     Log.info(node.getBestBlockHeight() + ", " + node.getId() + ", " + node.getBestBlockHash());
                 }
@@ -31,6 +31,9 @@ import io.nuls.kernel.model.*;
 import io.nuls.network.model.Node;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
 
 /**
  *
@@ -84,4 +87,15 @@ public interface ConsensusService {
      */
     List<Transaction> getMemoryTxs();
 
+    /**
+     * Find the transactions in the memory pool (including the block template) by short id,
+     * the pool is walked in place instead of being copied, and the walk stops once every short id is found
+     *
+     * 按短ID查找内存池(包括打包模板)中的交易，直接遍历交易池而不复制，全部找到后停止
+     * @param shortIdSet      要查找的短ID/the short ids to find
+     * @param shortIdFunction 交易hash计算短ID的方法/computes the short id of a tx hash
+     * @return 短ID到交易的映射/the map of the short ids to the found txs
+     */
+    Map<Long, Transaction> getMemoryTxsByShortId(Set<Long> shortIdSet, ToLongFunction<NulsDigestData> shortIdFunction);
+
 }
\ No newline at end of file
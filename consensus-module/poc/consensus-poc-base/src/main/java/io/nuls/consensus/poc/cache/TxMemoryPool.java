@@ -26,30 +26,79 @@
 
 package io.nuls.consensus.poc.cache;
 
+import io.nuls.consensus.poc.config.ConsensusConfig;
 import io.nuls.consensus.poc.container.TxContainer;
+import io.nuls.core.tools.log.Log;
+import io.nuls.kernel.exception.NulsException;
+import io.nuls.kernel.model.Coin;
 import io.nuls.kernel.model.NulsDigestData;
 import io.nuls.kernel.model.Transaction;
+import io.nuls.ledger.util.LedgerUtil;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
 
 /**
+ * 交易内存池，按祖先交易包的手续费率排序打包，跟踪池内交易之间的花费依赖，
+ * 超出数量或大小上限时按后代交易包的手续费率淘汰，高费率子交易带动的低费率父交易不会被淘汰
+ * The tx memory pool, packed in the order of the ancestor package fee rate, tracks the spending dependencies between
+ * the pooled txs, and evicts by the descendant package fee rate when the count or size cap is exceeded,
+ * so a low fee parent pulled up by a high fee child is not evicted.
+ * <p>
  * Created by ln on 2018/4/13.
  */
 public final class TxMemoryPool {
 
+    /**
+     * 费率高的在前，相同时先到的在前
+     * Higher fee rate first, the earlier arrival first when equal.
+     */
+    private final static Comparator<TxContainer> SCORE_COMPARATOR = (o1, o2) -> {
+        int result = Double.compare(o2.getAncestorFeeRate(), o1.getAncestorFeeRate());
+        if (result != 0) {
+            return result;
+        }
+        return Long.compare(o1.getSequence(), o2.getSequence());
+    };
+
+    /**
+     * 淘汰分数低的在前，相同时后到的在前
+     * Lower eviction score first, the later arrival first when equal.
+     */
+    private final static Comparator<TxContainer> EVICT_COMPARATOR = (o1, o2) -> {
+        int result = Double.compare(o1.getDescendantScore(), o2.getDescendantScore());
+        if (result != 0) {
+            return result;
+        }
+        return Long.compare(o2.getSequence(), o1.getSequence());
+    };
+
     private final static TxMemoryPool INSTANCE = new TxMemoryPool();
 
     private Map<NulsDigestData, TxContainer> container;
-    private Queue<NulsDigestData> txHashQueue;
+    private TreeSet<TxContainer> scoreSet;
+    private TreeSet<TxContainer> evictSet;
+    /**
+     * 被花费的交易hash -> 池中花费它的交易，父交易晚于子交易到达时用来建立依赖
+     * The spent tx hash -> the pooled txs spending it, links the children which arrived before their parent.
+     */
+    private Map<NulsDigestData, Set<NulsDigestData>> spenderMap;
+    private long totalSize;
+    private long sequence;
 
     private Map<NulsDigestData, TxContainer> orphanContainer;
     private Queue<NulsDigestData> orphanTxHashQueue;
 
+    private final ReentrantLock lock = new ReentrantLock();
+
     private TxMemoryPool() {
-        txHashQueue = new LinkedBlockingDeque<>();
         container = new ConcurrentHashMap<>();
+        scoreSet = new TreeSet<>(SCORE_COMPARATOR);
+        evictSet = new TreeSet<>(EVICT_COMPARATOR);
+        spenderMap = new HashMap<>();
 
         orphanTxHashQueue = new LinkedBlockingDeque<>();
         orphanContainer = new ConcurrentHashMap<>();
@@ -59,47 +108,93 @@ public final class TxMemoryPool {
         return INSTANCE;
     }
 
+    /**
+     * 放回打包时取出但未能打包的交易，保留原有的入池序号
+     * Put back a tx taken out but not packed, its arrival sequence is kept.
+     */
     public boolean addInFirst(TxContainer tx, boolean isOrphan) {
-        try {
-            if(tx == null || tx.getTx() == null) {
+        if (isOrphan) {
+            if (tx == null || tx.getTx() == null) {
                 return false;
             }
-            //check Repeatability
             NulsDigestData hash = tx.getTx().getHash();
             if (orphanContainer.containsKey(hash) || container.containsKey(hash)) {
                 return false;
             }
-            if (isOrphan) {
-                orphanContainer.put(hash, tx);
-                ((LinkedBlockingDeque) orphanTxHashQueue).addFirst(hash);
-            } else {
-                container.put(hash, tx);
-                ((LinkedBlockingDeque) txHashQueue).addFirst(hash);
-            }
+            orphanContainer.put(hash, tx);
+            ((LinkedBlockingDeque) orphanTxHashQueue).addFirst(hash);
             return true;
-        } finally {
         }
+        return add(tx, false);
     }
 
     public boolean add(TxContainer tx, boolean isOrphan) {
+        if (tx == null || tx.getTx() == null) {
+            return false;
+        }
+        //check Repeatability
+        NulsDigestData hash = tx.getTx().getHash();
+        if (orphanContainer.containsKey(hash) || container.containsKey(hash)) {
+            return false;
+        }
+        if (isOrphan) {
+            orphanContainer.put(hash, tx);
+            orphanTxHashQueue.offer(hash);
+            return true;
+        }
+        lock.lock();
         try {
-            if(tx == null || tx.getTx() == null) {
+            if (container.containsKey(hash)) {
                 return false;
             }
-            //check Repeatability
-            NulsDigestData hash = tx.getTx().getHash();
-            if (orphanContainer.containsKey(hash) || container.containsKey(hash)) {
+            if (tx.getSequence() == 0L) {
+                tx.setSequence(++sequence);
+                tx.setSize(tx.getTx().size());
+                tx.setFee(getFee(tx.getTx()));
+                fillSpentHashSet(tx);
+            }
+            tx.getParentSet().clear();
+            tx.getChildSet().clear();
+            for (NulsDigestData spentHash : tx.getSpentHashSet()) {
+                if (container.containsKey(spentHash)) {
+                    tx.getParentSet().add(spentHash);
+                }
+            }
+            calcAncestors(tx);
+            if (tx.getAncestorCount() > ConsensusConfig.getMempoolMaxAncestors()) {
+                Log.debug("too many unconfirmed ancestors, tx:" + hash);
                 return false;
             }
-            if (isOrphan) {
-                orphanContainer.put(hash, tx);
-                orphanTxHashQueue.offer(hash);
-            } else {
-                container.put(hash, tx);
-                txHashQueue.offer(hash);
+            for (NulsDigestData parentHash : tx.getParentSet()) {
+                container.get(parentHash).getChildSet().add(hash);
             }
-            return true;
+            for (NulsDigestData spentHash : tx.getSpentHashSet()) {
+                spenderMap.computeIfAbsent(spentHash, key -> new HashSet<>()).add(hash);
+            }
+            container.put(hash, tx);
+            scoreSet.add(tx);
+            totalSize += tx.getSize();
+
+            // 先到达的子交易
+            // The children arrived earlier
+            Set<NulsDigestData> spenders = spenderMap.get(hash);
+            if (null != spenders) {
+                for (NulsDigestData childHash : spenders) {
+                    TxContainer child = container.get(childHash);
+                    if (null != child) {
+                        child.getParentSet().add(hash);
+                        tx.getChildSet().add(childHash);
+                    }
+                }
+                updateDescendants(tx);
+            }
+            calcDescendants(tx);
+            evictSet.add(tx);
+            rescoreAncestors(getAncestors(tx));
+            trim();
+            return container.containsKey(hash);
         } finally {
+            lock.unlock();
         }
     }
 
@@ -111,34 +206,42 @@ public final class TxMemoryPool {
      * @return TxContainer
      */
     public TxContainer get(NulsDigestData hash) {
-        try {
-            TxContainer tx = container.get(hash);
-            if (tx == null) {
-                tx = orphanContainer.get(hash);
-            }
-            return tx;
-        } finally {
+        TxContainer tx = container.get(hash);
+        if (tx == null) {
+            tx = orphanContainer.get(hash);
         }
+        return tx;
     }
 
     /**
-     * Get a TxContainer, the first TxContainer received, removed from the memory pool after acquisition
+     * Get the TxContainer of the highest ancestor package fee rate, its in-pool ancestors come out first,
+     * removed from the memory pool after acquisition
      *
-     * 获取一笔交易，最先收到的交易，获取之后从内存池中移除
+     * 获取祖先交易包费率最高的交易，池中有未打包的祖先交易时先返回祖先交易，获取之后从内存池中移除
      * @return TxContainer
      */
     public TxContainer get() {
-        TxContainer tx = null;
-        NulsDigestData hash = txHashQueue.poll();
-        if(hash != null) {
-            tx = container.remove(hash);
-        } else {
-            hash = orphanTxHashQueue.poll();
-            if (hash != null) {
-                tx = orphanContainer.remove(hash);
+        lock.lock();
+        try {
+            if (!scoreSet.isEmpty()) {
+                TxContainer tx = scoreSet.first();
+                while (!tx.getParentSet().isEmpty()) {
+                    tx = container.get(tx.getParentSet().iterator().next());
+                }
+                removeEntry(tx);
+                return tx;
             }
+        } finally {
+            lock.unlock();
         }
-        return tx;
+        NulsDigestData hash;
+        while ((hash = orphanTxHashQueue.poll()) != null) {
+            TxContainer tx = orphanContainer.remove(hash);
+            if (tx != null) {
+                return tx;
+            }
+        }
+        return null;
     }
 
     /**
@@ -148,59 +251,327 @@ public final class TxMemoryPool {
      * @return TxContainer
      */
     public TxContainer getAndRemove(NulsDigestData hash) {
-        TxContainer tx = container.remove(hash);
-        if (tx == null) {
-            tx = orphanContainer.remove(hash);
+        lock.lock();
+        try {
+            TxContainer tx = container.get(hash);
+            if (tx != null) {
+                removeEntry(tx);
+                return tx;
+            }
+        } finally {
+            lock.unlock();
         }
-        return tx;
+        return orphanContainer.remove(hash);
+    }
+
+    /**
+     * 按祖先交易包费率的顺序返回最多limit笔不在排除集合中的交易，池中未被排除的祖先交易排在子交易之前，
+     * 交易不从池中移除，打包模板用排除集合记录已经处理过的交易
+     * Returns at most limit txs not in the exclude set, ordered by the ancestor package fee rate, the in-pool ancestors
+     * which are not excluded come before their children. The txs are not removed from the pool,
+     * the block template tracks the txs it already handled with the exclude set.
+     */
+    public List<TxContainer> getPackingList(Set<NulsDigestData> excludeSet, int limit) {
+        List<TxContainer> packingList = new ArrayList<>();
+        Set<NulsDigestData> addedSet = new HashSet<>();
+        lock.lock();
+        try {
+            for (TxContainer tx : scoreSet) {
+                if (packingList.size() >= limit) {
+                    break;
+                }
+                addWithAncestors(tx, excludeSet, addedSet, packingList);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return packingList;
+    }
+
+    /**
+     * 按到达顺序返回最多limit笔不在排除集合中的孤儿交易，交易不从池中移除
+     * Returns at most limit orphan txs not in the exclude set in arrival order, the txs are not removed from the pool.
+     */
+    public List<TxContainer> getOrphanList(Set<NulsDigestData> excludeSet, int limit) {
+        List<TxContainer> orphanList = new ArrayList<>();
+        for (NulsDigestData hash : orphanTxHashQueue) {
+            if (orphanList.size() >= limit) {
+                break;
+            }
+            TxContainer tx = orphanContainer.get(hash);
+            if (null != tx && !excludeSet.contains(hash)) {
+                orphanList.add(tx);
+            }
+        }
+        return orphanList;
     }
 
     public List<Transaction> getAll() {
         List<Transaction> txs = new ArrayList<>();
         Collection<TxContainer> list = container.values();
-        for(TxContainer txContainer : list) {
+        for (TxContainer txContainer : list) {
             txs.add(txContainer.getTx());
         }
         return txs;
     }
 
+    /**
+     * 按短ID查找池中的交易(包括孤儿交易)，直接遍历不复制，已找到全部短ID时停止，同一短ID先找到的优先
+     * Find the pooled txs (the orphans included) by short id, walked in place without a copy, stops once every short id is found,
+     * the first tx found for a short id wins.
+     */
+    public void findByShortId(Set<Long> shortIdSet, ToLongFunction<NulsDigestData> shortIdFunction, Map<Long, Transaction> txMap) {
+        findByShortId(container, shortIdSet, shortIdFunction, txMap);
+        findByShortId(orphanContainer, shortIdSet, shortIdFunction, txMap);
+    }
+
+    private void findByShortId(Map<NulsDigestData, TxContainer> txContainerMap, Set<Long> shortIdSet, ToLongFunction<NulsDigestData> shortIdFunction, Map<Long, Transaction> txMap) {
+        for (Map.Entry<NulsDigestData, TxContainer> entry : txContainerMap.entrySet()) {
+            if (txMap.size() >= shortIdSet.size()) {
+                return;
+            }
+            long shortId = shortIdFunction.applyAsLong(entry.getKey());
+            if (shortIdSet.contains(shortId)) {
+                txMap.putIfAbsent(shortId, entry.getValue().getTx());
+            }
+        }
+    }
+
     public List<Transaction> getAllOrphan() {
         List<Transaction> txs = new ArrayList<>();
         Collection<TxContainer> list = orphanContainer.values();
-        for(TxContainer txContainer : list) {
+        for (TxContainer txContainer : list) {
             txs.add(txContainer.getTx());
         }
         return txs;
     }
 
+    /**
+     * 区块确认时移除交易，池中的子交易保留，孤儿队列中的hash在取出时跳过
+     * Removes a tx when a block confirms it, the pooled children stay, the hash in the orphan queue is skipped when polled.
+     */
     public boolean remove(NulsDigestData hash) {
-        try {
-            if (container.containsKey(hash)) {
-                container.remove(hash);
-                txHashQueue.remove(hash);
-                return true;
-            } else if (orphanContainer.containsKey(hash)) {
-                orphanContainer.remove(hash);
-                orphanTxHashQueue.remove(hash);
-                return true;
-            }
-            return false;
-        } finally {
-        }
+        return null != getAndRemove(hash);
     }
 
     public boolean exist(NulsDigestData hash) {
         return container.containsKey(hash) || orphanContainer.containsKey(hash);
     }
 
+    public int size() {
+        return container.size();
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
     public void clear() {
+        lock.lock();
         try {
-            txHashQueue.clear();
             container.clear();
+            scoreSet.clear();
+            evictSet.clear();
+            spenderMap.clear();
+            totalSize = 0L;
 
             orphanTxHashQueue.clear();
             orphanContainer.clear();
         } finally {
+            lock.unlock();
+        }
+    }
+
+    private long getFee(Transaction tx) {
+        try {
+            return Math.max(0L, tx.getFee().getValue());
+        } catch (Exception e) {
+            return 0L;
+        }
+    }
+
+    private void fillSpentHashSet(TxContainer tx) {
+        if (null == tx.getTx().getCoinData() || null == tx.getTx().getCoinData().getFrom()) {
+            return;
+        }
+        for (Coin from : tx.getTx().getCoinData().getFrom()) {
+            byte[] hashBytes = LedgerUtil.getTxHashBytes(from.getOwner());
+            if (null == hashBytes) {
+                continue;
+            }
+            NulsDigestData spentHash = new NulsDigestData();
+            try {
+                spentHash.parse(hashBytes);
+            } catch (NulsException e) {
+                continue;
+            }
+            tx.getSpentHashSet().add(spentHash);
+        }
+    }
+
+    /**
+     * 沿父交易遍历，统计池中祖先交易包(含自身)的手续费、字节数和笔数
+     * Walks the parents, sums the fee, size and count of the in-pool ancestor package including itself.
+     */
+    private void calcAncestors(TxContainer tx) {
+        long fee = tx.getFee();
+        long size = tx.getSize();
+        Set<NulsDigestData> visited = new HashSet<>();
+        Deque<NulsDigestData> stack = new ArrayDeque<>(tx.getParentSet());
+        while (!stack.isEmpty()) {
+            NulsDigestData hash = stack.pop();
+            TxContainer ancestor = container.get(hash);
+            if (null == ancestor || !visited.add(hash)) {
+                continue;
+            }
+            fee += ancestor.getFee();
+            size += ancestor.getSize();
+            stack.addAll(ancestor.getParentSet());
+        }
+        tx.setAncestorFee(fee);
+        tx.setAncestorSize(size);
+        tx.setAncestorCount(visited.size() + 1);
+    }
+
+    /**
+     * 先加入池中未被排除的祖先交易，再加入交易本身
+     * Adds the in-pool ancestors which are not excluded first, then the tx itself.
+     */
+    private void addWithAncestors(TxContainer tx, Set<NulsDigestData> excludeSet, Set<NulsDigestData> addedSet, List<TxContainer> packingList) {
+        NulsDigestData hash = tx.getTx().getHash();
+        if (excludeSet.contains(hash) || !addedSet.add(hash)) {
+            return;
+        }
+        for (NulsDigestData parentHash : tx.getParentSet()) {
+            TxContainer parent = container.get(parentHash);
+            if (null != parent) {
+                addWithAncestors(parent, excludeSet, addedSet, packingList);
+            }
+        }
+        packingList.add(tx);
+    }
+
+    private Set<TxContainer> getAncestors(TxContainer tx) {
+        Set<TxContainer> ancestors = new LinkedHashSet<>();
+        Deque<NulsDigestData> stack = new ArrayDeque<>(tx.getParentSet());
+        while (!stack.isEmpty()) {
+            TxContainer ancestor = container.get(stack.pop());
+            if (null != ancestor && ancestors.add(ancestor)) {
+                stack.addAll(ancestor.getParentSet());
+            }
+        }
+        return ancestors;
+    }
+
+    /**
+     * 统计池中后代交易包(含自身)的手续费和字节数
+     * Sums the fee and size of the in-pool descendant package including itself.
+     */
+    private void calcDescendants(TxContainer tx) {
+        long fee = tx.getFee();
+        long size = tx.getSize();
+        for (TxContainer descendant : getDescendants(tx)) {
+            fee += descendant.getFee();
+            size += descendant.getSize();
+        }
+        tx.setDescendantFee(fee);
+        tx.setDescendantSize(size);
+    }
+
+    /**
+     * 后代交易变化后重新计算祖先的淘汰分数，修改前先从淘汰集合中取出
+     * Rescore the ancestors for eviction after the descendants changed, taken out of the eviction set before the change.
+     */
+    private void rescoreAncestors(Collection<TxContainer> ancestors) {
+        for (TxContainer ancestor : ancestors) {
+            if (!container.containsKey(ancestor.getTx().getHash())) {
+                continue;
+            }
+            evictSet.remove(ancestor);
+            calcDescendants(ancestor);
+            evictSet.add(ancestor);
+        }
+    }
+
+    private Set<TxContainer> getDescendants(TxContainer tx) {
+        Set<TxContainer> descendants = new LinkedHashSet<>();
+        Deque<NulsDigestData> stack = new ArrayDeque<>(tx.getChildSet());
+        while (!stack.isEmpty()) {
+            TxContainer descendant = container.get(stack.pop());
+            if (null != descendant && descendants.add(descendant)) {
+                stack.addAll(descendant.getChildSet());
+            }
+        }
+        return descendants;
+    }
+
+    /**
+     * 祖先交易变化后重新计算所有后代的分数，修改前先从有序集合中取出
+     * Rescore all the descendants after the ancestors changed, taken out of the sorted set before the change.
+     */
+    private void updateDescendants(TxContainer tx) {
+        for (TxContainer descendant : getDescendants(tx)) {
+            scoreSet.remove(descendant);
+            calcAncestors(descendant);
+            scoreSet.add(descendant);
+        }
+    }
+
+    private void removeEntry(TxContainer tx) {
+        NulsDigestData hash = tx.getTx().getHash();
+        Set<TxContainer> descendants = getDescendants(tx);
+        Set<TxContainer> ancestors = getAncestors(tx);
+        for (TxContainer descendant : descendants) {
+            scoreSet.remove(descendant);
+        }
+        scoreSet.remove(tx);
+        evictSet.remove(tx);
+        container.remove(hash);
+        totalSize -= tx.getSize();
+        for (NulsDigestData parentHash : tx.getParentSet()) {
+            TxContainer parent = container.get(parentHash);
+            if (null != parent) {
+                parent.getChildSet().remove(hash);
+            }
+        }
+        for (NulsDigestData spentHash : tx.getSpentHashSet()) {
+            Set<NulsDigestData> spenders = spenderMap.get(spentHash);
+            if (null != spenders) {
+                spenders.remove(hash);
+                if (spenders.isEmpty()) {
+                    spenderMap.remove(spentHash);
+                }
+            }
+        }
+        for (NulsDigestData childHash : tx.getChildSet()) {
+            TxContainer child = container.get(childHash);
+            if (null != child) {
+                child.getParentSet().remove(hash);
+            }
+        }
+        for (TxContainer descendant : descendants) {
+            calcAncestors(descendant);
+            scoreSet.add(descendant);
+        }
+        rescoreAncestors(ancestors);
+    }
+
+    /**
+     * 超出数量或大小上限时，淘汰后代交易包分数最低的交易及其后代，祖先交易包分数只用于打包顺序
+     * Evicts the tx of the lowest descendant package score and its descendants while the count or size cap is exceeded,
+     * the ancestor package score is only used for the packing order.
+     */
+    private void trim() {
+        while (!evictSet.isEmpty() && (container.size() > ConsensusConfig.getMempoolMaxCount() || totalSize > ConsensusConfig.getMempoolMaxSize())) {
+            TxContainer lowest = evictSet.first();
+            List<TxContainer> evictList = new ArrayList<>(getDescendants(lowest));
+            Collections.reverse(evictList);
+            evictList.add(lowest);
+            for (TxContainer tx : evictList) {
+                if (container.containsKey(tx.getTx().getHash())) {
+                    removeEntry(tx);
+                }
+            }
         }
     }
 }
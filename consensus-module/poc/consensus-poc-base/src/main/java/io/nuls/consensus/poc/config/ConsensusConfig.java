@@ -45,17 +45,31 @@ public class ConsensusConfig {
     private final static String PROPERTY_PARTAKE_PACKING = "partake.packing";
     private final static String PROPERTY_SEED_NODES = "seed.nodes";
     private final static String SEED_NODES_DELIMITER = ",";
+    private final static String PROPERTY_MEMPOOL_MAX_COUNT = "mempool.max.count";
+    private final static String PROPERTY_MEMPOOL_MAX_SIZE = "mempool.max.size";
+    private final static String PROPERTY_MEMPOOL_MAX_ANCESTORS = "mempool.max.ancestors";
 
     private static boolean partakePacking = false;
     private static List<byte[]> seedNodeBytesList = new ArrayList<>();
     private static List<String> seedNodeStringList = new ArrayList<>();
 
+    /**
+     * 交易池最多容纳的交易数、总字节数(MB)、一笔交易在池中的最多祖先数
+     * The max tx count, the max total size (MB) of the tx memory pool, and the max in-pool ancestors of one tx.
+     */
+    private static int mempoolMaxCount = 200000;
+    private static long mempoolMaxSize = 200L * 1024 * 1024;
+    private static int mempoolMaxAncestors = 25;
+
     public static void initConfiguration() throws Exception {
 
         Block genesisBlock = GenesisBlock.getInstance();
         NulsContext.getInstance().setGenesisBlock(genesisBlock);
 
         partakePacking = NulsConfig.MODULES_CONFIG.getCfgValue(CFG_CONSENSUS_SECTION, PROPERTY_PARTAKE_PACKING, false);
+        mempoolMaxCount = NulsConfig.MODULES_CONFIG.getCfgValue(CFG_CONSENSUS_SECTION, PROPERTY_MEMPOOL_MAX_COUNT, mempoolMaxCount);
+        mempoolMaxSize = NulsConfig.MODULES_CONFIG.getCfgValue(CFG_CONSENSUS_SECTION, PROPERTY_MEMPOOL_MAX_SIZE, 200) * 1024L * 1024L;
+        mempoolMaxAncestors = NulsConfig.MODULES_CONFIG.getCfgValue(CFG_CONSENSUS_SECTION, PROPERTY_MEMPOOL_MAX_ANCESTORS, mempoolMaxAncestors);
         Set<String> seedAddressSet = new HashSet<>();
         String addresses = NulsConfig.MODULES_CONFIG.getCfgValue(CFG_CONSENSUS_SECTION, PROPERTY_SEED_NODES, "");
         if (StringUtils.isBlank(addresses)) {
@@ -85,4 +99,20 @@ public class ConsensusConfig {
     public static List<String> getSeedNodeStringList() {
         return seedNodeStringList;
     }
+
+    public static int getMempoolMaxCount() {
+        return mempoolMaxCount;
+    }
+
+    public static void setMempoolMaxCount(int mempoolMaxCount) {
+        ConsensusConfig.mempoolMaxCount = mempoolMaxCount;
+    }
+
+    public static long getMempoolMaxSize() {
+        return mempoolMaxSize;
+    }
+
+    public static int getMempoolMaxAncestors() {
+        return mempoolMaxAncestors;
+    }
 }
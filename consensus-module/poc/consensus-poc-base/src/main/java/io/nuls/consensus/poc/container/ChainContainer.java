@@ -79,11 +79,6 @@ public class ChainContainer implements Cloneable {
         }
 
         List<Block> blockList = chain.getBlockList();
-        List<BlockHeader> blockHeaderList = chain.getBlockHeaderList();
-
-        List<Agent> agentList = chain.getAgentList();
-        List<Deposit> depositList = chain.getDepositList();
-        List<PunishLogPo> yellowList = chain.getYellowPunishList();
         List<PunishLogPo> redList = chain.getRedPunishList();
 
         long height = block.getHeader().getHeight();
@@ -103,7 +98,7 @@ public class ChainContainer implements Cloneable {
                 agent.setTxHash(agentTx.getHash());
                 agent.setTime(agentTx.getTime());
 
-                agentList.add(agent);
+                chain.addAgent(agent);
             } else if (txType == ConsensusConstant.TX_TYPE_JOIN_CONSENSUS) {
 
                 // 加入共识交易，设置该交易的高度和删除高度，然后加入列表
@@ -116,7 +111,7 @@ public class ChainContainer implements Cloneable {
                 deposit.setBlockHeight(height);
                 deposit.setTxHash(depositTx.getHash());
                 deposit.setTime(depositTx.getTime());
-                depositList.add(deposit);
+                chain.addDeposit(deposit);
 
             } else if (txType == ConsensusConstant.TX_TYPE_CANCEL_DEPOSIT) {
 
@@ -124,15 +119,11 @@ public class ChainContainer implements Cloneable {
 
                 NulsDigestData joinHash = cancelDepositTx.getTxData().getJoinTxHash();
 
-                Iterator<Deposit> it = depositList.iterator();
-                while (it.hasNext()) {
-                    Deposit deposit = it.next();
+                Deposit deposit = chain.getDepositByHash(joinHash);
+                if (deposit != null) {
                     cancelDepositTx.getTxData().setAddress(deposit.getAddress());
-                    if (deposit.getTxHash().equals(joinHash)) {
-                        if (deposit.getDelHeight() == -1L) {
-                            deposit.setDelHeight(height);
-                        }
-                        break;
+                    if (deposit.getDelHeight() == -1L) {
+                        deposit.setDelHeight(height);
                     }
                 }
             } else if (txType == ConsensusConstant.TX_TYPE_STOP_AGENT) {
@@ -141,23 +132,17 @@ public class ChainContainer implements Cloneable {
 
                 NulsDigestData agentHash = stopAgentTx.getTxData().getCreateTxHash();
 
-                Iterator<Deposit> it = depositList.iterator();
-                while (it.hasNext()) {
-                    Deposit deposit = it.next();
-                    if (deposit.getAgentHash().equals(agentHash) && deposit.getDelHeight() == -1L) {
+                for (Deposit deposit : chain.getDepositListByAgentHash(agentHash)) {
+                    if (deposit.getDelHeight() == -1L) {
                         deposit.setDelHeight(height);
                     }
                 }
 
-                Iterator<Agent> ita = agentList.iterator();
-                while (ita.hasNext()) {
-                    Agent agent = ita.next();
+                Agent agent = chain.getAgentByHash(agentHash);
+                if (agent != null) {
                     stopAgentTx.getTxData().setAddress(agent.getAgentAddress());
-                    if (agent.getTxHash().equals(agentHash)) {
-                        if (agent.getDelHeight() == -1L) {
-                            agent.setDelHeight(height);
-                        }
-                        break;
+                    if (agent.getDelHeight() == -1L) {
+                        agent.setDelHeight(height);
                     }
                 }
             } else if (txType == ConsensusConstant.TX_TYPE_RED_PUNISH) {
@@ -170,18 +155,12 @@ public class ChainContainer implements Cloneable {
                 po.setTime(tx.getTime());
                 po.setType(PunishType.RED.getCode());
                 redList.add(po);
-                for (Agent agent : agentList) {
-                    if (!Arrays.equals(agent.getAgentAddress(), po.getAddress())) {
-                        continue;
-                    }
+                for (Agent agent : chain.getAgentListByAddress(po.getAddress())) {
                     if (agent.getDelHeight() > 0) {
                         continue;
                     }
                     agent.setDelHeight(height);
-                    for (Deposit deposit : depositList) {
-                        if (!deposit.getAgentHash().equals(agent.getTxHash())) {
-                            continue;
-                        }
+                    for (Deposit deposit : chain.getDepositListByAgentHash(agent.getTxHash())) {
                         if (deposit.getDelHeight() > 0) {
                             continue;
                         }
@@ -197,14 +176,14 @@ public class ChainContainer implements Cloneable {
                     po.setRoundIndex(roundData.getRoundIndex());
                     po.setTime(tx.getTime());
                     po.setType(PunishType.YELLOW.getCode());
-                    yellowList.add(po);
+                    chain.addYellowPunish(po);
                 }
             }
         }
 
         chain.setEndBlockHeader(block.getHeader());
         blockList.add(block);
-        blockHeaderList.add(block.getHeader());
+        chain.addBlockHeader(block.getHeader());
 
         return true;
     }
@@ -454,7 +433,7 @@ public class ChainContainer implements Cloneable {
         List<BlockHeader> blockHeaderList = chain.getBlockHeaderList();
 
         chain.setEndBlockHeader(blockHeaderList.get(blockHeaderList.size() - 2));
-        BlockHeader rollbackBlockHeader = blockHeaderList.remove(blockHeaderList.size() - 1);
+        BlockHeader rollbackBlockHeader = chain.removeLastBlockHeader();
 
         // update txs
         List<Agent> agentList = chain.getAgentList();
@@ -472,7 +451,7 @@ public class ChainContainer implements Cloneable {
             }
 
             if (agent.getBlockHeight() == height) {
-                agentList.remove(i);
+                chain.removeAgent(i);
             }
         }
 
@@ -484,7 +463,7 @@ public class ChainContainer implements Cloneable {
             }
 
             if (deposit.getBlockHeight() == height) {
-                depositList.remove(i);
+                chain.removeDeposit(i);
             }
         }
 
@@ -494,7 +473,7 @@ public class ChainContainer implements Cloneable {
                 break;
             }
             if (tempYellow.getHeight() == height) {
-                yellowList.remove(i);
+                chain.removeYellowPunish(i);
             }
         }
 
@@ -25,8 +25,12 @@
  */
 package io.nuls.consensus.poc.container;
 
+import io.nuls.kernel.model.NulsDigestData;
 import io.nuls.kernel.model.Transaction;
 
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * @author ln
  * @date 2018/5/25
@@ -36,6 +40,30 @@ public class TxContainer {
     private Transaction tx;
     private int packageCount;
 
+    /**
+     * 以下字段由交易池维护：手续费、字节数、入池序号，池内祖先交易(含自身)的手续费、字节数、笔数，
+     * 以及池内后代交易(含自身)的手续费、字节数
+     * Maintained by the tx memory pool: the fee, the size, the arrival sequence,
+     * the fee, size, count of the in-pool ancestors including itself,
+     * and the fee, size of the in-pool descendants including itself.
+     */
+    private long fee;
+    private int size;
+    private long sequence;
+    private long ancestorFee;
+    private long ancestorSize;
+    private int ancestorCount;
+    private long descendantFee;
+    private long descendantSize;
+
+    /**
+     * 花费的交易、池中的父交易、池中的子交易
+     * The spent txs, the parents in the pool, the children in the pool.
+     */
+    private Set<NulsDigestData> spentHashSet = new HashSet<>();
+    private Set<NulsDigestData> parentSet = new HashSet<>();
+    private Set<NulsDigestData> childSet = new HashSet<>();
+
     public TxContainer(Transaction tx) {
         this.tx = tx;
     }
@@ -60,4 +88,102 @@ public class TxContainer {
     public void setPackageCount(int packageCount) {
         this.packageCount = packageCount;
     }
+
+    public long getFee() {
+        return fee;
+    }
+
+    public void setFee(long fee) {
+        this.fee = fee;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public long getAncestorFee() {
+        return ancestorFee;
+    }
+
+    public void setAncestorFee(long ancestorFee) {
+        this.ancestorFee = ancestorFee;
+    }
+
+    public long getAncestorSize() {
+        return ancestorSize;
+    }
+
+    public void setAncestorSize(long ancestorSize) {
+        this.ancestorSize = ancestorSize;
+    }
+
+    public int getAncestorCount() {
+        return ancestorCount;
+    }
+
+    public void setAncestorCount(int ancestorCount) {
+        this.ancestorCount = ancestorCount;
+    }
+
+    public long getDescendantFee() {
+        return descendantFee;
+    }
+
+    public void setDescendantFee(long descendantFee) {
+        this.descendantFee = descendantFee;
+    }
+
+    public long getDescendantSize() {
+        return descendantSize;
+    }
+
+    public void setDescendantSize(long descendantSize) {
+        this.descendantSize = descendantSize;
+    }
+
+    /**
+     * 祖先交易包的手续费率(每字节)，打包时按此排序
+     * The fee per byte of the ancestor package, the packing order.
+     */
+    public double getAncestorFeeRate() {
+        if (ancestorSize <= 0) {
+            return 0;
+        }
+        return (double) ancestorFee / ancestorSize;
+    }
+
+    /**
+     * 淘汰分数：自身和后代交易包手续费率(每字节)中较高的一个，交易池满时淘汰分数最低的
+     * The eviction score: the higher of its own fee per byte and the fee per byte of the descendant package,
+     * the lowest one is evicted when the pool is full.
+     */
+    public double getDescendantScore() {
+        double feeRate = size <= 0 ? 0 : (double) fee / size;
+        double descendantFeeRate = descendantSize <= 0 ? 0 : (double) descendantFee / descendantSize;
+        return Math.max(feeRate, descendantFeeRate);
+    }
+
+    public Set<NulsDigestData> getSpentHashSet() {
+        return spentHashSet;
+    }
+
+    public Set<NulsDigestData> getParentSet() {
+        return parentSet;
+    }
+
+    public Set<NulsDigestData> getChildSet() {
+        return childSet;
+    }
 }
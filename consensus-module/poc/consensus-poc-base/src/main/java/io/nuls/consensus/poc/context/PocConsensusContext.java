@@ -26,6 +26,7 @@
 package io.nuls.consensus.poc.context;
 
 import io.nuls.consensus.poc.manager.ChainManager;
+import io.nuls.consensus.poc.process.BlockTemplateProcess;
 
 /**
  *
@@ -36,6 +37,8 @@ public class PocConsensusContext {
 
     private static ChainManager chainManager;
 
+    private static BlockTemplateProcess blockTemplateProcess;
+
     public static ChainManager getChainManager() {
         return chainManager;
     }
@@ -43,4 +46,12 @@ public class PocConsensusContext {
     public static void setChainManager(ChainManager chainManager) {
         PocConsensusContext.chainManager = chainManager;
     }
+
+    public static BlockTemplateProcess getBlockTemplateProcess() {
+        return blockTemplateProcess;
+    }
+
+    public static void setBlockTemplateProcess(BlockTemplateProcess blockTemplateProcess) {
+        PocConsensusContext.blockTemplateProcess = blockTemplateProcess;
+    }
 }
\ No newline at end of file
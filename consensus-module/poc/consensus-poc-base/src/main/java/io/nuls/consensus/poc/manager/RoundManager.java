@@ -34,10 +34,8 @@ import io.nuls.consensus.poc.model.Chain;
 import io.nuls.consensus.poc.model.MeetingMember;
 import io.nuls.consensus.poc.model.MeetingRound;
 import io.nuls.consensus.poc.protocol.constant.PocConsensusProtocolConstant;
-import io.nuls.consensus.poc.protocol.constant.PunishType;
 import io.nuls.consensus.poc.protocol.entity.Agent;
 import io.nuls.consensus.poc.protocol.entity.Deposit;
-import io.nuls.consensus.poc.storage.po.PunishLogPo;
 import io.nuls.core.tools.calc.DoubleUtils;
 import io.nuls.core.tools.log.ConsensusLog;
 import io.nuls.core.tools.log.Log;
@@ -280,6 +278,17 @@ public class RoundManager {
 
         List<Deposit> depositTempList = new ArrayList<>();
 
+        // 信誉值计算所需的出块数和黄牌数，每轮只统计一次，避免每个成员都扫描一遍区块头
+        // Block and yellow punish counts used by the credit value are collected once per round instead of scanning the headers for every member
+        BlockRoundData startRoundData = new BlockRoundData(startBlockHeader.getExtend());
+        long roundEnd = startRoundData.getRoundIndex() - 1;
+        long roundStart = startRoundData.getRoundIndex() - PocConsensusProtocolConstant.RANGE_OF_CAPACITY_COEFFICIENT;
+        if (roundStart < 0) {
+            roundStart = 0;
+        }
+        Map<String, Integer> packedCountMap = chain.getPackedBlockCountMap(roundStart, roundEnd);
+        Map<String, Integer> yellowPunishCountMap = chain.getYellowPunishCountMap(roundStart, roundEnd);
+
         List<Agent> agentList = getAliveAgentList(startBlockHeader.getHeight());
         for (Agent agent : agentList) {
 
@@ -302,7 +311,7 @@ public class RoundManager {
             agent.setTotalDeposit(member.getTotalDeposit().getValue());
             boolean isItIn = member.getTotalDeposit().isGreaterOrEquals(PocConsensusProtocolConstant.SUM_OF_DEPOSIT_OF_AGENT_LOWER_LIMIT);
             if (isItIn) {
-                member.setCreditVal(calcCreditVal(member, startBlockHeader));
+                member.setCreditVal(calcCreditVal(member, packedCountMap, yellowPunishCountMap));
                 agent.setCreditVal(member.getRealCreditVal());
                 totalWeight = DoubleUtils.sum(totalWeight, DoubleUtils.mul(agent.getDeposit().getValue(), member.getCalcCreditVal()));
                 totalWeight = DoubleUtils.sum(totalWeight, DoubleUtils.mul(member.getTotalDeposit().getValue(), member.getCalcCreditVal()));
@@ -330,7 +339,7 @@ public class RoundManager {
 
     private List<Deposit> getDepositListByAgentId(NulsDigestData agentHash, long startBlockHeight) {
 
-        List<Deposit> depositList = chain.getDepositList();
+        List<Deposit> depositList = chain.getDepositListByAgentHash(agentHash);
         List<Deposit> resultList = new ArrayList<>();
 
         for (int i = depositList.size() - 1; i >= 0; i--) {
@@ -341,9 +350,6 @@ public class RoundManager {
             if (deposit.getBlockHeight() > startBlockHeight || deposit.getBlockHeight() < 0L) {
                 continue;
             }
-            if (!deposit.getAgentHash().equals(agentHash)) {
-                continue;
-            }
             resultList.add(deposit);
         }
 
@@ -365,16 +371,17 @@ public class RoundManager {
         return resultList;
     }
 
-    private double calcCreditVal(MeetingMember member, BlockHeader blockHeader) {
+    private double calcCreditVal(MeetingMember member, Map<String, Integer> packedCountMap, Map<String, Integer> yellowPunishCountMap) {
 
-        BlockRoundData roundData = new BlockRoundData(blockHeader.getExtend());
-
-        long roundStart = roundData.getRoundIndex() - PocConsensusProtocolConstant.RANGE_OF_CAPACITY_COEFFICIENT;
-        if (roundStart < 0) {
-            roundStart = 0;
+        long blockCount = getCount(packedCountMap, member.getPackingAddress());
+        long sumRoundVal = getCount(yellowPunishCountMap, member.getAgentAddress());
+        //每一轮的惩罚都有可能包含上一轮次的惩罚记录，即计算从a到a+99轮的惩罚记录时，a轮的惩罚中可能是惩罚某个地址在a-1轮未出块，导致100轮最多可能有101个惩罚记录，在这里处理下
+        //Each round of punishment is likely to contain a rounds punishment record, calculated from a to a + 99 rounds of punishment record,
+        // a round of punishment is likely to be punished in an address in a - 1 round not out of the blocks,
+        // lead to round up to 100 May be 101 punishment record, treatment here
+        if (sumRoundVal > 100) {
+            sumRoundVal = 100;
         }
-        long blockCount = getBlockCountByAddress(member.getPackingAddress(), roundStart, roundData.getRoundIndex() - 1);
-        long sumRoundVal = getPunishCountByAddress(member.getAgentAddress(), roundStart, roundData.getRoundIndex() - 1, PunishType.YELLOW.getCode());
         double ability = DoubleUtils.div(blockCount, PocConsensusProtocolConstant.RANGE_OF_CAPACITY_COEFFICIENT);
 
         double penalty = DoubleUtils.div(DoubleUtils.mul(PocConsensusProtocolConstant.CREDIT_MAGIC_NUM, sumRoundVal),
@@ -383,77 +390,26 @@ public class RoundManager {
         return DoubleUtils.round(DoubleUtils.sub(ability, penalty), 4);
     }
 
-    private long getPunishCountByAddress(byte[] address, long roundStart, long roundEnd, int code) {
-        long count = 0;
-        List<PunishLogPo> punishList = new ArrayList<>(chain.getYellowPunishList());
-
-        if (code == PunishType.RED.getCode()) {
-            punishList = chain.getRedPunishList();
-        }
-
-        for (int i = punishList.size() - 1; i >= 0; i--) {
-            PunishLogPo punish = punishList.get(i);
-
-            if (punish.getRoundIndex() > roundEnd) {
-                continue;
-            }
-            if (punish.getRoundIndex() < roundStart) {
-                break;
-            }
-            if (Arrays.equals(punish.getAddress(), address)) {
-                count++;
-            }
-        }
-        //每一轮的惩罚都有可能包含上一轮次的惩罚记录，即计算从a到a+99轮的惩罚记录时，a轮的惩罚中可能是惩罚某个地址在a-1轮未出块，导致100轮最多可能有101个惩罚记录，在这里处理下
-        //Each round of punishment is likely to contain a rounds punishment record, calculated from a to a + 99 rounds of punishment record,
-        // a round of punishment is likely to be punished in an address in a - 1 round not out of the blocks,
-        // lead to round up to 100 May be 101 punishment record, treatment here
-        if (count > 100) {
-            return 100;
-        }
-        return count;
-    }
-
-    private long getBlockCountByAddress(byte[] packingAddress, long roundStart, long roundEnd) {
-        long count = 0;
-        List<BlockHeader> blockHeaderList = chain.getBlockHeaderList();
-
-        for (int i = blockHeaderList.size() - 1; i >= 0; i--) {
-            BlockHeader blockHeader = blockHeaderList.get(i);
-            BlockRoundData roundData = new BlockRoundData(blockHeader.getExtend());
-
-            if (roundData.getRoundIndex() > roundEnd) {
-                continue;
-            }
-            if (roundData.getRoundIndex() < roundStart) {
-                break;
-            }
-            if (Arrays.equals(blockHeader.getPackingAddress(), packingAddress)) {
-                count++;
-            }
+    private long getCount(Map<String, Integer> countMap, byte[] address) {
+        Integer count = countMap.get(Chain.getAddressKey(address));
+        if (count == null) {
+            return 0L;
         }
         return count;
     }
 
     private BlockHeader getFirstBlockHeightOfPreRoundByRoundIndex(long roundIndex) {
         BlockHeader firstBlockHeader = null;
-        long startRoundIndex = 0L;
-        List<BlockHeader> blockHeaderList = chain.getBlockHeaderList();
-        for (int i = blockHeaderList.size() - 1; i >= 0; i--) {
-            BlockHeader blockHeader = blockHeaderList.get(i);
-            long currentRoundIndex = new BlockRoundData(blockHeader.getExtend()).getRoundIndex();
-            if (roundIndex > currentRoundIndex) {
-                if (startRoundIndex == 0L) {
-                    startRoundIndex = currentRoundIndex;
-                }
-                if (currentRoundIndex < startRoundIndex) {
-                    firstBlockHeader = blockHeaderList.get(i + 1);
-                    BlockRoundData roundData = new BlockRoundData(firstBlockHeader.getExtend());
-                    if (roundData.getPackingIndexOfRound() > 1) {
-                        firstBlockHeader = blockHeader;
-                    }
-                    break;
-                }
+        Long preRoundIndex = chain.getLowerRoundIndex(roundIndex);
+        Long beforePreRoundIndex = null;
+        if (preRoundIndex != null) {
+            beforePreRoundIndex = chain.getLowerRoundIndex(preRoundIndex);
+        }
+        if (beforePreRoundIndex != null) {
+            firstBlockHeader = chain.getFirstBlockHeaderOfRound(preRoundIndex);
+            BlockRoundData roundData = new BlockRoundData(firstBlockHeader.getExtend());
+            if (roundData.getPackingIndexOfRound() > 1) {
+                firstBlockHeader = chain.getLastBlockHeaderOfRound(beforePreRoundIndex);
             }
         }
         if (firstBlockHeader == null) {
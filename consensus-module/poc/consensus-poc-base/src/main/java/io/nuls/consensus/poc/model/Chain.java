@@ -29,14 +29,13 @@ package io.nuls.consensus.poc.model;
 import io.nuls.consensus.poc.storage.po.PunishLogPo;
 import io.nuls.consensus.poc.protocol.entity.Agent;
 import io.nuls.consensus.poc.protocol.entity.Deposit;
+import io.nuls.core.tools.crypto.Hex;
 import io.nuls.core.tools.str.StringUtils;
 import io.nuls.kernel.model.Block;
 import io.nuls.kernel.model.BlockHeader;
-import io.nuls.kernel.model.Transaction;
+import io.nuls.kernel.model.NulsDigestData;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 /**
  * @author ln
@@ -55,6 +54,26 @@ public class Chain implements Cloneable {
     private List<PunishLogPo> yellowPunishList;
     private List<PunishLogPo> redPunishList;
 
+    /**
+     * 以下索引由上面的列表派生，通过本类的add/remove方法增量维护；
+     * 列表被替换或被外部直接修改（引用、长度或末尾元素变化）时，在下一次查询时整体重建
+     * The following indexes are derived from the lists above and maintained incrementally by the add/remove methods of this class,
+     * when a list is replaced or modified directly (reference, size or last element changed), the index is rebuilt on the next query
+     */
+    private Map<NulsDigestData, Agent> agentHashIndex;
+    private Map<String, List<Agent>> agentAddressIndex;
+    private ListMark agentMark;
+
+    private Map<NulsDigestData, Deposit> depositHashIndex;
+    private Map<NulsDigestData, List<Deposit>> agentDepositIndex;
+    private ListMark depositMark;
+
+    private NavigableMap<Long, RoundBlockRange> roundBlockIndex;
+    private ListMark blockHeaderMark;
+
+    private NavigableMap<Long, Map<String, Integer>> yellowPunishIndex;
+    private ListMark yellowPunishMark;
+
     public Chain() {
         blockHeaderList = new ArrayList<>();
         blockList = new ArrayList<>();
@@ -143,7 +162,12 @@ public class Chain implements Cloneable {
 
     @Override
     protected Object clone() throws CloneNotSupportedException {
-        return super.clone();
+        Chain chain = (Chain) super.clone();
+        chain.agentMark = null;
+        chain.depositMark = null;
+        chain.blockHeaderMark = null;
+        chain.yellowPunishMark = null;
+        return chain;
     }
 
     public Block getBestBlock() {
@@ -152,4 +176,374 @@ public class Chain implements Cloneable {
         }
         return blockList.get(blockList.size() - 1);
     }
+
+    public void addAgent(Agent agent) {
+        boolean indexed = isAgentIndexed();
+        agentList.add(agent);
+        if (indexed) {
+            indexAgent(agent);
+            agentMark = new ListMark(agentList);
+        }
+    }
+
+    public Agent removeAgent(int index) {
+        boolean indexed = isAgentIndexed();
+        Agent agent = agentList.remove(index);
+        if (indexed) {
+            agentHashIndex.remove(agent.getTxHash());
+            List<Agent> list = agentAddressIndex.get(getAddressKey(agent.getAgentAddress()));
+            if (list != null) {
+                list.remove(agent);
+            }
+            agentMark = new ListMark(agentList);
+        }
+        return agent;
+    }
+
+    public Agent getAgentByHash(NulsDigestData agentHash) {
+        checkAgentIndex();
+        return agentHashIndex.get(agentHash);
+    }
+
+    /**
+     * 获取某地址创建的所有节点（包括已注销的），顺序与节点列表一致
+     * Get all agents created by the address (including the stopped ones), in the order of the agent list
+     */
+    public List<Agent> getAgentListByAddress(byte[] agentAddress) {
+        checkAgentIndex();
+        List<Agent> list = agentAddressIndex.get(getAddressKey(agentAddress));
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        return list;
+    }
+
+    public void addDeposit(Deposit deposit) {
+        boolean indexed = isDepositIndexed();
+        depositList.add(deposit);
+        if (indexed) {
+            indexDeposit(deposit);
+            depositMark = new ListMark(depositList);
+        }
+    }
+
+    public Deposit removeDeposit(int index) {
+        boolean indexed = isDepositIndexed();
+        Deposit deposit = depositList.remove(index);
+        if (indexed) {
+            depositHashIndex.remove(deposit.getTxHash());
+            List<Deposit> list = agentDepositIndex.get(deposit.getAgentHash());
+            if (list != null) {
+                list.remove(deposit);
+            }
+            depositMark = new ListMark(depositList);
+        }
+        return deposit;
+    }
+
+    public Deposit getDepositByHash(NulsDigestData depositHash) {
+        checkDepositIndex();
+        return depositHashIndex.get(depositHash);
+    }
+
+    /**
+     * 获取委托给某节点的所有委托（包括已退出的），顺序与委托列表一致
+     * Get all deposits of the agent (including the canceled ones), in the order of the deposit list
+     */
+    public List<Deposit> getDepositListByAgentHash(NulsDigestData agentHash) {
+        checkDepositIndex();
+        List<Deposit> list = agentDepositIndex.get(agentHash);
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        return list;
+    }
+
+    public void addBlockHeader(BlockHeader blockHeader) {
+        boolean indexed = isBlockHeaderIndexed();
+        blockHeaderList.add(blockHeader);
+        if (indexed) {
+            indexBlockHeader(blockHeader);
+            blockHeaderMark = new ListMark(blockHeaderList);
+        }
+    }
+
+    public BlockHeader removeLastBlockHeader() {
+        boolean indexed = isBlockHeaderIndexed();
+        BlockHeader blockHeader = blockHeaderList.remove(blockHeaderList.size() - 1);
+        if (!indexed) {
+            return blockHeader;
+        }
+        long roundIndex = new BlockRoundData(blockHeader.getExtend()).getRoundIndex();
+        RoundBlockRange range = roundBlockIndex.get(roundIndex);
+        if (range == null || range.last != blockHeader) {
+            blockHeaderMark = null;
+            return blockHeader;
+        }
+        range.count--;
+        if (range.count == 0) {
+            roundBlockIndex.remove(roundIndex);
+        } else {
+            range.last = blockHeaderList.get(blockHeaderList.size() - 1);
+            decrease(range.packedCountMap, getAddressKey(blockHeader.getPackingAddress()));
+        }
+        blockHeaderMark = new ListMark(blockHeaderList);
+        return blockHeader;
+    }
+
+    /**
+     * 获取小于指定轮次的最大轮次，不存在时返回null
+     * Get the greatest round index lower than the given one, null if there is no such round
+     */
+    public Long getLowerRoundIndex(long roundIndex) {
+        checkBlockHeaderIndex();
+        return roundBlockIndex.lowerKey(roundIndex);
+    }
+
+    public BlockHeader getFirstBlockHeaderOfRound(long roundIndex) {
+        checkBlockHeaderIndex();
+        RoundBlockRange range = roundBlockIndex.get(roundIndex);
+        return range == null ? null : range.first;
+    }
+
+    public BlockHeader getLastBlockHeaderOfRound(long roundIndex) {
+        checkBlockHeaderIndex();
+        RoundBlockRange range = roundBlockIndex.get(roundIndex);
+        return range == null ? null : range.last;
+    }
+
+    /**
+     * 统计轮次区间[roundStart, roundEnd]内各打包地址的出块数，key为{@link #getAddressKey(byte[])}
+     * Count the blocks of each packing address in the rounds [roundStart, roundEnd], keyed by {@link #getAddressKey(byte[])}
+     */
+    public Map<String, Integer> getPackedBlockCountMap(long roundStart, long roundEnd) {
+        checkBlockHeaderIndex();
+        Map<String, Integer> result = new HashMap<>();
+        if (roundStart > roundEnd) {
+            return result;
+        }
+        for (RoundBlockRange range : roundBlockIndex.subMap(roundStart, true, roundEnd, true).values()) {
+            sum(result, range.packedCountMap);
+        }
+        return result;
+    }
+
+    public void addYellowPunish(PunishLogPo punishLog) {
+        boolean indexed = isYellowPunishIndexed();
+        yellowPunishList.add(punishLog);
+        if (indexed) {
+            indexYellowPunish(punishLog);
+            yellowPunishMark = new ListMark(yellowPunishList);
+        }
+    }
+
+    public PunishLogPo removeYellowPunish(int index) {
+        boolean indexed = isYellowPunishIndexed();
+        PunishLogPo punishLog = yellowPunishList.remove(index);
+        if (indexed) {
+            Map<String, Integer> countMap = yellowPunishIndex.get(punishLog.getRoundIndex());
+            if (countMap != null) {
+                decrease(countMap, getAddressKey(punishLog.getAddress()));
+                if (countMap.isEmpty()) {
+                    yellowPunishIndex.remove(punishLog.getRoundIndex());
+                }
+            }
+            yellowPunishMark = new ListMark(yellowPunishList);
+        }
+        return punishLog;
+    }
+
+    /**
+     * 统计轮次区间[roundStart, roundEnd]内各地址的黄牌数，key为{@link #getAddressKey(byte[])}
+     * Count the yellow punishments of each address in the rounds [roundStart, roundEnd], keyed by {@link #getAddressKey(byte[])}
+     */
+    public Map<String, Integer> getYellowPunishCountMap(long roundStart, long roundEnd) {
+        checkYellowPunishIndex();
+        Map<String, Integer> result = new HashMap<>();
+        if (roundStart > roundEnd) {
+            return result;
+        }
+        for (Map<String, Integer> countMap : yellowPunishIndex.subMap(roundStart, true, roundEnd, true).values()) {
+            sum(result, countMap);
+        }
+        return result;
+    }
+
+    public static String getAddressKey(byte[] address) {
+        return Hex.encode(address);
+    }
+
+    private boolean isAgentIndexed() {
+        return agentMark != null && agentMark.matches(agentList);
+    }
+
+    private void checkAgentIndex() {
+        if (isAgentIndexed()) {
+            return;
+        }
+        agentHashIndex = new HashMap<>();
+        agentAddressIndex = new HashMap<>();
+        if (agentList != null) {
+            for (Agent agent : agentList) {
+                indexAgent(agent);
+            }
+        }
+        agentMark = new ListMark(agentList);
+    }
+
+    private void indexAgent(Agent agent) {
+        agentHashIndex.put(agent.getTxHash(), agent);
+        String key = getAddressKey(agent.getAgentAddress());
+        List<Agent> list = agentAddressIndex.get(key);
+        if (list == null) {
+            list = new ArrayList<>();
+            agentAddressIndex.put(key, list);
+        }
+        list.add(agent);
+    }
+
+    private boolean isDepositIndexed() {
+        return depositMark != null && depositMark.matches(depositList);
+    }
+
+    private void checkDepositIndex() {
+        if (isDepositIndexed()) {
+            return;
+        }
+        depositHashIndex = new HashMap<>();
+        agentDepositIndex = new HashMap<>();
+        if (depositList != null) {
+            for (Deposit deposit : depositList) {
+                indexDeposit(deposit);
+            }
+        }
+        depositMark = new ListMark(depositList);
+    }
+
+    private void indexDeposit(Deposit deposit) {
+        depositHashIndex.put(deposit.getTxHash(), deposit);
+        List<Deposit> list = agentDepositIndex.get(deposit.getAgentHash());
+        if (list == null) {
+            list = new ArrayList<>();
+            agentDepositIndex.put(deposit.getAgentHash(), list);
+        }
+        list.add(deposit);
+    }
+
+    private boolean isBlockHeaderIndexed() {
+        return blockHeaderMark != null && blockHeaderMark.matches(blockHeaderList);
+    }
+
+    private void checkBlockHeaderIndex() {
+        if (isBlockHeaderIndexed()) {
+            return;
+        }
+        roundBlockIndex = new TreeMap<>();
+        if (blockHeaderList != null) {
+            for (BlockHeader blockHeader : blockHeaderList) {
+                indexBlockHeader(blockHeader);
+            }
+        }
+        blockHeaderMark = new ListMark(blockHeaderList);
+    }
+
+    private void indexBlockHeader(BlockHeader blockHeader) {
+        long roundIndex = new BlockRoundData(blockHeader.getExtend()).getRoundIndex();
+        RoundBlockRange range = roundBlockIndex.get(roundIndex);
+        if (range == null) {
+            range = new RoundBlockRange();
+            range.first = blockHeader;
+            roundBlockIndex.put(roundIndex, range);
+        }
+        range.last = blockHeader;
+        range.count++;
+        increase(range.packedCountMap, getAddressKey(blockHeader.getPackingAddress()));
+    }
+
+    private boolean isYellowPunishIndexed() {
+        return yellowPunishMark != null && yellowPunishMark.matches(yellowPunishList);
+    }
+
+    private void checkYellowPunishIndex() {
+        if (isYellowPunishIndexed()) {
+            return;
+        }
+        yellowPunishIndex = new TreeMap<>();
+        if (yellowPunishList != null) {
+            for (PunishLogPo punishLog : yellowPunishList) {
+                indexYellowPunish(punishLog);
+            }
+        }
+        yellowPunishMark = new ListMark(yellowPunishList);
+    }
+
+    private void indexYellowPunish(PunishLogPo punishLog) {
+        Map<String, Integer> countMap = yellowPunishIndex.get(punishLog.getRoundIndex());
+        if (countMap == null) {
+            countMap = new HashMap<>();
+            yellowPunishIndex.put(punishLog.getRoundIndex(), countMap);
+        }
+        increase(countMap, getAddressKey(punishLog.getAddress()));
+    }
+
+    private static void increase(Map<String, Integer> countMap, String key) {
+        Integer count = countMap.get(key);
+        countMap.put(key, count == null ? 1 : count + 1);
+    }
+
+    private static void decrease(Map<String, Integer> countMap, String key) {
+        Integer count = countMap.get(key);
+        if (count == null) {
+            return;
+        }
+        if (count <= 1) {
+            countMap.remove(key);
+        } else {
+            countMap.put(key, count - 1);
+        }
+    }
+
+    private static void sum(Map<String, Integer> result, Map<String, Integer> countMap) {
+        for (Map.Entry<String, Integer> entry : countMap.entrySet()) {
+            Integer count = result.get(entry.getKey());
+            result.put(entry.getKey(), count == null ? entry.getValue() : count + entry.getValue());
+        }
+    }
+
+    /**
+     * 同一轮次内的区块范围及各打包地址的出块数
+     * Block range of one round and the block count of each packing address
+     */
+    private static class RoundBlockRange {
+        private BlockHeader first;
+        private BlockHeader last;
+        private int count;
+        private Map<String, Integer> packedCountMap = new HashMap<>();
+    }
+
+    /**
+     * 记录建立索引时列表的引用、长度和末尾元素，用于发现列表被替换或被外部直接修改
+     * Records the reference, size and last element of a list when it was indexed, to detect replacement or direct modification
+     */
+    private static class ListMark {
+        private final List<?> list;
+        private final int size;
+        private final Object last;
+
+        private ListMark(List<?> list) {
+            this.list = list;
+            this.size = list == null ? 0 : list.size();
+            this.last = size == 0 ? null : list.get(size - 1);
+        }
+
+        private boolean matches(List<?> list) {
+            if (list != this.list) {
+                return false;
+            }
+            if (list == null) {
+                return true;
+            }
+            return list.size() == size && (size == 0 || list.get(size - 1) == last);
+        }
+    }
 }
@@ -33,6 +33,7 @@ import io.nuls.consensus.poc.constant.PocConsensusConstant;
 import io.nuls.consensus.poc.container.BlockContainer;
 import io.nuls.consensus.poc.container.ChainContainer;
 import io.nuls.consensus.poc.context.ConsensusStatusContext;
+import io.nuls.consensus.poc.context.PocConsensusContext;
 import io.nuls.consensus.poc.locker.Lockers;
 import io.nuls.consensus.poc.manager.ChainManager;
 import io.nuls.consensus.poc.model.Chain;
@@ -42,18 +43,21 @@ import io.nuls.consensus.poc.protocol.tx.RedPunishTransaction;
 import io.nuls.consensus.poc.provider.OrphanBlockProvider;
 import io.nuls.consensus.poc.util.ConsensusTool;
 import io.nuls.consensus.service.ConsensusService;
+import io.nuls.core.tools.crypto.ECBatchVerifier;
 import io.nuls.core.tools.log.BlockLog;
 import io.nuls.core.tools.log.ChainLog;
 import io.nuls.core.tools.log.Log;
 import io.nuls.kernel.context.NulsContext;
 import io.nuls.kernel.func.TimeService;
 import io.nuls.kernel.model.*;
+import io.nuls.kernel.script.P2PKHScriptSig;
 import io.nuls.kernel.thread.manager.NulsThreadFactory;
 import io.nuls.kernel.thread.manager.TaskManager;
 import io.nuls.kernel.utils.AddressTool;
 import io.nuls.kernel.validate.ValidateResult;
 import io.nuls.ledger.constant.LedgerErrorCode;
 import io.nuls.ledger.service.LedgerService;
+import io.nuls.protocol.cache.SignatureCache;
 import io.nuls.protocol.model.SmallBlock;
 import io.nuls.protocol.service.BlockService;
 import io.nuls.protocol.service.TransactionService;
@@ -61,9 +65,12 @@ import io.nuls.protocol.service.TransactionService;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author ln
@@ -80,7 +87,15 @@ public class BlockProcess {
     private LedgerService ledgerService = NulsContext.getServiceBean(LedgerService.class);
     private TransactionService tansactionService = NulsContext.getServiceBean(TransactionService.class);
 
-    private ExecutorService signExecutor = TaskManager.createThreadPool(Runtime.getRuntime().availableProcessors(),Integer.MAX_VALUE,new NulsThreadFactory(ConsensusConstant.MODULE_ID_CONSENSUS,""));
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 每个验证分块至少包含的交易数，交易较少时在当前线程中逐笔验证
+     * The min txs of a verification chunk, fewer txs are verified one by one in the current thread.
+     */
+    private static final int MIN_VERIFY_CHUNK_SIZE = 16;
+
+    private ExecutorService signExecutor = TaskManager.createThreadPool(CORES,Integer.MAX_VALUE,new NulsThreadFactory(ConsensusConstant.MODULE_ID_CONSENSUS,""));
 
     public BlockProcess(ChainManager chainManager, OrphanBlockProvider orphanBlockProvider) {
         this.chainManager = chainManager;
@@ -168,21 +183,19 @@ public class BlockProcess {
                     // 验证区块交易是否合法，如果验证通过则保存区块，如果失败则丢弃该块
 
                     long time = System.currentTimeMillis();
-                    List<Future<Boolean>> futures = new ArrayList<>();
-
-                    for (Transaction tx : block.getTxs()) {
-                        Future<Boolean> res = signExecutor.submit(new Callable<Boolean>() {
-                            @Override
-                            public Boolean call() throws Exception {
-                                return tx.verify().isSuccess();
-                            }
-                        });
-                        futures.add(res);
-                    }
+                    List<Transaction> txList = block.getTxs();
+                    Future<Boolean> verifyFuture = signExecutor.submit(new Callable<Boolean>() {
+                        @Override
+                        public Boolean call() throws Exception {
+                            return verifyTxs(txList);
+                        }
+                    });
 
                     Map<String, Coin> toMaps = new HashMap<>();
                     Set<String> fromSet = new HashSet<>();
 
+                    // 一次批量读取区块中所有交易花费的UTXO/read the UTXOs spent by the whole block in one batch
+                    ledgerService.loadFromUtxo(block.getTxs());
                     for (Transaction tx : block.getTxs()) {
                         if (tx.isSystemTx()) {
                             continue;
@@ -205,12 +218,9 @@ public class BlockProcess {
                         break;
                     }
 
-                    for (Future<Boolean> future : futures) {
-                        if (!future.get()) {
-                            success = false;
-                            Log.info("verify failed!");
-                            break;
-                        }
+                    if (!verifyFuture.get()) {
+                        success = false;
+                        Log.info("verify failed!");
                     }
                     Log.debug("验证交易耗时：" + (System.currentTimeMillis() - time));
                     if (!success) {
@@ -236,6 +246,11 @@ public class BlockProcess {
                 NulsContext.getInstance().setBestBlock(block);
                 //remove tx from memory pool
                 removeTxFromMemoryPool(block);
+                // 最新区块已变化，立即重建区块模板/the best block changed, rebuild the block template right away
+                BlockTemplateProcess blockTemplateProcess = PocConsensusContext.getBlockTemplateProcess();
+                if (null != blockTemplateProcess) {
+                    blockTemplateProcess.notifyBestBlockChanged();
+                }
                 // 转发区块
                 forwardingBlock(blockContainer);
                 return true;
@@ -294,6 +309,102 @@ public class BlockProcess {
         }
     }
 
+    /**
+     * 先按CPU核数分块批量验证交易池中没有验证过的签名，通过的放入已验证签名缓存，再逐笔验证交易，此时签名验证直接命中缓存
+     * Batch verifies the signatures not verified in the pool in per-core chunks first, the passed ones go into the
+     * signature cache, then verifies the txs in per-core chunks, their signature checks hit the cache.
+     *
+     * @param txList 区块中的交易 / the txs of the block
+     * @return boolean
+     */
+    private boolean verifyTxs(List<Transaction> txList) throws InterruptedException, ExecutionException {
+        SignatureCache signatureCache = SignatureCache.getInstance();
+        List<ECBatchVerifier.VerifyItem> itemList = new ArrayList<>();
+        List<NulsDigestData> hashList = new ArrayList<>();
+        for (Transaction tx : txList) {
+            if (!tx.needVerifySignature()) {
+                continue;
+            }
+            P2PKHScriptSig scriptSig;
+            try {
+                scriptSig = P2PKHScriptSig.createFromBytes(tx.getScriptSig());
+            } catch (Exception e) {
+                // 由tx.verify()给出错误
+                // tx.verify() reports the error
+                continue;
+            }
+            byte[] signBytes = scriptSig.getSignData().getSignBytes();
+            if (signatureCache.contains(tx.getHash(), scriptSig.getPublicKey(), signBytes)) {
+                continue;
+            }
+            itemList.add(new ECBatchVerifier.VerifyItem(tx.getHash().getDigestBytes(), signBytes, scriptSig.getPublicKey()));
+            hashList.add(tx.getHash());
+        }
+        boolean[] results = ECBatchVerifier.verifyBatch(itemList);
+        for (int i = 0; i < results.length; i++) {
+            if (!results[i]) {
+                return false;
+            }
+            ECBatchVerifier.VerifyItem item = itemList.get(i);
+            signatureCache.add(hashList.get(i), item.getPublicKey(), item.getSignature());
+        }
+        return verifyTxsInChunks(txList);
+    }
+
+    /**
+     * 按CPU核数把交易分块并行执行tx.verify()，当前线程和signExecutor中的线程一起领取分块，
+     * 当前线程处理完后取消还未开始的任务，不会因为线程池繁忙而互相等待
+     * Runs tx.verify() in per-core chunks in parallel, the current thread and the threads of signExecutor take the
+     * chunks together, and the tasks not started yet are cancelled once the current thread is done,
+     * so a busy pool can never make them wait on each other.
+     */
+    private boolean verifyTxsInChunks(List<Transaction> txList) throws InterruptedException, ExecutionException {
+        int size = txList.size();
+        int chunkCount = Math.min(CORES, (size + MIN_VERIFY_CHUNK_SIZE - 1) / MIN_VERIFY_CHUNK_SIZE);
+        if (chunkCount <= 1) {
+            return verifyRange(txList, 0, size);
+        }
+        int chunkSize = (size + chunkCount - 1) / chunkCount;
+        AtomicInteger nextChunk = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        Callable<Boolean> worker = () -> {
+            int chunk;
+            while (!failed.get() && (chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                int from = chunk * chunkSize;
+                if (!verifyRange(txList, from, Math.min(size, from + chunkSize))) {
+                    failed.set(true);
+                }
+            }
+            return true;
+        };
+        List<Future<Boolean>> futureList = new ArrayList<>(chunkCount - 1);
+        for (int i = 1; i < chunkCount; i++) {
+            futureList.add(signExecutor.submit(worker));
+        }
+        try {
+            worker.call();
+        } catch (Exception e) {
+            failed.set(true);
+            throw new ExecutionException(e);
+        } finally {
+            for (Future<Boolean> future : futureList) {
+                if (!future.cancel(false)) {
+                    future.get();
+                }
+            }
+        }
+        return !failed.get();
+    }
+
+    private boolean verifyRange(List<Transaction> txList, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!txList.get(i).verify().isSuccess()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * The transaction is confirmed and the transaction in the memory pool is removed
      * <p>
@@ -0,0 +1,367 @@
+/*
+ * *
+ *  * MIT License
+ *  *
+ *  * Copyright (c) 2017-2018 nuls.io
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package io.nuls.consensus.poc.process;
+
+import io.nuls.consensus.poc.cache.TxMemoryPool;
+import io.nuls.consensus.poc.config.ConsensusConfig;
+import io.nuls.consensus.poc.constant.ConsensusStatus;
+import io.nuls.consensus.poc.container.TxContainer;
+import io.nuls.consensus.poc.context.ConsensusStatusContext;
+import io.nuls.consensus.poc.manager.ChainManager;
+import io.nuls.core.tools.log.Log;
+import io.nuls.kernel.constant.TransactionErrorCode;
+import io.nuls.kernel.context.NulsContext;
+import io.nuls.kernel.func.TimeService;
+import io.nuls.kernel.model.Block;
+import io.nuls.kernel.model.Coin;
+import io.nuls.kernel.model.NulsDigestData;
+import io.nuls.kernel.model.Transaction;
+import io.nuls.kernel.thread.manager.TaskManager;
+import io.nuls.kernel.validate.ValidateResult;
+import io.nuls.ledger.service.LedgerService;
+import io.nuls.protocol.constant.ProtocolConstant;
+import io.nuls.protocol.service.TransactionService;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 区块模板，在后台持续按交易池的顺序验证账本数据和冲突，基于当前最新区块维护一组可直接打包的交易，
+ * 打包时只需加上共识奖励、惩罚交易和区块头
+ * 模板中的交易不从交易池中取出，只记录成员关系，交易池的查询仍能找到它们；
+ * 每次填充只验证有限数量的交易，填充后发布不可变的快照，打包时读取快照，不等待填充
+ * The block template, keeps verifying the coin data and the conflicts of the txs in the memory pool order in the
+ * background, and maintains a set of txs ready to pack on the current best block,
+ * so packing only adds the coinbase, the punish txs and the header.
+ * The template txs are not taken out of the memory pool, only their membership is tracked, so the pool lookups
+ * still find them. Each fill verifies a bounded number of txs and then publishes an immutable snapshot,
+ * packing reads the snapshot and never waits for a fill.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class BlockTemplateProcess {
+
+    /**
+     * 孤儿交易在多少个不同的基础区块上都无法打包后被丢弃
+     * An orphan tx is dropped after it could not be packed on this many different base blocks.
+     */
+    private static final int MAX_ORPHAN_PACKAGE_COUNT = 3;
+
+    /**
+     * 每次填充最多验证的交易数
+     * The max number of txs verified by one fill.
+     */
+    private static final int FILL_BATCH_SIZE = 1000;
+
+    /**
+     * 最小交易的估计字节数，区块剩余空间小于它时模板才算已满
+     * The estimated bytes of the smallest tx, the template is full only once the space left in the block is below it.
+     */
+    private static final int MIN_TX_SIZE = 100;
+
+    private ChainManager chainManager;
+
+    private TxMemoryPool txMemoryPool = TxMemoryPool.getInstance();
+
+    private LedgerService ledgerService = NulsContext.getServiceBean(LedgerService.class);
+
+    private TransactionService transactionService = NulsContext.getServiceBean(TransactionService.class);
+
+    /**
+     * 正在填充的模板，只在后台任务的线程中访问
+     * The template being filled, only accessed by the thread of the background task.
+     */
+    private Template template;
+
+    /**
+     * 最近一次填充后发布的快照
+     * The snapshot published after the latest fill.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * 最新区块变化后是否已经安排了重建
+     * Whether a rebuild is already scheduled after the best block changed.
+     */
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean(false);
+
+    public BlockTemplateProcess(ChainManager chainManager) {
+        this.chainManager = chainManager;
+    }
+
+    public synchronized void process() {
+        if (!ConsensusConfig.isPartakePacking()) {
+            return;
+        }
+        if (ConsensusStatusContext.getConsensusStatus().ordinal() < ConsensusStatus.RUNNING.ordinal()) {
+            return;
+        }
+        Block bestBlock = chainManager.getBestBlock();
+        if (null == bestBlock) {
+            return;
+        }
+        NulsDigestData bestHash = bestBlock.getHeader().getHash();
+        if (null == template || !bestHash.equals(template.baseHash)) {
+            template = new Template(bestHash, true);
+        }
+        fill(template, FILL_BATCH_SIZE, Long.MAX_VALUE);
+        Snapshot current = snapshot;
+        if (null == current || !current.baseHash.equals(template.baseHash) || current.txList.size() != template.txList.size()) {
+            snapshot = new Snapshot(template.baseHash, template.txList);
+        }
+    }
+
+    /**
+     * 最新区块变化后立即在后台重建模板，不等待下一次定时填充，已经安排过时直接返回
+     * Rebuilds the template in the background right after the best block changed instead of waiting for the next
+     * scheduled fill, returns directly when a rebuild is already scheduled.
+     */
+    public void notifyBestBlockChanged() {
+        if (!rebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            TaskManager.asynExecuteRunnable(() -> {
+                rebuildScheduled.set(false);
+                try {
+                    process();
+                } catch (Exception e) {
+                    Log.error(e);
+                }
+            });
+        } catch (Exception e) {
+            rebuildScheduled.set(false);
+            Log.warn("schedule the block template rebuild failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 读取基于上一个区块的模板快照用于打包，快照不是基于上一个区块时在调用线程中单独构建一份，构建到截止时间为止
+     * Reads the template snapshot built on the previous block for packing, when the snapshot is not built on the
+     * previous block, a separate template is built in the calling thread until the deadline.
+     *
+     * @param preHash  上一个区块的hash / the hash of the previous block
+     * @param height   新区块高度 / the height of the new block
+     * @param deadline 单独构建模板的截止时间 / the deadline of building a separate template
+     * @return 按打包顺序排列的交易 / the txs in packing order
+     */
+    public List<Transaction> take(NulsDigestData preHash, long height, long deadline) {
+        Snapshot current = snapshot;
+        List<Transaction> txList;
+        if (null != current && preHash.equals(current.baseHash)) {
+            txList = current.txList;
+        } else {
+            Template localTemplate = new Template(preHash, false);
+            fill(localTemplate, Integer.MAX_VALUE, deadline);
+            txList = localTemplate.txList;
+        }
+        List<Transaction> packingTxList = new ArrayList<>(txList.size());
+        for (Transaction tx : txList) {
+            tx.setBlockHeight(height);
+            packingTxList.add(tx);
+        }
+        return packingTxList;
+    }
+
+    /**
+     * 按交易池的顺序验证最多limit笔未处理过的交易，验证通过的加入模板，直到交易池中没有未处理的交易、区块已满或到达截止时间，
+     * 模板有新交易加入后再重试孤儿交易
+     * Verifies at most limit unhandled txs in the memory pool order, the verified ones join the template,
+     * until no unhandled tx is left in the pool, the block is full or the deadline is reached.
+     * The orphans are retried after new txs joined the template.
+     */
+    private void fill(Template template, int limit, long deadline) {
+        int count = 0;
+        boolean timeout = false;
+        while (!template.full && !timeout && count < limit) {
+            List<TxContainer> packingList = txMemoryPool.getPackingList(template.checkedSet, Math.min(FILL_BATCH_SIZE, limit - count));
+            if (packingList.isEmpty()) {
+                break;
+            }
+            for (TxContainer txContainer : packingList) {
+                if (TimeService.currentTimeMillis() >= deadline) {
+                    timeout = true;
+                    break;
+                }
+                count++;
+                template.checkedSet.add(txContainer.getTx().getHash());
+                if (!verifyAndAdd(template, txContainer, false)) {
+                    break;
+                }
+            }
+        }
+        if (template.full || timeout || count >= limit || template.orphanRetrySize == template.txList.size()) {
+            return;
+        }
+        template.orphanRetrySize = template.txList.size();
+        for (TxContainer txContainer : txMemoryPool.getOrphanList(template.hashSet, limit - count)) {
+            if (TimeService.currentTimeMillis() >= deadline || !verifyAndAdd(template, txContainer, true)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 验证一笔交易，通过时加入模板，已确认或无效的交易从交易池中移除，孤儿交易按基础区块计数
+     * Verifies a tx and adds it to the template when it passes, the confirmed or invalid txs are removed from the pool,
+     * the orphans are counted per base block.
+     *
+     * @return 区块剩余空间小于最小交易时返回false / false when the space left in the block is below the smallest tx
+     */
+    private boolean verifyAndAdd(Template template, TxContainer txContainer, boolean isOrphan) {
+        Transaction tx = txContainer.getTx();
+        NulsDigestData hash = tx.getHash();
+        if (isOrphan && txContainer.getPackageCount() >= MAX_ORPHAN_PACKAGE_COUNT) {
+            Log.info("drop the orphan tx " + hash + ", its inputs are still missing after " + txContainer.getPackageCount() + " blocks");
+            txMemoryPool.remove(hash);
+            return true;
+        }
+        // 放不下的交易跳过，继续尝试更小的交易，它在池中的后代也一起跳过，剩余空间小于最小交易时才算已满
+        // A tx which does not fit is skipped and smaller txs are still tried, its in-pool descendants are skipped with it,
+        // the template is full only once the space left is below the smallest tx
+        if (!Collections.disjoint(txContainer.getSpentHashSet(), template.skippedSet)) {
+            template.skippedSet.add(hash);
+            return true;
+        }
+        if ((template.totalSize + tx.size()) > ProtocolConstant.MAX_BLOCK_SIZE) {
+            template.skippedSet.add(hash);
+            if (ProtocolConstant.MAX_BLOCK_SIZE - template.totalSize < MIN_TX_SIZE) {
+                template.full = true;
+                return false;
+            }
+            return true;
+        }
+        if (null != ledgerService.getTx(hash)) {
+            txMemoryPool.remove(hash);
+            return true;
+        }
+
+        // 先检测冲突，账本验证会修改toMaps和fromSet
+        // Detect conflicts first, the coin data verification changes toMaps and fromSet
+        boolean needConflictCheck = tx.getType() != ProtocolConstant.TX_TYPE_TRANSFER;
+        if (needConflictCheck) {
+            template.conflictCheckList.add(tx);
+            ValidateResult result = transactionService.conflictDetect(template.conflictCheckList);
+            if (result.isFailed()) {
+                template.conflictCheckList.remove(template.conflictCheckList.size() - 1);
+                Log.warn(result.getMsg());
+                txMemoryPool.remove(hash);
+                return true;
+            }
+        }
+
+        ValidateResult result = ledgerService.verifyCoinData(tx, template.toMaps, template.fromSet);
+        if (result.isFailed()) {
+            if (needConflictCheck) {
+                template.conflictCheckList.remove(template.conflictCheckList.size() - 1);
+            }
+            if (result.getErrorCode() == TransactionErrorCode.ORPHAN_TX) {
+                if (template.countOrphans && template.orphanCountedSet.add(hash)) {
+                    txContainer.setPackageCount(txContainer.getPackageCount() + 1);
+                }
+                if (!isOrphan) {
+                    txMemoryPool.remove(hash);
+                    txMemoryPool.add(txContainer, true);
+                }
+                return true;
+            }
+            Log.warn(result.getMsg());
+            txMemoryPool.remove(hash);
+            return true;
+        }
+
+        template.txList.add(tx);
+        template.hashSet.add(hash);
+        template.totalSize += tx.size();
+        return true;
+    }
+
+    /**
+     * 基于一个区块构建的模板的工作状态
+     * The working state of a template built on one block.
+     */
+    private static final class Template {
+        /**
+         * 模板所基于的区块hash
+         * The hash of the block the template is built on.
+         */
+        private final NulsDigestData baseHash;
+        /**
+         * 是否为孤儿交易计数，调用线程中单独构建的模板不计数，避免同一个基础区块计两次
+         * Whether the orphans are counted, a template built separately in the calling thread does not count,
+         * so the same base block is not counted twice.
+         */
+        private final boolean countOrphans;
+        private final List<Transaction> txList = new ArrayList<>();
+        private final Set<NulsDigestData> hashSet = new HashSet<>();
+        /**
+         * 已经从交易池中处理过的交易，包括加入模板的和被拒绝的
+         * The txs already handled from the pool, both the ones in the template and the rejected ones.
+         */
+        private final Set<NulsDigestData> checkedSet = new HashSet<>();
+        /**
+         * 在当前基础区块上已经计过次数的孤儿交易，模板每100毫秒填充一次，每个基础区块只计一次
+         * The orphans already counted on the current base block, the template is filled every 100ms,
+         * so each base block counts once.
+         */
+        private final Set<NulsDigestData> orphanCountedSet = new HashSet<>();
+        /**
+         * 因为区块放不下而跳过的交易，花费它们的交易也跳过
+         * The txs skipped because they do not fit in the block, the txs spending them are skipped too.
+         */
+        private final Set<NulsDigestData> skippedSet = new HashSet<>();
+        private final List<Transaction> conflictCheckList = new ArrayList<>();
+        private final Map<String, Coin> toMaps = new HashMap<>();
+        private final Set<String> fromSet = new HashSet<>();
+        private long totalSize;
+        private boolean full;
+        /**
+         * 上次重试孤儿交易时模板中的交易数，-1表示还未重试过
+         * The template tx count when the orphans were last retried, -1 when they were never retried.
+         */
+        private int orphanRetrySize = -1;
+
+        private Template(NulsDigestData baseHash, boolean countOrphans) {
+            this.baseHash = baseHash;
+            this.countOrphans = countOrphans;
+        }
+    }
+
+    /**
+     * 发布给打包使用的不可变快照
+     * The immutable snapshot published for packing.
+     */
+    private static final class Snapshot {
+        private final NulsDigestData baseHash;
+        private final List<Transaction> txList;
+
+        private Snapshot(NulsDigestData baseHash, List<Transaction> txList) {
+            this.baseHash = baseHash;
+            this.txList = Collections.unmodifiableList(new ArrayList<>(txList));
+        }
+    }
+}
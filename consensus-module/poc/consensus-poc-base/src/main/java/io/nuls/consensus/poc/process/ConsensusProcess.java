@@ -47,19 +47,15 @@ import io.nuls.consensus.poc.provider.BlockQueueProvider;
 import io.nuls.consensus.poc.util.ConsensusTool;
 import io.nuls.core.tools.date.DateUtil;
 import io.nuls.core.tools.log.Log;
-import io.nuls.kernel.constant.TransactionErrorCode;
 import io.nuls.kernel.context.NulsContext;
 import io.nuls.kernel.exception.NulsException;
 import io.nuls.kernel.func.TimeService;
 import io.nuls.kernel.model.*;
-import io.nuls.kernel.validate.ValidateResult;
-import io.nuls.ledger.service.LedgerService;
 import io.nuls.network.service.NetworkService;
 import io.nuls.protocol.constant.ProtocolConstant;
 import io.nuls.protocol.model.SmallBlock;
 import io.nuls.protocol.model.tx.CoinBaseTransaction;
 import io.nuls.protocol.service.BlockService;
-import io.nuls.protocol.service.TransactionService;
 
 import java.io.IOException;
 import java.util.*;
@@ -71,21 +67,20 @@ import java.util.*;
 public class ConsensusProcess {
 
     private ChainManager chainManager;
+    private BlockTemplateProcess blockTemplateProcess;
 
     private TxMemoryPool txMemoryPool = TxMemoryPool.getInstance();
     private BlockQueueProvider blockQueueProvider = BlockQueueProvider.getInstance();
 
     private NetworkService networkService = NulsContext.getServiceBean(NetworkService.class);
-    private LedgerService ledgerService = NulsContext.getServiceBean(LedgerService.class);
     private BlockService blockService = NulsContext.getServiceBean(BlockService.class);
 
-    private TransactionService transactionService = NulsContext.getServiceBean(TransactionService.class);
-
 
     private boolean hasPacking;
 
-    public ConsensusProcess(ChainManager chainManager) {
+    public ConsensusProcess(ChainManager chainManager, BlockTemplateProcess blockTemplateProcess) {
         this.chainManager = chainManager;
+        this.blockTemplateProcess = blockTemplateProcess;
     }
 
     public void process() {
@@ -277,103 +272,13 @@ public class ConsensusProcess {
 
         bd.setRoundData(roundData);
 
-        List<Transaction> packingTxList = new ArrayList<>();
-        Set<NulsDigestData> outHashSet = new HashSet<>();
-
-        long totalSize = 0L;
-
-        Map<String, Coin> toMaps = new HashMap<>();
-        Set<String> fromSet = new HashSet<>();
-
-        long t1 = 0, t2 = 0;
-
         long time = System.currentTimeMillis();
 
-        while (true) {
-            if ((self.getPackEndTime() - TimeService.currentTimeMillis()) <= 500L) {
-                break;
-            }
-            TxContainer txContainer = txMemoryPool.get();
-
-            if (txContainer == null) {
-                try {
-                    Thread.sleep(100L);
-                } catch (InterruptedException e) {
-                    Log.error("packaging error ", e);
-                }
-                continue;
-            }
-            if (txContainer.getTx() == null || txContainer.getPackageCount() >= 3) {
-                continue;
-            }
-
-            Transaction tx = txContainer.getTx();
-
-            if ((totalSize + tx.size()) > ProtocolConstant.MAX_BLOCK_SIZE) {
-                txMemoryPool.addInFirst(txContainer, false);
-                break;
-            }
+        // 交易已在后台验证并排除冲突，这里只取出区块模板，模板不是基于最新区块时最多构建到打包结束前500毫秒
+        // The txs are verified and conflict-free in the background, only the block template is taken here,
+        // a template not built on the best block is built until 500ms before the pack end time at most
+        List<Transaction> packingTxList = blockTemplateProcess.take(bestBlock.getHeader().getHash(), bd.getHeight(), self.getPackEndTime() - 500L);
 
-            Transaction repeatTx = ledgerService.getTx(tx.getHash());
-
-            if (repeatTx != null) {
-                continue;
-            }
-
-            long t = System.currentTimeMillis();
-
-//            ValidateResult result = tx.verify();
-//
-//            t1 += (System.currentTimeMillis() - t);
-//
-//            if (result.isFailed()) {
-//                if (result.getErrorCode() == TransactionErrorCode.ORPHAN_TX) {
-//                    txContainer.setPackageCount(txContainer.getPackageCount() + 1);
-//                    txMemoryPool.add(txContainer, true);
-//                }
-//                Log.warn(result.getMsg());
-//                continue;
-//            }
-
-            ValidateResult result = ledgerService.verifyCoinData(tx, toMaps, fromSet);
-
-            if (result.isFailed()) {
-                if (result.getErrorCode() == TransactionErrorCode.ORPHAN_TX) {
-                    txMemoryPool.add(txContainer, true);
-                    txContainer.setPackageCount(txContainer.getPackageCount() + 1);
-                }
-                Log.warn(result.getMsg());
-                continue;
-            }
-
-            if (!outHashSet.add(tx.getHash())) {
-                Log.warn("重复的交易");
-                continue;
-            }
-
-            tx.setBlockHeight(bd.getHeight());
-            packingTxList.add(tx);
-
-            totalSize += tx.size();
-        }
-        ValidateResult validateResult = null;
-        while (null == validateResult || validateResult.isFailed()) {
-            validateResult = transactionService.conflictDetect(packingTxList);
-            if (validateResult.isFailed()) {
-                if (validateResult.getData() instanceof Transaction) {
-                    packingTxList.remove(validateResult.getData());
-                } else if (validateResult.getData() instanceof List) {
-                    List<Transaction> list = (List<Transaction>) validateResult.getData();
-                    if (list.size() == 2) {
-                        packingTxList.remove(list.get(1));
-                    } else {
-                        packingTxList.removeAll(list);
-                    }
-                } else if (validateResult.getData() == null) {
-                    Log.error("Cann't find the wrong transaction!");
-                }
-            }
-        }
         addConsensusTx(bestBlock, packingTxList, self, round);
         bd.setTxList(packingTxList);
 
@@ -382,7 +287,7 @@ public class ConsensusProcess {
         Log.info("make block height:" + newBlock.getHeader().getHeight() + ",txCount: " + newBlock.getTxs().size() + " , block size: " + newBlock.size() + " , time:" + DateUtil.convertDate(new Date(newBlock.getHeader().getTime())) + ",packEndTime:" +
                 DateUtil.convertDate(new Date(self.getPackEndTime())));
 
-        t2 = System.currentTimeMillis() - time;
+        long t2 = System.currentTimeMillis() - time;
         Log.debug("打包总耗时：" + t2 + " ms");
 //        Log.info("验证交易总耗时：" + t1 + " ms");
 
@@ -31,6 +31,7 @@ import io.nuls.consensus.poc.constant.ConsensusStatus;
 import io.nuls.consensus.poc.constant.PocConsensusConstant;
 import io.nuls.consensus.poc.container.ChainContainer;
 import io.nuls.consensus.poc.context.ConsensusStatusContext;
+import io.nuls.consensus.poc.context.PocConsensusContext;
 import io.nuls.consensus.poc.locker.Lockers;
 import io.nuls.consensus.poc.manager.ChainManager;
 import io.nuls.consensus.poc.model.BlockRoundData;
@@ -123,6 +124,11 @@ public class ForkChainProcess {
                     boolean success = changeChain(resultChain, newChain);
                     if (success) {
                         chainManager.getChains().remove(newChain);
+                        // 主链已切换，立即重建区块模板/the master chain changed, rebuild the block template right away
+                        BlockTemplateProcess blockTemplateProcess = PocConsensusContext.getBlockTemplateProcess();
+                        if (null != blockTemplateProcess) {
+                            blockTemplateProcess.notifyBestBlockChanged();
+                        }
                     }
                     ChainLog.debug("verify the fork chain {} success, change master chain result : {} , new master chain is {} : {} - {}", newChain.getChain().getId(), success, chainManager.getBestBlock().getHeader().getHeight(), chainManager.getBestBlock().getHeader().getHash());
                 }
@@ -399,6 +405,8 @@ public class ForkChainProcess {
             Map<String, Coin> toMaps = new HashMap<>();
             Set<String> fromSet = new HashSet<>();
 
+            // 一次批量读取区块中所有交易花费的UTXO/read the UTXOs spent by the whole block in one batch
+            ledgerService.loadFromUtxo(newBlock.getTxs());
             for (Transaction tx : newBlock.getTxs()) {
                 if (tx.isSystemTx()) {
                     continue;
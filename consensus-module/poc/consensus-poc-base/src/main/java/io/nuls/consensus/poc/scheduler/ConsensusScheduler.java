@@ -80,7 +80,7 @@ public class ConsensusScheduler {
             Log.warn(e.getMessage());
         }
 
-        threadPool = TaskManager.createScheduledThreadPool(4,
+        threadPool = TaskManager.createScheduledThreadPool(5,
                 new NulsThreadFactory(ConsensusConstant.MODULE_ID_CONSENSUS, "consensus-poll-control"));
 
         BlockProcess blockProcess = new BlockProcess(chainManager, orphanBlockProvider);
@@ -89,7 +89,11 @@ public class ConsensusScheduler {
         ForkChainProcess forkChainProcess = new ForkChainProcess(chainManager);
         threadPool.scheduleAtFixedRate(new ForkChainProcessTask(forkChainProcess), 1000L, 1000L, TimeUnit.MILLISECONDS);
 
-        ConsensusProcess consensusProcess = new ConsensusProcess(chainManager);
+        BlockTemplateProcess blockTemplateProcess = new BlockTemplateProcess(chainManager);
+        PocConsensusContext.setBlockTemplateProcess(blockTemplateProcess);
+        threadPool.scheduleAtFixedRate(new BlockTemplateProcessTask(blockTemplateProcess), 1000L, 100L, TimeUnit.MILLISECONDS);
+
+        ConsensusProcess consensusProcess = new ConsensusProcess(chainManager, blockTemplateProcess);
         threadPool.scheduleAtFixedRate(new ConsensusProcessTask(consensusProcess), 1000L, 1000L, TimeUnit.MILLISECONDS);
 
         orphanBlockProcess = new OrphanBlockProcess(chainManager, orphanBlockProvider);
@@ -49,7 +49,11 @@ import io.nuls.network.service.NetworkService;
 import io.nuls.protocol.service.BlockService;
 import io.nuls.protocol.service.DownloadService;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
 
 /**
  * @author ln
@@ -128,6 +132,13 @@ public class ConsensusPocServiceImpl implements ConsensusService {
         return txMemoryPool.getAll();
     }
 
+    @Override
+    public Map<Long, Transaction> getMemoryTxsByShortId(Set<Long> shortIdSet, ToLongFunction<NulsDigestData> shortIdFunction) {
+        Map<Long, Transaction> txMap = new HashMap<>(shortIdSet.size() * 2);
+        txMemoryPool.findByShortId(shortIdSet, shortIdFunction, txMap);
+        return txMap;
+    }
+
     /**
      * Reset consensus module, restart, load memory data, reinitialize all states
      * <p>
@@ -27,11 +27,16 @@
 package io.nuls.consensus.poc.cache;
 
 import io.nuls.consensus.poc.TestTransaction;
+import io.nuls.consensus.poc.config.ConsensusConfig;
 import io.nuls.consensus.poc.container.TxContainer;
-import io.nuls.kernel.model.Transaction;
+import io.nuls.kernel.model.*;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 
@@ -104,4 +109,130 @@ public class TxMemoryPoolTest {
         success = txMemoryPool.exist(tx2.getTx().getHash());
         assertFalse(success);
     }
-}
\ No newline at end of file
+
+    /**
+     * 按祖先交易包费率取出：低费率父交易被高费率子交易带动，先于中等费率的交易取出，且父交易先于子交易
+     * Taken out by ancestor package fee rate: the low fee parent is pulled up by its high fee child ahead of a
+     * medium fee tx, and the parent comes out before the child.
+     */
+    @Test
+    public void testFeeRateOrder() throws IOException {
+        txMemoryPool.clear();
+        Transaction parent = createTx(NulsDigestData.calcDigestData("utxo1".getBytes()), 100000L, 10L, 1L);
+        Transaction child = createTx(parent.getHash(), 99990L, 5000L, 2L);
+        Transaction other = createTx(NulsDigestData.calcDigestData("utxo2".getBytes()), 100000L, 1000L, 3L);
+
+        assertTrue(txMemoryPool.add(new TxContainer(child), false));
+        assertTrue(txMemoryPool.add(new TxContainer(other), false));
+        assertTrue(txMemoryPool.add(new TxContainer(parent), false));
+        assertEquals(3, txMemoryPool.size());
+
+        assertEquals(parent.getHash(), txMemoryPool.get().getTx().getHash());
+        assertEquals(child.getHash(), txMemoryPool.get().getTx().getHash());
+        assertEquals(other.getHash(), txMemoryPool.get().getTx().getHash());
+        assertNull(txMemoryPool.get());
+        assertEquals(0L, txMemoryPool.getTotalSize());
+    }
+
+    /**
+     * 交易池满时按后代交易包淘汰：低费率父交易被高费率子交易带动，淘汰的是中等费率的交易
+     * Evicted by the descendant package when the pool is full: the low fee parent is pulled up by its high fee child,
+     * the medium fee tx is evicted instead.
+     */
+    @Test
+    public void testTrimKeepsParentOfHighFeeChild() throws IOException {
+        txMemoryPool.clear();
+        int maxCount = ConsensusConfig.getMempoolMaxCount();
+        ConsensusConfig.setMempoolMaxCount(2);
+        try {
+            Transaction parent = createTx(NulsDigestData.calcDigestData("utxo7".getBytes()), 100000L, 10L, 10L);
+            Transaction child = createTx(parent.getHash(), 99990L, 5000L, 11L);
+            Transaction other = createTx(NulsDigestData.calcDigestData("utxo8".getBytes()), 100000L, 1000L, 12L);
+            assertTrue(txMemoryPool.add(new TxContainer(parent), false));
+            assertTrue(txMemoryPool.add(new TxContainer(child), false));
+
+            assertFalse(txMemoryPool.add(new TxContainer(other), false));
+            assertEquals(2, txMemoryPool.size());
+            assertTrue(txMemoryPool.exist(parent.getHash()));
+            assertTrue(txMemoryPool.exist(child.getHash()));
+            assertFalse(txMemoryPool.exist(other.getHash()));
+        } finally {
+            ConsensusConfig.setMempoolMaxCount(maxCount);
+            txMemoryPool.clear();
+        }
+    }
+
+    /**
+     * 区块确认父交易后，子交易仍在池中且可以取出
+     * After a block confirms the parent, the child stays in the pool and can be taken out.
+     */
+    @Test
+    public void testRemoveConfirmed() throws IOException {
+        txMemoryPool.clear();
+        Transaction parent = createTx(NulsDigestData.calcDigestData("utxo3".getBytes()), 100000L, 10L, 4L);
+        Transaction child = createTx(parent.getHash(), 99990L, 10L, 5L);
+        txMemoryPool.add(new TxContainer(parent), false);
+        txMemoryPool.add(new TxContainer(child), false);
+
+        assertTrue(txMemoryPool.remove(parent.getHash()));
+        assertFalse(txMemoryPool.exist(parent.getHash()));
+        assertEquals(child.getHash(), txMemoryPool.get().getTx().getHash());
+    }
+
+    /**
+     * 打包列表中父交易在子交易之前，交易留在池中，排除的交易不再返回
+     * In the packing list the parent comes before its child, the txs stay in the pool, the excluded txs are not returned.
+     */
+    @Test
+    public void testGetPackingList() throws IOException {
+        txMemoryPool.clear();
+        Transaction parent = createTx(NulsDigestData.calcDigestData("utxo6".getBytes()), 100000L, 10L, 8L);
+        Transaction child = createTx(parent.getHash(), 99990L, 5000L, 9L);
+        txMemoryPool.add(new TxContainer(child), false);
+        txMemoryPool.add(new TxContainer(parent), false);
+
+        List<TxContainer> packingList = txMemoryPool.getPackingList(Collections.emptySet(), 10);
+        assertEquals(2, packingList.size());
+        assertEquals(parent.getHash(), packingList.get(0).getTx().getHash());
+        assertEquals(child.getHash(), packingList.get(1).getTx().getHash());
+        assertEquals(2, txMemoryPool.size());
+
+        packingList = txMemoryPool.getPackingList(Collections.singleton(parent.getHash()), 10);
+        assertEquals(1, packingList.size());
+        assertEquals(child.getHash(), packingList.get(0).getTx().getHash());
+        txMemoryPool.clear();
+    }
+
+    /**
+     * 按短ID查找池中的交易，只返回要查找的短ID
+     * Find the pooled txs by short id, only the wanted short ids are returned.
+     */
+    @Test
+    public void testFindByShortId() throws IOException {
+        txMemoryPool.clear();
+        Transaction tx1 = createTx(NulsDigestData.calcDigestData("utxo4".getBytes()), 100000L, 10L, 6L);
+        Transaction tx2 = createTx(NulsDigestData.calcDigestData("utxo5".getBytes()), 100000L, 10L, 7L);
+        txMemoryPool.add(new TxContainer(tx1), false);
+        txMemoryPool.add(new TxContainer(tx2), false);
+
+        Map<Long, Transaction> txMap = new HashMap<>();
+        txMemoryPool.findByShortId(Collections.singleton(1L), hash -> hash.equals(tx1.getHash()) ? 1L : 2L, txMap);
+        assertEquals(1, txMap.size());
+        assertEquals(tx1.getHash(), txMap.get(1L).getHash());
+        assertEquals(2, txMemoryPool.size());
+        txMemoryPool.clear();
+    }
+
+    private Transaction createTx(NulsDigestData spentHash, long fromNa, long fee, long time) throws IOException {
+        byte[] hashBytes = spentHash.serialize();
+        byte[] owner = new byte[hashBytes.length + 1];
+        System.arraycopy(hashBytes, 0, owner, 0, hashBytes.length);
+        CoinData coinData = new CoinData();
+        coinData.addFrom(new Coin(owner, Na.valueOf(fromNa)));
+        coinData.addTo(new Coin(new byte[23], Na.valueOf(fromNa - fee)));
+        Transaction tx = new TestTransaction();
+        tx.setTime(time);
+        tx.setCoinData(coinData);
+        return tx;
+    }
+}
@@ -86,6 +86,16 @@ public class ConsensusBlockServiceImpl implements BlockService {
         return null;
     }
 
+    @Override
+    public Result<byte[]> getBlockBytes(NulsDigestData hash) {
+        return null;
+    }
+
+    @Override
+    public Result<byte[]> getBlockBytes(long height) {
+        return null;
+    }
+
     @Override
     public Result saveBlock(Block block) throws NulsException {
         return new Result(true, null);
@@ -96,6 +106,11 @@ public class ConsensusBlockServiceImpl implements BlockService {
         return new Result(false, null);
     }
 
+    @Override
+    public Result recoverUncommittedBlock() throws NulsException {
+        return new Result(true, null);
+    }
+
     @Override
     public Result forwardBlock(SmallBlock block, Node excludeNode) {
         return null;
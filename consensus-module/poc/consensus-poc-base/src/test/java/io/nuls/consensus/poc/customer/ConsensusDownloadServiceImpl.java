@@ -65,6 +65,11 @@ public class ConsensusDownloadServiceImpl implements DownloadService {
         return null;
     }
 
+    @Override
+    public Result<TxGroup> downloadCompactTxs(NulsDigestData blockHash, List<Integer> indexList, Node node) {
+        return null;
+    }
+
     @Override
     public Result isDownloadSuccess() {
         return new Result(isDownloadSuccess, null);
@@ -80,6 +80,11 @@ public class ConsensusNetworkService implements NetworkService {
         return null;
     }
 
+    @Override
+    public BroadcastResult sendToNodes(BaseNulsData event, Collection<Node> nodes, Node excludeNode, boolean asyn) {
+        return null;
+    }
+
     @Override
     public BroadcastResult sendToGroup(BaseNulsData event, String groupName, boolean asyn) {
         return null;
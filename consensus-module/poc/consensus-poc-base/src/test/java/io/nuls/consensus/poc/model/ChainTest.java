@@ -26,10 +26,18 @@
 
 package io.nuls.consensus.poc.model;
 
+import io.nuls.consensus.poc.protocol.entity.Agent;
+import io.nuls.consensus.poc.protocol.entity.Deposit;
+import io.nuls.consensus.poc.storage.po.PunishLogPo;
 import io.nuls.kernel.model.Block;
 import io.nuls.kernel.model.BlockHeader;
+import io.nuls.kernel.model.NulsDigestData;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+
 import static org.junit.Assert.*;
 
 /**
@@ -55,4 +63,104 @@ public class ChainTest {
         assertNotNull(bestBlock);
         assertEquals(bestBlock.getHeader().getHeight(), 100l);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAgentAndDepositIndex() {
+        Chain chain = new Chain();
+        chain.setAgentList(new ArrayList<>());
+        chain.setDepositList(new ArrayList<>());
+
+        byte[] address = "agent-address".getBytes();
+        Agent agent = new Agent();
+        agent.setTxHash(NulsDigestData.calcDigestData("agent".getBytes()));
+        agent.setAgentAddress(address);
+        chain.addAgent(agent);
+
+        Deposit deposit1 = newDeposit("deposit1", agent.getTxHash());
+        Deposit deposit2 = newDeposit("deposit2", agent.getTxHash());
+        chain.addDeposit(deposit1);
+        chain.addDeposit(deposit2);
+
+        assertEquals(agent, chain.getAgentByHash(agent.getTxHash()));
+        assertEquals(1, chain.getAgentListByAddress(address).size());
+        assertEquals(deposit2, chain.getDepositByHash(deposit2.getTxHash()));
+        assertEquals(2, chain.getDepositListByAgentHash(agent.getTxHash()).size());
+
+        chain.removeDeposit(1);
+        assertNull(chain.getDepositByHash(deposit2.getTxHash()));
+        assertEquals(1, chain.getDepositListByAgentHash(agent.getTxHash()).size());
+
+        // the list is modified directly, the index should be rebuilt
+        chain.getDepositList().remove(0);
+        assertNull(chain.getDepositByHash(deposit1.getTxHash()));
+        assertEquals(0, chain.getDepositListByAgentHash(agent.getTxHash()).size());
+
+        chain.removeAgent(0);
+        assertNull(chain.getAgentByHash(agent.getTxHash()));
+        assertEquals(0, chain.getAgentListByAddress(address).size());
+    }
+
+    @Test
+    public void testRoundIndex() {
+        Chain chain = new Chain();
+        chain.setYellowPunishList(new ArrayList<>());
+
+        byte[] packer1 = "packer1".getBytes();
+        byte[] packer2 = "packer2".getBytes();
+        BlockHeader header1 = newHeader(1, 1L, 1, packer1);
+        BlockHeader header2 = newHeader(2, 1L, 2, packer2);
+        BlockHeader header3 = newHeader(3, 2L, 1, packer1);
+        BlockHeader header4 = newHeader(4, 3L, 2, packer1);
+        chain.addBlockHeader(header1);
+        chain.addBlockHeader(header2);
+        chain.addBlockHeader(header3);
+        chain.addBlockHeader(header4);
+
+        assertEquals(Long.valueOf(2L), chain.getLowerRoundIndex(3L));
+        assertNull(chain.getLowerRoundIndex(1L));
+        assertEquals(header1, chain.getFirstBlockHeaderOfRound(1L));
+        assertEquals(header2, chain.getLastBlockHeaderOfRound(1L));
+
+        Map<String, Integer> countMap = chain.getPackedBlockCountMap(1L, 2L);
+        assertEquals(Integer.valueOf(2), countMap.get(Chain.getAddressKey(packer1)));
+        assertEquals(Integer.valueOf(1), countMap.get(Chain.getAddressKey(packer2)));
+
+        assertEquals(header4, chain.removeLastBlockHeader());
+        assertNull(chain.getFirstBlockHeaderOfRound(3L));
+        assertEquals(Integer.valueOf(2), chain.getPackedBlockCountMap(1L, 3L).get(Chain.getAddressKey(packer1)));
+
+        PunishLogPo punishLog = new PunishLogPo();
+        punishLog.setAddress(packer2);
+        punishLog.setRoundIndex(2L);
+        chain.addYellowPunish(punishLog);
+        assertEquals(Integer.valueOf(1), chain.getYellowPunishCountMap(1L, 2L).get(Chain.getAddressKey(packer2)));
+        assertTrue(chain.getYellowPunishCountMap(3L, 4L).isEmpty());
+
+        chain.removeYellowPunish(0);
+        assertTrue(chain.getYellowPunishCountMap(1L, 2L).isEmpty());
+    }
+
+    private Deposit newDeposit(String seed, NulsDigestData agentHash) {
+        Deposit deposit = new Deposit();
+        deposit.setTxHash(NulsDigestData.calcDigestData(seed.getBytes()));
+        deposit.setAgentHash(agentHash);
+        return deposit;
+    }
+
+    private BlockHeader newHeader(long height, long roundIndex, int packingIndex, byte[] packingAddress) {
+        BlockRoundData roundData = new BlockRoundData();
+        roundData.setRoundIndex(roundIndex);
+        roundData.setPackingIndexOfRound(packingIndex);
+        roundData.setConsensusMemberCount(2);
+        roundData.setRoundStartTime(roundIndex);
+        BlockHeader blockHeader = new BlockHeader();
+        blockHeader.setHeight(height);
+        blockHeader.setPackingAddress(packingAddress);
+        try {
+            blockHeader.setExtend(roundData.serialize());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return blockHeader;
+    }
+}
@@ -77,6 +77,18 @@ public abstract class BaseNulsData implements NulsData, Serializable, Cloneable
         }
     }
 
+    /**
+     * 直接序列化到输出流中，不生成中间字节数组
+     * Serialize straight into the output stream without an intermediate byte array.
+     */
+    public final void serializeTo(NulsOutputStreamBuffer stream) throws IOException {
+        if (size() == 0) {
+            stream.write(NulsConstant.PLACE_HOLDER);
+        } else {
+            serializeToStream(stream);
+        }
+    }
+
     /**
      * serialize important field
      */
@@ -93,6 +105,15 @@ public abstract class BaseNulsData implements NulsData, Serializable, Cloneable
 
     protected abstract void parse(NulsByteBuffer byteBuffer) throws NulsException;
 
+    /**
+     * 从字节缓冲区的当前游标处解析，解析完成后游标停在本数据之后，不复制剩余字节
+     * Parse from the current cursor of the byte buffer, the cursor stops right after this data,
+     * the remaining bytes are not copied.
+     */
+    public final void parseFrom(NulsByteBuffer byteBuffer) throws NulsException {
+        this.parse(byteBuffer);
+    }
+
     /**
      * @throws NulsException
      */
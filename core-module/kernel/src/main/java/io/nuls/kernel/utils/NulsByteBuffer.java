@@ -167,6 +167,10 @@ public class NulsByteBuffer {
         this.cursor = 0;
     }
 
+    public int getCursor() {
+        return cursor;
+    }
+
     public short readShort() throws NulsException {
         byte[] bytes = this.readBytes(2);
         if (null == bytes) {
@@ -0,0 +1,61 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.db.codec;
+
+import io.nuls.kernel.exception.NulsException;
+import io.nuls.kernel.utils.NulsByteBuffer;
+import io.nuls.kernel.utils.NulsOutputStreamBuffer;
+
+import java.io.IOException;
+
+/**
+ * 存储对象的编解码器，替代基于反射的protostuff序列化，由各存储模块为自己的对象实现并注册到{@link ModelCodecManager}
+ * The codec of a stored model, replacing the reflection based protostuff serialization.
+ * Every storage module implements it for its own models and registers it to {@link ModelCodecManager}.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public interface ModelCodec<T> {
+
+    /**
+     * 将对象写入输出流
+     * Write the model into the stream.
+     *
+     * @param value
+     * @param stream
+     * @throws IOException
+     */
+    void encode(T value, NulsOutputStreamBuffer stream) throws IOException;
+
+    /**
+     * 从存储的数据中读取对象，缓冲区直接包装存储的字节数组，编码头不经复制直接跳过
+     * Read the model from the stored data, the buffer wraps the stored byte array directly and the codec header is skipped without copying.
+     *
+     * @param buffer
+     * @return
+     * @throws NulsException
+     */
+    T decode(NulsByteBuffer buffer) throws NulsException;
+}
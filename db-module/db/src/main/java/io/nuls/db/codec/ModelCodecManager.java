@@ -0,0 +1,178 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.db.codec;
+
+import io.nuls.kernel.exception.NulsException;
+import io.nuls.kernel.utils.NulsByteBuffer;
+import io.nuls.kernel.utils.NulsOutputStreamBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 存储对象编解码器的注册中心
+ * 编码后的数据以{@link #CODEC_MARK}和编解码器id开头，protostuff编码的数据第一个字节不可能是0，据此区分新旧两种格式，旧数据仍然可以读取
+ * The registry of the model codecs.
+ * The encoded data starts with {@link #CODEC_MARK} and the codec id, the first byte of protostuff data can never be 0,
+ * so the two formats can be told apart and the old data can still be read.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class ModelCodecManager {
+
+    public static final byte CODEC_MARK = 0;
+
+    public static final int MAX_CODEC_ID = 127;
+
+    private static final int HEADER_SIZE = 2;
+
+    private static final byte NO_CODEC = 0;
+
+    private static final int MAX_CACHED_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 注册时整体替换，读取时不需要加锁
+     * Replaced as a whole on registering, so reading needs no lock.
+     */
+    private static volatile ModelCodec[] codecs = new ModelCodec[MAX_CODEC_ID + 1];
+
+    private static final Map<Class, Byte> REGISTERED = new ConcurrentHashMap<>();
+
+    /**
+     * 对象的实际类到编解码器id的缓存，没有编解码器的类也缓存下来，避免每次都遍历父类
+     * The cache of the actual class to the codec id, classes without a codec are cached too, to avoid walking the super classes every time.
+     */
+    private static final Map<Class, Byte> CODEC_ID_CACHE = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFER = ThreadLocal.withInitial(() -> new ByteArrayOutputStream(1024));
+
+    /**
+     * 注册编解码器，对该类及其子类的对象都生效，id写入存储数据中，必须固定不变
+     * Register a codec, it works for the models of the class and its sub classes, the id is written into the stored data and must never change.
+     *
+     * @param codecId 编解码器id/codec id, 1-127
+     * @param clazz
+     * @param codec
+     */
+    public static synchronized <T> void register(int codecId, Class<T> clazz, ModelCodec<T> codec) {
+        if (codecId <= 0 || codecId > MAX_CODEC_ID) {
+            throw new IllegalArgumentException("codec id out of range: " + codecId);
+        }
+        Byte exist = REGISTERED.get(clazz);
+        if (null != exist && exist == codecId) {
+            return;
+        }
+        if (null != exist || null != codecs[codecId]) {
+            throw new IllegalArgumentException("codec already registered: " + codecId + ", " + clazz.getName());
+        }
+        ModelCodec[] array = codecs.clone();
+        array[codecId] = codec;
+        codecs = array;
+        REGISTERED.put(clazz, (byte) codecId);
+        CODEC_ID_CACHE.clear();
+    }
+
+    /**
+     * 使用注册的编解码器编码对象，没有对应的编解码器时返回null
+     * 编码使用线程内复用的缓冲区，只有最终结果需要分配
+     * Encode the model with the registered codec, null if there is no codec for it.
+     * Encoding uses a buffer reused in the thread, only the result needs to be allocated.
+     *
+     * @param value
+     * @return
+     * @throws IOException
+     */
+    public static byte[] encode(Object value) throws IOException {
+        if (null == value) {
+            return null;
+        }
+        byte codecId = getCodecId(value.getClass());
+        if (codecId == NO_CODEC) {
+            return null;
+        }
+        ByteArrayOutputStream bos = BUFFER.get();
+        bos.reset();
+        try {
+            bos.write(CODEC_MARK);
+            bos.write(codecId);
+            codecs[codecId].encode(value, new NulsOutputStreamBuffer(bos));
+            return bos.toByteArray();
+        } finally {
+            if (bos.size() > MAX_CACHED_BUFFER_SIZE) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    /**
+     * 数据是否由编解码器编码
+     * Whether the data is encoded by a codec.
+     *
+     * @param bytes
+     * @return
+     */
+    public static boolean isEncoded(byte[] bytes) {
+        return null != bytes && bytes.length >= HEADER_SIZE && bytes[0] == CODEC_MARK;
+    }
+
+    /**
+     * 使用数据中记录的编解码器解码对象，调用前需要用{@link #isEncoded(byte[])}判断
+     * Decode the model with the codec recorded in the data, check it with {@link #isEncoded(byte[])} first.
+     *
+     * @param bytes
+     * @return
+     * @throws NulsException
+     */
+    public static Object decode(byte[] bytes) throws NulsException {
+        int codecId = bytes[1];
+        ModelCodec codec = codecId > 0 ? codecs[codecId] : null;
+        if (null == codec) {
+            throw new IllegalStateException("codec not registered: " + codecId);
+        }
+        if (bytes.length == HEADER_SIZE) {
+            return null;
+        }
+        return codec.decode(new NulsByteBuffer(bytes, HEADER_SIZE));
+    }
+
+    private static byte getCodecId(Class clazz) {
+        Byte codecId = CODEC_ID_CACHE.get(clazz);
+        if (null != codecId) {
+            return codecId;
+        }
+        codecId = NO_CODEC;
+        for (Class c = clazz; c != null; c = c.getSuperclass()) {
+            Byte id = REGISTERED.get(c);
+            if (null != id) {
+                codecId = id;
+                break;
+            }
+        }
+        CODEC_ID_CACHE.put(clazz, codecId);
+        return codecId;
+    }
+}
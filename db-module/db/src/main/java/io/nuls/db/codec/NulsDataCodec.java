@@ -0,0 +1,61 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.db.codec;
+
+import io.nuls.kernel.exception.NulsException;
+import io.nuls.kernel.model.BaseNulsData;
+import io.nuls.kernel.utils.NulsByteBuffer;
+import io.nuls.kernel.utils.NulsOutputStreamBuffer;
+
+import java.io.IOException;
+
+/**
+ * 已实现NULS序列化的对象的通用编解码器，直接使用对象自身的serialize和parse
+ * The generic codec of the models which implement the NULS serialization, uses their own serialize and parse.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class NulsDataCodec<T extends BaseNulsData> implements ModelCodec<T> {
+
+    private final Class<T> clazz;
+
+    public NulsDataCodec(Class<T> clazz) {
+        this.clazz = clazz;
+    }
+
+    @Override
+    public void encode(T value, NulsOutputStreamBuffer stream) throws IOException {
+        stream.write(value.serialize());
+    }
+
+    @Override
+    public T decode(NulsByteBuffer buffer) throws NulsException {
+        try {
+            return buffer.readNulsData(clazz.newInstance());
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new NulsException(e);
+        }
+    }
+}
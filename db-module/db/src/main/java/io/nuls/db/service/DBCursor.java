@@ -0,0 +1,66 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.db.service;
+
+import io.nuls.db.model.Entry;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * 数据区域的流式游标，按key的字节序逐条读取，不会一次性加载整个数据区域
+ * 使用完毕后必须调用close释放底层迭代器
+ * A streaming cursor over a data area. Entries are read one by one in the byte order of the keys,
+ * the whole area is never loaded into memory. The cursor must be closed after use to release the underlying iterator.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public interface DBCursor extends Iterator<Entry<byte[], byte[]>>, Closeable {
+
+    /**
+     * 跳过前count条记录，必须在开始读取之前调用
+     * Skip the first count entries, must be called before the first read.
+     *
+     * @param count
+     * @return
+     */
+    DBCursor skip(long count);
+
+    /**
+     * 最多返回count条记录，必须在开始读取之前调用
+     * Return at most count entries, must be called before the first read.
+     *
+     * @param count
+     * @return
+     */
+    DBCursor limit(long count);
+
+    /**
+     * 关闭游标，释放底层迭代器
+     * Close the cursor and release the underlying iterator.
+     */
+    @Override
+    void close();
+}
@@ -156,6 +156,32 @@ public interface DBService {
      */
     Object getModel(String area, byte[] key);
 
+    /**
+     * 批量获取value，key按存储顺序排序后在同一个快照中读取
+     * 返回的value与keys一一对应，不存在的key对应null
+     * Get the values of several keys, the keys are sorted in storage order and read from one snapshot.
+     * The returned values correspond to the keys one by one, null for the keys that do not exist.
+     *
+     * @param area
+     * @param keys
+     * @return 数据区域不存在时返回null/null if the area does not exist.
+     */
+    List<byte[]> multiGet(String area, List<byte[]> keys);
+
+    /**
+     * 批量获取指定对象，前提是这些key的存储方式是putModel
+     * 返回的对象与keys一一对应，不存在的key对应null
+     * Get the specified objects of several keys, the premise is that these keys are stored by putModel.
+     * The returned objects correspond to the keys one by one, null for the keys that do not exist.
+     *
+     * @param area
+     * @param keys
+     * @param clazz 指定对象的class/Specifies the class of the object.
+     * @param <T>
+     * @return 数据区域不存在时返回null/null if the area does not exist.
+     */
+    <T> List<T> multiGetModel(String area, List<byte[]> keys, Class<T> clazz);
+
     /**
      * 获取数据区域的所有key的无序集合
      * Gets an unordered collection of all keys in the data area.
@@ -228,6 +254,50 @@ public interface DBService {
      */
     <T> List<T> values(String area, Class<T> clazz);
 
+    /**
+     * 按key前缀顺序遍历数据区域，返回流式游标，使用完毕后必须关闭
+     * Iterate the data area by key prefix in order, returns a streaming cursor which must be closed after use.
+     *
+     * @param area
+     * @param prefix key前缀，为null时遍历整个数据区域/key prefix, iterate the whole area when it is null.
+     * @return 数据区域不存在时返回null/null if the area does not exist.
+     */
+    DBCursor seek(String area, byte[] prefix);
+
+    /**
+     * 按key前缀遍历数据区域，可指定逆序
+     * Iterate the data area by key prefix, optionally in reverse order.
+     *
+     * @param area
+     * @param prefix  key前缀，为null时遍历整个数据区域/key prefix, iterate the whole area when it is null.
+     * @param reverse 是否逆序/whether to iterate in reverse order.
+     * @return 数据区域不存在时返回null/null if the area does not exist.
+     */
+    DBCursor seek(String area, byte[] prefix, boolean reverse);
+
+    /**
+     * 按key范围[from, to)顺序遍历数据区域，返回流式游标，使用完毕后必须关闭
+     * Iterate the key range [from, to) of the data area in order, returns a streaming cursor which must be closed after use.
+     *
+     * @param area
+     * @param from 起始key(包含)，为null时从第一条开始/first key (inclusive), start from the first entry when it is null.
+     * @param to   结束key(不包含)，为null时到最后一条/last key (exclusive), end at the last entry when it is null.
+     * @return 数据区域不存在时返回null/null if the area does not exist.
+     */
+    DBCursor range(String area, byte[] from, byte[] to);
+
+    /**
+     * 按key范围[from, to)遍历数据区域，可指定逆序
+     * Iterate the key range [from, to) of the data area, optionally in reverse order.
+     *
+     * @param area
+     * @param from    起始key(包含)/first key (inclusive).
+     * @param to      结束key(不包含)/last key (exclusive).
+     * @param reverse 是否逆序/whether to iterate in reverse order.
+     * @return 数据区域不存在时返回null/null if the area does not exist.
+     */
+    DBCursor range(String area, byte[] from, byte[] to, boolean reverse);
+
     /**
      * 指定数据区域的批量增删改操作
      * Specifies the batch add, delete, update operations in the data area.
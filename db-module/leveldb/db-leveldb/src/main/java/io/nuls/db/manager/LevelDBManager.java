@@ -26,11 +26,18 @@ package io.nuls.db.manager;
 import io.nuls.core.tools.cfg.ConfigLoader;
 import io.nuls.core.tools.log.Log;
 import io.nuls.core.tools.str.StringUtils;
+import io.nuls.db.codec.ModelCodecManager;
+import io.nuls.db.constant.DBConstant;
 import io.nuls.db.constant.DBErrorCode;
 import io.nuls.db.model.Entry;
 import io.nuls.db.model.ModelWrapper;
+import io.nuls.db.service.impl.DBCursorImpl;
 import io.nuls.kernel.constant.KernelErrorCode;
+import io.nuls.kernel.exception.NulsException;
+import io.nuls.kernel.exception.NulsRuntimeException;
 import io.nuls.kernel.model.Result;
+import io.nuls.kernel.thread.manager.NulsThreadFactory;
+import io.nuls.kernel.thread.manager.TaskManager;
 import io.protostuff.LinkedBuffer;
 import io.protostuff.ProtostuffIOUtil;
 import io.protostuff.runtime.RuntimeSchema;
@@ -38,6 +45,8 @@ import org.iq80.leveldb.DB;
 import org.iq80.leveldb.DBFactory;
 import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
+import org.iq80.leveldb.ReadOptions;
+import org.iq80.leveldb.Snapshot;
 import org.iq80.leveldb.impl.Iq80DBFactory;
 
 import java.io.File;
@@ -45,6 +54,8 @@ import java.io.IOException;
 import java.net.URL;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static io.nuls.core.tools.str.StringUtils.bytes;
@@ -64,6 +75,8 @@ public class LevelDBManager {
 
     private static final Map<Class, RuntimeSchema> SCHEMA_MAP = new ConcurrentHashMap<>();
 
+    private static final ThreadLocal<LinkedBuffer> LINKED_BUFFER = ThreadLocal.withInitial(() -> LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE));
+
     private static final String BASE_DB_NAME = "leveldb";
 
     private static volatile boolean isInit = false;
@@ -72,6 +85,33 @@ public class LevelDBManager {
 
     private static String dataPath;
 
+    /**
+     * 存储引擎: java为纯Java实现的LevelDB，jni为原生LevelDB(leveldbjni)，原生库不可用时回退到java
+     * Storage engine: java is the pure-Java LevelDB port, jni is the native LevelDB (leveldbjni), falls back to java when the native library is not available.
+     */
+    private static final String ENGINE_JAVA = "java";
+    private static final String ENGINE_JNI = "jni";
+    private static final String JNI_FACTORY_CLASS = "org.fusesource.leveldbjni.JniDBFactory";
+
+    private static DBFactory factory = Iq80DBFactory.factory;
+
+    private static Properties config = new Properties();
+
+    private static final Map<String, LevelDBProfile> PROFILES = new ConcurrentHashMap<>();
+
+    /**
+     * 批量读取时每个读取任务至少分到的key数量，key较少时在调用线程中顺序读取
+     * The minimum number of keys per task of a multi get, fewer keys are read in the calling thread.
+     */
+    private static final int MULTI_GET_MIN_TASK_SIZE = 64;
+
+    /**
+     * 批量读取的线程池，leveldb.read.threads为0时不创建，全部在调用线程中读取
+     * Thread pool of multi get, not created when leveldb.read.threads is 0, then all keys are read in the calling thread.
+     */
+    private static int readThreads;
+    private static ExecutorService readPool;
+
     public static int getMax() {
         return max;
     }
@@ -88,6 +128,10 @@ public class LevelDBManager {
                 dataPath = dir.getPath();
                 Log.info("LevelDBManager dataPath is " + dataPath);
 
+                config = ConfigLoader.loadProperties("db_config.properties");
+                factory = loadFactory(config.getProperty("leveldb.engine", ENGINE_JAVA));
+                initReadPool(config.getProperty("leveldb.read.threads", "0"));
+
                 initSchema();
                 initBaseDB(dataPath);
 
@@ -117,6 +161,52 @@ public class LevelDBManager {
 
     }
 
+    private static DBFactory loadFactory(String engine) {
+        if (ENGINE_JNI.equalsIgnoreCase(engine.trim())) {
+            try {
+                // 加载JniDBFactory时会装载原生库，失败时回退到纯Java实现
+                // loading JniDBFactory loads the native library, fall back to the pure-Java port on failure
+                DBFactory jniFactory = (DBFactory) Class.forName(JNI_FACTORY_CLASS).getField("factory").get(null);
+                Log.info("LevelDBManager engine is native leveldb: " + jniFactory);
+                return jniFactory;
+            } catch (Throwable e) {
+                Log.warn("native leveldb is not available, use the java engine instead", e);
+            }
+        } else if (!ENGINE_JAVA.equalsIgnoreCase(engine.trim())) {
+            Log.warn("unknown leveldb engine: " + engine + ", use the java engine instead");
+        }
+        Log.info("LevelDBManager engine is java leveldb");
+        return Iq80DBFactory.factory;
+    }
+
+    private static void initReadPool(String threads) {
+        try {
+            readThreads = Integer.parseInt(threads.trim());
+        } catch (NumberFormatException e) {
+            Log.warn("invalid leveldb.read.threads: " + threads);
+            readThreads = 0;
+        }
+        if (readThreads > 0) {
+            readPool = TaskManager.createThreadPool(readThreads, 0, new NulsThreadFactory(DBConstant.MODULE_ID_DB, "leveldb-read"));
+        }
+    }
+
+    /**
+     * 获取数据区域的调优参数，由leveldb.area.[areaName].profile指定，未指定时使用default
+     * Get the tuning profile of the area, specified by leveldb.area.[areaName].profile, use default when it is not specified.
+     *
+     * @param areaName
+     * @return
+     */
+    public static LevelDBProfile getProfile(String areaName) {
+        String profileName = config.getProperty("leveldb.area." + areaName + ".profile", LevelDBProfile.DEFAULT_PROFILE).trim();
+        return PROFILES.computeIfAbsent(profileName, name -> LevelDBProfile.load(config, name));
+    }
+
+    private static Options createOptions(String areaName) {
+        return getProfile(areaName).apply(new Options());
+    }
+
     private static void initSchema() {
         RuntimeSchema schema = RuntimeSchema.createFrom(ModelWrapper.class);
         SCHEMA_MAP.put(ModelWrapper.class, schema);
@@ -295,7 +385,6 @@ public class LevelDBManager {
     private static void destroyDB(String dbPath) throws IOException {
         File file = new File(dbPath);
         Options options = new Options();
-        DBFactory factory = Iq80DBFactory.factory;
         factory.destroy(file, options);
     }
 
@@ -341,8 +430,6 @@ public class LevelDBManager {
         if (!checkFile.exists()) {
             return null;
         }
-        Options options = new Options().createIfMissing(false);
-
         /*
          * Area的自定义比较器，启动数据库时获取并装载它
          * Area的自定义cacheSize，启动数据库时获取并装载它，否则，启动已存在的Area时会丢失之前的cacheSize设置。
@@ -350,6 +437,7 @@ public class LevelDBManager {
          * the custom cacheSize of the Area will be retrieved and loaded on the database is started, otherwise, the previous cacheSize setting will be lost when the existing Area is started.
          */
         String areaName = getAreaNameFromDbPath(dbPath);
+        Options options = createOptions(areaName).createIfMissing(false);
         Comparator comparator = getModel(BASE_AREA_NAME, bytes(areaName + "-comparator"), Comparator.class);
         if (comparator != null) {
             AREAS_COMPARATOR.put(areaName, comparator);
@@ -359,7 +447,6 @@ public class LevelDBManager {
             options.cacheSize(cacheSize);
         }
         File file = new File(dbPath);
-        DBFactory factory = Iq80DBFactory.factory;
         return factory.open(file, options);
     }
 
@@ -381,7 +468,7 @@ public class LevelDBManager {
     private static DB openDB(String dbPath, boolean createIfMissing, Long cacheSize, Comparator<byte[]> comparator) throws IOException {
         File file = new File(dbPath);
         String areaName = getAreaNameFromDbPath(dbPath);
-        Options options = new Options().createIfMissing(createIfMissing);
+        Options options = createOptions(areaName).createIfMissing(createIfMissing);
         if (cacheSize != null) {
             putModel(BASE_AREA_NAME, bytes(areaName + "-cacheSize"), cacheSize);
             options.cacheSize(cacheSize);
@@ -390,7 +477,6 @@ public class LevelDBManager {
             putModel(BASE_AREA_NAME, bytes(areaName + "-comparator"), comparator);
             AREAS_COMPARATOR.put(areaName, comparator);
         }
-        DBFactory factory = Iq80DBFactory.factory;
         return factory.open(file, options);
     }
 
@@ -526,15 +612,76 @@ public class LevelDBManager {
         }
     }
 
+    /**
+     * 序列化存储对象，注册了编解码器的对象使用编解码器，否则使用protostuff
+     * Serialize the stored model, use the registered codec if there is one, otherwise use protostuff.
+     *
+     * @param value
+     * @param <T>
+     * @return
+     */
     public static <T> byte[] getModelSerialize(T value) {
+        try {
+            byte[] bytes = ModelCodecManager.encode(value);
+            if (bytes != null) {
+                return bytes;
+            }
+        } catch (IOException e) {
+            throw new NulsRuntimeException(e);
+        }
+        return getProtostuffSerialize(value);
+    }
+
+    /**
+     * 使用protostuff序列化存储对象，缓冲区在线程内复用
+     * Serialize the stored model with protostuff, the buffer is reused in the thread.
+     *
+     * @param value
+     * @param <T>
+     * @return
+     */
+    public static <T> byte[] getProtostuffSerialize(T value) {
         if (SCHEMA_MAP.get(ModelWrapper.class) == null) {
             RuntimeSchema schema = RuntimeSchema.createFrom(ModelWrapper.class);
             SCHEMA_MAP.put(ModelWrapper.class, schema);
         }
         RuntimeSchema schema = SCHEMA_MAP.get(ModelWrapper.class);
         ModelWrapper modelWrapper = new ModelWrapper(value);
-        byte[] bytes = ProtostuffIOUtil.toByteArray(modelWrapper, schema, LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE));
-        return bytes;
+        LinkedBuffer buffer = LINKED_BUFFER.get();
+        try {
+            return ProtostuffIOUtil.toByteArray(modelWrapper, schema, buffer);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * 反序列化存储对象，根据数据格式选择编解码器或protostuff
+     * Deserialize the stored model, choose the codec or protostuff according to the data format.
+     *
+     * @param bytes
+     * @param clazz
+     * @param <T>
+     * @return
+     * @throws NulsException
+     */
+    public static <T> T parseModel(byte[] bytes, Class<T> clazz) throws NulsException {
+        if (bytes == null) {
+            return null;
+        }
+        Object value;
+        if (ModelCodecManager.isEncoded(bytes)) {
+            value = ModelCodecManager.decode(bytes);
+        } else {
+            RuntimeSchema schema = SCHEMA_MAP.get(ModelWrapper.class);
+            ModelWrapper model = new ModelWrapper();
+            ProtostuffIOUtil.mergeFrom(bytes, model, schema);
+            value = model.getT();
+        }
+        if (clazz != null && value != null) {
+            return clazz.cast(value);
+        }
+        return (T) value;
     }
 
     /**
@@ -653,20 +800,129 @@ public class LevelDBManager {
         try {
             DB db = AREAS.get(area);
             byte[] bytes = db.get(key);
-            if (bytes == null) {
-                return null;
+            return parseModel(bytes, clazz);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 遍历时直接解析迭代器中的值，不再按key重新查询，单条解析失败时返回null，与getModel一致
+     * Parse the value of the iterator directly while iterating instead of querying by key again,
+     * returns null if the entry can not be parsed, the same as getModel.
+     */
+    private static <T> T parseModelQuietly(byte[] bytes, Class<T> clazz) {
+        try {
+            return parseModel(bytes, clazz);
+        } catch (Exception e) {
+            Log.error(e);
+            return null;
+        }
+    }
+
+    /**
+     * 批量读取，返回的value与keys一一对应，不存在的key对应null
+     * key按存储顺序排序后在同一个快照中读取，key较多且配置了读取线程池时，按排序后的连续区间分给多个线程读取
+     * Multi get, the returned values correspond to the keys one by one, null for the keys that do not exist.
+     * The keys are sorted in storage order and read from one snapshot, when there are many keys and the read pool is configured,
+     * continuous ranges of the sorted keys are read by several threads.
+     *
+     * @param area
+     * @param keys
+     * @return 数据区域不存在或读取失败时返回null/null if the area does not exist or the read fails.
+     */
+    public static List<byte[]> multiGet(String area, List<byte[]> keys) {
+        if (!baseCheckArea(area)) {
+            return null;
+        }
+        if (keys == null) {
+            return null;
+        }
+        int size = keys.size();
+        byte[][] values = new byte[size][];
+        if (size == 0) {
+            return new ArrayList<>();
+        }
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (o1, o2) -> {
+            byte[] k1 = keys.get(o1);
+            byte[] k2 = keys.get(o2);
+            if (k1 == null || k2 == null) {
+                return k1 == null ? (k2 == null ? 0 : -1) : 1;
             }
-            RuntimeSchema schema = SCHEMA_MAP.get(ModelWrapper.class);
-            ModelWrapper model = new ModelWrapper();
-            ProtostuffIOUtil.mergeFrom(bytes, model, schema);
-            if (clazz != null && model.getT() != null) {
-                return clazz.cast(model.getT());
+            return DBCursorImpl.compareBytes(k1, k2);
+        });
+        DB db = AREAS.get(area);
+        Snapshot snapshot = null;
+        try {
+            snapshot = db.getSnapshot();
+            ReadOptions readOptions = new ReadOptions().snapshot(snapshot);
+            int tasks = readPool == null ? 1 : Math.min(readThreads + 1, size / MULTI_GET_MIN_TASK_SIZE);
+            if (tasks <= 1) {
+                multiGet(db, readOptions, keys, order, 0, size, values);
+            } else {
+                int step = (size + tasks - 1) / tasks;
+                List<Future<?>> futures = new ArrayList<>();
+                for (int start = step; start < size; start += step) {
+                    int from = start;
+                    int to = Math.min(start + step, size);
+                    futures.add(readPool.submit(() -> multiGet(db, readOptions, keys, order, from, to, values)));
+                }
+                // 第一段在调用线程中读取/the first range is read in the calling thread
+                multiGet(db, readOptions, keys, order, 0, step, values);
+                for (Future<?> future : futures) {
+                    future.get();
+                }
             }
-            return (T) model.getT();
+            return new ArrayList<>(Arrays.asList(values));
         } catch (Exception e) {
-            e.printStackTrace();
+            Log.error(e);
             return null;
+        } finally {
+            if (snapshot != null) {
+                try {
+                    snapshot.close();
+                } catch (IOException e) {
+                    Log.warn("close leveldb snapshot error", e);
+                }
+            }
+        }
+    }
+
+    private static void multiGet(DB db, ReadOptions readOptions, List<byte[]> keys, Integer[] order, int from, int to, byte[][] values) {
+        for (int i = from; i < to; i++) {
+            int index = order[i];
+            byte[] key = keys.get(index);
+            if (key != null) {
+                values[index] = db.get(key, readOptions);
+            }
+        }
+    }
+
+    /**
+     * 批量读取对象，返回的对象与keys一一对应，不存在或解析失败的key对应null
+     * Multi get objects, the returned objects correspond to the keys one by one, null for the keys that do not exist or can not be parsed.
+     *
+     * @param area
+     * @param keys
+     * @param clazz 指定对象的class/Specifies the class of the object.
+     * @param <T>
+     * @return 数据区域不存在或读取失败时返回null/null if the area does not exist or the read fails.
+     */
+    public static <T> List<T> multiGetModel(String area, List<byte[]> keys, Class<T> clazz) {
+        List<byte[]> values = multiGet(area, keys);
+        if (values == null) {
+            return null;
+        }
+        List<T> models = new ArrayList<>(values.size());
+        for (byte[] value : values) {
+            models.add(parseModelQuietly(value, clazz));
         }
+        return models;
     }
 
     public static Set<byte[]> keySet(String area) {
@@ -828,7 +1084,7 @@ public class LevelDBManager {
                 t = null;
                 entry = iterator.peekNext();
                 key = entry.getKey();
-                t = getModel(area, entry.getKey(), clazz);
+                t = parseModelQuietly(entry.getValue(), clazz);
                 entryList.add(new Entry<byte[], T>(key, t, comparator));
             }
             // 如果自定义了比较器，则执行排序
@@ -894,7 +1150,7 @@ public class LevelDBManager {
             for (iterator.seekToFirst(); iterator.hasNext(); iterator.next()) {
                 t = null;
                 entry = iterator.peekNext();
-                t = getModel(area, entry.getKey(), clazz);
+                t = parseModelQuietly(entry.getValue(), clazz);
                 list.add(t);
             }
         } catch (Exception e) {
@@ -0,0 +1,160 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.db.manager;
+
+import io.nuls.core.tools.log.Log;
+import io.nuls.core.tools.str.StringUtils;
+import org.iq80.leveldb.CompressionType;
+import org.iq80.leveldb.Options;
+
+import java.util.Properties;
+
+/**
+ * 数据区域的LevelDB调优参数，从db_config.properties中按名称加载:
+ * leveldb.profile.[name].blockSize/writeBufferSize/cacheSize/maxOpenFiles/blockRestartInterval/compression
+ * 未配置的参数保持LevelDB的默认值
+ * LevelDB tuning options of a data area, loaded by name from db_config.properties.
+ * Options that are not configured keep the LevelDB defaults.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class LevelDBProfile {
+
+    public static final String DEFAULT_PROFILE = "default";
+
+    private static final String PROFILE_PREFIX = "leveldb.profile.";
+
+    private final String name;
+    private Integer blockSize;
+    private Integer writeBufferSize;
+    private Long cacheSize;
+    private Integer maxOpenFiles;
+    private Integer blockRestartInterval;
+    private CompressionType compressionType;
+
+    public LevelDBProfile(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 从配置中加载指定名称的调优参数
+     * Load the tuning options with the given name from the configuration.
+     *
+     * @param properties
+     * @param name
+     * @return
+     */
+    public static LevelDBProfile load(Properties properties, String name) {
+        LevelDBProfile profile = new LevelDBProfile(name);
+        String prefix = PROFILE_PREFIX + name + ".";
+        profile.blockSize = getInt(properties, prefix + "blockSize");
+        profile.writeBufferSize = getInt(properties, prefix + "writeBufferSize");
+        profile.maxOpenFiles = getInt(properties, prefix + "maxOpenFiles");
+        profile.blockRestartInterval = getInt(properties, prefix + "blockRestartInterval");
+        Integer cacheSize = getInt(properties, prefix + "cacheSize");
+        if (cacheSize != null) {
+            profile.cacheSize = cacheSize.longValue();
+        }
+        String compression = properties.getProperty(prefix + "compression");
+        if (StringUtils.isNotBlank(compression)) {
+            try {
+                profile.compressionType = CompressionType.valueOf(compression.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                Log.warn("unknown leveldb compression: " + compression + ", profile: " + name);
+            }
+        }
+        return profile;
+    }
+
+    private static Integer getInt(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            Log.warn("invalid leveldb option: " + key + "=" + value);
+            return null;
+        }
+    }
+
+    /**
+     * 将调优参数设置到LevelDB的Options中
+     * Apply the tuning options to the LevelDB Options.
+     *
+     * @param options
+     * @return
+     */
+    public Options apply(Options options) {
+        if (blockSize != null) {
+            options.blockSize(blockSize);
+        }
+        if (writeBufferSize != null) {
+            options.writeBufferSize(writeBufferSize);
+        }
+        if (cacheSize != null) {
+            options.cacheSize(cacheSize);
+        }
+        if (maxOpenFiles != null) {
+            options.maxOpenFiles(maxOpenFiles);
+        }
+        if (blockRestartInterval != null) {
+            options.blockRestartInterval(blockRestartInterval);
+        }
+        if (compressionType != null) {
+            options.compressionType(compressionType);
+        }
+        return options;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Integer getBlockSize() {
+        return blockSize;
+    }
+
+    public Integer getWriteBufferSize() {
+        return writeBufferSize;
+    }
+
+    public Long getCacheSize() {
+        return cacheSize;
+    }
+
+    public Integer getMaxOpenFiles() {
+        return maxOpenFiles;
+    }
+
+    public Integer getBlockRestartInterval() {
+        return blockRestartInterval;
+    }
+
+    public CompressionType getCompressionType() {
+        return compressionType;
+    }
+}
@@ -0,0 +1,253 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.db.service.impl;
+
+import io.nuls.db.constant.DBErrorCode;
+import io.nuls.db.manager.LevelDBManager;
+import io.nuls.db.model.Entry;
+import io.nuls.db.service.DBCursor;
+import io.nuls.kernel.model.Result;
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.DBIterator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 基于DBIterator的流式游标，遍历范围为[from, to)，按key的字节序返回
+ * 纯Java版LevelDB的迭代器不支持反向迭代，逆序遍历时只缓存范围内最后(skip + limit)条记录
+ * A streaming cursor wrapping DBIterator, iterates the range [from, to) in the byte order of the keys.
+ * The pure Java LevelDB iterator does not support backward iteration, so a reverse cursor only buffers
+ * the last (skip + limit) entries of the range.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class DBCursorImpl implements DBCursor {
+
+    private static final Result SUCCESS = Result.getSuccess();
+    private DBIterator iterator;
+    private final byte[] from;
+    private final byte[] to;
+    private final boolean reverse;
+
+    private long skip = 0L;
+    private long limit = Long.MAX_VALUE;
+    private long returned = 0L;
+
+    private boolean started = false;
+    private boolean finished = false;
+    private volatile boolean isClose = false;
+
+    private Entry<byte[], byte[]> nextEntry;
+    private ArrayDeque<Entry<byte[], byte[]>> reverseBuffer;
+
+    DBCursorImpl(String area, byte[] from, byte[] to, boolean reverse) {
+        this.from = from;
+        this.to = to;
+        this.reverse = reverse;
+        DB db = LevelDBManager.getArea(area);
+        if (db != null) {
+            iterator = db.iterator();
+        }
+    }
+
+    public Result checkCursor() {
+        if (iterator == null) {
+            return Result.getFailed(DBErrorCode.DB_AREA_NOT_EXIST);
+        }
+        return SUCCESS;
+    }
+
+    /**
+     * 计算前缀的上界(不包含)，前缀全部为0xff时返回null，表示没有上界
+     * Calculate the exclusive upper bound of the prefix, returns null (no upper bound) when the prefix is all 0xff.
+     *
+     * @param prefix
+     * @return
+     */
+    public static byte[] prefixEnd(byte[] prefix) {
+        if (prefix == null) {
+            return null;
+        }
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if (prefix[i] != (byte) 0xff) {
+                byte[] end = new byte[i + 1];
+                System.arraycopy(prefix, 0, end, 0, i + 1);
+                end[i]++;
+                return end;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按无符号字节序比较，与LevelDB默认的BytewiseComparator一致
+     * Compare in unsigned byte order, the same as the default BytewiseComparator of LevelDB.
+     */
+    public static int compareBytes(byte[] a, byte[] b) {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            int x = a[i] & 0xff;
+            int y = b[i] & 0xff;
+            if (x != y) {
+                return x - y;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    @Override
+    public DBCursor skip(long count) {
+        if (started) {
+            throw new IllegalStateException("cursor already started");
+        }
+        this.skip = Math.max(0L, count);
+        return this;
+    }
+
+    @Override
+    public DBCursor limit(long count) {
+        if (started) {
+            throw new IllegalStateException("cursor already started");
+        }
+        this.limit = Math.max(0L, count);
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (isClose) {
+            return false;
+        }
+        if (!started) {
+            start();
+        }
+        if (nextEntry == null && returned < limit) {
+            nextEntry = fetch();
+        }
+        return nextEntry != null;
+    }
+
+    @Override
+    public Entry<byte[], byte[]> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Entry<byte[], byte[]> entry = nextEntry;
+        nextEntry = null;
+        returned++;
+        return entry;
+    }
+
+    private void start() {
+        started = true;
+        if (from != null) {
+            iterator.seek(from);
+        } else {
+            iterator.seekToFirst();
+        }
+        if (reverse) {
+            fillReverseBuffer();
+        }
+        for (long i = 0; i < skip; i++) {
+            if (fetch() == null) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 顺序读取范围内的记录，只保留最后(skip + limit)条，然后释放迭代器
+     * Read the range forward and keep only the last (skip + limit) entries, then release the iterator.
+     */
+    private void fillReverseBuffer() {
+        long capacity = limit == Long.MAX_VALUE ? Long.MAX_VALUE : skip + limit;
+        reverseBuffer = new ArrayDeque<>();
+        if (capacity == 0L) {
+            finish();
+            return;
+        }
+        Entry<byte[], byte[]> entry;
+        while ((entry = fetchForward()) != null) {
+            reverseBuffer.addLast(entry);
+            if (reverseBuffer.size() > capacity) {
+                reverseBuffer.pollFirst();
+            }
+        }
+    }
+
+    private Entry<byte[], byte[]> fetch() {
+        if (reverse) {
+            return reverseBuffer.pollLast();
+        }
+        return fetchForward();
+    }
+
+    private Entry<byte[], byte[]> fetchForward() {
+        if (finished || isClose) {
+            return null;
+        }
+        if (!iterator.hasNext()) {
+            finish();
+            return null;
+        }
+        Map.Entry<byte[], byte[]> entry = iterator.next();
+        if (to != null && compareBytes(entry.getKey(), to) >= 0) {
+            finish();
+            return null;
+        }
+        return new Entry<>(entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * 范围读取完毕后尽早释放迭代器
+     * Release the iterator as soon as the range is exhausted.
+     */
+    private void finish() {
+        finished = true;
+        closeIterator();
+    }
+
+    private void closeIterator() {
+        if (iterator != null) {
+            try {
+                iterator.close();
+            } catch (IOException e) {
+                // skip it
+            }
+            iterator = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        this.isClose = true;
+        closeIterator();
+        nextEntry = null;
+        reverseBuffer = null;
+    }
+}
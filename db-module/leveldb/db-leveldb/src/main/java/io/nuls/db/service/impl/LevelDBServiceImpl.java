@@ -28,6 +28,7 @@ import io.nuls.core.tools.str.StringUtils;
 import io.nuls.db.manager.LevelDBManager;
 import io.nuls.db.model.Entry;
 import io.nuls.db.service.BatchOperation;
+import io.nuls.db.service.DBCursor;
 import io.nuls.db.service.DBService;
 import io.nuls.kernel.lite.annotation.Service;
 import io.nuls.kernel.model.Result;
@@ -107,6 +108,16 @@ public class LevelDBServiceImpl implements DBService {
         return LevelDBManager.getModel(area, key);
     }
 
+    @Override
+    public List<byte[]> multiGet(String area, List<byte[]> keys) {
+        return LevelDBManager.multiGet(area, keys);
+    }
+
+    @Override
+    public <T> List<T> multiGetModel(String area, List<byte[]> keys, Class<T> clazz) {
+        return LevelDBManager.multiGetModel(area, keys, clazz);
+    }
+
     @Override
     public Set<byte[]> keySet(String area) {
         return LevelDBManager.keySet(area);
@@ -142,6 +153,35 @@ public class LevelDBServiceImpl implements DBService {
         return LevelDBManager.values(area, clazz);
     }
 
+    @Override
+    public DBCursor seek(String area, byte[] prefix) {
+        return seek(area, prefix, false);
+    }
+
+    @Override
+    public DBCursor seek(String area, byte[] prefix, boolean reverse) {
+        return range(area, prefix, DBCursorImpl.prefixEnd(prefix), reverse);
+    }
+
+    @Override
+    public DBCursor range(String area, byte[] from, byte[] to) {
+        return range(area, from, to, false);
+    }
+
+    @Override
+    public DBCursor range(String area, byte[] from, byte[] to, boolean reverse) {
+        if(StringUtils.isBlank(area)) {
+            return null;
+        }
+        DBCursorImpl cursor = new DBCursorImpl(area, from, to, reverse);
+        Result result = cursor.checkCursor();
+        if(result.isFailed()) {
+            Log.error("DB cursor create error: " + result.getMsg());
+            return null;
+        }
+        return cursor;
+    }
+
     @Override
     public BatchOperation createWriteBatch(String area) {
         if(StringUtils.isBlank(area)) {
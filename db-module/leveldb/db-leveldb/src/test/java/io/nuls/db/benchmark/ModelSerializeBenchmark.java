@@ -0,0 +1,99 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.db.benchmark;
+
+import io.nuls.db.codec.ModelCodecManager;
+import io.nuls.db.codec.NulsDataCodec;
+import io.nuls.db.entity.DBCodecTestEntity;
+import io.nuls.db.manager.LevelDBManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 存储对象序列化的JMH对比：protostuff反射序列化与注册的编解码器
+ * JMH comparison of the stored model serialization: protostuff reflection serialization against the registered codec.
+ * <p>
+ * 运行/run: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=io.nuls.db.benchmark.ModelSerializeBenchmark
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelSerializeBenchmark {
+
+    private DBCodecTestEntity entity;
+
+    private byte[] protostuffBytes;
+
+    private byte[] codecBytes;
+
+    @Setup
+    public void setup() {
+        ModelCodecManager.register(100, DBCodecTestEntity.class, new NulsDataCodec<>(DBCodecTestEntity.class));
+        byte[] address = new byte[23];
+        byte[] data = new byte[200];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        entity = new DBCodecTestEntity(123456L, "benchmark", address, data);
+        protostuffBytes = LevelDBManager.getProtostuffSerialize(entity);
+        codecBytes = LevelDBManager.getModelSerialize(entity);
+    }
+
+    @Benchmark
+    public byte[] protostuffEncode() {
+        return LevelDBManager.getProtostuffSerialize(entity);
+    }
+
+    @Benchmark
+    public byte[] codecEncode() {
+        return LevelDBManager.getModelSerialize(entity);
+    }
+
+    @Benchmark
+    public DBCodecTestEntity protostuffDecode() throws Exception {
+        return LevelDBManager.parseModel(protostuffBytes, DBCodecTestEntity.class);
+    }
+
+    @Benchmark
+    public DBCodecTestEntity codecDecode() throws Exception {
+        return LevelDBManager.parseModel(codecBytes, DBCodecTestEntity.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(ModelSerializeBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.db.entity;
+
+import io.nuls.kernel.exception.NulsException;
+import io.nuls.kernel.model.BaseNulsData;
+import io.nuls.kernel.utils.NulsByteBuffer;
+import io.nuls.kernel.utils.NulsOutputStreamBuffer;
+import io.nuls.kernel.utils.SerializeUtils;
+
+import java.io.IOException;
+
+/**
+ * 编解码器测试使用的存储对象，字段类型与常见的存储对象相近
+ * The stored model used by the codec tests, the field types are close to the common storage pos.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class DBCodecTestEntity extends BaseNulsData {
+
+    private long height;
+
+    private String name;
+
+    private byte[] address;
+
+    private byte[] data;
+
+    public DBCodecTestEntity() {
+    }
+
+    public DBCodecTestEntity(long height, String name, byte[] address, byte[] data) {
+        this.height = height;
+        this.name = name;
+        this.address = address;
+        this.data = data;
+    }
+
+    @Override
+    protected void serializeToStream(NulsOutputStreamBuffer stream) throws IOException {
+        stream.writeInt64(height);
+        stream.writeString(name);
+        stream.writeBytesWithLength(address);
+        stream.writeBytesWithLength(data);
+    }
+
+    @Override
+    protected void parse(NulsByteBuffer byteBuffer) throws NulsException {
+        this.height = byteBuffer.readInt64();
+        this.name = byteBuffer.readString();
+        this.address = byteBuffer.readByLengthByte();
+        this.data = byteBuffer.readByLengthByte();
+    }
+
+    @Override
+    public int size() {
+        int size = SerializeUtils.sizeOfInt64();
+        size += SerializeUtils.sizeOfString(name);
+        size += SerializeUtils.sizeOfBytes(address);
+        size += SerializeUtils.sizeOfBytes(data);
+        return size;
+    }
+
+    public long getHeight() {
+        return height;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public byte[] getAddress() {
+        return address;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+}
@@ -24,6 +24,9 @@
 package io.nuls.db.manager;
 
 import io.nuls.core.tools.crypto.Base58;
+import io.nuls.db.codec.ModelCodecManager;
+import io.nuls.db.codec.NulsDataCodec;
+import io.nuls.db.entity.DBCodecTestEntity;
 import io.nuls.db.entity.DBTestEntity;
 import io.nuls.db.model.Entry;
 import io.nuls.kernel.cfg.NulsConfig;
@@ -454,6 +457,73 @@ public class LevelDBManagerTest {
         destroyArea(area);
     }
 
+    /**
+     * 注册了编解码器的对象使用编解码器格式存储，protostuff格式的旧数据仍然可以读取
+     * Models with a registered codec are stored in the codec format, the old protostuff data can still be read.
+     */
+    @Test
+    public void testModelCodec() throws Exception {
+        String area = "testModelCodec";
+        createArea(area);
+        DBCodecTestEntity entity = new DBCodecTestEntity(1024L, "codec", new byte[]{1, 2, 3}, new byte[]{4, 5});
+        byte[] oldBytes = getProtostuffSerialize(entity);
+        put(area, bytes("old"), oldBytes);
+
+        ModelCodecManager.register(100, DBCodecTestEntity.class, new NulsDataCodec<>(DBCodecTestEntity.class));
+        putModel(area, bytes(key), entity);
+        byte[] bytes = get(area, bytes(key));
+        Assert.assertTrue(ModelCodecManager.isEncoded(bytes));
+        Assert.assertFalse(ModelCodecManager.isEncoded(oldBytes));
+        Assert.assertTrue(bytes.length < oldBytes.length);
+
+        for (String k : new String[]{key, "old"}) {
+            DBCodecTestEntity object = getModel(area, bytes(k), DBCodecTestEntity.class);
+            Assert.assertEquals(entity.getHeight(), object.getHeight());
+            Assert.assertEquals(entity.getName(), object.getName());
+            Assert.assertArrayEquals(entity.getAddress(), object.getAddress());
+            Assert.assertArrayEquals(entity.getData(), object.getData());
+        }
+        Assert.assertEquals(2, values(area, DBCodecTestEntity.class).size());
+        destroyArea(area);
+    }
+
+    @Test
+    public void testMultiGet() throws Exception {
+        String area = "testMultiGet";
+        createArea(area);
+        List<byte[]> keys = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            // 偶数key存在，奇数key不存在/even keys exist, odd keys do not
+            if (i % 2 == 0) {
+                put(area, bytes("key-" + i), bytes("value-" + i));
+            }
+            keys.add(bytes("key-" + i));
+        }
+        // 打乱顺序，返回值仍与keys一一对应/shuffle, the values still correspond to the keys
+        Collections.shuffle(keys, new Random(1));
+        keys.add(null);
+        List<byte[]> values = multiGet(area, keys);
+        Assert.assertEquals(keys.size(), values.size());
+        for (int i = 0; i < keys.size() - 1; i++) {
+            int n = Integer.parseInt(asString(keys.get(i)).substring(4));
+            if (n % 2 == 0) {
+                Assert.assertEquals("value-" + n, asString(values.get(i)));
+            } else {
+                Assert.assertNull(values.get(i));
+            }
+        }
+        Assert.assertNull(values.get(keys.size() - 1));
+        Assert.assertNull(multiGet("not-exist-area", keys));
+
+        DBTestEntity entity = new DBTestEntity();
+        entity.setTime(1024L);
+        putModel(area, bytes("model"), entity);
+        List<DBTestEntity> models = multiGetModel(area, Arrays.asList(bytes("model"), bytes("key-1")), DBTestEntity.class);
+        Assert.assertEquals(1024L, models.get(0).getTime());
+        Assert.assertNull(models.get(1));
+        destroyArea(area);
+    }
+
     @After
     public void after() {
         close();
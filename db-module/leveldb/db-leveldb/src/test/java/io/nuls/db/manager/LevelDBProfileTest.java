@@ -0,0 +1,66 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.db.manager;
+
+import org.iq80.leveldb.CompressionType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Properties;
+
+/**
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class LevelDBProfileTest {
+
+    @Test
+    public void testLoad() {
+        Properties properties = new Properties();
+        properties.setProperty("leveldb.profile.utxo.blockSize", "4096");
+        properties.setProperty("leveldb.profile.utxo.writeBufferSize", "33554432");
+        properties.setProperty("leveldb.profile.utxo.cacheSize", "67108864");
+        properties.setProperty("leveldb.profile.utxo.compression", "none");
+        properties.setProperty("leveldb.profile.txindex.blockSize", "16384");
+
+        LevelDBProfile profile = LevelDBProfile.load(properties, "utxo");
+        Assert.assertEquals("utxo", profile.getName());
+        Assert.assertEquals(Integer.valueOf(4096), profile.getBlockSize());
+        Assert.assertEquals(Integer.valueOf(33554432), profile.getWriteBufferSize());
+        Assert.assertEquals(Long.valueOf(67108864), profile.getCacheSize());
+        Assert.assertEquals(CompressionType.NONE, profile.getCompressionType());
+        Assert.assertNull(profile.getMaxOpenFiles());
+    }
+
+    @Test
+    public void testInvalidOption() {
+        Properties properties = new Properties();
+        properties.setProperty("leveldb.profile.default.blockSize", "4k");
+        properties.setProperty("leveldb.profile.default.compression", "zstd");
+
+        LevelDBProfile profile = LevelDBProfile.load(properties, "default");
+        Assert.assertNull(profile.getBlockSize());
+        Assert.assertNull(profile.getCompressionType());
+    }
+}
@@ -236,4 +236,63 @@ public class LevelDBServiceTest {
         Assert.assertNull(dbService.get(area, bytes("entity5")));
         LevelDBManager.destroyArea(area);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCursor() {
+        String area = "testCursor";
+        dbService.createArea(area);
+        BatchOperation batch = dbService.createWriteBatch(area);
+        batch.put(bytes("a1"), bytes("a1value"));
+        batch.put(bytes("b1"), bytes("b1value"));
+        batch.put(bytes("b2"), bytes("b2value"));
+        batch.put(bytes("b3"), bytes("b3value"));
+        batch.put(bytes("b4"), bytes("b4value"));
+        batch.put(bytes("c1"), bytes("c1value"));
+        batch.executeBatch();
+
+        String keys = "";
+        try (DBCursor cursor = dbService.seek(area, bytes("b"))) {
+            while (cursor.hasNext()) {
+                keys += asString(cursor.next().getKey());
+            }
+        }
+        Assert.assertEquals("b1b2b3b4", keys);
+
+        keys = "";
+        try (DBCursor cursor = dbService.seek(area, bytes("b")).skip(1).limit(2)) {
+            while (cursor.hasNext()) {
+                keys += asString(cursor.next().getKey());
+            }
+        }
+        Assert.assertEquals("b2b3", keys);
+
+        keys = "";
+        try (DBCursor cursor = dbService.seek(area, bytes("b"), true).skip(1).limit(2)) {
+            while (cursor.hasNext()) {
+                keys += asString(cursor.next().getKey());
+            }
+        }
+        Assert.assertEquals("b3b2", keys);
+
+        keys = "";
+        try (DBCursor cursor = dbService.range(area, bytes("a1"), bytes("b3"))) {
+            while (cursor.hasNext()) {
+                Entry<byte[], byte[]> entry = cursor.next();
+                Assert.assertEquals(asString(entry.getKey()) + "value", asString(entry.getValue()));
+                keys += asString(entry.getKey());
+            }
+        }
+        Assert.assertEquals("a1b1b2", keys);
+
+        keys = "";
+        try (DBCursor cursor = dbService.range(area, null, null, true)) {
+            while (cursor.hasNext()) {
+                keys += asString(cursor.next().getKey());
+            }
+        }
+        Assert.assertEquals("c1b4b3b2b1a1", keys);
+
+        Assert.assertNull(dbService.seek("testCursorNotExist", bytes("b")));
+        LevelDBManager.destroyArea(area);
+    }
+}
@@ -54,6 +54,24 @@ public interface LedgerService {
      */
     Result rollbackTx(Transaction tx) throws NulsException;
 
+    /**
+     * Save all the transactions of a block, the coin data and the transactions are each written in a single batch
+     *
+     * 保存一个区块中的所有交易，coindata和交易分别在一次批量中写入
+     * @param txList 区块中的交易，按区块中的顺序/transactions of the block, in block order
+     * @return Result
+     */
+    Result saveTxList(List<Transaction> txList) throws NulsException;
+
+    /**
+     * Roll back all the transactions of a block, the coin data and the transactions are each removed in a single batch
+     *
+     * 回滚一个区块中的所有交易，coindata和交易分别在一次批量中删除
+     * @param txList 区块中的交易，按区块中的顺序/transactions of the block, in block order
+     * @return Result
+     */
+    Result rollbackTxList(List<Transaction> txList) throws NulsException;
+
     /**
      * get a transaction
      *
@@ -65,6 +83,15 @@ public interface LedgerService {
 
     Transaction getTx(byte[] txHashBytes);
 
+    /**
+     * get several transactions in one batched read, the returned transactions correspond to the hashList one by one, null for the ones that do not exist
+     *
+     * 一次批量读取多笔交易，返回的交易与hashList一一对应，不存在的对应null
+     * @param hashList
+     * @return List<Transaction>
+     */
+    List<Transaction> getTxList(List<NulsDigestData> hashList);
+
     /**
       * Verify that a coindata is valid, the first verification owner is legal (whether it can be used), the second verification amount is correct (output can not be greater than the input)
       * Check whether every from one in the coinData exists in txList database, or if not, is to continue to check the from of the existence of the deal and if it exists, represents a double spend, does not exist, is the orphan transactions, finally throw an exception
@@ -92,6 +119,16 @@ public interface LedgerService {
       */
     public ValidateResult verifyCoinData(Transaction transaction, Map<String, Coin> temporaryToMap, Set<String> temporaryFromSet, Long bestHeight);
 
+    /**
+     * Load the UTXOs spent by the transactions in one batched read and attach them to the from coins (Coin.from), so verifyCoinData does not read them one by one.
+     * Froms whose UTXO is not in the database are left untouched, verifyCoinData still checks them against the temporary to map.
+     *
+     * 一次批量读取交易所花费的UTXO并设置到from中(Coin.from)，verifyCoinData不再逐个读取
+     * 数据库中不存在的UTXO保持不变，仍由verifyCoinData在临时的to集合中查找
+     * @param txList 区块中的交易/transactions of the block
+     */
+    void loadFromUtxo(List<Transaction> txList);
+
     /**
      * Verify that the from is repeated, and if repeated, it represents a double spend and throws an exception.
      *
@@ -131,9 +168,9 @@ public interface LedgerService {
     Result rollbackUnlockTxCoinData(Transaction tx) throws NulsException;
 
     /**
-     * Get the entire network of UTXO
+     * Get the entire network of UTXO, read from the supply statistics kept with every block instead of scanning all UTXOs
      *
-     * 获取全网UTXO
+     * 获取全网UTXO，读取随区块维护的汇总数据，不再遍历全部UTXO
      * @return long
      */
     long getWholeUTXO();
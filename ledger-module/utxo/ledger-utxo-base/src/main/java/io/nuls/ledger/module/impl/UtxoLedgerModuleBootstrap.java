@@ -24,7 +24,10 @@
 package io.nuls.ledger.module.impl;
 
 
+import io.nuls.kernel.constant.ModuleStatusEnum;
+import io.nuls.kernel.context.NulsContext;
 import io.nuls.ledger.module.AbstractLedgerModule;
+import io.nuls.ledger.storage.service.UtxoLedgerUtxoStorageService;
 
 
 
@@ -57,6 +60,12 @@ public class UtxoLedgerModuleBootstrap extends AbstractLedgerModule {
 
     @Override
     public String getInfo() {
-        return null;
+        if (this.getStatus() == ModuleStatusEnum.UNINITIALIZED || this.getStatus() == ModuleStatusEnum.INITIALIZING) {
+            return "";
+        }
+        StringBuilder str = new StringBuilder();
+        str.append("module:[ledger]:\n");
+        str.append(NulsContext.getServiceBean(UtxoLedgerUtxoStorageService.class).getCacheInfo());
+        return str.toString();
     }
 }
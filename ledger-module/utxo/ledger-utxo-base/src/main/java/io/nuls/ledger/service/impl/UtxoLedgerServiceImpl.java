@@ -24,7 +24,6 @@
 package io.nuls.ledger.service.impl;
 
 import io.nuls.core.tools.array.ArraysTool;
-import io.nuls.core.tools.calc.LongUtils;
 import io.nuls.core.tools.log.Log;
 import io.nuls.core.tools.map.MapUtil;
 import io.nuls.core.tools.param.AssertUtil;
@@ -100,33 +99,11 @@ public class UtxoLedgerServiceImpl implements LedgerService {
     }
 
     private Result saveCoinData(Transaction tx) throws IOException {
-        byte[] txHashBytes = tx.getHash().serialize();
         BatchOperation batch = utxoLedgerUtxoStorageService.createWriteBatch();
-        CoinData coinData = tx.getCoinData();
-        //TestLog+
-//        Log.info("=============="+tx.getClass().getSimpleName()+"交易：hash-"+tx.getHash().getDigestHex());
-        //TestLog-
-        if (coinData != null) {
-            // 删除utxo已花费 - from
-            List<Coin> froms = coinData.getFrom();
-            for (Coin from : froms) {
-                //TestLog+
-//                Coin preFrom = utxoLedgerUtxoStorageService.getUtxo(from.getOwner());
-//                if(preFrom != null)
-//                    Log.info("=============="+tx.getClass().getSimpleName()+"花费：address-"+ Base58.encode(preFrom.getOwner())+", amount-"+preFrom.getNa().getValue());
-                //TestLog-
-                batch.delete(from.getOwner());
-            }
-            // 保存utxo - to
-            List<Coin> tos = coinData.getTo();
-            byte[] indexBytes;
-            for (int i = 0, length = tos.size(); i < length; i++) {
-                try {
-                    batch.put(Arrays.concatenate(txHashBytes, new VarInt(i).encode()), tos.get(i).serialize());
-                } catch (IOException e) {
-                    Log.error(e);
-                    return Result.getFailed(e.getMessage());
-                }
+        if (tx.getCoinData() != null) {
+            Result result = putCoinData(batch, tx);
+            if (result.isFailed()) {
+                return result;
             }
             // 执行批量
             Result batchResult = batch.executeBatch();
@@ -137,6 +114,34 @@ public class UtxoLedgerServiceImpl implements LedgerService {
         return Result.getSuccess();
     }
 
+    /**
+     * 把交易的coindata变更加入批量：删除已花费的from，保存新的to
+     * Add the coin data changes of the transaction to the batch: delete the spent froms and save the new tos.
+     */
+    private Result putCoinData(BatchOperation batch, Transaction tx) throws IOException {
+        CoinData coinData = tx.getCoinData();
+        if (coinData == null) {
+            return Result.getSuccess();
+        }
+        byte[] txHashBytes = tx.getHash().serialize();
+        // 删除utxo已花费 - from
+        List<Coin> froms = coinData.getFrom();
+        for (Coin from : froms) {
+            batch.delete(from.getOwner());
+        }
+        // 保存utxo - to
+        List<Coin> tos = coinData.getTo();
+        for (int i = 0, length = tos.size(); i < length; i++) {
+            try {
+                batch.put(Arrays.concatenate(txHashBytes, new VarInt(i).encode()), tos.get(i).serialize());
+            } catch (IOException e) {
+                Log.error(e);
+                return Result.getFailed(e.getMessage());
+            }
+        }
+        return Result.getSuccess();
+    }
+
     @Override
     public Result rollbackTx(Transaction tx) throws NulsException {
         if (tx == null) {
@@ -172,37 +177,11 @@ public class UtxoLedgerServiceImpl implements LedgerService {
     }
 
     private Result rollbackCoinData(Transaction tx) throws IOException, NulsException {
-        byte[] txHashBytes = tx.getHash().serialize();
         BatchOperation batch = utxoLedgerUtxoStorageService.createWriteBatch();
-        CoinData coinData = tx.getCoinData();
-        if (coinData != null) {
-            // 保存utxo已花费 - from
-            List<Coin> froms = coinData.getFrom();
-            Coin recovery;
-            for (Coin from : froms) {
-                try {
-                    byte[] hashBytes = new byte[NulsDigestData.HASH_LENGTH];
-                    System.arraycopy(from.getOwner(), 0, hashBytes, 0, hashBytes.length);
-                    NulsDigestData fromTxHash = new NulsDigestData();
-                    fromTxHash.parse(hashBytes);
-
-                    byte[] indexBytes = new byte[from.getOwner().length - NulsDigestData.HASH_LENGTH];
-                    System.arraycopy(from.getOwner(), NulsDigestData.HASH_LENGTH, indexBytes, 0, indexBytes.length);
-                    int fromIndex = (int) new VarInt(indexBytes, 0).value;
-
-                    Transaction fromTx = utxoLedgerTransactionStorageService.getTx(fromTxHash);
-                    recovery = fromTx.getCoinData().getTo().get(fromIndex);
-                    recovery.setFrom(from.getFrom());
-                    batch.put(from.getOwner(), recovery.serialize());
-                } catch (IOException e) {
-                    Log.error(e);
-                    return Result.getFailed(e.getMessage());
-                }
-            }
-            // 删除utxo - to
-            List<Coin> tos = coinData.getTo();
-            for (int i = 0, length = tos.size(); i < length; i++) {
-                batch.delete(Arrays.concatenate(txHashBytes, new VarInt(i).encode()));
+        if (tx.getCoinData() != null) {
+            Result result = removeCoinData(batch, tx);
+            if (result.isFailed()) {
+                return result;
             }
             // 执行批量
             Result batchResult = batch.executeBatch();
@@ -213,6 +192,123 @@ public class UtxoLedgerServiceImpl implements LedgerService {
         return Result.getSuccess();
     }
 
+    /**
+     * 把交易coindata的回滚加入批量：恢复已花费的from，删除产生的to
+     * Add the rollback of the coin data to the batch: recover the spent froms and delete the created tos.
+     */
+    private Result removeCoinData(BatchOperation batch, Transaction tx) throws IOException, NulsException {
+        CoinData coinData = tx.getCoinData();
+        if (coinData == null) {
+            return Result.getSuccess();
+        }
+        byte[] txHashBytes = tx.getHash().serialize();
+        // 保存utxo已花费 - from
+        List<Coin> froms = coinData.getFrom();
+        Coin recovery;
+        for (Coin from : froms) {
+            try {
+                byte[] hashBytes = new byte[NulsDigestData.HASH_LENGTH];
+                System.arraycopy(from.getOwner(), 0, hashBytes, 0, hashBytes.length);
+                NulsDigestData fromTxHash = new NulsDigestData();
+                fromTxHash.parse(hashBytes);
+
+                byte[] indexBytes = new byte[from.getOwner().length - NulsDigestData.HASH_LENGTH];
+                System.arraycopy(from.getOwner(), NulsDigestData.HASH_LENGTH, indexBytes, 0, indexBytes.length);
+                int fromIndex = (int) new VarInt(indexBytes, 0).value;
+
+                Transaction fromTx = utxoLedgerTransactionStorageService.getTx(fromTxHash);
+                recovery = fromTx.getCoinData().getTo().get(fromIndex);
+                recovery.setFrom(from.getFrom());
+                batch.put(from.getOwner(), recovery.serialize());
+            } catch (IOException e) {
+                Log.error(e);
+                return Result.getFailed(e.getMessage());
+            }
+        }
+        // 删除utxo - to
+        List<Coin> tos = coinData.getTo();
+        for (int i = 0, length = tos.size(); i < length; i++) {
+            batch.delete(Arrays.concatenate(txHashBytes, new VarInt(i).encode()));
+        }
+        return Result.getSuccess();
+    }
+
+    @Override
+    public Result saveTxList(List<Transaction> txList) throws NulsException {
+        if (txList == null) {
+            return Result.getFailed(LedgerErrorCode.NULL_PARAMETER);
+        }
+        BatchOperation utxoBatch = utxoLedgerUtxoStorageService.createWriteBatch();
+        BatchOperation txBatch = utxoLedgerTransactionStorageService.createWriteBatch();
+        try {
+            // 同一区块中后面的交易可能花费前面交易的输出，批量按顺序执行，先put后delete
+            for (Transaction tx : txList) {
+                Result result = putCoinData(utxoBatch, tx);
+                if (result.isFailed()) {
+                    return result;
+                }
+                result = txBatch.putModel(tx.getHash().serialize(), tx);
+                if (result.isFailed()) {
+                    return result;
+                }
+            }
+            // 先保存交易，UTXO保存失败时只需删除交易
+            Result result = txBatch.executeBatch();
+            if (result.isFailed()) {
+                return result;
+            }
+            result = utxoBatch.executeBatch();
+            if (result.isFailed()) {
+                Result deleteResult = deleteTxList(txList);
+                if (deleteResult.isFailed()) {
+                    throw new NulsException(LedgerErrorCode.DB_ROLLBACK_ERROR, CLASS_NAME + ".saveTxList.deleteTxList: data error.");
+                }
+            }
+            return result;
+        } catch (IOException e) {
+            Log.error(e);
+            return Result.getFailed(e.getMessage());
+        }
+    }
+
+    @Override
+    public Result rollbackTxList(List<Transaction> txList) throws NulsException {
+        if (txList == null) {
+            return Result.getFailed(LedgerErrorCode.NULL_PARAMETER);
+        }
+        BatchOperation utxoBatch = utxoLedgerUtxoStorageService.createWriteBatch();
+        try {
+            // 倒序回滚，恢复from时需要读取来源交易，所以交易最后删除
+            for (int i = txList.size() - 1; i >= 0; i--) {
+                Result result = removeCoinData(utxoBatch, txList.get(i));
+                if (result.isFailed()) {
+                    return result;
+                }
+            }
+        } catch (IOException e) {
+            Log.error(e);
+            return Result.getFailed(e.getMessage());
+        }
+        Result result = utxoBatch.executeBatch();
+        if (result.isFailed()) {
+            return result;
+        }
+        return deleteTxList(txList);
+    }
+
+    private Result deleteTxList(List<Transaction> txList) {
+        BatchOperation txBatch = utxoLedgerTransactionStorageService.createWriteBatch();
+        try {
+            for (Transaction tx : txList) {
+                txBatch.delete(tx.getHash().serialize());
+            }
+        } catch (IOException e) {
+            Log.error(e);
+            return Result.getFailed(e.getMessage());
+        }
+        return txBatch.executeBatch();
+    }
+
     @Override
     public Transaction getTx(NulsDigestData hash) {
         if (hash == null) {
@@ -235,6 +331,47 @@ public class UtxoLedgerServiceImpl implements LedgerService {
         return getTx(digestData);
     }
 
+    @Override
+    public List<Transaction> getTxList(List<NulsDigestData> hashList) {
+        if (hashList == null) {
+            return null;
+        }
+        return utxoLedgerTransactionStorageService.getTxList(hashList);
+    }
+
+    @Override
+    public void loadFromUtxo(List<Transaction> txList) {
+        if (txList == null) {
+            return;
+        }
+        List<Coin> fromList = new ArrayList<>();
+        List<byte[]> ownerList = new ArrayList<>();
+        for (Transaction tx : txList) {
+            if (tx == null || tx.getCoinData() == null || tx.isSystemTx()) {
+                continue;
+            }
+            for (Coin from : tx.getCoinData().getFrom()) {
+                if (from.getFrom() == null && from.getOwner() != null) {
+                    fromList.add(from);
+                    ownerList.add(from.getOwner());
+                }
+            }
+        }
+        if (ownerList.isEmpty()) {
+            return;
+        }
+        List<Coin> utxoList = utxoLedgerUtxoStorageService.getUtxoList(ownerList);
+        if (utxoList == null) {
+            return;
+        }
+        for (int i = 0; i < utxoList.size(); i++) {
+            Coin utxo = utxoList.get(i);
+            if (utxo != null) {
+                fromList.get(i).setFrom(utxo);
+            }
+        }
+    }
+
     private boolean checkPublicKeyHash(byte[] address, byte[] pubKeyHash) {
 
         if (address == null || pubKeyHash == null) {
@@ -540,25 +677,7 @@ public class UtxoLedgerServiceImpl implements LedgerService {
 
     @Override
     public long getWholeUTXO() {
-        long result = 0L;
-        List<byte[]> list = utxoLedgerUtxoStorageService.getAllUtxoBytes();
-        if (list == null || list.size() == 0) {
-            return result;
-        }
-        Coin coin = null;
-        try {
-            for (byte[] utxoBytes : list) {
-                if (utxoBytes != null) {
-                    coin = new Coin();
-                    coin.parse(utxoBytes);
-                    result = LongUtils.add(result, coin.getNa().getValue());
-                }
-            }
-            return result;
-        } catch (NulsException e) {
-            Log.error(e);
-            return 0L;
-        }
+        return utxoLedgerUtxoStorageService.getSupplyStat().getTotal();
     }
 
     @Override
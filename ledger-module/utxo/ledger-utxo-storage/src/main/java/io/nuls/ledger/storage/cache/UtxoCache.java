@@ -0,0 +1,211 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.ledger.storage.cache;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按字节数限制容量的UTXO缓存，最近最少使用的条目优先淘汰
+ * 缓存中只保存数据库中存在的UTXO，写入数据库成功后再更新缓存
+ * <p>
+ * UTXO cache bounded by bytes, the least recently used entries are evicted first.
+ * Only UTXOs that exist in the database are cached, and the cache is updated after the database write succeeds.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class UtxoCache {
+
+    /**
+     * 每个条目除key和value以外的估算内存开销
+     * Estimated memory overhead of each entry besides the key and value.
+     */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final long capacity;
+
+    private final LinkedHashMap<Key, byte[]> map = new LinkedHashMap<>(1024, 0.75f, true);
+
+    private long size;
+
+    /**
+     * 每次写入或删除都会递增，用于丢弃读取数据库期间被修改过的回填
+     * Increased on every put or remove, used to drop the fills whose database read raced with a write.
+     */
+    private long writeStamp;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param capacity 缓存的最大字节数，小于等于0时不缓存/the max bytes of the cache, nothing is cached when it is less than or equal to 0.
+     */
+    public UtxoCache(long capacity) {
+        this.capacity = capacity;
+    }
+
+    public synchronized byte[] get(byte[] key) {
+        byte[] value = map.get(new Key(key));
+        if (value == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return value;
+    }
+
+    /**
+     * 读取数据库前获取写入版本，回填缓存时传入
+     * Get the write stamp before reading the database, pass it when filling the cache.
+     */
+    public synchronized long getWriteStamp() {
+        return writeStamp;
+    }
+
+    /**
+     * 回填数据库读取的结果，期间有写入发生时丢弃，避免缓存旧数据
+     * Fill the value read from the database, dropped if any write happened in between to avoid caching stale data.
+     */
+    public synchronized void fill(byte[] key, byte[] value, long stamp) {
+        if (stamp != writeStamp) {
+            return;
+        }
+        store(new Key(key), value);
+    }
+
+    public synchronized void put(byte[] key, byte[] value) {
+        writeStamp++;
+        store(new Key(key), value);
+    }
+
+    public synchronized void remove(byte[] key) {
+        writeStamp++;
+        byte[] oldValue = map.remove(new Key(key));
+        if (oldValue != null) {
+            size -= entrySize(key, oldValue);
+        }
+    }
+
+    public synchronized void clear() {
+        writeStamp++;
+        map.clear();
+        size = 0;
+    }
+
+    public synchronized int count() {
+        return map.size();
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        long total = hitCount + missCount;
+        return "utxo cache: count=" + map.size() +
+                ", size=" + size +
+                ", capacity=" + capacity +
+                ", hit=" + hitCount +
+                ", miss=" + missCount +
+                ", evict=" + evictionCount +
+                ", hitRate=" + (total == 0 ? 0 : hitCount * 100 / total) + "%";
+    }
+
+    private void store(Key key, byte[] value) {
+        if (value == null) {
+            return;
+        }
+        long entrySize = entrySize(key.bytes, value);
+        byte[] oldValue = map.remove(key);
+        if (oldValue != null) {
+            size -= entrySize(key.bytes, oldValue);
+        }
+        if (entrySize > capacity) {
+            return;
+        }
+        map.put(key, value);
+        size += entrySize;
+        Iterator<Map.Entry<Key, byte[]>> iterator = map.entrySet().iterator();
+        while (size > capacity && iterator.hasNext()) {
+            Map.Entry<Key, byte[]> eldest = iterator.next();
+            iterator.remove();
+            size -= entrySize(eldest.getKey().bytes, eldest.getValue());
+            evictionCount++;
+        }
+    }
+
+    private static long entrySize(byte[] key, byte[] value) {
+        return key.length + value.length + ENTRY_OVERHEAD;
+    }
+
+    private static final class Key {
+
+        private final byte[] bytes;
+
+        private final int hash;
+
+        private Key(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            return Arrays.equals(bytes, ((Key) obj).bytes);
+        }
+    }
+}
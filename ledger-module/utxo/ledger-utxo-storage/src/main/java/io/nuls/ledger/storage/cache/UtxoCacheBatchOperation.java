@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.ledger.storage.cache;
+
+import io.nuls.db.service.BatchOperation;
+import io.nuls.kernel.model.Result;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量写入成功后同步更新UTXO缓存，写入失败时使涉及的key失效
+ * Update the UTXO cache after the batch is written successfully, invalidate the keys involved when it fails.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class UtxoCacheBatchOperation implements BatchOperation {
+
+    private final BatchOperation batch;
+
+    private final UtxoCache cache;
+
+    /**
+     * value为null表示删除
+     * A null value means delete.
+     */
+    private final List<byte[][]> operations = new ArrayList<>();
+
+    public UtxoCacheBatchOperation(BatchOperation batch, UtxoCache cache) {
+        this.batch = batch;
+        this.cache = cache;
+    }
+
+    @Override
+    public Result put(byte[] key, byte[] value) {
+        Result result = batch.put(key, value);
+        if (result.isSuccess()) {
+            operations.add(new byte[][]{key, value});
+        }
+        return result;
+    }
+
+    @Override
+    public <T> Result putModel(byte[] key, T value) {
+        Result result = batch.putModel(key, value);
+        if (result.isSuccess()) {
+            operations.add(new byte[][]{key, null});
+        }
+        return result;
+    }
+
+    @Override
+    public Result delete(byte[] key) {
+        Result result = batch.delete(key);
+        if (result.isSuccess()) {
+            operations.add(new byte[][]{key, null});
+        }
+        return result;
+    }
+
+    @Override
+    public Result executeBatch() {
+        Result result = batch.executeBatch();
+        boolean success = result.isSuccess();
+        for (byte[][] operation : operations) {
+            if (success && operation[1] != null) {
+                cache.put(operation[0], operation[1]);
+            } else {
+                cache.remove(operation[0]);
+            }
+        }
+        operations.clear();
+        return result;
+    }
+}
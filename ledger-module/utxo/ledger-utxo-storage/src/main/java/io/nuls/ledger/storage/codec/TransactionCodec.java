@@ -0,0 +1,60 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.ledger.storage.codec;
+
+import io.nuls.db.codec.ModelCodec;
+import io.nuls.kernel.exception.NulsException;
+import io.nuls.kernel.model.Transaction;
+import io.nuls.kernel.utils.NulsByteBuffer;
+import io.nuls.kernel.utils.NulsOutputStreamBuffer;
+
+import java.io.IOException;
+
+/**
+ * 账本交易的编解码器，使用交易自身的序列化格式，另外保存交易所在的区块高度
+ * The codec of the ledger transactions, uses the serialization format of the transaction itself,
+ * and keeps the block height of the transaction besides.
+ * <p>
+ * 格式/format: [int64 blockHeight][transaction]
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class TransactionCodec implements ModelCodec<Transaction> {
+
+    @Override
+    public void encode(Transaction tx, NulsOutputStreamBuffer stream) throws IOException {
+        stream.writeInt64(tx.getBlockHeight());
+        stream.write(tx.serialize());
+    }
+
+    @Override
+    public Transaction decode(NulsByteBuffer buffer) throws NulsException {
+        long blockHeight = buffer.readInt64();
+        Transaction tx = buffer.readTransaction();
+        tx.setBlockHeight(blockHeight);
+        return tx;
+    }
+}
@@ -36,4 +36,38 @@ public interface LedgerStorageConstant {
     String DB_NAME_LEDGER_TX = "ledger_tx";
     String DB_NAME_LEDGER_UTXO = "ledger_utxo";
 
+    /**
+     * 账本交易的编解码器id，写入存储数据中，不能修改
+     * The codec id of the ledger transactions, it is written into the stored data and must never change.
+     */
+    int CODEC_ID_LEDGER_TX = 1;
+
+    /**
+     * UTXO缓存大小的配置项(MB)，位于modules.ini的[ledger]中
+     * The config item of the UTXO cache size in MB, under [ledger] of modules.ini
+     */
+    String CFG_LEDGER_SECTION = "ledger";
+    String CFG_UTXO_CACHE_SIZE = "utxo.cache.size";
+    int DEFAULT_UTXO_CACHE_SIZE = 32;
+
+    /**
+     * UTXO汇总数据与UTXO存放在同一个数据区域，和UTXO变更在同一个批量中写入
+     * 汇总数据的key以0xFF开头，UTXO的key以交易hash开头(首字节为摘要算法类型)，不会冲突，且汇总数据排在最后
+     * The UTXO statistics are stored in the UTXO area and written in the same batch as the UTXO changes.
+     * Their keys start with 0xFF while the UTXO keys start with the tx hash (the first byte is the digest algorithm type),
+     * so they never collide and the statistics sort after all UTXOs.
+     */
+    byte UTXO_STAT_PREFIX = (byte) 0xFF;
+    byte[] UTXO_STAT_KEY = {UTXO_STAT_PREFIX};
+    byte[] UTXO_STAT_SUPPLY_KEY = {UTXO_STAT_PREFIX, 0};
+    byte[] UTXO_STAT_ADDRESS_FLAG_KEY = {UTXO_STAT_PREFIX, 1};
+    byte[] UTXO_STAT_ADDRESS_PREFIX = {UTXO_STAT_PREFIX, 2};
+
+    /**
+     * 是否维护每个地址的余额汇总，位于modules.ini的[ledger]中
+     * Whether to keep the balance statistics of every address, under [ledger] of modules.ini
+     */
+    String CFG_UTXO_ADDRESS_STAT = "utxo.address.stat";
+    boolean DEFAULT_UTXO_ADDRESS_STAT = false;
+
 }
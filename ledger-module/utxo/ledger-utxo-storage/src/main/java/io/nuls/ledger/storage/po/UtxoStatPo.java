@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.ledger.storage.po;
+
+import io.nuls.core.tools.calc.LongUtils;
+import io.nuls.kernel.exception.NulsException;
+import io.nuls.kernel.model.BaseNulsData;
+import io.nuls.kernel.model.Coin;
+import io.nuls.kernel.utils.NulsByteBuffer;
+import io.nuls.kernel.utils.NulsOutputStreamBuffer;
+import io.nuls.kernel.utils.SerializeUtils;
+
+import java.io.IOException;
+
+/**
+ * UTXO金额汇总，全网总量或单个地址的余额
+ * 高度/时间锁定的UTXO到期后不会产生写入，所以timeLocked是上限，可用金额需按当前高度/时间判断
+ * Sum of UTXO amounts, for the whole network or for one address.
+ * A UTXO locked by height or time is not rewritten when the lock expires, so timeLocked is an upper bound.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class UtxoStatPo extends BaseNulsData {
+
+    /**
+     * 所有UTXO的金额/amount of all UTXOs
+     */
+    private long total;
+
+    /**
+     * 共识锁定(lockTime为-1)的金额/amount locked by consensus (lockTime is -1)
+     */
+    private long consensusLocked;
+
+    /**
+     * 高度或时间锁定(lockTime大于0)的金额/amount locked by height or time (lockTime greater than 0)
+     */
+    private long timeLocked;
+
+    /**
+     * 加上(sign为1)或减去(sign为-1)一个UTXO
+     * Add (sign is 1) or subtract (sign is -1) a UTXO.
+     */
+    public void add(Coin coin, int sign) {
+        long value = coin.getNa().getValue() * sign;
+        total = LongUtils.add(total, value);
+        if (coin.getLockTime() == -1) {
+            consensusLocked = LongUtils.add(consensusLocked, value);
+        } else if (coin.getLockTime() > 0) {
+            timeLocked = LongUtils.add(timeLocked, value);
+        }
+    }
+
+    public void add(UtxoStatPo stat) {
+        total = LongUtils.add(total, stat.total);
+        consensusLocked = LongUtils.add(consensusLocked, stat.consensusLocked);
+        timeLocked = LongUtils.add(timeLocked, stat.timeLocked);
+    }
+
+    public boolean isEmpty() {
+        return total == 0 && consensusLocked == 0 && timeLocked == 0;
+    }
+
+    @Override
+    protected void serializeToStream(NulsOutputStreamBuffer stream) throws IOException {
+        stream.writeInt64(total);
+        stream.writeInt64(consensusLocked);
+        stream.writeInt64(timeLocked);
+    }
+
+    @Override
+    protected void parse(NulsByteBuffer byteBuffer) throws NulsException {
+        this.total = byteBuffer.readInt64();
+        this.consensusLocked = byteBuffer.readInt64();
+        this.timeLocked = byteBuffer.readInt64();
+    }
+
+    @Override
+    public int size() {
+        return SerializeUtils.sizeOfInt64() * 3;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getConsensusLocked() {
+        return consensusLocked;
+    }
+
+    public long getTimeLocked() {
+        return timeLocked;
+    }
+
+    @Override
+    public String toString() {
+        return "total=" + total + ", consensusLocked=" + consensusLocked + ", timeLocked=" + timeLocked;
+    }
+}
@@ -23,10 +23,13 @@
  */
 package io.nuls.ledger.storage.service;
 
+import io.nuls.db.service.BatchOperation;
 import io.nuls.kernel.model.NulsDigestData;
 import io.nuls.kernel.model.Result;
 import io.nuls.kernel.model.Transaction;
 
+import java.util.List;
+
 /**
  * @desription:
  * @author: PierreLuo
@@ -34,10 +37,18 @@ import io.nuls.kernel.model.Transaction;
  */
 public interface UtxoLedgerTransactionStorageService {
 
+    BatchOperation createWriteBatch();
+
     Result saveTx(Transaction tx);
 
     Transaction getTx(NulsDigestData hash);
 
+    /**
+     * 批量获取交易，在一次批量读取中从数据库获取，返回的交易与hashList一一对应，不存在的对应null
+     * Get several transactions in one multi get, the returned transactions correspond to the hashList one by one, null for the ones that do not exist.
+     */
+    List<Transaction> getTxList(List<NulsDigestData> hashList);
+
     Result deleteTx(Transaction tx);
 
     byte[] getTxBytes(byte[] txBytes);
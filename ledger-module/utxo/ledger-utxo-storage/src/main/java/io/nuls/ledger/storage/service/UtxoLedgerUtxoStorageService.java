@@ -28,6 +28,7 @@ import io.nuls.kernel.model.Coin;
 import io.nuls.kernel.model.NulsDigestData;
 import io.nuls.kernel.model.Result;
 import io.nuls.kernel.model.Transaction;
+import io.nuls.ledger.storage.po.UtxoStatPo;
 
 import java.util.List;
 
@@ -44,10 +45,36 @@ public interface UtxoLedgerUtxoStorageService {
 
     Coin getUtxo(byte[] owner);
 
+    /**
+     * 批量获取UTXO，优先读缓存，未命中的在一次批量读取中从数据库获取
+     * 返回的Coin与owners一一对应，不存在的对应null
+     * Get several UTXOs, read the cache first and get the missed ones from the database in one multi get.
+     * The returned coins correspond to the owners one by one, null for the ones that do not exist.
+     */
+    List<Coin> getUtxoList(List<byte[]> owners);
+
     Result deleteUtxo(byte[] owner);
 
     byte[] getUtxoBytes(byte[] owner);
 
     List<byte[]> getAllUtxoBytes();
 
+    /**
+     * 全网UTXO汇总(总量、共识锁定、高度/时间锁定)，随区块增量维护，不需要遍历UTXO
+     * Statistics of all UTXOs (total, consensus locked, height/time locked), kept incrementally with every block, no UTXO scan needed.
+     */
+    UtxoStatPo getSupplyStat();
+
+    /**
+     * 地址的UTXO汇总，未开启utxo.address.stat时返回null
+     * Statistics of the UTXOs of the address, null if utxo.address.stat is turned off.
+     */
+    UtxoStatPo getAddressStat(byte[] address);
+
+    /**
+     * UTXO缓存的命中、未命中、淘汰等统计信息
+     * Statistics of the UTXO cache, such as hits, misses and evictions.
+     */
+    String getCacheInfo();
+
 }
@@ -24,7 +24,9 @@
 package io.nuls.ledger.storage.service.impl;
 
 import io.nuls.core.tools.log.Log;
+import io.nuls.db.codec.ModelCodecManager;
 import io.nuls.db.constant.DBErrorCode;
+import io.nuls.db.service.BatchOperation;
 import io.nuls.db.service.DBService;
 import io.nuls.kernel.constant.KernelErrorCode;
 import io.nuls.kernel.exception.NulsException;
@@ -33,10 +35,13 @@ import io.nuls.kernel.lite.annotation.Autowired;
 import io.nuls.kernel.lite.annotation.Service;
 import io.nuls.kernel.lite.core.bean.InitializingBean;
 import io.nuls.kernel.model.*;
+import io.nuls.ledger.storage.codec.TransactionCodec;
 import io.nuls.ledger.storage.constant.LedgerStorageConstant;
 import io.nuls.ledger.storage.service.UtxoLedgerTransactionStorageService;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @desription:
@@ -63,6 +68,12 @@ public class UtxoLedgerTransactionStorageServiceImpl implements UtxoLedgerTransa
         if (result.isFailed() && !DBErrorCode.DB_AREA_EXIST.equals(result.getErrorCode())) {
             throw new NulsRuntimeException(result.getErrorCode());
         }
+        ModelCodecManager.register(LedgerStorageConstant.CODEC_ID_LEDGER_TX, Transaction.class, new TransactionCodec());
+    }
+
+    @Override
+    public BatchOperation createWriteBatch() {
+        return dbService.createWriteBatch(LedgerStorageConstant.DB_NAME_LEDGER_TX);
     }
 
     @Override
@@ -101,6 +112,33 @@ public class UtxoLedgerTransactionStorageServiceImpl implements UtxoLedgerTransa
         return tx;
     }
 
+    @Override
+    public List<Transaction> getTxList(List<NulsDigestData> hashList) {
+        if (hashList == null) {
+            return null;
+        }
+        List<byte[]> keyList = new ArrayList<>(hashList.size());
+        try {
+            for (NulsDigestData hash : hashList) {
+                keyList.add(hash == null ? null : hash.serialize());
+            }
+        } catch (IOException e) {
+            Log.error(e);
+            throw new NulsRuntimeException(e);
+        }
+        List<Transaction> txList = dbService.multiGetModel(LedgerStorageConstant.DB_NAME_LEDGER_TX, keyList, Transaction.class);
+        if (txList == null) {
+            return null;
+        }
+        for (int i = 0; i < txList.size(); i++) {
+            Transaction tx = txList.get(i);
+            if (tx != null) {
+                tx.setHash(hashList.get(i));
+            }
+        }
+        return txList;
+    }
+
     @Override
     public Result deleteTx(Transaction tx) {
         if (tx == null) {
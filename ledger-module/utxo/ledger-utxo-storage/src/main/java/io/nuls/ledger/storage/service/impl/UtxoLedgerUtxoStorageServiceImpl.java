@@ -26,7 +26,9 @@ package io.nuls.ledger.storage.service.impl;
 import io.nuls.core.tools.log.Log;
 import io.nuls.db.constant.DBErrorCode;
 import io.nuls.db.service.BatchOperation;
+import io.nuls.db.service.DBCursor;
 import io.nuls.db.service.DBService;
+import io.nuls.kernel.cfg.NulsConfig;
 import io.nuls.kernel.exception.NulsException;
 import io.nuls.kernel.exception.NulsRuntimeException;
 import io.nuls.kernel.lite.annotation.Autowired;
@@ -34,10 +36,16 @@ import io.nuls.kernel.lite.annotation.Service;
 import io.nuls.kernel.lite.core.bean.InitializingBean;
 import io.nuls.kernel.model.Coin;
 import io.nuls.kernel.model.Result;
+import io.nuls.ledger.storage.cache.UtxoCache;
+import io.nuls.ledger.storage.cache.UtxoCacheBatchOperation;
 import io.nuls.ledger.storage.constant.LedgerStorageConstant;
+import io.nuls.ledger.storage.po.UtxoStatPo;
 import io.nuls.ledger.storage.service.UtxoLedgerUtxoStorageService;
+import io.nuls.ledger.storage.stat.UtxoStatBatchOperation;
+import io.nuls.ledger.storage.stat.UtxoStatManager;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -54,6 +62,19 @@ public class UtxoLedgerUtxoStorageServiceImpl implements UtxoLedgerUtxoStorageSe
      */
     @Autowired
     private DBService dbService;
+
+    /**
+     * 写穿透的UTXO缓存，区块验证、打包时尽量不读数据库
+     * Write-through UTXO cache, so block verification and packing mostly avoid reading the database.
+     */
+    private UtxoCache cache = new UtxoCache(LedgerStorageConstant.DEFAULT_UTXO_CACHE_SIZE * 1024L * 1024L);
+
+    /**
+     * UTXO汇总数据，与UTXO在同一个批量中更新
+     * UTXO statistics, updated in the same batch as the UTXOs.
+     */
+    private UtxoStatManager statManager;
+
     /**
      * 该方法在所有属性被设置之后调用，用于辅助对象初始化
      * This method is invoked after all properties are set, and is used to assist object initialization.
@@ -64,17 +85,36 @@ public class UtxoLedgerUtxoStorageServiceImpl implements UtxoLedgerUtxoStorageSe
         if (result.isFailed() && !DBErrorCode.DB_AREA_EXIST.equals(result.getErrorCode())) {
             throw new NulsRuntimeException(result.getErrorCode());
         }
+        if (NulsConfig.MODULES_CONFIG != null) {
+            int cacheSize = NulsConfig.MODULES_CONFIG.getCfgValue(LedgerStorageConstant.CFG_LEDGER_SECTION, LedgerStorageConstant.CFG_UTXO_CACHE_SIZE, LedgerStorageConstant.DEFAULT_UTXO_CACHE_SIZE);
+            cache = new UtxoCache(cacheSize * 1024L * 1024L);
+        }
+        boolean addressStat = LedgerStorageConstant.DEFAULT_UTXO_ADDRESS_STAT;
+        if (NulsConfig.MODULES_CONFIG != null) {
+            addressStat = NulsConfig.MODULES_CONFIG.getCfgValue(LedgerStorageConstant.CFG_LEDGER_SECTION, LedgerStorageConstant.CFG_UTXO_ADDRESS_STAT, LedgerStorageConstant.DEFAULT_UTXO_ADDRESS_STAT);
+        }
+        statManager = new UtxoStatManager(dbService, this::getUtxoList, addressStat);
+        statManager.init();
     }
 
     @Override
     public BatchOperation createWriteBatch() {
-        return dbService.createWriteBatch(LedgerStorageConstant.DB_NAME_LEDGER_UTXO);
+        BatchOperation batch = dbService.createWriteBatch(LedgerStorageConstant.DB_NAME_LEDGER_UTXO);
+        if (batch == null) {
+            return null;
+        }
+        return new UtxoCacheBatchOperation(new UtxoStatBatchOperation(batch, statManager), cache);
     }
 
     @Override
     public Result saveUtxo(byte[] owner, Coin coin) {
         try {
-            return dbService.put(LedgerStorageConstant.DB_NAME_LEDGER_UTXO, owner, coin.serialize());
+            BatchOperation batch = createWriteBatch();
+            Result result = batch.put(owner, coin.serialize());
+            if (result.isFailed()) {
+                return result;
+            }
+            return batch.executeBatch();
         } catch (IOException e) {
             Log.error(e);
             return Result.getFailed(e.getMessage());
@@ -97,9 +137,64 @@ public class UtxoLedgerUtxoStorageServiceImpl implements UtxoLedgerUtxoStorageSe
         return coin;
     }
 
+    @Override
+    public List<Coin> getUtxoList(List<byte[]> owners) {
+        if (owners == null) {
+            return null;
+        }
+        int size = owners.size();
+        List<Coin> coinList = new ArrayList<>(size);
+        List<byte[]> missedOwners = new ArrayList<>();
+        List<Integer> missedIndexes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            byte[] owner = owners.get(i);
+            byte[] utxoBytes = owner == null ? null : cache.get(owner);
+            coinList.add(parseCoin(utxoBytes));
+            if (utxoBytes == null && owner != null) {
+                missedOwners.add(owner);
+                missedIndexes.add(i);
+            }
+        }
+        if (missedOwners.isEmpty()) {
+            return coinList;
+        }
+        long stamp = cache.getWriteStamp();
+        List<byte[]> valueList = dbService.multiGet(LedgerStorageConstant.DB_NAME_LEDGER_UTXO, missedOwners);
+        if (valueList == null) {
+            return coinList;
+        }
+        for (int i = 0; i < valueList.size(); i++) {
+            byte[] utxoBytes = valueList.get(i);
+            if (utxoBytes != null) {
+                cache.fill(missedOwners.get(i), utxoBytes, stamp);
+                coinList.set(missedIndexes.get(i), parseCoin(utxoBytes));
+            }
+        }
+        return coinList;
+    }
+
+    private Coin parseCoin(byte[] utxoBytes) {
+        if (utxoBytes == null) {
+            return null;
+        }
+        try {
+            Coin coin = new Coin();
+            coin.parse(utxoBytes);
+            return coin;
+        } catch (NulsException e) {
+            Log.error(e);
+            return null;
+        }
+    }
+
     @Override
     public Result deleteUtxo(byte[] owner) {
-        return dbService.delete(LedgerStorageConstant.DB_NAME_LEDGER_UTXO, owner);
+        BatchOperation batch = createWriteBatch();
+        Result result = batch.delete(owner);
+        if (result.isFailed()) {
+            return result;
+        }
+        return batch.executeBatch();
     }
 
     @Override
@@ -107,12 +202,55 @@ public class UtxoLedgerUtxoStorageServiceImpl implements UtxoLedgerUtxoStorageSe
         if (owner == null) {
             return null;
         }
-        return dbService.get(LedgerStorageConstant.DB_NAME_LEDGER_UTXO, owner);
+        byte[] utxoBytes = cache.get(owner);
+        if (utxoBytes != null) {
+            return utxoBytes;
+        }
+        long stamp = cache.getWriteStamp();
+        utxoBytes = dbService.get(LedgerStorageConstant.DB_NAME_LEDGER_UTXO, owner);
+        if (utxoBytes != null) {
+            cache.fill(owner, utxoBytes, stamp);
+        }
+        return utxoBytes;
     }
 
     @Override
     public List<byte[]> getAllUtxoBytes() {
-        return dbService.valueList(LedgerStorageConstant.DB_NAME_LEDGER_UTXO);
+        List<byte[]> valueList = new ArrayList<>();
+        try (DBCursor cursor = dbService.range(LedgerStorageConstant.DB_NAME_LEDGER_UTXO, null, LedgerStorageConstant.UTXO_STAT_KEY)) {
+            if (cursor == null) {
+                return valueList;
+            }
+            while (cursor.hasNext()) {
+                valueList.add(cursor.next().getValue());
+            }
+        }
+        return valueList;
+    }
+
+    @Override
+    public UtxoStatPo getSupplyStat() {
+        try {
+            return statManager.getSupply();
+        } catch (NulsException e) {
+            Log.error(e);
+            throw new NulsRuntimeException(e);
+        }
+    }
+
+    @Override
+    public UtxoStatPo getAddressStat(byte[] address) {
+        try {
+            return statManager.getAddressStat(address);
+        } catch (NulsException e) {
+            Log.error(e);
+            return null;
+        }
+    }
+
+    @Override
+    public String getCacheInfo() {
+        return cache.toString();
     }
 
 
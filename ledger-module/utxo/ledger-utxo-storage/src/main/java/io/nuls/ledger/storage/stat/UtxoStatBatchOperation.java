@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.ledger.storage.stat;
+
+import io.nuls.db.service.BatchOperation;
+import io.nuls.kernel.constant.KernelErrorCode;
+import io.nuls.kernel.model.Result;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 记录批量中的UTXO变更，执行批量时由UtxoStatManager把汇总数据的变更加入同一个批量
+ * Record the UTXO changes of the batch, when it is executed the UtxoStatManager adds the statistics changes to the same batch.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class UtxoStatBatchOperation implements BatchOperation {
+
+    private final BatchOperation batch;
+
+    private final UtxoStatManager statManager;
+
+    /**
+     * value为null表示删除
+     * A null value means delete.
+     */
+    private final List<byte[][]> operations = new ArrayList<>();
+
+    public UtxoStatBatchOperation(BatchOperation batch, UtxoStatManager statManager) {
+        this.batch = batch;
+        this.statManager = statManager;
+    }
+
+    @Override
+    public Result put(byte[] key, byte[] value) {
+        Result result = batch.put(key, value);
+        if (result.isSuccess()) {
+            operations.add(new byte[][]{key, value});
+        }
+        return result;
+    }
+
+    /**
+     * UTXO只能按字节存储，否则无法统计金额
+     * UTXOs can only be stored as bytes, otherwise the amounts can not be counted.
+     */
+    @Override
+    public <T> Result putModel(byte[] key, T value) {
+        return Result.getFailed(KernelErrorCode.PARAMETER_ERROR);
+    }
+
+    @Override
+    public Result delete(byte[] key) {
+        Result result = batch.delete(key);
+        if (result.isSuccess()) {
+            operations.add(new byte[][]{key, null});
+        }
+        return result;
+    }
+
+    @Override
+    public Result executeBatch() {
+        Result result = statManager.executeBatch(batch, operations);
+        operations.clear();
+        return result;
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.ledger.storage.stat;
+
+import io.nuls.core.tools.array.ArraysTool;
+import io.nuls.core.tools.crypto.Hex;
+import io.nuls.core.tools.log.Log;
+import io.nuls.db.service.BatchOperation;
+import io.nuls.db.service.DBCursor;
+import io.nuls.db.service.DBService;
+import io.nuls.kernel.constant.KernelErrorCode;
+import io.nuls.kernel.exception.NulsException;
+import io.nuls.kernel.model.Coin;
+import io.nuls.kernel.model.Result;
+import io.nuls.ledger.storage.constant.LedgerStorageConstant;
+import io.nuls.ledger.storage.po.UtxoStatPo;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 维护UTXO的汇总数据：全网总量及可选的每个地址余额
+ * 每次批量写入UTXO时，按批量中的变更计算汇总数据的增量，并在同一个批量中写入，汇总数据与UTXO始终一致
+ * Keep the UTXO statistics: the whole network supply and, optionally, the balance of every address.
+ * Every UTXO batch adds the statistics changes computed from its own operations to the same batch,
+ * so the statistics are always consistent with the UTXOs.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class UtxoStatManager {
+
+    private static final String AREA = LedgerStorageConstant.DB_NAME_LEDGER_UTXO;
+
+    private final DBService dbService;
+
+    /**
+     * 按key批量读取批量执行前的UTXO，不存在的对应null
+     * Read the UTXOs of the keys before the batch is executed, null for the ones that do not exist.
+     */
+    private final Function<List<byte[]>, List<Coin>> utxoLoader;
+
+    private final boolean addressStat;
+
+    public UtxoStatManager(DBService dbService, Function<List<byte[]>, List<Coin>> utxoLoader, boolean addressStat) {
+        this.dbService = dbService;
+        this.utxoLoader = utxoLoader;
+        this.addressStat = addressStat;
+    }
+
+    /**
+     * 加载汇总数据，不存在(升级后第一次启动)或需要开启地址余额时遍历一次全部UTXO重建
+     * Load the statistics, rebuild them from all UTXOs when they do not exist (first start after upgrading) or the address balances are turned on.
+     */
+    public synchronized void init() throws NulsException {
+        boolean hasAddressStat = dbService.get(AREA, LedgerStorageConstant.UTXO_STAT_ADDRESS_FLAG_KEY) != null;
+        if (addressStat && !hasAddressStat) {
+            rebuild();
+            return;
+        }
+        loadSupply();
+        if (!addressStat && hasAddressStat) {
+            // 关闭后地址余额不再更新，删除标记，再次开启时重建
+            // the address balances are no longer updated once turned off, remove the flag so they are rebuilt when turned on again
+            dbService.delete(AREA, LedgerStorageConstant.UTXO_STAT_ADDRESS_FLAG_KEY);
+        }
+    }
+
+    /**
+     * 读取全网汇总，不存在时(升级后第一次启动或数据区域被重建)重建
+     * Read the supply statistics, rebuild them when they do not exist (first start after upgrading or the area was recreated).
+     */
+    private UtxoStatPo loadSupply() throws NulsException {
+        byte[] supplyBytes = dbService.get(AREA, LedgerStorageConstant.UTXO_STAT_SUPPLY_KEY);
+        if (supplyBytes == null) {
+            return rebuild();
+        }
+        UtxoStatPo stat = new UtxoStatPo();
+        stat.parse(supplyBytes);
+        return stat;
+    }
+
+    private UtxoStatPo rebuild() throws NulsException {
+        Log.info("rebuild the utxo statistics, address balance: " + addressStat);
+        long time = System.currentTimeMillis();
+        BatchOperation batch = dbService.createWriteBatch(AREA);
+        try (DBCursor cursor = dbService.seek(AREA, LedgerStorageConstant.UTXO_STAT_KEY)) {
+            while (cursor.hasNext()) {
+                batch.delete(cursor.next().getKey());
+            }
+        }
+        UtxoStatPo stat = new UtxoStatPo();
+        Map<String, UtxoStatPo> addressMap = new HashMap<>();
+        try (DBCursor cursor = dbService.range(AREA, null, LedgerStorageConstant.UTXO_STAT_KEY)) {
+            while (cursor.hasNext()) {
+                Coin coin = new Coin();
+                coin.parse(cursor.next().getValue());
+                stat.add(coin, 1);
+                if (addressStat) {
+                    addressMap.computeIfAbsent(Hex.encode(coin.getOwner()), k -> new UtxoStatPo()).add(coin, 1);
+                }
+            }
+        }
+        try {
+            for (Map.Entry<String, UtxoStatPo> entry : addressMap.entrySet()) {
+                if (!entry.getValue().isEmpty()) {
+                    batch.put(getAddressKey(Hex.decode(entry.getKey())), entry.getValue().serialize());
+                }
+            }
+            if (addressStat) {
+                batch.put(LedgerStorageConstant.UTXO_STAT_ADDRESS_FLAG_KEY, new byte[]{1});
+            }
+            batch.put(LedgerStorageConstant.UTXO_STAT_SUPPLY_KEY, stat.serialize());
+        } catch (IOException e) {
+            throw new NulsException(e);
+        }
+        Result result = batch.executeBatch();
+        if (result.isFailed()) {
+            throw new NulsException(result.getErrorCode());
+        }
+        Log.info("rebuild the utxo statistics finished in " + (System.currentTimeMillis() - time) + "ms, " + stat);
+        return stat;
+    }
+
+    /**
+     * 计算批量中UTXO变更引起的汇总数据变化，加入同一个批量后执行
+     * 同一时间只有一个批量在计算和写入，避免并发写入时汇总数据丢失更新
+     * Compute the statistics changes caused by the UTXO changes of the batch, add them to the same batch and execute it.
+     * Only one batch is computed and written at a time, so concurrent batches never lose an update of the statistics.
+     *
+     * @param batch      数据库批量/the database batch
+     * @param operations 按顺序的UTXO变更，value为null表示删除/UTXO changes in order, a null value means delete
+     * @return Result
+     */
+    public synchronized Result executeBatch(BatchOperation batch, List<byte[][]> operations) {
+        if (operations.isEmpty()) {
+            return batch.executeBatch();
+        }
+        try {
+            UtxoStatPo supply = loadSupply();
+            Map<String, Coin> utxoMap = loadUtxo(operations);
+            UtxoStatPo supplyDelta = new UtxoStatPo();
+            Map<String, UtxoStatPo> addressDelta = new HashMap<>();
+            for (byte[][] operation : operations) {
+                String key = Hex.encode(operation[0]);
+                Coin oldCoin = utxoMap.get(key);
+                Coin newCoin = null;
+                if (operation[1] != null) {
+                    newCoin = new Coin();
+                    newCoin.parse(operation[1]);
+                }
+                if (oldCoin != null) {
+                    addDelta(supplyDelta, addressDelta, oldCoin, -1);
+                }
+                if (newCoin != null) {
+                    addDelta(supplyDelta, addressDelta, newCoin, 1);
+                }
+                utxoMap.put(key, newCoin);
+            }
+            if (addressStat) {
+                putAddressStat(batch, addressDelta);
+            }
+            supply.add(supplyDelta);
+            batch.put(LedgerStorageConstant.UTXO_STAT_SUPPLY_KEY, supply.serialize());
+            return batch.executeBatch();
+        } catch (Exception e) {
+            Log.error(e);
+            return Result.getFailed(e.getMessage());
+        }
+    }
+
+    /**
+     * 一次批量读取批量中每个key执行前的UTXO
+     * Read the UTXO of every key of the batch before it is executed, in one multi get.
+     */
+    private Map<String, Coin> loadUtxo(List<byte[][]> operations) {
+        Map<String, byte[]> keyMap = new LinkedHashMap<>();
+        for (byte[][] operation : operations) {
+            keyMap.putIfAbsent(Hex.encode(operation[0]), operation[0]);
+        }
+        List<String> hexList = new ArrayList<>(keyMap.keySet());
+        List<Coin> coinList = utxoLoader.apply(new ArrayList<>(keyMap.values()));
+        Map<String, Coin> utxoMap = new HashMap<>();
+        for (int i = 0; i < hexList.size(); i++) {
+            utxoMap.put(hexList.get(i), coinList == null ? null : coinList.get(i));
+        }
+        return utxoMap;
+    }
+
+    private void addDelta(UtxoStatPo supplyDelta, Map<String, UtxoStatPo> addressDelta, Coin coin, int sign) {
+        supplyDelta.add(coin, sign);
+        if (addressStat) {
+            addressDelta.computeIfAbsent(Hex.encode(coin.getOwner()), k -> new UtxoStatPo()).add(coin, sign);
+        }
+    }
+
+    private void putAddressStat(BatchOperation batch, Map<String, UtxoStatPo> addressDelta) throws NulsException, IOException {
+        List<byte[]> addressList = new ArrayList<>();
+        List<UtxoStatPo> deltaList = new ArrayList<>();
+        List<byte[]> keyList = new ArrayList<>();
+        for (Map.Entry<String, UtxoStatPo> entry : addressDelta.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+            byte[] address = Hex.decode(entry.getKey());
+            addressList.add(address);
+            deltaList.add(entry.getValue());
+            keyList.add(getAddressKey(address));
+        }
+        if (keyList.isEmpty()) {
+            return;
+        }
+        List<byte[]> valueList = dbService.multiGet(AREA, keyList);
+        if (valueList == null) {
+            throw new NulsException(KernelErrorCode.DB_DATA_ERROR, "read address statistics failed");
+        }
+        for (int i = 0; i < keyList.size(); i++) {
+            UtxoStatPo stat = new UtxoStatPo();
+            if (valueList.get(i) != null) {
+                stat.parse(valueList.get(i));
+            }
+            stat.add(deltaList.get(i));
+            if (stat.isEmpty()) {
+                batch.delete(keyList.get(i));
+            } else {
+                batch.put(keyList.get(i), stat.serialize());
+            }
+        }
+    }
+
+    private static byte[] getAddressKey(byte[] address) {
+        return ArraysTool.joinintTogether(LedgerStorageConstant.UTXO_STAT_ADDRESS_PREFIX, address);
+    }
+
+    /**
+     * 全网UTXO汇总
+     * Statistics of all UTXOs.
+     */
+    public synchronized UtxoStatPo getSupply() throws NulsException {
+        return loadSupply();
+    }
+
+    /**
+     * 地址的UTXO汇总，未开启地址余额时返回null
+     * Statistics of the UTXOs of the address, null if the address balances are turned off.
+     */
+    public UtxoStatPo getAddressStat(byte[] address) throws NulsException {
+        if (!addressStat || address == null) {
+            return null;
+        }
+        UtxoStatPo stat = new UtxoStatPo();
+        byte[] bytes = dbService.get(AREA, getAddressKey(address));
+        if (bytes != null) {
+            stat.parse(bytes);
+        }
+        return stat;
+    }
+
+    public boolean isAddressStat() {
+        return addressStat;
+    }
+}
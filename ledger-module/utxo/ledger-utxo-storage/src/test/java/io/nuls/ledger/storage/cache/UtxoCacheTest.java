@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.ledger.storage.cache;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class UtxoCacheTest {
+
+    private static byte[] bytes(int value, int length) {
+        byte[] bytes = new byte[length];
+        bytes[0] = (byte) value;
+        return bytes;
+    }
+
+    @Test
+    public void testGetAndMetrics() {
+        UtxoCache cache = new UtxoCache(1024 * 1024);
+        byte[] key = bytes(1, 36);
+        assertNull(cache.get(key));
+        cache.put(key, bytes(2, 40));
+        assertArrayEquals(bytes(2, 40), cache.get(bytes(1, 36)));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        cache.remove(key);
+        assertNull(cache.get(key));
+        assertEquals(0, cache.count());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        // 每个条目 36 + 40 + 96 = 172 字节，容量可放3个
+        UtxoCache cache = new UtxoCache(172 * 3);
+        cache.put(bytes(1, 36), bytes(0, 40));
+        cache.put(bytes(2, 36), bytes(0, 40));
+        cache.put(bytes(3, 36), bytes(0, 40));
+        assertNotNull(cache.get(bytes(1, 36)));
+
+        cache.put(bytes(4, 36), bytes(0, 40));
+        assertEquals(3, cache.count());
+        assertEquals(172 * 3, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get(bytes(2, 36)));
+        assertNotNull(cache.get(bytes(1, 36)));
+        assertNotNull(cache.get(bytes(4, 36)));
+    }
+
+    @Test
+    public void testFillAfterWriteIsDropped() {
+        UtxoCache cache = new UtxoCache(1024 * 1024);
+        byte[] key = bytes(1, 36);
+        long stamp = cache.getWriteStamp();
+        cache.remove(key);
+        cache.fill(key, bytes(2, 40), stamp);
+        assertNull(cache.get(key));
+
+        stamp = cache.getWriteStamp();
+        cache.fill(key, bytes(2, 40), stamp);
+        assertNotNull(cache.get(key));
+    }
+
+    @Test
+    public void testZeroCapacity() {
+        UtxoCache cache = new UtxoCache(0);
+        cache.put(bytes(1, 36), bytes(2, 40));
+        assertEquals(0, cache.count());
+        assertNull(cache.get(bytes(1, 36)));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.ledger.storage.po;
+
+import io.nuls.kernel.model.Coin;
+import io.nuls.kernel.model.Na;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class UtxoStatPoTest {
+
+    private static final byte[] ADDRESS = new byte[23];
+
+    @Test
+    public void testAdd() {
+        UtxoStatPo stat = new UtxoStatPo();
+        stat.add(new Coin(ADDRESS, Na.valueOf(100), 0), 1);
+        stat.add(new Coin(ADDRESS, Na.valueOf(20), -1), 1);
+        stat.add(new Coin(ADDRESS, Na.valueOf(3), 1000L), 1);
+        assertEquals(123, stat.getTotal());
+        assertEquals(20, stat.getConsensusLocked());
+        assertEquals(3, stat.getTimeLocked());
+
+        stat.add(new Coin(ADDRESS, Na.valueOf(20), -1), -1);
+        assertEquals(103, stat.getTotal());
+        assertEquals(0, stat.getConsensusLocked());
+        assertFalse(stat.isEmpty());
+
+        stat.add(new Coin(ADDRESS, Na.valueOf(100), 0), -1);
+        stat.add(new Coin(ADDRESS, Na.valueOf(3), 1000L), -1);
+        assertTrue(stat.isEmpty());
+    }
+
+    @Test
+    public void testSerialize() throws Exception {
+        UtxoStatPo stat = new UtxoStatPo();
+        stat.add(new Coin(ADDRESS, Na.valueOf(100), -1), 1);
+        stat.add(new Coin(ADDRESS, Na.valueOf(5), 10L), 1);
+        byte[] bytes = stat.serialize();
+        assertEquals(stat.size(), bytes.length);
+
+        UtxoStatPo parsed = new UtxoStatPo();
+        parsed.parse(bytes);
+        assertEquals(105, parsed.getTotal());
+        assertEquals(100, parsed.getConsensusLocked());
+        assertEquals(5, parsed.getTimeLocked());
+    }
+}
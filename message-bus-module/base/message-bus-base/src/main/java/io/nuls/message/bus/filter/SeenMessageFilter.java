@@ -0,0 +1,228 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.nuls.message.bus.filter;
+
+import io.nuls.kernel.model.NulsDigestData;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 已见消息过滤器，用于广播消息的去重
+ * 由新旧两代原始类型的开放寻址哈希集合组成，以摘要的64位指纹为键，查询和插入都是无锁的且不分配对象
+ * 当前代写满或超过轮换时间后，当前代变为旧一代，原来的旧一代被丢弃，因此内存是有界的，
+ * 一个摘要被记住的时间在一个到两个轮换周期之间
+ * <p>
+ * The seen-message filter, used to dedup the gossiped messages.
+ * It is made of two generations of primitive open-addressing hash sets keyed by the 64-bit fingerprint of the digest,
+ * lookups and inserts are lock-free and allocate nothing.
+ * When the current generation is full or older than the rotation interval, it becomes the previous generation
+ * and the old previous generation is dropped, so the memory is bounded,
+ * and a digest is remembered for one to two rotation intervals.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class SeenMessageFilter {
+
+    private static final long EMPTY = 0L;
+
+    private final int capacity;
+
+    private final long rotateMillis;
+
+    private volatile Generation current;
+
+    private volatile Generation previous;
+
+    /**
+     * @param capacity     每一代最多记录的摘要数 / the max number of digests of one generation
+     * @param rotateMillis 轮换周期(毫秒) / the rotation interval in milliseconds
+     */
+    public SeenMessageFilter(int capacity, long rotateMillis) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.rotateMillis = rotateMillis;
+        this.current = new Generation(capacity);
+        this.previous = new Generation(capacity);
+    }
+
+    /**
+     * 摘要是否已经记录过
+     * Whether the digest has been seen.
+     */
+    public boolean contains(NulsDigestData hash) {
+        if (hash == null || hash.getDigestBytes() == null) {
+            return false;
+        }
+        long fingerprint = fingerprint(hash.getDigestBytes());
+        return current.contains(fingerprint) || previous.contains(fingerprint);
+    }
+
+    /**
+     * 记录摘要，首次记录时返回true，已经记录过时返回false
+     * Record the digest, returns true when it is seen for the first time, false when it has been seen.
+     */
+    public boolean add(NulsDigestData hash) {
+        if (hash == null || hash.getDigestBytes() == null) {
+            return false;
+        }
+        long fingerprint = fingerprint(hash.getDigestBytes());
+        if (previous.contains(fingerprint)) {
+            return false;
+        }
+        while (true) {
+            Generation generation = current;
+            if (System.currentTimeMillis() - generation.createTime >= rotateMillis) {
+                rotate(generation);
+                continue;
+            }
+            int result = generation.add(fingerprint);
+            if (result == Generation.FULL) {
+                rotate(generation);
+                continue;
+            }
+            return result == Generation.ADDED;
+        }
+    }
+
+    /**
+     * 当前两代中记录的摘要数
+     * The number of digests recorded in the two generations.
+     */
+    public int size() {
+        return current.size.get() + previous.size.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        synchronized (this) {
+            this.current = new Generation(capacity);
+            this.previous = new Generation(capacity);
+        }
+    }
+
+    private void rotate(Generation expected) {
+        synchronized (this) {
+            if (current != expected) {
+                return;
+            }
+            this.previous = expected;
+            this.current = new Generation(capacity);
+        }
+    }
+
+    /**
+     * 摘要本身是均匀分布的，取前16个字节折叠为64位指纹，0保留为空槽位
+     * The digest is uniformly distributed, the first 16 bytes are folded into the 64-bit fingerprint, 0 is kept for the empty slot.
+     */
+    static long fingerprint(byte[] bytes) {
+        long high = 0;
+        long low = 0;
+        int length = Math.min(bytes.length, 16);
+        for (int i = 0; i < length; i++) {
+            if (i < 8) {
+                high = (high << 8) | (bytes[i] & 0xFF);
+            } else {
+                low = (low << 8) | (bytes[i] & 0xFF);
+            }
+        }
+        long fingerprint = high ^ Long.rotateLeft(low, 29) ^ length;
+        return fingerprint == EMPTY ? 1L : fingerprint;
+    }
+
+    private static final class Generation {
+
+        static final int ADDED = 0;
+        static final int PRESENT = 1;
+        static final int FULL = 2;
+
+        private final AtomicLongArray slots;
+
+        private final int mask;
+
+        private final int capacity;
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private final long createTime = System.currentTimeMillis();
+
+        Generation(int capacity) {
+            int length = Integer.highestOneBit(Math.max(2, capacity) - 1) << 2;
+            this.slots = new AtomicLongArray(length);
+            this.mask = length - 1;
+            this.capacity = capacity;
+        }
+
+        boolean contains(long fingerprint) {
+            int index = index(fingerprint);
+            for (int probe = 0; probe <= mask; probe++) {
+                long value = slots.get(index);
+                if (value == fingerprint) {
+                    return true;
+                }
+                if (value == EMPTY) {
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+            return false;
+        }
+
+        int add(long fingerprint) {
+            int index = index(fingerprint);
+            for (int probe = 0; probe <= mask; probe++) {
+                long value = slots.get(index);
+                if (value == fingerprint) {
+                    return PRESENT;
+                }
+                if (value == EMPTY) {
+                    if (size.get() >= capacity) {
+                        return FULL;
+                    }
+                    if (slots.compareAndSet(index, EMPTY, fingerprint)) {
+                        size.incrementAndGet();
+                        return ADDED;
+                    }
+                    // 被其他线程抢先写入，重新检查这个槽位 / taken by another thread, check this slot again
+                    continue;
+                }
+                index = (index + 1) & mask;
+            }
+            return FULL;
+        }
+
+        private int index(long fingerprint) {
+            long h = fingerprint * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -45,6 +45,15 @@ public class GetMessageBodyHandler extends AbstractMessageHandler<GetMessageBody
 
     private MessageCacheService messageCacheService = MessageCacheService.getInstance();
     private MessageBusService messageBusService = NulsContext.getServiceBean(MessageBusService.class);
+    /**
+     * 只读的请求处理，可以并行执行
+     * Read-only request handling, can run in parallel.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public void onMessage(GetMessageBodyMessage message, Node fromNode) throws NulsException {
         BaseMessage baseMessage = messageCacheService.getSendMessage(message.getMsgBody());
@@ -27,19 +27,17 @@ package io.nuls.message.bus.processor;
 import com.lmax.disruptor.EventHandler;
 import io.nuls.core.tools.disruptor.DisruptorData;
 import io.nuls.core.tools.log.Log;
-import io.nuls.kernel.thread.manager.NulsThreadFactory;
-import io.nuls.kernel.thread.manager.TaskManager;
-import io.nuls.message.bus.constant.MessageBusConstant;
 import io.nuls.message.bus.handler.intf.NulsMessageHandler;
 import io.nuls.message.bus.manager.HandlerManager;
 import io.nuls.message.bus.model.ProcessData;
+import io.nuls.message.bus.processor.thread.MessageTypeExecutor;
 import io.nuls.message.bus.processor.thread.NulsMessageCall;
 import io.nuls.protocol.message.base.BaseMessage;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author ln
@@ -48,7 +46,7 @@ import java.util.concurrent.ExecutorService;
 public class MessageClassificationProcessor<E extends BaseMessage> implements EventHandler<DisruptorData<ProcessData<E>>> {
 
     private HandlerManager handlerManager = HandlerManager.getInstance();
-    private Map<Class<? extends BaseMessage>, ExecutorService> handlerService = new HashMap<>();
+    private Map<Class<? extends BaseMessage>, MessageTypeExecutor> handlerService = new ConcurrentHashMap<>();
 
     @Override
     public void onEvent(DisruptorData<ProcessData<E>> disruptorData, long l, boolean b) throws Exception {
@@ -65,21 +63,29 @@ public class MessageClassificationProcessor<E extends BaseMessage> implements Ev
         ProcessData processData = disruptorData.getData();
         Class<? extends BaseMessage> serviceId = processData.getData().getClass();
         Set<NulsMessageHandler> handlers = handlerManager.getHandlerList(serviceId);
-        ExecutorService handlerExecutor = handlerService.get(serviceId);
-        if (handlerExecutor == null) {
-            handlerExecutor = TaskManager.createThreadPool(1, Integer.MAX_VALUE, new NulsThreadFactory(MessageBusConstant.MODULE_ID_MESSAGE_BUS, "disruptor-processor"));
-            handlerService.put(serviceId, handlerExecutor);
-        }
+        MessageTypeExecutor handlerExecutor = handlerService.computeIfAbsent(serviceId, clazz -> MessageTypeExecutor.create(clazz.getSimpleName()));
         for (NulsMessageHandler handler : handlers) {
-            handlerExecutor.execute(new NulsMessageCall(processData, handler));
+            handlerExecutor.execute(handler, new NulsMessageCall(processData, handler));
         }
     }
 
+    /**
+     * 获取指定消息类型的处理线程池，可查询积压数、丢弃数和处理耗时
+     * Get the handler executor of the message type, which gives the backlog, dropped count and latency.
+     */
+    public MessageTypeExecutor getExecutor(Class<? extends BaseMessage> messageClass) {
+        return handlerService.get(messageClass);
+    }
+
+    public Map<Class<? extends BaseMessage>, MessageTypeExecutor> getExecutors() {
+        return Collections.unmodifiableMap(handlerService);
+    }
+
     public void shutdown() {
         if (handlerService == null) {
             return;
         }
-        for (Map.Entry<Class<? extends BaseMessage>, ExecutorService> entry : handlerService.entrySet()) {
+        for (Map.Entry<Class<? extends BaseMessage>, MessageTypeExecutor> entry : handlerService.entrySet()) {
             entry.getValue().shutdown();
         }
     }
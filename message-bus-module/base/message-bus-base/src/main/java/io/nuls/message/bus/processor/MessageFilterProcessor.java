@@ -61,6 +61,10 @@ public class MessageFilterProcessor<E extends BaseMessage> implements EventHandl
                     needCache = message.getHeader().getMsgType() == ProtocolConstant.MESSAGE_TYPE_NEW_TX &&
                             message.getHeader().getModuleId() == ProtocolConstant.MODULE_ID_PROTOCOL;
                 }
+                if(!needCache) {
+                    needCache = message.getHeader().getMsgType() == ProtocolConstant.MESSAGE_TYPE_COMPACT_BLOCK &&
+                            message.getHeader().getModuleId() == ProtocolConstant.MODULE_ID_PROTOCOL;
+                }
                 if(needCache) {
                     messageCacheService.cacheRecievedMessageHash(message.getHash());
                 }
@@ -0,0 +1,211 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.nuls.message.bus.processor.thread;
+
+import io.nuls.core.tools.log.Log;
+import io.nuls.kernel.cfg.NulsConfig;
+import io.nuls.kernel.thread.manager.NulsThreadFactory;
+import io.nuls.kernel.thread.manager.TaskManager;
+import io.nuls.message.bus.constant.MessageBusConstant;
+import io.nuls.message.bus.handler.intf.NulsMessageHandler;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单个消息类型的处理线程池，由若干单线程分片组成，每个分片的队列有界
+ * 非线程安全的处理器固定在一个分片上串行执行，线程安全的处理器投递到排队最少的分片上并行执行
+ * 队列满时，开启了负载丢弃的消息类型(如交易广播)直接丢弃并计数，其他类型阻塞等待分片队列的空位，对上游形成背压，
+ * 处理器永远不会在消息总线的线程上直接执行
+ * The handler executor of one message type, made of several single-thread shards, each shard has a bounded queue.
+ * A non thread-safe handler is pinned to one shard and runs serially,
+ * a thread-safe handler is dispatched to the shard with the shortest queue and runs in parallel.
+ * When the queue is full, the message types with load-shedding (such as tx gossip) are dropped and counted,
+ * other types block until the shard queue has room, which applies backpressure upstream.
+ * A handler never runs inline on the message bus thread.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class MessageTypeExecutor {
+
+    private final String name;
+
+    private final ThreadPoolExecutor[] shards;
+
+    private final boolean loadShedding;
+
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    private final AtomicLong processedCount = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final AtomicLong totalLatency = new AtomicLong();
+
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    public MessageTypeExecutor(String name, int threads, int queueSize, boolean loadShedding) {
+        this.name = name;
+        this.loadShedding = loadShedding;
+        this.shards = new ThreadPoolExecutor[Math.max(1, threads)];
+        for (int i = 0; i < shards.length; i++) {
+            ThreadPoolExecutor shard = TaskManager.createThreadPool(1, queueSize,
+                    new NulsThreadFactory(MessageBusConstant.MODULE_ID_MESSAGE_BUS, "disruptor-processor-" + name + "-" + i));
+            if (loadShedding) {
+                shard.setRejectedExecutionHandler((runnable, executor) -> drop());
+            } else {
+                shard.setRejectedExecutionHandler(this::blockingPut);
+            }
+            shards[i] = shard;
+        }
+    }
+
+    /**
+     * 阻塞等待分片队列的空位，保持非线程安全处理器在同一分片上串行执行
+     * Block until the shard queue has room, non thread-safe handlers keep running serially on their shard.
+     */
+    private void blockingPut(Runnable runnable, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            drop();
+            return;
+        }
+        try {
+            executor.getQueue().put(runnable);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drop();
+        }
+    }
+
+    private void drop() {
+        long dropped = droppedCount.incrementAndGet();
+        if (dropped % 1000 == 1) {
+            Log.warn(name + " executor is full, messages dropped: " + dropped);
+        }
+    }
+
+    /**
+     * 根据消息类型的配置创建线程池，未配置时使用默认值
+     * Create the executor by the config of the message type, the defaults are used when it is not configured.
+     */
+    public static MessageTypeExecutor create(String messageType) {
+        int threads = MessageBusConstant.DEFAULT_EXECUTOR_THREADS;
+        int queueSize = MessageBusConstant.DEFAULT_EXECUTOR_QUEUE_SIZE;
+        boolean loadShedding = false;
+        if (NulsConfig.MODULES_CONFIG != null) {
+            String prefix = MessageBusConstant.CFG_EXECUTOR_PREFIX + messageType;
+            threads = NulsConfig.MODULES_CONFIG.getCfgValue(MessageBusConstant.CFG_MSG_BUS_SECTION, prefix + MessageBusConstant.CFG_EXECUTOR_THREADS, threads);
+            queueSize = NulsConfig.MODULES_CONFIG.getCfgValue(MessageBusConstant.CFG_MSG_BUS_SECTION, prefix + MessageBusConstant.CFG_EXECUTOR_QUEUE, queueSize);
+            loadShedding = NulsConfig.MODULES_CONFIG.getCfgValue(MessageBusConstant.CFG_MSG_BUS_SECTION, prefix + MessageBusConstant.CFG_EXECUTOR_SHED, loadShedding);
+        }
+        return new MessageTypeExecutor(messageType, threads, queueSize, loadShedding);
+    }
+
+    public void execute(NulsMessageHandler handler, Runnable task) {
+        long enqueueTime = System.currentTimeMillis();
+        selectShard(handler).execute(() -> {
+            try {
+                task.run();
+            } finally {
+                record(System.currentTimeMillis() - enqueueTime);
+            }
+        });
+    }
+
+    private ThreadPoolExecutor selectShard(NulsMessageHandler handler) {
+        if (shards.length == 1) {
+            return shards[0];
+        }
+        if (!handler.isThreadSafe()) {
+            return shards[(handler.hashCode() & Integer.MAX_VALUE) % shards.length];
+        }
+        ThreadPoolExecutor selected = shards[(nextShard.getAndIncrement() & Integer.MAX_VALUE) % shards.length];
+        for (ThreadPoolExecutor shard : shards) {
+            if (shard.getQueue().size() < selected.getQueue().size()) {
+                selected = shard;
+            }
+        }
+        return selected;
+    }
+
+    private void record(long latency) {
+        processedCount.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        long max = maxLatency.get();
+        while (latency > max && !maxLatency.compareAndSet(max, latency)) {
+            max = maxLatency.get();
+        }
+    }
+
+    public void shutdown() {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isLoadShedding() {
+        return loadShedding;
+    }
+
+    /**
+     * 所有分片中排队等待处理的任务数
+     * The number of tasks waiting in the queues of all shards.
+     */
+    public int getBacklog() {
+        int backlog = 0;
+        for (ThreadPoolExecutor shard : shards) {
+            backlog += shard.getQueue().size();
+        }
+        return backlog;
+    }
+
+    public long getProcessedCount() {
+        return processedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * 从入队到处理完成的平均耗时(毫秒)
+     * The average time (milliseconds) from enqueue to the end of handling.
+     */
+    public long getAverageLatency() {
+        long count = processedCount.get();
+        return count == 0 ? 0 : totalLatency.get() / count;
+    }
+
+    public long getMaxLatency() {
+        return maxLatency.get();
+    }
+}
@@ -42,6 +42,7 @@ import io.nuls.network.service.NetworkService;
 import io.nuls.protocol.message.base.BaseMessage;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -88,6 +89,13 @@ public class MessageBusServiceImpl implements MessageBusService {
         return getNodeIdListResult(result);
     }
 
+    @Override
+    public Result<List<String>> broadcastHashAndCache(BaseMessage message, Collection<Node> nodes, Node excludeNode, boolean aysn) {
+        messageCacheService.cacheSendedMessage(message);
+        BroadcastResult result = this.networkService.sendToNodes(new CommonDigestMessage(message.getHash()), nodes, excludeNode, aysn);
+        return getNodeIdListResult(result);
+    }
+
     @Override
     public Result<List<String>> broadcastAndCache(BaseMessage message, Node excludeNode, boolean aysn) {
         messageCacheService.cacheSendedMessage(message);
@@ -25,8 +25,11 @@
 
 package io.nuls.message.bus.service.impl;
 
+import com.github.benmanes.caffeine.cache.Weigher;
 import io.nuls.cache.CacheMap;
+import io.nuls.cache.model.CacheMapParams;
 import io.nuls.kernel.model.NulsDigestData;
+import io.nuls.message.bus.filter.SeenMessageFilter;
 import io.nuls.protocol.message.base.BaseMessage;
 
 /**
@@ -41,11 +44,15 @@ public class MessageCacheService {
     private static final MessageCacheService INSTANCE = new MessageCacheService();
 
     private static final int TIME_OF_IDLE_SECONDS = 600;
-    private CacheMap<NulsDigestData, BaseMessage> cacheMapSended = new CacheMap<>("message-cache-sended", 128, NulsDigestData.class, BaseMessage.class, 0, TIME_OF_IDLE_SECONDS);
-    private CacheMap<NulsDigestData, Integer> cacheMapRecieved = new CacheMap<>("message-cache-recieved", 64, NulsDigestData.class, Integer.class, 0, TIME_OF_IDLE_SECONDS);
+    private static final int SEEN_MESSAGE_CAPACITY = 1 << 19;
+    private static final int SENDED_CACHE_MB = 128;
+    private CacheMap<NulsDigestData, BaseMessage> cacheMapSended = new CacheMap<>("message-cache-sended", createSendedCacheParams());
 
-//    private Map<NulsDigestData, BaseMessage> cacheMapSended = new HashMap<>();
-//    private Map<NulsDigestData, Integer> cacheMapRecieved = new HashMap<>();
+    /**
+     * 收到和发出的消息摘要，每一代记录5分钟，摘要被记住5到10分钟
+     * The digests of the received and sent messages, each generation lasts 5 minutes, so a digest is remembered for 5 to 10 minutes.
+     */
+    private SeenMessageFilter seenMessageFilter = new SeenMessageFilter(SEEN_MESSAGE_CAPACITY, TIME_OF_IDLE_SECONDS * 1000L / 2);
 
     public static MessageCacheService getInstance() {
         return INSTANCE;
@@ -54,6 +61,16 @@ public class MessageCacheService {
     private MessageCacheService() {
     }
 
+    /**
+     * 发出的消息按序列化大小计算权重，缓存占用不超过SENDED_CACHE_MB
+     * The sent messages are weighed by the serialized size, so the cache holds no more than SENDED_CACHE_MB.
+     */
+    private static CacheMapParams createSendedCacheParams() {
+        CacheMapParams params = new CacheMapParams(SENDED_CACHE_MB, NulsDigestData.class, BaseMessage.class, 0, TIME_OF_IDLE_SECONDS, null, null);
+        params.setWeigher((Weigher<NulsDigestData, BaseMessage>) (hash, message) -> Math.max(1, message.size()));
+        return params;
+    }
+
     /**
      * 缓存发送的消息
      * Caching messages sent
@@ -62,6 +79,7 @@ public class MessageCacheService {
      */
     public void cacheSendedMessage(BaseMessage messgae) {
         this.cacheMapSended.put(messgae.getHash(), messgae);
+        this.seenMessageFilter.add(messgae.getHash());
     }
 
     /**
@@ -81,7 +99,7 @@ public class MessageCacheService {
      * @param hash THe hash of the received message
      */
     public void cacheRecievedMessageHash(NulsDigestData hash) {
-        this.cacheMapRecieved.put(hash, 1);
+        this.seenMessageFilter.add(hash);
     }
 
     /**
@@ -91,9 +109,7 @@ public class MessageCacheService {
      * @param hash The hash you want to check
      */
     public boolean kownTheMessage(NulsDigestData hash) {
-        boolean b = this.cacheMapRecieved.containsKey(hash) ||
-                this.cacheMapSended.containsKey(hash);
-        return b;
+        return this.seenMessageFilter.contains(hash);
     }
 
     /**
@@ -108,9 +124,6 @@ public class MessageCacheService {
      */
     public void destroy() {
         this.cacheMapSended.destroy();
-        this.cacheMapRecieved.destroy();
-
-//        this.cacheMapSended.clear();
-//        this.cacheMapRecieved.clear();
+        this.seenMessageFilter.clear();
     }
 }
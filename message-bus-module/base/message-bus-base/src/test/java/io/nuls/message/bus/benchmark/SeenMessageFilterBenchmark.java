@@ -0,0 +1,141 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.nuls.message.bus.benchmark;
+
+import io.nuls.cache.CacheMap;
+import io.nuls.kernel.model.NulsDigestData;
+import io.nuls.message.bus.filter.SeenMessageFilter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 广播消息去重的JMH对比：原来的两个Ehcache CacheMap与SeenMessageFilter
+ * JMH comparison of the gossip dedup: the former two Ehcache CacheMaps against the SeenMessageFilter.
+ * <p>
+ * 运行/run: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=io.nuls.message.bus.benchmark.SeenMessageFilterBenchmark
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeenMessageFilterBenchmark {
+
+    private static final int SIZE = 100000;
+
+    private CacheMap<NulsDigestData, Integer> cacheMapRecieved;
+
+    private CacheMap<NulsDigestData, Integer> cacheMapSended;
+
+    private SeenMessageFilter seenMessageFilter;
+
+    private NulsDigestData[] known;
+
+    private NulsDigestData[] unknown;
+
+    private int index;
+
+    @Setup
+    public void setup() {
+        cacheMapRecieved = new CacheMap<>("benchmark-recieved", 64, NulsDigestData.class, Integer.class, 0, 600);
+        cacheMapSended = new CacheMap<>("benchmark-sended", 64, NulsDigestData.class, Integer.class, 0, 600);
+        seenMessageFilter = new SeenMessageFilter(1 << 19, 300000L);
+        Random random = new Random(1);
+        known = new NulsDigestData[SIZE];
+        unknown = new NulsDigestData[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            known[i] = randomHash(random);
+            unknown[i] = randomHash(random);
+            cacheMapRecieved.put(known[i], 1);
+            seenMessageFilter.add(known[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        cacheMapRecieved.destroy();
+        cacheMapSended.destroy();
+    }
+
+    private static NulsDigestData randomHash(Random random) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return new NulsDigestData(NulsDigestData.DIGEST_ALG_SHA256, bytes);
+    }
+
+    private int next() {
+        index = (index + 1) % SIZE;
+        return index;
+    }
+
+    @Benchmark
+    public boolean cacheMapHit() {
+        NulsDigestData hash = known[next()];
+        return cacheMapRecieved.containsKey(hash) || cacheMapSended.containsKey(hash);
+    }
+
+    @Benchmark
+    public boolean cacheMapMiss() {
+        NulsDigestData hash = unknown[next()];
+        return cacheMapRecieved.containsKey(hash) || cacheMapSended.containsKey(hash);
+    }
+
+    @Benchmark
+    public boolean filterHit() {
+        return seenMessageFilter.contains(known[next()]);
+    }
+
+    @Benchmark
+    public boolean filterMiss() {
+        return seenMessageFilter.contains(unknown[next()]);
+    }
+
+    @Benchmark
+    public void cacheMapPut() {
+        cacheMapRecieved.put(known[next()], 1);
+    }
+
+    @Benchmark
+    public boolean filterAdd() {
+        return seenMessageFilter.add(known[next()]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(SeenMessageFilterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.nuls.message.bus.filter;
+
+import io.nuls.kernel.model.NulsDigestData;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class SeenMessageFilterTest {
+
+    private Random random = new Random(1);
+
+    private NulsDigestData randomHash() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return new NulsDigestData(NulsDigestData.DIGEST_ALG_SHA256, bytes);
+    }
+
+    /**
+     * 记录后可以查到，重复记录返回false
+     * A recorded digest can be found, recording it again returns false.
+     */
+    @Test
+    public void addAndContains() {
+        SeenMessageFilter filter = new SeenMessageFilter(1024, 60000L);
+        NulsDigestData hash = randomHash();
+        assertFalse(filter.contains(hash));
+        assertTrue(filter.add(hash));
+        assertTrue(filter.contains(hash));
+        assertTrue(filter.contains(new NulsDigestData(NulsDigestData.DIGEST_ALG_SHA256, hash.getDigestBytes().clone())));
+        assertFalse(filter.add(hash));
+        assertFalse(filter.contains(randomHash()));
+        assertEquals(1, filter.size());
+
+        filter.clear();
+        assertFalse(filter.contains(hash));
+        assertEquals(0, filter.size());
+    }
+
+    /**
+     * 写满后轮换，旧一代仍然可以查到，再轮换一次后被丢弃
+     * Rotates when full, the previous generation can still be found, and is dropped after the next rotation.
+     */
+    @Test
+    public void rotateWhenFull() {
+        int capacity = 100;
+        SeenMessageFilter filter = new SeenMessageFilter(capacity, Long.MAX_VALUE);
+        NulsDigestData[] first = new NulsDigestData[capacity];
+        for (int i = 0; i < capacity; i++) {
+            first[i] = randomHash();
+            assertTrue(filter.add(first[i]));
+        }
+        NulsDigestData[] second = new NulsDigestData[capacity];
+        for (int i = 0; i < capacity; i++) {
+            second[i] = randomHash();
+            assertTrue(filter.add(second[i]));
+        }
+        for (int i = 0; i < capacity; i++) {
+            assertTrue(filter.contains(first[i]));
+            assertTrue(filter.contains(second[i]));
+        }
+        assertTrue(filter.size() <= capacity * 2);
+
+        filter.add(randomHash());
+        for (int i = 0; i < capacity; i++) {
+            assertFalse(filter.contains(first[i]));
+            assertTrue(filter.contains(second[i]));
+        }
+    }
+
+    /**
+     * 超过轮换时间后轮换
+     * Rotates when the rotation interval is passed.
+     */
+    @Test
+    public void rotateByTime() throws InterruptedException {
+        SeenMessageFilter filter = new SeenMessageFilter(1024, 50L);
+        NulsDigestData old = randomHash();
+        filter.add(old);
+        Thread.sleep(60L);
+        filter.add(randomHash());
+        assertTrue(filter.contains(old));
+        Thread.sleep(60L);
+        filter.add(randomHash());
+        assertFalse(filter.contains(old));
+    }
+
+    /**
+     * 多线程同时记录同一批摘要，每个摘要只有一个线程记录成功
+     * Several threads record the same digests at the same time, only one thread succeeds for each digest.
+     */
+    @Test
+    public void concurrentAdd() throws InterruptedException {
+        int count = 10000;
+        int threads = 4;
+        SeenMessageFilter filter = new SeenMessageFilter(count * 2, Long.MAX_VALUE);
+        NulsDigestData[] hashes = new NulsDigestData[count];
+        for (int i = 0; i < count; i++) {
+            hashes[i] = randomHash();
+        }
+        AtomicInteger added = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (NulsDigestData hash : hashes) {
+                    if (filter.add(hash)) {
+                        added.incrementAndGet();
+                    }
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        assertEquals(count, added.get());
+        assertEquals(count, filter.size());
+        for (NulsDigestData hash : hashes) {
+            assertTrue(filter.contains(hash));
+        }
+    }
+}
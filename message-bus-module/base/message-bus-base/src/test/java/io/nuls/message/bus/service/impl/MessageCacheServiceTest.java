@@ -26,7 +26,7 @@
 package io.nuls.message.bus.service.impl;
 
 import io.nuls.cache.CacheMap;
-import io.nuls.kernel.model.NulsDigestData;
+import io.nuls.message.bus.filter.SeenMessageFilter;
 import io.nuls.protocol.message.BlockMessage;
 import org.junit.Before;
 import org.junit.Test;
@@ -79,10 +79,10 @@ public class MessageCacheServiceTest {
         messageCacheService.cacheRecievedMessageHash(blockMessage.getHash());
         assertNotNull(messageCacheService);
 
-        Field cacheMapRecievedField = messageCacheService.getClass().getDeclaredField("cacheMapRecieved");
-        cacheMapRecievedField.setAccessible(true);
-        CacheMap<NulsDigestData, Integer> cacheMap = (CacheMap<NulsDigestData, Integer>) cacheMapRecievedField.get(messageCacheService);
-        assertTrue(cacheMap.get(blockMessage.getHash()) == 1);
+        Field seenMessageFilterField = messageCacheService.getClass().getDeclaredField("seenMessageFilter");
+        seenMessageFilterField.setAccessible(true);
+        SeenMessageFilter seenMessageFilter = (SeenMessageFilter) seenMessageFilterField.get(messageCacheService);
+        assertTrue(seenMessageFilter.contains(blockMessage.getHash()));
     }
 
     /**
@@ -117,22 +117,22 @@ public class MessageCacheServiceTest {
 
     /**
      * 验证销毁缓存的方法
-     * 需要分别验证[cacheMapRecieved集合]和[cacheMapSended集合]
+     * 需要分别验证[seenMessageFilter集合]和[cacheMapSended集合]
      * 在销毁前缓存数据不为0(如果为0则先添加缓存数据), 销毁后缓存数为0
      * <p>
      * TestNetwork case destroying the cache
-     * Verify cacheMapRecieved collection and cacheMapSended collection
+     * Verify seenMessageFilter collection and cacheMapSended collection
      * cache data before destroy is not 0(add cached data for 0 first),
      * and the cache number is 0 after destroy.
      */
     @Test
     public void destroy() throws Exception {
-        //缓存消息,验证cacheMapRecieved集合是否有值
+        //缓存消息,验证seenMessageFilter集合是否有值
         messageCacheService.cacheRecievedMessageHash(blockMessage.getHash());
-        Field cacheMapRecievedField = messageCacheService.getClass().getDeclaredField("cacheMapRecieved");
-        cacheMapRecievedField.setAccessible(true);
-        CacheMap<String, Integer> cacheMap = (CacheMap<String, Integer>) cacheMapRecievedField.get(messageCacheService);
-        assertTrue(cacheMap.size() > 0);
+        Field seenMessageFilterField = messageCacheService.getClass().getDeclaredField("seenMessageFilter");
+        seenMessageFilterField.setAccessible(true);
+        SeenMessageFilter seenMessageFilter = (SeenMessageFilter) seenMessageFilterField.get(messageCacheService);
+        assertTrue(seenMessageFilter.size() > 0);
 
         //缓存消息,验证cacheMapSended集合是否有值
         messageCacheService.cacheSendedMessage(blockMessage);
@@ -144,11 +144,9 @@ public class MessageCacheServiceTest {
         //销毁
         messageCacheService.destroy();
 
-        //销毁后, 验证cacheMapRecieved集合是否被销毁
-        cacheMap = (CacheMap<String, Integer>) cacheMapRecievedField.get(messageCacheService);
-        assertTrue(cacheMap.size() == 0);
-
-        cacheMapSended = (CacheMap<String, Integer>) cacheMapRecievedField.get(messageCacheService);
-        assertTrue(cacheMapSended.size() == 0);
+        //销毁后, 验证seenMessageFilter集合是否被清空
+        seenMessageFilter = (SeenMessageFilter) seenMessageFilterField.get(messageCacheService);
+        assertTrue(seenMessageFilter.size() == 0);
+        assertFalse(messageCacheService.kownTheMessage(blockMessage.getHash()));
     }
 }
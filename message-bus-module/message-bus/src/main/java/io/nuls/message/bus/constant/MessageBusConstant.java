@@ -58,6 +58,24 @@ public interface MessageBusConstant extends NulsConstant {
      */
     String THREAD_POOL_NAME = "nuls-process-dispatcher";
 
+    /**
+     * 消息总线的配置区域
+     * The config section of the message-bus
+     */
+    String CFG_MSG_BUS_SECTION = "msg-bus";
+
+    /**
+     * 按消息类型配置处理线程池，如msg.executor.TransactionMessage.threads
+     * Config the handler executor by message type, such as msg.executor.TransactionMessage.threads
+     */
+    String CFG_EXECUTOR_PREFIX = "msg.executor.";
+    String CFG_EXECUTOR_THREADS = ".threads";
+    String CFG_EXECUTOR_QUEUE = ".queue";
+    String CFG_EXECUTOR_SHED = ".shed";
+
+    int DEFAULT_EXECUTOR_THREADS = 1;
+    int DEFAULT_EXECUTOR_QUEUE_SIZE = 10000;
+
     /**
      * The default size of ringBuffer
      */
@@ -54,4 +54,13 @@ public interface NulsMessageHandler<T extends BaseMessage> {
     NulsMessageFilterChain getFilterChian();
 
     void onMessage(T message, Node fromNode) throws NulsException;
+
+    /**
+     * 处理器是否线程安全，线程安全的处理器可以被同一消息类型的多个线程并行调用
+     * Whether the handler is thread-safe, a thread-safe handler can be called in parallel
+     * by several threads of the same message type.
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
 }
@@ -30,6 +30,7 @@ import io.nuls.message.bus.handler.intf.NulsMessageHandler;
 import io.nuls.network.model.Node;
 import io.nuls.protocol.message.base.BaseMessage;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -86,6 +87,18 @@ public interface MessageBusService {
      */
     Result<List<String>> broadcastHashAndCache(BaseMessage message, Node excludeNode, boolean aysn);
 
+    /**
+     * 广播消息hash给指定的一组节点
+     * broadcast a message hash to the given nodes and cache the message
+     *
+     * @param message     The message was broadcast.
+     * @param nodes       接收广播的节点 The nodes the hash is broadcast to.
+     * @param excludeNode 不会广播的节点 The node that is not passed.
+     * @param aysn        是否异步 Asynchronous execution
+     * @return Return all broadcasted node id list
+     */
+    Result<List<String>> broadcastHashAndCache(BaseMessage message, Collection<Node> nodes, Node excludeNode, boolean aysn);
+
     /**
      * 广播消息
      * broadcast to nodes except "excludeNode"
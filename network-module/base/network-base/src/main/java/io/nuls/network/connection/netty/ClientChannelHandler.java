@@ -25,7 +25,6 @@
 
 package io.nuls.network.connection.netty;
 
-import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.socket.SocketChannel;
@@ -36,9 +35,9 @@ import io.nuls.core.tools.network.IpUtil;
 import io.nuls.network.model.Node;
 import io.nuls.network.manager.ConnectionManager;
 import io.nuls.network.manager.NodeManager;
+import io.nuls.protocol.message.base.BaseMessage;
 
 import java.io.UnsupportedEncodingException;
-import java.nio.ByteBuffer;
 import java.util.Map;
 
 public class ClientChannelHandler extends ChannelInboundHandlerAdapter {
@@ -128,14 +127,7 @@ public class ClientChannelHandler extends ChannelInboundHandlerAdapter {
         try {
             Node node = nodeManager.getNode(nodeId);
             if (node != null && node.isAlive()) {
-                ByteBuf buf = (ByteBuf) msg;
-                byte[] bytes = new byte[buf.readableBytes()];
-                buf.readBytes(bytes);
-                buf.release();
-                ByteBuffer buffer = ByteBuffer.allocate(bytes.length);
-                buffer.put(bytes);
-
-                connectionManager.receiveMessage(buffer, node);
+                connectionManager.receiveMessage((BaseMessage) msg, node);
             }
         } catch (Exception e) {
             Log.info(" ---------------------- client channelRead exception---------------------- " + nodeId);
@@ -28,26 +28,15 @@ package io.nuls.network.connection.netty;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
-import io.netty.channel.ChannelOption;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.util.AttributeKey;
 import io.nuls.network.model.Node;
 import io.nuls.network.manager.NodeManager;
 
-import static io.nuls.network.constant.NetworkConstant.CONNETCI_TIME_OUT;
-
 
 public class NettyClient {
 
-    public static EventLoopGroup worker = new NioEventLoopGroup();
-
     Bootstrap boot;
 
-    private SocketChannel socketChannel;
-
     private Node node;
 
     private NodeManager nodeManager = NodeManager.getInstance();
@@ -65,35 +54,28 @@ public class NettyClient {
             }
         }
         boot.attr(key, node);
-
-        boot.group(worker)
-                .channel(NioSocketChannel.class)
-                .option(ChannelOption.TCP_NODELAY, true)
-                .option(ChannelOption.SO_KEEPALIVE, true)
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNETCI_TIME_OUT)
-                .handler(new NulsChannelInitializer<>(new ClientChannelHandler()));
+        boot.handler(new NulsChannelInitializer<>(new ClientChannelHandler()));
+        NettyTransport.configClient(boot);
     }
 
+    /**
+     * 异步发起连接，连接结果在监听器中处理，不再为每个连接阻塞一个线程
+     * Connect asynchronously, the result is handled in the listener, no thread is blocked for each connection any more.
+     */
     public void start() {
         try {
-            ChannelFuture future = boot.connect(node.getIp(), node.getSeverPort()).addListener(new ChannelFutureListener() {
+            boot.connect(node.getIp(), node.getSeverPort()).addListener(new ChannelFutureListener() {
                 @Override
                 public void operationComplete(ChannelFuture future) throws Exception {
-                    if (future.isSuccess()) {
-                        socketChannel = (SocketChannel) future.channel();
-                    } else {
+                    if (!future.isSuccess()) {
                         System.out.println("Client connect to host error: " + future.cause() + ", remove node: " + node.getId());
                         nodeManager.validateFirstUnConnectedNode(node.getId());
                         nodeManager.removeNode(node.getId());
                     }
                 }
             });
-            future.channel().closeFuture().sync();
         } catch (Exception e) {
             //maybe time out or refused or something
-            if (socketChannel != null) {
-                socketChannel.close();
-            }
             System.out.println("Client start exception:" + e.getMessage() + ", remove node: " + node.getId());
             nodeManager.validateFirstUnConnectedNode(node.getId());
             nodeManager.removeNode(node.getId());
@@ -27,10 +27,8 @@ package io.nuls.network.connection.netty;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.nuls.network.constant.NetworkParam;
 
 public class NettyServer {
 
@@ -45,15 +43,13 @@ public class NettyServer {
     }
 
     public void init() {
-        boss = new NioEventLoopGroup();
-        worker = new NioEventLoopGroup();
+        NetworkParam networkParam = NetworkParam.getInstance();
+        boss = NettyTransport.newEventLoopGroup(networkParam.getBossThreads(), "netty boss");
+        worker = NettyTransport.newEventLoopGroup(networkParam.getWorkerThreads(), "netty worker");
         serverBootstrap = new ServerBootstrap();
         serverBootstrap.group(boss, worker)
-                .channel(NioServerSocketChannel.class)
-                .option(ChannelOption.SO_BACKLOG, 128)
-                .childOption(ChannelOption.TCP_NODELAY, true)            //Send messages immediately
-                .childOption(ChannelOption.SO_KEEPALIVE, true)
                 .childHandler(new NulsChannelInitializer<>(new ServerChannelHandler()));
+        NettyTransport.configServer(serverBootstrap);
     }
 
     public void start() throws InterruptedException {
@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.nuls.network.connection.netty;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.nuls.core.tools.log.Log;
+import io.nuls.kernel.thread.manager.NulsThreadFactory;
+import io.nuls.network.constant.NetworkConstant;
+import io.nuls.network.constant.NetworkParam;
+
+import static io.nuls.network.constant.NetworkConstant.*;
+
+/**
+ * netty传输层配置，Linux下可用时使用epoll，否则使用NIO
+ * 服务端和所有主动连接共用池化的内存分配器，所有主动连接共用同一个EventLoopGroup
+ * The netty transport settings, epoll is used when it is available on Linux, otherwise NIO.
+ * The server and all outbound connections share the pooled allocator, all outbound connections share one EventLoopGroup.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class NettyTransport {
+
+    private static NetworkParam networkParam = NetworkParam.getInstance();
+
+    private static EventLoopGroup clientGroup;
+
+    private static Boolean epoll;
+
+    public static boolean isEpoll() {
+        if (epoll == null) {
+            epoll = networkParam.isEpoll() && Epoll.isAvailable();
+            if (networkParam.isEpoll() && !epoll) {
+                Log.info("epoll transport is not available, use nio: " + Epoll.unavailabilityCause());
+            }
+        }
+        return epoll;
+    }
+
+    public static EventLoopGroup newEventLoopGroup(int threads, String name) {
+        NulsThreadFactory threadFactory = new NulsThreadFactory(NetworkConstant.NETWORK_MODULE_ID, name);
+        if (isEpoll()) {
+            return new EpollEventLoopGroup(threads, threadFactory);
+        }
+        return new NioEventLoopGroup(threads, threadFactory);
+    }
+
+    /**
+     * 所有主动连接共用的EventLoopGroup
+     * The EventLoopGroup shared by all outbound connections.
+     */
+    public static synchronized EventLoopGroup getClientGroup() {
+        if (clientGroup == null) {
+            clientGroup = newEventLoopGroup(networkParam.getClientThreads(), "netty client");
+        }
+        return clientGroup;
+    }
+
+    public static synchronized void shutdownClientGroup() {
+        if (clientGroup != null) {
+            clientGroup.shutdownGracefully();
+            clientGroup = null;
+        }
+    }
+
+    public static void configServer(ServerBootstrap serverBootstrap) {
+        serverBootstrap.channel(isEpoll() ? EpollServerSocketChannel.class : NioServerSocketChannel.class)
+                .option(ChannelOption.SO_BACKLOG, 128)
+                .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .childOption(ChannelOption.TCP_NODELAY, networkParam.isTcpNoDelay())
+                .childOption(ChannelOption.SO_KEEPALIVE, true)
+                .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(WRITE_BUFFER_LOW_WATER_MARK, WRITE_BUFFER_HIGH_WATER_MARK));
+        if (isEpoll() && networkParam.isReusePort()) {
+            serverBootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+        }
+        if (networkParam.getSendBufferSize() > 0) {
+            serverBootstrap.childOption(ChannelOption.SO_SNDBUF, networkParam.getSendBufferSize());
+        }
+        if (networkParam.getReceiveBufferSize() > 0) {
+            serverBootstrap.option(ChannelOption.SO_RCVBUF, networkParam.getReceiveBufferSize());
+            serverBootstrap.childOption(ChannelOption.SO_RCVBUF, networkParam.getReceiveBufferSize());
+        }
+    }
+
+    public static void configClient(Bootstrap bootstrap) {
+        bootstrap.group(getClientGroup())
+                .channel(isEpoll() ? EpollSocketChannel.class : NioSocketChannel.class)
+                .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .option(ChannelOption.TCP_NODELAY, networkParam.isTcpNoDelay())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNETCI_TIME_OUT)
+                .option(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(WRITE_BUFFER_LOW_WATER_MARK, WRITE_BUFFER_HIGH_WATER_MARK));
+        if (networkParam.getSendBufferSize() > 0) {
+            bootstrap.option(ChannelOption.SO_SNDBUF, networkParam.getSendBufferSize());
+        }
+        if (networkParam.getReceiveBufferSize() > 0) {
+            bootstrap.option(ChannelOption.SO_RCVBUF, networkParam.getReceiveBufferSize());
+        }
+    }
+}
@@ -53,4 +53,16 @@ public class NioChannelMap {
     public static Map<String, SocketChannel> channels() {
         return map;
     }
+
+    /**
+     * 获取连接的出站写合并处理器，可查询该连接的队列深度和已发送字节数
+     * Get the outbound write batching handler of the channel, which gives the queue depth and bytes sent of the channel.
+     */
+    public static WriteBatchHandler getWriteBatchHandler(String channelId) {
+        SocketChannel channel = map.get(channelId);
+        if (channel == null) {
+            return null;
+        }
+        return channel.pipeline().get(WriteBatchHandler.class);
+    }
 }
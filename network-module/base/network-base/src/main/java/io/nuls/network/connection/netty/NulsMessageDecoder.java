@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.nuls.network.connection.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.TooLongFrameException;
+import io.nuls.core.tools.log.Log;
+import io.nuls.kernel.model.Result;
+import io.nuls.kernel.utils.NulsByteBuffer;
+import io.nuls.message.bus.service.MessageBusService;
+import io.nuls.network.manager.ConnectionManager;
+import io.nuls.protocol.message.base.BaseMessage;
+import io.nuls.protocol.message.base.MessageHeader;
+
+import java.util.List;
+
+import static io.nuls.network.constant.NetworkConstant.FRAME_LENGTH_FIELD_LENGTH;
+import static io.nuls.network.constant.NetworkConstant.MAX_FRAME_LENGTH;
+
+/**
+ * 入站消息解码器，按8字节长度字段切出网络帧，在帧内依次解析出BaseMessage
+ * 整帧只复制一次到字节数组（帧恰好独占堆内数组时直接使用该数组），解析时按游标推进，不再重新序列化消息来计算长度
+ * 未知类型、解析失败或长度不符的消息按消息头声明的长度（发送方序列化时写入）跳过并记录日志，不会断开连接；未声明长度时无法定位下一条消息，丢弃帧内剩余字节
+ * Inbound message decoder, cuts the network frame by the 8 bytes length field and parses the BaseMessages inside the frame one by one.
+ * The frame is copied once into a byte array (its backing array is used directly when the frame owns it exactly), parsing advances
+ * a cursor and messages are no longer re-serialized to learn their length.
+ * Messages of unknown type, failing to parse or with a wrong length are skipped by the length declared in the header
+ * (written by the sender when the message is serialized) and logged,
+ * the connection is kept; when no length is declared the next message cannot be located and the rest of the frame is dropped.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class NulsMessageDecoder extends ByteToMessageDecoder {
+
+    private MessageBusService messageBusService;
+
+    public NulsMessageDecoder() {
+    }
+
+    NulsMessageDecoder(MessageBusService messageBusService) {
+        this.messageBusService = messageBusService;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+        if (in.readableBytes() < FRAME_LENGTH_FIELD_LENGTH) {
+            return;
+        }
+        long frameLength = in.getLong(in.readerIndex());
+        if (frameLength < 0 || frameLength > MAX_FRAME_LENGTH) {
+            in.skipBytes(in.readableBytes());
+            throw new TooLongFrameException("frame length error: " + frameLength);
+        }
+        if (in.readableBytes() < FRAME_LENGTH_FIELD_LENGTH + frameLength) {
+            return;
+        }
+        in.skipBytes(FRAME_LENGTH_FIELD_LENGTH);
+        ByteBuf frame = in.readSlice((int) frameLength);
+
+        byte[] bytes = ByteBufUtil.getBytes(frame, frame.readerIndex(), frame.readableBytes(), false);
+        if (bytes.length <= 1) {
+            return;
+        }
+        decodeFrame(ctx.channel().remoteAddress(), bytes, out);
+    }
+
+    /**
+     * 依次解析帧内的所有消息，无法定位下一条消息时停止
+     * Parse all messages inside the frame one by one, stop when the next message cannot be located
+     */
+    void decodeFrame(Object remote, byte[] bytes, List<Object> out) {
+        int position = 0;
+        while (position >= 0 && position < bytes.length - 1) {
+            position = parseMessage(remote, bytes, position, out);
+        }
+    }
+
+    /**
+     * 解析从position开始的一条消息，返回下一条消息的起始位置，无法定位下一条消息时返回-1
+     * Parse the message starting at the position, return the start of the next message, -1 if it cannot be located
+     */
+    private int parseMessage(Object remote, byte[] bytes, int position, List<Object> out) {
+        MessageHeader header = new MessageHeader();
+        try {
+            header.parseFrom(new NulsByteBuffer(bytes, position));
+        } catch (Exception e) {
+            Log.warn("drop the rest of the frame, bad message header from " + remote + ": " + e.getMessage());
+            return -1;
+        }
+        int bodyStart = position + header.size();
+        int next = header.getLength() > 0 ? bodyStart + header.getLength() : -1;
+
+        if (messageBusService == null) {
+            messageBusService = ConnectionManager.getInstance().getMessageBusService();
+        }
+        Result<? extends BaseMessage> result = messageBusService.getMessageInstance(header.getModuleId(), header.getMsgType());
+        if (result.isFailed()) {
+            Log.warn("skip unknown message from " + remote + ", moduleId: " + header.getModuleId() + ", msgType: " + header.getMsgType());
+            return next;
+        }
+        BaseMessage message = result.getData();
+        NulsByteBuffer buffer = new NulsByteBuffer(bytes, position);
+        try {
+            message.parseFrom(buffer);
+        } catch (Exception e) {
+            Log.warn("skip bad message from " + remote + ", moduleId: " + header.getModuleId() + ", msgType: " + header.getMsgType() + ": " + e.getMessage());
+            return next;
+        }
+
+        // 消息头声明了长度时必须与实际解析的消息体一致，未声明时以解析消耗的字节数为准
+        // the declared body length must match the parsed body, the consumed bytes are used when it is not declared
+        int bodyLength = buffer.getCursor() - bodyStart;
+        if (next > 0 && header.getLength() != bodyLength) {
+            Log.warn("skip message with wrong length from " + remote + ", msgType: " + header.getMsgType() + ", declared: " + header.getLength() + ", parsed: " + bodyLength);
+            return next;
+        }
+        out.add(message);
+        return buffer.getCursor();
+    }
+}
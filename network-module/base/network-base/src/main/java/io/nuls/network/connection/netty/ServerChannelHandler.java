@@ -25,7 +25,6 @@
 
 package io.nuls.network.connection.netty;
 
-import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
@@ -41,9 +40,9 @@ import io.nuls.network.manager.ConnectionManager;
 import io.nuls.network.manager.NodeManager;
 import io.nuls.network.protocol.message.HandshakeMessage;
 import io.nuls.network.protocol.message.NetworkMessageBody;
+import io.nuls.protocol.message.base.BaseMessage;
 
 import java.net.InetAddress;
-import java.nio.ByteBuffer;
 import java.util.Map;
 
 /**
@@ -175,13 +174,7 @@ public class ServerChannelHandler extends ChannelInboundHandlerAdapter {
         try {
             Node node = nodeManager.getNode(nodeId);
             if (node != null && node.isAlive()) {
-                ByteBuf buf = (ByteBuf) msg;
-                byte[] bytes = new byte[buf.readableBytes()];
-                buf.readBytes(bytes);
-                buf.release();
-                ByteBuffer buffer = ByteBuffer.allocate(bytes.length);
-                buffer.put(bytes);
-                connectionManager.receiveMessage(buffer, node);
+                connectionManager.receiveMessage((BaseMessage) msg, node);
             }
         } catch (Exception e) {
             Log.info(" ---------------------- server channelRead exception------------------------- " + nodeId);
@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.nuls.network.connection.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.nuls.network.constant.NetworkConstant.*;
+
+/**
+ * 每个连接的出站写合并处理器，调用方的每次flush不再直接触发系统调用，
+ * 未刷出的消息达到字节数或条数阈值时立即刷出，否则在短暂延时后统一刷出
+ * 同时统计该连接的待发送消息数(队列深度)和已发送的字节数、消息数
+ * Per-connection outbound write batching handler, a flush from the caller no longer triggers a syscall directly,
+ * the unflushed messages are flushed at once when they reach the bytes or count threshold, otherwise after a short delay.
+ * It also counts the pending messages (queue depth), the bytes and messages sent of this connection.
+ *
+ * 所有回调都在channel的EventLoop中执行，计数器只有一个写线程
+ * All the callbacks run in the EventLoop of the channel, the counters have a single writer thread.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class WriteBatchHandler extends ChannelDuplexHandler {
+
+    private volatile int pendingCount;
+
+    private volatile long pendingBytes;
+
+    private volatile long bytesSent;
+
+    private volatile long messagesSent;
+
+    private int unflushedCount;
+
+    private long unflushedBytes;
+
+    private boolean flushScheduled;
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        int size = msg instanceof ByteBuf ? ((ByteBuf) msg).readableBytes() : 0;
+        pendingCount++;
+        pendingBytes += size;
+        unflushedCount++;
+        unflushedBytes += size;
+        ChannelPromise writePromise = promise.unvoid();
+        writePromise.addListener((ChannelFutureListener) future -> {
+            pendingCount--;
+            pendingBytes -= size;
+            if (future.isSuccess()) {
+                bytesSent += size;
+                messagesSent++;
+            }
+        });
+        ctx.write(msg, writePromise);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        if (unflushedCount == 0) {
+            ctx.flush();
+            return;
+        }
+        if (unflushedCount >= WRITE_BATCH_MAX_COUNT || unflushedBytes >= WRITE_BATCH_MAX_BYTES) {
+            flushNow(ctx);
+            return;
+        }
+        if (!flushScheduled) {
+            flushScheduled = true;
+            ctx.executor().schedule(() -> {
+                flushScheduled = false;
+                if (unflushedCount > 0) {
+                    flushNow(ctx);
+                }
+            }, WRITE_BATCH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+        if (unflushedCount > 0) {
+            flushNow(ctx);
+        }
+        ctx.close(promise);
+    }
+
+    private void flushNow(ChannelHandlerContext ctx) {
+        unflushedCount = 0;
+        unflushedBytes = 0;
+        ctx.flush();
+    }
+
+    /**
+     * 已写入但尚未发送完成的消息数
+     * The number of messages written but not sent yet.
+     */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * 已写入但尚未发送完成的字节数
+     * The bytes written but not sent yet.
+     */
+    public long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getMessagesSent() {
+        return messagesSent;
+    }
+}
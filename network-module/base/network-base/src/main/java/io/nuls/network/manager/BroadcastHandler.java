@@ -25,11 +25,15 @@
 
 package io.nuls.network.manager;
 
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.socket.SocketChannel;
 import io.nuls.core.tools.log.Log;
 import io.nuls.kernel.constant.KernelErrorCode;
+import io.nuls.kernel.exception.NulsRuntimeException;
+import io.nuls.kernel.utils.NulsOutputStreamBuffer;
 import io.nuls.network.connection.netty.NioChannelMap;
 import io.nuls.network.constant.NetworkErrorCode;
 import io.nuls.network.constant.NetworkParam;
@@ -38,6 +42,7 @@ import io.nuls.network.model.Node;
 import io.nuls.network.model.NodeGroup;
 import io.nuls.protocol.message.base.BaseMessage;
 
+import java.io.IOException;
 import java.util.Collection;
 
 public class BroadcastHandler {
@@ -70,6 +75,13 @@ public class BroadcastHandler {
         return broadcastToANode(msg, sendNode, asyn);
     }
 
+    public BroadcastResult broadcastToNodes(BaseMessage msg, Collection<Node> nodeList, Node excludeNode, boolean asyn) {
+        if (nodeList == null || nodeList.isEmpty()) {
+            return new BroadcastResult(false, NetworkErrorCode.NET_BROADCAST_NODE_EMPTY);
+        }
+        return broadcastToList(nodeList, msg, excludeNode, asyn);
+    }
+
     public BroadcastResult broadcastToNodeGroup(BaseMessage msg, String groupName, boolean asyn) {
         NodeGroup group = nodeManager.getNodeGroup(groupName);
         if (group == null || group.size() == 0) {
@@ -88,13 +100,17 @@ public class BroadcastHandler {
 
     private BroadcastResult broadcastToList(Collection<Node> nodeList, BaseMessage message, Node excludeNode, boolean asyn) {
         BroadcastResult result = new BroadcastResult();
+        ByteBuf buffer = null;
         try {
+            // 消息只编码一次，每个节点发送共享同一块内存的retainedDuplicate
+            // the message is encoded only once, every node is sent a retainedDuplicate sharing the same memory
+            buffer = encode(message);
             int successCount = 0;
             for (Node node : nodeList) {
                 if (excludeNode != null && node.getId().equals(excludeNode.getId())) {
                     continue;
                 }
-                BroadcastResult br = broadcastToNode(message, node, asyn);
+                BroadcastResult br = broadcastToANode(buffer, node, asyn, true);
                 if (br.isSuccess()) {
                     successCount++;
                     result.getBroadcastNodes().add(node);
@@ -106,7 +122,12 @@ public class BroadcastHandler {
                 return new BroadcastResult(false, NetworkErrorCode.NET_BROADCAST_FAIL);
             }
         } catch (Exception e) {
+            Log.error(e);
             return new BroadcastResult(false, NetworkErrorCode.NET_MESSAGE_ERROR);
+        } finally {
+            if (buffer != null) {
+                buffer.release();
+            }
         }
         result.setSuccess(true);
         result.setErrorCode(KernelErrorCode.SUCCESS);
@@ -114,6 +135,31 @@ public class BroadcastHandler {
     }
 
     public BroadcastResult broadcastToANode(BaseMessage message, Node node, boolean asyn) {
+        if (!node.isAlive() && node.getChannelId() == null) {
+            return new BroadcastResult(false, NetworkErrorCode.NET_NODE_NOT_FOUND);
+        }
+        ByteBuf buffer = null;
+        try {
+            buffer = encode(message);
+            return broadcastToANode(buffer, node, asyn, false);
+        } catch (Exception e) {
+            Log.error(e);
+            return new BroadcastResult(false, NetworkErrorCode.NET_MESSAGE_ERROR);
+        } finally {
+            if (buffer != null) {
+                buffer.release();
+            }
+        }
+    }
+
+    /**
+     * 发送已编码的消息，buffer本身的引用由调用方释放
+     * 广播时跳过写缓冲区已超过高水位线的节点，避免慢节点堆积内存
+     * Send the encoded message, the reference of the buffer itself is released by the caller.
+     * When broadcasting, the node whose write buffer is above the high water mark is skipped,
+     * so that a slow node does not pile up memory.
+     */
+    private BroadcastResult broadcastToANode(ByteBuf buffer, Node node, boolean asyn, boolean broadcast) {
         if (!node.isAlive() && node.getChannelId() == null) {
             return new BroadcastResult(false, NetworkErrorCode.NET_NODE_NOT_FOUND);
         }
@@ -121,9 +167,11 @@ public class BroadcastHandler {
         if (channel == null) {
             return new BroadcastResult(false, NetworkErrorCode.NET_NODE_NOT_FOUND);
         }
+        if (broadcast && !channel.isWritable()) {
+            return new BroadcastResult(false, NetworkErrorCode.NET_BROADCAST_FAIL);
+        }
         try {
-            message.getHeader().setMagicNumber(networkParam.getPacketMagic());
-            ChannelFuture future = channel.writeAndFlush(Unpooled.wrappedBuffer(message.serialize()));
+            ChannelFuture future = channel.writeAndFlush(buffer.retainedDuplicate());
             if (!asyn) {
                 future.await();
                 boolean success = future.isSuccess();
@@ -137,4 +185,24 @@ public class BroadcastHandler {
         }
         return new BroadcastResult(true, KernelErrorCode.SUCCESS);
     }
+
+    /**
+     * 将消息直接序列化到池化的ByteBuf中
+     * Serialize the message straight into a pooled ByteBuf.
+     */
+    private ByteBuf encode(BaseMessage message) throws IOException {
+        message.getHeader().setMagicNumber(networkParam.getPacketMagic());
+        int size = message.size();
+        ByteBuf buffer = PooledByteBufAllocator.DEFAULT.buffer(size);
+        try {
+            message.serializeTo(new NulsOutputStreamBuffer(new ByteBufOutputStream(buffer)));
+            if (buffer.readableBytes() != size) {
+                throw new NulsRuntimeException(KernelErrorCode.FAILED, "data serialize error：" + message.getClass());
+            }
+        } catch (IOException | RuntimeException e) {
+            buffer.release();
+            throw e;
+        }
+        return buffer;
+    }
 }
@@ -25,28 +25,27 @@
 
 package io.nuls.network.manager;
 
+import io.netty.channel.socket.SocketChannel;
 import io.nuls.core.tools.log.Log;
 import io.nuls.kernel.constant.ErrorCode;
-import io.nuls.kernel.constant.KernelErrorCode;
 import io.nuls.kernel.context.NulsContext;
-import io.nuls.kernel.exception.NulsException;
 import io.nuls.kernel.thread.manager.TaskManager;
 import io.nuls.message.bus.service.MessageBusService;
 import io.nuls.network.connection.netty.NettyClient;
 import io.nuls.network.connection.netty.NettyServer;
+import io.nuls.network.connection.netty.NettyTransport;
+import io.nuls.network.connection.netty.NioChannelMap;
 import io.nuls.network.constant.NetworkConstant;
 import io.nuls.network.constant.NetworkParam;
 import io.nuls.network.message.filter.MessageFilterChain;
 import io.nuls.network.model.NetworkEventResult;
 import io.nuls.network.model.Node;
 import io.nuls.network.protocol.handler.BaseNetworkMeesageHandler;
+import io.nuls.protocol.constant.ProtocolConstant;
 import io.nuls.protocol.message.base.BaseMessage;
 import io.nuls.protocol.message.base.MessageHeader;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.util.ArrayList;
-import java.util.List;
 
 public class ConnectionManager {
 
@@ -69,6 +68,8 @@ public class ConnectionManager {
 
     private NetworkMessageHandlerFactory messageHandlerFactory = NetworkMessageHandlerFactory.getInstance();
 
+    private NetworkMessageExecutor messageExecutor = NetworkMessageExecutor.getInstance();
+
     private MessageBusService messageBusService = NulsContext.getServiceBean(MessageBusService.class);
 
     public void init() {
@@ -76,6 +77,17 @@ public class ConnectionManager {
         broadcastHandler = BroadcastHandler.getInstance();
         nettyServer = new NettyServer(network.getPort());
         nettyServer.init();
+        messageExecutor.setReadControl(new NetworkMessageExecutor.ReadControl() {
+            @Override
+            public void pauseRead(String nodeId) {
+                setAutoRead(nodeId, false);
+            }
+
+            @Override
+            public void resumeRead(String nodeId) {
+                setAutoRead(nodeId, true);
+            }
+        });
 //        eventBusService = NulsContext.getServiceBean(EventBusService.class);
 //        messageHandlerFactory = network.getMessageHandlerFactory();
     }
@@ -93,67 +105,51 @@ public class ConnectionManager {
         }, false);
     }
 
-    public void connectionNode(Node node) {
+    /**
+     * 暂停或恢复读取节点连接上的数据，区块消息排队过多时由消息线程池调用
+     * Pause or resume reading from the connection of the node, called by the message executor when too many block
+     * messages are queued.
+     */
+    private void setAutoRead(String nodeId, boolean autoRead) {
+        Node node = nodeManager.getNode(nodeId);
+        if (node == null || node.getChannelId() == null) {
+            return;
+        }
+        SocketChannel channel = NioChannelMap.get(node.getChannelId());
+        if (channel != null) {
+            channel.config().setAutoRead(autoRead);
+        }
+    }
 
-        TaskManager.createAndRunThread(NetworkConstant.NETWORK_MODULE_ID, "node connection", new Runnable() {
-            @Override
-            public void run() {
-                node.setStatus(Node.WAIT);
-                NettyClient client = new NettyClient(node);
-                client.start();
-            }
-        }, true);
+    public void connectionNode(Node node) {
+        node.setStatus(Node.WAIT);
+        NettyClient client = new NettyClient(node);
+        client.start();
     }
 
-    public void receiveMessage(ByteBuffer buffer, Node node) throws NulsException {
-        List<BaseMessage> list;
-        try {
-            buffer.flip();
-            if (!node.isAlive()) {
-                buffer.clear();
-                return;
-            }
-            list = new ArrayList<>();
-            byte[] bytes = buffer.array();
-            int offset = 0;
-            while (offset < bytes.length - 1) {
-                MessageHeader header = new MessageHeader();
-                header.parse(bytes);
-                BaseMessage message = getMessageBusService().getMessageInstance(header.getModuleId(), header.getMsgType()).getData();
-                message.parse(bytes);
-
-                list.add(message);
-                offset = message.serialize().length;
-                if (bytes.length > offset) {
-                    byte[] subBytes = new byte[bytes.length - offset];
-                    System.arraycopy(bytes, offset, subBytes, 0, subBytes.length);
-                    bytes = subBytes;
-                    offset = 0;
-                }
-            }
-            for (BaseMessage message : list) {
-                if (MessageFilterChain.getInstance().doFilter(message)) {
-                    MessageHeader header = message.getHeader();
-
-                    if (node.getMagicNumber() == 0L) {
-                        node.setMagicNumber(header.getMagicNumber());
-                    }
-
-                    processMessage(message, node);
-                } else {
-                    node.setStatus(Node.BAD);
-                    Log.info("-------------------- receive message filter remove node ---------------------------" + node.getId());
-                    nodeManager.removeNode(node.getId());
-                }
+    /**
+     * 处理由NulsMessageDecoder从网络帧中解析出的消息
+     * Handle the message decoded from the network frame by NulsMessageDecoder.
+     */
+    public void receiveMessage(BaseMessage message, Node node) {
+        if (!node.isAlive()) {
+            return;
+        }
+        if (MessageFilterChain.getInstance().doFilter(message)) {
+            MessageHeader header = message.getHeader();
+
+            if (node.getMagicNumber() == 0L) {
+                node.setMagicNumber(header.getMagicNumber());
             }
-        } catch (Exception e) {
-            throw new NulsException(KernelErrorCode.DATA_ERROR,e);
-        } finally {
-            buffer.clear();
+
+            processMessage(message, node);
+        } else {
+            node.setStatus(Node.BAD);
+            Log.info("-------------------- receive message filter remove node ---------------------------" + node.getId());
+            nodeManager.removeNode(node.getId());
         }
     }
 
-
     private void processMessage(BaseMessage message, Node node) {
         if (message == null) {
             return;
@@ -168,13 +164,18 @@ public class ConnectionManager {
             if (!node.isHandShake()) {
                 return;
             }
-            messageBusService.receiveMessage(message, node);
+            messageExecutor.execute(getPriority(message), node.getId(), new Runnable() {
+                @Override
+                public void run() {
+                    messageBusService.receiveMessage(message, node);
+                }
+            });
         }
     }
 
     private void asynExecute(BaseMessage message, Node node) {
         BaseNetworkMeesageHandler handler = messageHandlerFactory.getHandler(message);
-        TaskManager.asynExecuteRunnable(new Runnable() {
+        messageExecutor.execute(getPriority(message), node.getId(), new Runnable() {
             @Override
             public void run() {
                 try {
@@ -197,6 +198,27 @@ public class ConnectionManager {
         });
     }
 
+    /**
+     * 握手相关消息优先处理，其次是区块同步相关的协议消息，然后是交易及其他模块的消息，节点发现类消息最后处理
+     * The handshake messages are handled first, then the block related protocol messages, then the txs and the messages
+     * of the other modules, the node discovery messages last.
+     */
+    private NetworkMessageExecutor.Priority getPriority(BaseMessage message) {
+        short moduleId = message.getHeader().getModuleId();
+        short msgType = message.getHeader().getMsgType();
+        if (moduleId == NetworkConstant.NETWORK_MODULE_ID) {
+            if (msgType == NetworkConstant.NETWORK_HANDSHAKE || msgType == NetworkConstant.NETWORK_GET_VERSION
+                    || msgType == NetworkConstant.NETWORK_VERSION) {
+                return NetworkMessageExecutor.Priority.HANDSHAKE;
+            }
+            return NetworkMessageExecutor.Priority.DISCOVERY;
+        }
+        if (moduleId == ProtocolConstant.MODULE_ID_PROTOCOL && msgType != ProtocolConstant.MESSAGE_TYPE_NEW_TX) {
+            return NetworkMessageExecutor.Priority.BLOCK;
+        }
+        return NetworkMessageExecutor.Priority.TX;
+    }
+
     public void processMessageResult(NetworkEventResult messageResult, Node node) throws IOException {
         if (node.getStatus() == Node.CLOSE) {
             return;
@@ -229,5 +251,7 @@ public class ConnectionManager {
 
     public void shutdown(){
         nettyServer.shutdown();
+        NettyTransport.shutdownClientGroup();
+        messageExecutor.shutdown();
     }
 }
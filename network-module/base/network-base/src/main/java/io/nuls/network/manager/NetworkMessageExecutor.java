@@ -0,0 +1,429 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.nuls.network.manager;
+
+import io.nuls.core.tools.log.Log;
+import io.nuls.kernel.thread.manager.NulsThreadFactory;
+import io.nuls.network.constant.NetworkConstant;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 网络模块独立的消息处理线程池
+ * 按优先级(握手 > 区块 > 交易 > 节点发现)取任务，同一优先级内按节点轮转，单个节点不能占满队列，
+ * 同一节点同一优先级的任务按到达顺序逐个执行，前一个执行完才取下一个
+ * 每个优先级和每个节点的排队数都有上限，超过上限时丢弃新任务并计数，丢弃以warn级别记录日志（每个优先级每秒最多一条）；
+ * 区块消息不丢弃，节点的排队数到达上限时通知暂停读取该节点，排空到一半时恢复
+ * The network module's own message executor.
+ * Tasks are taken by priority (handshake > block > tx > discovery), the nodes take turns within the same priority,
+ * so that a single node can not fill the queue. The tasks of one node and one priority run one at a time in arrival
+ * order, the next one is taken only after the previous one finished.
+ * The queued tasks of each priority and each node are bounded, new tasks beyond the bound are dropped and counted,
+ * drops are logged at warn level (at most once per second per priority).
+ * Block messages are never dropped, reading from a node is paused once its queue reaches the bound and resumed
+ * once half of it drained.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class NetworkMessageExecutor {
+
+    /**
+     * 排队时间直方图的桶上限(毫秒)，最后一个桶记录超过最大上限的任务
+     * The upper bounds (milliseconds) of the queue-time histogram buckets, the last bucket counts the tasks above the largest bound.
+     */
+    public static final long[] QUEUE_TIME_BUCKETS = {1, 5, 20, 100, 500, 2000};
+
+    private static final long DROP_LOG_INTERVAL = 1000L;
+
+    public enum Priority {
+        HANDSHAKE(1000, 20, false),
+        BLOCK(1000, 100, true),
+        TX(5000, 500, false),
+        DISCOVERY(500, 10, false);
+
+        private final int capacity;
+        private final int peerCapacity;
+        /**
+         * 是否不丢弃，超过上限时暂停读取节点
+         * Whether the tasks are never dropped, reading from the node is paused beyond the bound instead.
+         */
+        private final boolean lossless;
+
+        Priority(int capacity, int peerCapacity, boolean lossless) {
+            this.capacity = capacity;
+            this.peerCapacity = peerCapacity;
+            this.lossless = lossless;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public int getPeerCapacity() {
+            return peerCapacity;
+        }
+
+        public boolean isLossless() {
+            return lossless;
+        }
+    }
+
+    /**
+     * 不丢弃的优先级排队过多时，暂停和恢复读取节点消息
+     * Pauses and resumes reading messages from a node when too many tasks of a lossless priority are queued.
+     */
+    public interface ReadControl {
+
+        void pauseRead(String nodeId);
+
+        void resumeRead(String nodeId);
+    }
+
+    private static NetworkMessageExecutor instance = new NetworkMessageExecutor(NetworkConstant.MESSAGE_EXECUTOR_THREADS);
+
+    public static NetworkMessageExecutor getInstance() {
+        return instance;
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final LevelQueue[] queues;
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile ReadControl readControl;
+
+    private boolean shutdown;
+
+    NetworkMessageExecutor(int threads) {
+        Priority[] priorities = Priority.values();
+        queues = new LevelQueue[priorities.length];
+        for (Priority priority : priorities) {
+            queues[priority.ordinal()] = new LevelQueue(priority);
+        }
+        NulsThreadFactory factory = new NulsThreadFactory(NetworkConstant.NETWORK_MODULE_ID, "network message");
+        for (int i = 0; i < threads; i++) {
+            Thread thread = factory.newThread(new Worker());
+            thread.start();
+            workers.add(thread);
+        }
+    }
+
+    public void setReadControl(ReadControl readControl) {
+        this.readControl = readControl;
+    }
+
+    /**
+     * 提交任务，队列已满时丢弃并返回false，不丢弃的优先级总是接受，节点排队到达上限时暂停读取该节点
+     * Submit the task, it is dropped and false is returned when the queue is full. A lossless priority always accepts
+     * the task, and reading from the node is paused once its queue reaches the bound.
+     *
+     * @param priority 优先级/priority of the task
+     * @param nodeId   任务来源节点/the node the task comes from
+     * @param runnable 任务/the task
+     */
+    public boolean execute(Priority priority, String nodeId, Runnable runnable) {
+        LevelQueue queue = queues[priority.ordinal()];
+        boolean pause;
+        lock.lock();
+        try {
+            if (shutdown) {
+                return false;
+            }
+            if (!queue.offer(nodeId, new Task(nodeId, runnable))) {
+                long dropped = queue.dropCount.incrementAndGet();
+                long now = System.currentTimeMillis();
+                if (now - queue.lastDropLogTime >= DROP_LOG_INTERVAL) {
+                    queue.lastDropLogTime = now;
+                    Log.warn("network message dropped, priority: " + priority + ", node: " + nodeId + ", total dropped: " + dropped);
+                }
+                return false;
+            }
+            pause = priority.isLossless() && queue.peerTasks.get(nodeId).size() >= priority.getPeerCapacity()
+                    && queue.pausedPeers.add(nodeId);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        ReadControl control = readControl;
+        if (pause && control != null) {
+            control.pauseRead(nodeId);
+        }
+        return true;
+    }
+
+    /**
+     * 停止工作线程，排队中的任务被丢弃，之后提交的任务都返回false
+     * Stops the worker threads, the queued tasks are discarded, the tasks submitted afterwards all return false.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * 取出下一个任务，已停止时返回null
+     * Takes the next task, null once shut down.
+     */
+    private Task take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (!shutdown) {
+                for (LevelQueue queue : queues) {
+                    Task task = queue.poll();
+                    if (task != null) {
+                        task.queue = queue;
+                        queue.record(System.currentTimeMillis() - task.enqueueTime);
+                        return task;
+                    }
+                }
+                notEmpty.await();
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 任务执行完后，节点还有排队的任务时重新参与轮转
+     * After a task finished, the node takes part in the rotation again when it still has queued tasks.
+     */
+    private void finish(Task task) {
+        LevelQueue queue = task.queue;
+        boolean resume;
+        lock.lock();
+        try {
+            if (queue.finish(task.nodeId)) {
+                notEmpty.signal();
+            }
+            resume = queue.priority.isLossless() && queue.pausedPeers.contains(task.nodeId)
+                    && queue.queuedSize(task.nodeId) <= queue.priority.getPeerCapacity() / 2;
+            if (resume) {
+                queue.pausedPeers.remove(task.nodeId);
+            }
+        } finally {
+            lock.unlock();
+        }
+        ReadControl control = readControl;
+        if (resume && control != null) {
+            control.resumeRead(task.nodeId);
+        }
+    }
+
+    /**
+     * 当前排队的任务数
+     * The number of tasks in the queue.
+     */
+    public int getQueueSize(Priority priority) {
+        lock.lock();
+        try {
+            return queues[priority.ordinal()].size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDropCount(Priority priority) {
+        return queues[priority.ordinal()].dropCount.get();
+    }
+
+    /**
+     * 所有优先级丢弃的任务总数
+     * The total number of tasks dropped of all priorities.
+     */
+    public long getDropCount() {
+        long count = 0;
+        for (LevelQueue queue : queues) {
+            count += queue.dropCount.get();
+        }
+        return count;
+    }
+
+    /**
+     * 排队时间直方图，与QUEUE_TIME_BUCKETS对应，多出的最后一个值为超过最大上限的任务数
+     * The queue-time histogram matching QUEUE_TIME_BUCKETS, the extra last value counts the tasks above the largest bound.
+     */
+    public long[] getQueueTimeHistogram(Priority priority) {
+        AtomicLongArray histogram = queues[priority.ordinal()].histogram;
+        long[] result = new long[histogram.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = histogram.get(i);
+        }
+        return result;
+    }
+
+    private static class Task {
+
+        private final String nodeId;
+
+        private final Runnable runnable;
+
+        private final long enqueueTime = System.currentTimeMillis();
+
+        private LevelQueue queue;
+
+        Task(String nodeId, Runnable runnable) {
+            this.nodeId = nodeId;
+            this.runnable = runnable;
+        }
+    }
+
+    /**
+     * 一个优先级的队列，每个节点一个子队列，有任务且没有任务在执行的节点按轮转顺序排列
+     * The queue of one priority, one sub queue per node, the nodes with queued tasks and no running task are kept
+     * in round-robin order.
+     * Guarded by the executor lock.
+     */
+    private static class LevelQueue {
+
+        private final Priority priority;
+
+        private final Map<String, ArrayDeque<Task>> peerTasks = new HashMap<>();
+
+        private final ArrayDeque<String> readyPeers = new ArrayDeque<>();
+
+        private final Set<String> runningPeers = new HashSet<>();
+
+        private final Set<String> pausedPeers = new HashSet<>();
+
+        private int size;
+
+        private final AtomicLong dropCount = new AtomicLong();
+
+        private long lastDropLogTime;
+
+        private final AtomicLongArray histogram = new AtomicLongArray(QUEUE_TIME_BUCKETS.length + 1);
+
+        LevelQueue(Priority priority) {
+            this.priority = priority;
+        }
+
+        boolean offer(String nodeId, Task task) {
+            ArrayDeque<Task> tasks = peerTasks.get(nodeId);
+            if (!priority.isLossless()) {
+                if (size >= priority.getCapacity()) {
+                    return false;
+                }
+                if (tasks != null && tasks.size() >= priority.getPeerCapacity()) {
+                    return false;
+                }
+            }
+            if (tasks == null) {
+                tasks = new ArrayDeque<>();
+                peerTasks.put(nodeId, tasks);
+            }
+            if (tasks.isEmpty() && !runningPeers.contains(nodeId)) {
+                readyPeers.offer(nodeId);
+            }
+            tasks.offer(task);
+            size++;
+            return true;
+        }
+
+        /**
+         * 取出轮到的节点的下一个任务，节点在任务执行完之前不再参与轮转
+         * Polls the next task of the node whose turn it is, the node leaves the rotation until the task finished.
+         */
+        Task poll() {
+            String nodeId = readyPeers.poll();
+            if (nodeId == null) {
+                return null;
+            }
+            Task task = peerTasks.get(nodeId).poll();
+            size--;
+            runningPeers.add(nodeId);
+            return task;
+        }
+
+        /**
+         * @return 节点重新参与轮转时返回true / true when the node takes part in the rotation again
+         */
+        boolean finish(String nodeId) {
+            runningPeers.remove(nodeId);
+            ArrayDeque<Task> tasks = peerTasks.get(nodeId);
+            if (tasks == null || tasks.isEmpty()) {
+                peerTasks.remove(nodeId);
+                return false;
+            }
+            readyPeers.offer(nodeId);
+            return true;
+        }
+
+        int queuedSize(String nodeId) {
+            ArrayDeque<Task> tasks = peerTasks.get(nodeId);
+            return tasks == null ? 0 : tasks.size();
+        }
+
+        void record(long queueTime) {
+            int i = 0;
+            while (i < QUEUE_TIME_BUCKETS.length && queueTime >= QUEUE_TIME_BUCKETS[i]) {
+                i++;
+            }
+            histogram.incrementAndGet(i);
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        @Override
+        public void run() {
+            while (true) {
+                Task task;
+                try {
+                    task = take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (task == null) {
+                    return;
+                }
+                try {
+                    task.runnable.run();
+                } catch (Exception e) {
+                    Log.error(e);
+                } finally {
+                    finish(task);
+                }
+            }
+        }
+    }
+}
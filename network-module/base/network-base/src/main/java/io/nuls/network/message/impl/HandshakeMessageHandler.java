@@ -86,6 +86,7 @@ public class HandshakeMessageHandler implements BaseNetworkMeesageHandler {
         //  networkParam.getLocalIps().add(body.getNodeIp());
         node.setFailCount(0);
         node.setSeverPort(body.getSeverPort());
+        node.setServices(handshakeMessage.getHeader().getArithmetic());
         node.setBestBlockHash(body.getBestBlockHash());
         node.setBestBlockHeight(body.getBestBlockHeight());
         nodeManager.saveNode(node);
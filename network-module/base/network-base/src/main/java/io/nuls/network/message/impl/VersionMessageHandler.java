@@ -60,6 +60,7 @@ public class VersionMessageHandler implements BaseNetworkMeesageHandler {
         }
         node.setBestBlockHeight(body.getBestBlockHeight());
         node.setBestBlockHash(body.getBestBlockHash());
+        node.setServices(versionMessage.getHeader().getArithmetic());
         node.setTimeOffset(TimeService.currentTimeMillis() - body.getNetworkTime());
         return null;
     }
@@ -69,6 +69,15 @@ public class NettyNetworkModuleBootstrap extends AbstractNetworkModule {
             ipList.add(ip);
         }
         networkParam.setSeedIpList(ipList);
+
+        networkParam.setEpoll(NulsConfig.MODULES_CONFIG.getCfgValue(NETWORK_SECTION, NETWORK_NETTY_EPOLL, true));
+        networkParam.setBossThreads(NulsConfig.MODULES_CONFIG.getCfgValue(NETWORK_SECTION, NETWORK_NETTY_BOSS_THREADS, 1));
+        networkParam.setWorkerThreads(NulsConfig.MODULES_CONFIG.getCfgValue(NETWORK_SECTION, NETWORK_NETTY_WORKER_THREADS, 0));
+        networkParam.setClientThreads(NulsConfig.MODULES_CONFIG.getCfgValue(NETWORK_SECTION, NETWORK_NETTY_CLIENT_THREADS, 0));
+        networkParam.setSendBufferSize(NulsConfig.MODULES_CONFIG.getCfgValue(NETWORK_SECTION, NETWORK_NETTY_SNDBUF, 0));
+        networkParam.setReceiveBufferSize(NulsConfig.MODULES_CONFIG.getCfgValue(NETWORK_SECTION, NETWORK_NETTY_RCVBUF, 0));
+        networkParam.setTcpNoDelay(NulsConfig.MODULES_CONFIG.getCfgValue(NETWORK_SECTION, NETWORK_NETTY_TCP_NODELAY, true));
+        networkParam.setReusePort(NulsConfig.MODULES_CONFIG.getCfgValue(NETWORK_SECTION, NETWORK_NETTY_REUSEPORT, false));
     }
 
     private void initOther() {
@@ -96,7 +105,7 @@ public class NettyNetworkModuleBootstrap extends AbstractNetworkModule {
 
     @Override
     public void shutdown() {
-
+        connectionManager.shutdown();
     }
 
     @Override
@@ -91,6 +91,12 @@ public class NetworkServiceImpl implements NetworkService {
         return broadcastHandler.broadcastToNode(baseMessage, node, asyn);
     }
 
+    @Override
+    public BroadcastResult sendToNodes(BaseNulsData nulsData, Collection<Node> nodes, Node excludeNode, boolean asyn) {
+        BaseMessage baseMessage = (BaseMessage) nulsData;
+        return broadcastHandler.broadcastToNodes(baseMessage, nodes, excludeNode, asyn);
+    }
+
     @Override
     public BroadcastResult sendToGroup(BaseNulsData nulsData, String groupName, boolean asyn) {
         BaseMessage baseMessage = (BaseMessage) nulsData;
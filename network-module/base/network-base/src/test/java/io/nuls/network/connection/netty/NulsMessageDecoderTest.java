@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.nuls.network.connection.netty;
+
+import io.nuls.kernel.model.NulsDigestData;
+import io.nuls.kernel.model.Result;
+import io.nuls.message.bus.handler.intf.NulsMessageHandler;
+import io.nuls.message.bus.service.MessageBusService;
+import io.nuls.network.constant.NetworkConstant;
+import io.nuls.network.model.Node;
+import io.nuls.network.protocol.message.GetVersionMessage;
+import io.nuls.network.protocol.message.NetworkMessageBody;
+import io.nuls.protocol.message.base.BaseMessage;
+import io.nuls.protocol.message.base.MessageHeader;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class NulsMessageDecoderTest {
+
+    private NulsMessageDecoder decoder = new NulsMessageDecoder(new TestMessageBusService());
+
+    @Test
+    public void testSkipUnknownMessage() throws Exception {
+        GetVersionMessage unknown = newMessage(1L);
+        unknown.getHeader().setMsgType((short) 999);
+        GetVersionMessage valid = newMessage(2L);
+
+        List<Object> out = new ArrayList<>();
+        decoder.decodeFrame("test", concat(unknown.serialize(), valid.serialize()), out);
+
+        assertEquals(1, out.size());
+        GetVersionMessage message = (GetVersionMessage) out.get(0);
+        assertEquals(NetworkConstant.NETWORK_GET_VERSION, message.getHeader().getMsgType());
+        assertEquals(message.getMsgBody().size(), message.getHeader().getLength());
+        assertEquals(2L, message.getMsgBody().getBestBlockHeight());
+    }
+
+    @Test
+    public void testSkipBadMessage() throws Exception {
+        MessageHeader header = new MessageHeader(NetworkConstant.NETWORK_MODULE_ID, NetworkConstant.NETWORK_GET_VERSION);
+        header.setLength(3);
+        GetVersionMessage valid = newMessage(3L);
+
+        List<Object> out = new ArrayList<>();
+        decoder.decodeFrame("test", concat(header.serialize(), new byte[]{1, 2, 3}, valid.serialize()), out);
+
+        assertEquals(1, out.size());
+        assertEquals(3L, ((GetVersionMessage) out.get(0)).getMsgBody().getBestBlockHeight());
+    }
+
+    private GetVersionMessage newMessage(long height) {
+        NetworkMessageBody body = new NetworkMessageBody(NetworkConstant.HANDSHAKE_SEVER_TYPE, 8003, height, NulsDigestData.calcDigestData(new byte[]{(byte) height}), "127.0.0.1");
+        return new GetVersionMessage(body);
+    }
+
+    private byte[] concat(byte[]... arrays) throws Exception {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (byte[] array : arrays) {
+            stream.write(array);
+        }
+        return stream.toByteArray();
+    }
+
+    private static class TestMessageBusService implements MessageBusService {
+
+        @Override
+        public String subscribeMessage(Class<? extends BaseMessage> messageClass, NulsMessageHandler<? extends BaseMessage> messageHandler) {
+            return null;
+        }
+
+        @Override
+        public void unsubscribeMessage(String subscribeId) {
+        }
+
+        @Override
+        public void receiveMessage(BaseMessage message, Node node) {
+        }
+
+        @Override
+        public Result<List<String>> broadcastHashAndCache(BaseMessage message, Node excludeNode, boolean aysn) {
+            return null;
+        }
+
+        @Override
+        public Result<List<String>> broadcastHashAndCache(BaseMessage message, Collection<Node> nodes, Node excludeNode, boolean aysn) {
+            return null;
+        }
+
+        @Override
+        public Result<List<String>> broadcastAndCache(BaseMessage message, Node excludeNode, boolean aysn) {
+            return null;
+        }
+
+        @Override
+        public Result sendToNode(BaseMessage message, Node node, boolean aysn) {
+            return null;
+        }
+
+        @Override
+        public Result<? extends BaseMessage> getMessageInstance(short moduleId, int type) {
+            if (moduleId == NetworkConstant.NETWORK_MODULE_ID && type == NetworkConstant.NETWORK_GET_VERSION) {
+                return Result.getSuccess().setData(new GetVersionMessage());
+            }
+            return Result.getFailed("the message type can not found!");
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.nuls.network.manager;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.nuls.network.manager.NetworkMessageExecutor.Priority.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class NetworkMessageExecutorTest {
+
+    @Test
+    public void testPriorityAndFairness() throws InterruptedException {
+        NetworkMessageExecutor executor = new NetworkMessageExecutor(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(HANDSHAKE, "a", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(5);
+        executor.execute(DISCOVERY, "x", record(order, "d1", done));
+        executor.execute(TX, "a", record(order, "t1", done));
+        executor.execute(TX, "a", record(order, "t2", done));
+        executor.execute(TX, "b", record(order, "t3", done));
+        executor.execute(HANDSHAKE, "c", record(order, "h1", done));
+        assertEquals(3, executor.getQueueSize(TX));
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("h1", "t1", "t3", "t2", "d1"), order);
+        assertEquals(0, executor.getQueueSize(TX));
+
+        long total = 0;
+        for (long count : executor.getQueueTimeHistogram(TX)) {
+            total += count;
+        }
+        assertEquals(3, total);
+        executor.shutdown();
+    }
+
+    @Test
+    public void testPeerCapacity() throws InterruptedException {
+        NetworkMessageExecutor executor = new NetworkMessageExecutor(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(HANDSHAKE, "a", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < DISCOVERY.getPeerCapacity(); i++) {
+            assertTrue(executor.execute(DISCOVERY, "x", () -> {
+            }));
+        }
+        assertFalse(executor.execute(DISCOVERY, "x", () -> {
+        }));
+        assertTrue(executor.execute(DISCOVERY, "y", () -> {
+        }));
+        assertEquals(1, executor.getDropCount(DISCOVERY));
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void testBlockNotDropped() throws InterruptedException {
+        NetworkMessageExecutor executor = new NetworkMessageExecutor(1);
+        List<String> readEvents = Collections.synchronizedList(new ArrayList<>());
+        executor.setReadControl(new NetworkMessageExecutor.ReadControl() {
+            @Override
+            public void pauseRead(String nodeId) {
+                readEvents.add("pause " + nodeId);
+            }
+
+            @Override
+            public void resumeRead(String nodeId) {
+                readEvents.add("resume " + nodeId);
+            }
+        });
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(HANDSHAKE, "a", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        int count = BLOCK.getPeerCapacity() * 3;
+        CountDownLatch done = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            assertTrue(executor.execute(BLOCK, "x", done::countDown));
+        }
+        assertEquals(0, executor.getDropCount(BLOCK));
+        assertEquals(Collections.singletonList("pause x"), readEvents);
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("pause x", "resume x"), readEvents);
+        executor.shutdown();
+    }
+
+    @Test
+    public void testPeerSerialized() throws InterruptedException {
+        NetworkMessageExecutor executor = new NetworkMessageExecutor(4);
+        int count = 200;
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            executor.execute(TX, "a", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                order.add(index);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    public void testShutdown() throws InterruptedException {
+        NetworkMessageExecutor executor = new NetworkMessageExecutor(1);
+        executor.shutdown();
+        assertFalse(executor.execute(TX, "a", () -> {
+        }));
+    }
+
+    private Runnable record(List<String> order, String name, CountDownLatch done) {
+        return () -> {
+            order.add(name);
+            done.countDown();
+        };
+    }
+}
@@ -47,5 +47,6 @@ public class GetVersionMessage extends BaseNetworkMessage<NetworkMessageBody>{
     public GetVersionMessage(NetworkMessageBody body) {
         this();
         this.setMsgBody(body);
+        this.getHeader().setArithmetic(NetworkConstant.LOCAL_SERVICES);
     }
 }
@@ -47,6 +47,7 @@ public class HandshakeMessage extends BaseNetworkMessage<NetworkMessageBody> {
     public HandshakeMessage(NetworkMessageBody body) {
         this();
         this.setMsgBody(body);
+        this.getHeader().setArithmetic(NetworkConstant.LOCAL_SERVICES);
     }
 
 }
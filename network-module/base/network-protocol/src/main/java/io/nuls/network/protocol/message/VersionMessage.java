@@ -47,5 +47,6 @@ public class VersionMessage extends BaseNetworkMessage<NetworkMessageBody>{
     public VersionMessage(NetworkMessageBody body) {
         this();
         this.setMsgBody(body);
+        this.getHeader().setArithmetic(NetworkConstant.LOCAL_SERVICES);
     }
 }
@@ -37,6 +37,13 @@ public interface NetworkConstant {
     int WRITE_IDEL_TIME_OUT = 30;
     int ALL_IDEL_TIME_OUT = 30;
     int MAX_FRAME_LENGTH = 10 * 1024 * 1024;
+    int FRAME_LENGTH_FIELD_LENGTH = 8;
+    int WRITE_BUFFER_LOW_WATER_MARK = 2 * 1024 * 1024;
+    int WRITE_BUFFER_HIGH_WATER_MARK = 8 * 1024 * 1024;
+    int WRITE_BATCH_MAX_COUNT = 64;
+    int WRITE_BATCH_MAX_BYTES = 64 * 1024;
+    int WRITE_BATCH_DELAY_MILLIS = 5;
+    int MESSAGE_EXECUTOR_THREADS = 4;
     int CONNETCI_TIME_OUT = 5000;
     int SAME_IP_MAX_COUNT = 10;
     int CONEECT_FAIL_MAX_COUNT = 6;
@@ -50,6 +57,14 @@ public interface NetworkConstant {
     String NETWORK_NODE_MAX_IN = "network.max.in";
     String NETWORK_NODE_MAX_OUT = "network.max.out";
     String NETWORK_SEED_IP = "network.seed.ip";
+    String NETWORK_NETTY_EPOLL = "network.netty.epoll";
+    String NETWORK_NETTY_BOSS_THREADS = "network.netty.boss.threads";
+    String NETWORK_NETTY_WORKER_THREADS = "network.netty.worker.threads";
+    String NETWORK_NETTY_CLIENT_THREADS = "network.netty.client.threads";
+    String NETWORK_NETTY_SNDBUF = "network.netty.so.sndbuf";
+    String NETWORK_NETTY_RCVBUF = "network.netty.so.rcvbuf";
+    String NETWORK_NETTY_TCP_NODELAY = "network.netty.tcp.nodelay";
+    String NETWORK_NETTY_REUSEPORT = "network.netty.so.reuseport";
     String NETWORK_NODE_IN_GROUP = "inGroup";
     String NETWORK_NODE_OUT_GROUP = "outGroup";
 
@@ -57,6 +72,16 @@ public interface NetworkConstant {
     int HANDSHAKE_SEVER_TYPE = 2;
     int HANDSHAKE_CLIENT_TYPE = 1;
 
+    /**
+     * 节点支持的服务标识，放在握手和版本消息头的arithmetic字节中发送，消息体格式不变，
+     * 旧节点不读取该字节(消息加密未启用，始终为0)，因此视为不支持任何服务
+     * The service flags of a node, sent in the arithmetic byte of the handshake and version message headers,
+     * so the message body is unchanged. Older nodes never read the byte (message encryption is not used, it is always 0),
+     * so they are seen as supporting no services.
+     */
+    byte SERVICE_COMPACT_BLOCK = 0x01;
+    byte LOCAL_SERVICES = SERVICE_COMPACT_BLOCK;
+
     //network message type
     short NETWORK_GET_VERSION = 01;
     short NETWORK_VERSION = 02;
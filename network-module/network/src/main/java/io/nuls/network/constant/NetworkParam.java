@@ -55,6 +55,34 @@ public class NetworkParam {
 
     private Map<String, Long> ipMap = new ConcurrentHashMap<>();
 
+    /**
+     * Linux下可用时是否使用epoll传输
+     * Whether to use the epoll transport when it is available on Linux.
+     */
+    private boolean epoll;
+
+    /**
+     * netty线程数，0表示使用netty默认值(CPU核数*2)
+     * The netty thread counts, 0 means the netty default (CPU cores * 2).
+     */
+    private int bossThreads;
+
+    private int workerThreads;
+
+    private int clientThreads;
+
+    /**
+     * socket发送、接收缓冲区大小，0表示使用系统默认值
+     * The socket send and receive buffer size, 0 means the OS default.
+     */
+    private int sendBufferSize;
+
+    private int receiveBufferSize;
+
+    private boolean tcpNoDelay;
+
+    private boolean reusePort;
+
     public int getPort() {
         return port;
     }
@@ -107,4 +135,68 @@ public class NetworkParam {
         return ipMap;
     }
 
+    public boolean isEpoll() {
+        return epoll;
+    }
+
+    public void setEpoll(boolean epoll) {
+        this.epoll = epoll;
+    }
+
+    public int getBossThreads() {
+        return bossThreads;
+    }
+
+    public void setBossThreads(int bossThreads) {
+        this.bossThreads = bossThreads;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public int getClientThreads() {
+        return clientThreads;
+    }
+
+    public void setClientThreads(int clientThreads) {
+        this.clientThreads = clientThreads;
+    }
+
+    public int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    public void setSendBufferSize(int sendBufferSize) {
+        this.sendBufferSize = sendBufferSize;
+    }
+
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    public void setReceiveBufferSize(int receiveBufferSize) {
+        this.receiveBufferSize = receiveBufferSize;
+    }
+
+    public boolean isTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    public void setTcpNoDelay(boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+    }
+
+    public boolean isReusePort() {
+        return reusePort;
+    }
+
+    public void setReusePort(boolean reusePort) {
+        this.reusePort = reusePort;
+    }
+
 }
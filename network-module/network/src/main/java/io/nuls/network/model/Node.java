@@ -33,6 +33,7 @@ import io.nuls.kernel.model.NulsDigestData;
 import io.nuls.kernel.utils.NulsByteBuffer;
 import io.nuls.kernel.utils.NulsOutputStreamBuffer;
 import io.nuls.kernel.utils.SerializeUtils;
+import io.nuls.network.constant.NetworkConstant;
 
 import java.io.IOException;
 import java.util.Set;
@@ -72,6 +73,12 @@ public class Node extends BaseNulsData {
 
     private String externalIp;
 
+    /**
+     * 握手时对方声明支持的服务标识，见NetworkConstant.SERVICE_*
+     * The service flags declared by the peer in the handshake, see NetworkConstant.SERVICE_*
+     */
+    private volatile byte services;
+
     @Override
     public int size() {
         int s = 0;
@@ -340,4 +347,20 @@ public class Node extends BaseNulsData {
     public void setExternalIp(String externalIp) {
         this.externalIp = externalIp;
     }
+
+    public byte getServices() {
+        return services;
+    }
+
+    public void setServices(byte services) {
+        this.services = services;
+    }
+
+    /**
+     * 对方是否支持紧凑区块(COMPACT_BLOCK)的转发
+     * Whether the peer supports relaying compact blocks (COMPACT_BLOCK).
+     */
+    public boolean isCompactBlockSupported() {
+        return (services & NetworkConstant.SERVICE_COMPACT_BLOCK) != 0;
+    }
 }
@@ -57,6 +57,12 @@ public interface NetworkService {
 
     BroadcastResult sendToNode(BaseNulsData event, Node node, boolean asyn);
 
+    /**
+     * 发送消息给指定的一组节点，消息只编码一次
+     * Send the message to the given nodes, the message is encoded only once.
+     */
+    BroadcastResult sendToNodes(BaseNulsData event, Collection<Node> nodes, Node excludeNode, boolean asyn);
+
     BroadcastResult sendToGroup(BaseNulsData event, String groupName, boolean asyn);
 
     BroadcastResult sendToGroup(BaseNulsData event, String groupName, Node excludeNode, boolean asyn);
@@ -37,6 +37,7 @@ import io.nuls.protocol.base.download.cache.DownloadCacheHandler;
 import io.nuls.protocol.message.*;
 import io.nuls.protocol.model.BlockHashResponse;
 import io.nuls.protocol.model.CompleteParam;
+import io.nuls.protocol.model.GetCompactTxsParam;
 import io.nuls.protocol.model.GetTxGroupParam;
 import io.nuls.protocol.model.TxGroup;
 
@@ -225,4 +226,32 @@ public class DownloadUtils {
             throw e;
         }
     }
+
+    public static TxGroup getCompactTxs(NulsDigestData blockHash, List<Integer> indexList, Node node) throws Exception {
+        GetCompactTxsRequest request = new GetCompactTxsRequest();
+        GetCompactTxsParam param = new GetCompactTxsParam();
+        param.setBlockHash(blockHash);
+        param.setIndexList(indexList);
+        request.setMsgBody(param);
+        NulsDigestData requestHash = NulsDigestData.calcDigestData(request.getMsgBody().serialize());
+        Future<TxGroup> future = DownloadCacheHandler.addGetTxGroupRequest(requestHash);
+        Future<NulsDigestData> reactFuture = DownloadCacheHandler.addRequest(requestHash);
+
+        Result result = messageBusService.sendToNode(request, node, false);
+        if (result.isFailed()) {
+            DownloadCacheHandler.removeTxGroupFuture(requestHash);
+            DownloadCacheHandler.removeRequest(requestHash);
+            return null;
+        }
+        try {
+            reactFuture.get(1L, TimeUnit.SECONDS);
+            return future.get(30L, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            Log.error(node.getId() + ",get compact txs failed!");
+            Log.error(e.getMessage());
+            DownloadCacheHandler.removeTxGroupFuture(requestHash);
+            DownloadCacheHandler.removeRequest(requestHash);
+            throw e;
+        }
+    }
 }
@@ -0,0 +1,288 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.protocol.base.handler;
+
+import io.nuls.consensus.service.ConsensusService;
+import io.nuls.core.tools.crypto.Hex;
+import io.nuls.core.tools.log.BlockLog;
+import io.nuls.core.tools.log.Log;
+import io.nuls.kernel.constant.TransactionErrorCode;
+import io.nuls.kernel.context.NulsContext;
+import io.nuls.kernel.model.Block;
+import io.nuls.kernel.model.BlockHeader;
+import io.nuls.kernel.model.NulsDigestData;
+import io.nuls.kernel.model.Transaction;
+import io.nuls.kernel.validate.ValidateResult;
+import io.nuls.message.bus.handler.AbstractMessageHandler;
+import io.nuls.network.model.Node;
+import io.nuls.network.service.NetworkService;
+import io.nuls.protocol.cache.TemporaryCacheManager;
+import io.nuls.protocol.message.CompactBlockMessage;
+import io.nuls.protocol.model.CompactBlock;
+import io.nuls.protocol.model.SmallBlock;
+import io.nuls.protocol.model.TxGroup;
+import io.nuls.protocol.service.BlockService;
+import io.nuls.protocol.service.DownloadService;
+
+import java.util.*;
+
+/**
+ * 紧凑区块处理器，用交易池和临时缓存中的交易还原区块，缺少的交易按序号向发送方请求
+ * The compact block handler, rebuilds the block with the transactions in the tx pool and the temporary cache,
+ * the missing transactions are requested from the sender by index.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class CompactBlockHandler extends AbstractMessageHandler<CompactBlockMessage> {
+
+    private ConsensusService consensusService = NulsContext.getServiceBean(ConsensusService.class);
+
+    private BlockService blockService = NulsContext.getServiceBean(BlockService.class);
+
+    private DownloadService downloadService = NulsContext.getServiceBean(DownloadService.class);
+
+    private NetworkService networkService = NulsContext.getServiceBean(NetworkService.class);
+
+    private TemporaryCacheManager temporaryCacheManager = TemporaryCacheManager.getInstance();
+
+    @Override
+    public void onMessage(CompactBlockMessage event, Node fromNode) {
+        CompactBlock compactBlock = event.getMsgBody();
+        if (null == compactBlock) {
+            Log.warn("recieved a null compactBlock!");
+            return;
+        }
+        BlockHeader header = compactBlock.getHeader();
+
+        BlockHeader theBlockHeader = blockService.getBlockHeader(header.getHash()).getData();
+        if (null != theBlockHeader) {
+            return;
+        }
+
+        ValidateResult result = header.verify();
+        boolean isOrphan = result.getErrorCode() == TransactionErrorCode.ORPHAN_TX || result.getErrorCode() == TransactionErrorCode.ORPHAN_BLOCK;
+
+        BlockLog.debug("recieve new compact block from(" + fromNode.getId() + "), tx count : " + header.getTxCount() + " , prefilled count : " + compactBlock.getPrefilledTxList().size() + " , header height:" + header.getHeight() + ", preHash:" + header.getPreHash() + " , hash:" + header.getHash() + ", addressHex:" + Hex.encode(header.getPackingAddress()) +
+                "\n and verify block result: " + result.isSuccess() + " , verify message : " + result.getMsg() + " , isOrphan : " + isOrphan);
+
+        if (result.isFailed() && !isOrphan) {
+            BlockLog.debug("discard a CompactBlock:" + header.getHash() + ", from:" + fromNode.getId() + " ,reason:" + result.getMsg());
+            return;
+        }
+        String error = checkStructure(compactBlock);
+        if (null != error) {
+            reject(header, fromNode, error);
+            return;
+        }
+        int txCount = (int) header.getTxCount();
+
+        Transaction[] txs = new Transaction[txCount];
+        boolean[] prefilled = new boolean[txCount];
+        for (int i = 0; i < compactBlock.getPrefilledTxList().size(); i++) {
+            int index = compactBlock.getPrefilledIndexList().get(i);
+            txs[index] = compactBlock.getPrefilledTxList().get(i);
+            prefilled[index] = true;
+        }
+
+        Map<Long, Integer> shortIdMap = mapShortIds(compactBlock, prefilled);
+        fillFromPool(compactBlock, shortIdMap, txs);
+
+        List<Transaction> downloadedList = new ArrayList<>();
+        if (!download(header, txs, missingIndexes(txs), downloadedList, fromNode)) {
+            return;
+        }
+
+        List<NulsDigestData> txHashList = getTxHashList(txs);
+        if (!header.getMerkleHash().equals(NulsDigestData.calcMerkleDigestData(txHashList))) {
+            // 交易池中的交易与短ID碰撞，重新下载所有用短ID还原的交易
+            // A tx of the pool collided with a short id, download all the transactions rebuilt by short id again
+            List<Integer> poolIndexList = new ArrayList<>();
+            for (int i = 0; i < txCount; i++) {
+                if (!prefilled[i]) {
+                    poolIndexList.add(i);
+                }
+            }
+            Log.info("block height : " + header.getHeight() + ", merkle hash mismatch, download all " + poolIndexList.size() + " txs");
+            downloadedList.clear();
+            if (!download(header, txs, poolIndexList, downloadedList, fromNode)) {
+                return;
+            }
+            txHashList = getTxHashList(txs);
+            if (!header.getMerkleHash().equals(NulsDigestData.calcMerkleDigestData(txHashList))) {
+                BlockLog.debug("discard a CompactBlock:" + header.getHash() + ", from:" + fromNode.getId() + " ,reason: wrong merkle hash");
+                return;
+            }
+        }
+
+        Block block = new Block();
+        block.setHeader(header);
+        List<Transaction> txList = new ArrayList<>(txCount);
+        for (Transaction tx : txs) {
+            tx.setBlockHeight(header.getHeight());
+            txList.add(tx);
+        }
+        block.setTxs(txList);
+
+        // 预先填充的和下载的交易，转发时对其他节点很可能也缺少
+        // The prefilled and downloaded transactions, likely missing for other nodes when forwarding
+        SmallBlock smallBlock = new SmallBlock();
+        smallBlock.setHeader(header);
+        smallBlock.setTxHashList(txHashList);
+        for (Transaction tx : compactBlock.getPrefilledTxList()) {
+            smallBlock.addBaseTx(tx);
+        }
+        for (Transaction tx : downloadedList) {
+            smallBlock.addBaseTx(tx);
+        }
+        temporaryCacheManager.cacheSmallBlock(smallBlock);
+
+        consensusService.newBlock(block, fromNode);
+    }
+
+    /**
+     * 在使用前检查紧凑区块的结构：交易数与区块头一致，预填充序号与交易一一对应、在范围内且严格递增(不重复)，
+     * 短ID数量等于交易数减去预填充数量；返回错误原因，检查通过时返回null
+     * Check the structure of the compact block before using it: the tx count matches the header,
+     * the prefilled indexes match the prefilled txs one to one, are in range and strictly ascending (unique),
+     * and the short id count is the tx count minus the prefilled count. Returns the reason, or null when it passes.
+     */
+    private String checkStructure(CompactBlock compactBlock) {
+        long txCount = compactBlock.getHeader().getTxCount();
+        List<Integer> prefilledIndexList = compactBlock.getPrefilledIndexList();
+        List<Transaction> prefilledTxList = compactBlock.getPrefilledTxList();
+        if (txCount <= 0 || txCount > Integer.MAX_VALUE) {
+            return "wrong tx count";
+        }
+        if (prefilledIndexList.size() != prefilledTxList.size() || prefilledTxList.size() > txCount) {
+            return "wrong prefilled count";
+        }
+        if (compactBlock.getShortIdList().size() != txCount - prefilledTxList.size()) {
+            return "wrong short id count";
+        }
+        int lastIndex = -1;
+        for (int i = 0; i < prefilledIndexList.size(); i++) {
+            Integer index = prefilledIndexList.get(i);
+            if (null == index || index <= lastIndex || index >= txCount || null == prefilledTxList.get(i)) {
+                return "wrong prefilled index";
+            }
+            lastIndex = index;
+        }
+        return null;
+    }
+
+    /**
+     * 结构错误的紧凑区块不是正常节点能发出的，丢弃消息并断开发送方
+     * A malformed compact block can not come from an honest node, the message is dropped and the sender is disconnected.
+     */
+    private void reject(BlockHeader header, Node fromNode, String reason) {
+        BlockLog.debug("discard a CompactBlock:" + header.getHash() + ", from:" + fromNode.getId() + " ,reason: " + reason);
+        Log.warn("malformed compact block from node " + fromNode.getId() + ": " + reason + ", the node is removed");
+        fromNode.setStatus(Node.BAD);
+        networkService.removeNode(fromNode.getId());
+    }
+
+    /**
+     * 短ID到区块中序号的映射，区块内重复的短ID无法区分，不放入映射中，按缺少处理
+     * The map of the short ids to the indexes in the block, the duplicate short ids in the block can not be told apart,
+     * they are left out of the map and treated as missing.
+     */
+    private Map<Long, Integer> mapShortIds(CompactBlock compactBlock, boolean[] prefilled) {
+        List<Long> shortIdList = compactBlock.getShortIdList();
+        Map<Long, Integer> shortIdMap = new HashMap<>(shortIdList.size() * 2);
+        Set<Long> duplicateSet = new HashSet<>();
+        int position = 0;
+        for (int index = 0; index < prefilled.length; index++) {
+            if (prefilled[index]) {
+                continue;
+            }
+            Long shortId = shortIdList.get(position++);
+            if (null != shortIdMap.put(shortId, index)) {
+                duplicateSet.add(shortId);
+            }
+        }
+        for (Long shortId : duplicateSet) {
+            shortIdMap.remove(shortId);
+        }
+        return shortIdMap;
+    }
+
+    /**
+     * 按短ID从交易池(包括打包模板)和临时缓存中查找交易，不复制整个交易池
+     * Look up the txs by short id in the tx pool (including the block template) and the temporary cache,
+     * without copying the whole pool.
+     */
+    private void fillFromPool(CompactBlock compactBlock, Map<Long, Integer> shortIdMap, Transaction[] txs) {
+        if (shortIdMap.isEmpty()) {
+            return;
+        }
+        Map<Long, Transaction> foundMap = consensusService.getMemoryTxsByShortId(shortIdMap.keySet(), compactBlock::getShortId);
+        if (foundMap.size() < shortIdMap.size()) {
+            temporaryCacheManager.findTxsByShortId(shortIdMap.keySet(), compactBlock::getShortId, foundMap);
+        }
+        for (Map.Entry<Long, Transaction> entry : foundMap.entrySet()) {
+            Integer index = shortIdMap.get(entry.getKey());
+            if (null != index && null == txs[index]) {
+                txs[index] = entry.getValue();
+            }
+        }
+    }
+
+    private List<Integer> missingIndexes(Transaction[] txs) {
+        List<Integer> indexList = new ArrayList<>();
+        for (int i = 0; i < txs.length; i++) {
+            if (null == txs[i]) {
+                indexList.add(i);
+            }
+        }
+        return indexList;
+    }
+
+    private boolean download(BlockHeader header, Transaction[] txs, List<Integer> indexList, List<Transaction> downloadedList, Node fromNode) {
+        if (indexList.isEmpty()) {
+            return true;
+        }
+        Log.info("block height : " + header.getHeight() + ", tx count : " + header.getTxCount() + " , get compact txs of " + indexList.size());
+        TxGroup txGroup = this.downloadService.downloadCompactTxs(header.getHash(), indexList, fromNode).getData();
+        if (null == txGroup || null == txGroup.getTxList() || txGroup.getTxList().size() != indexList.size()) {
+            Log.warn("get compact txs failed!block height:{},node:{},blockHash:{}", header.getHeight(), fromNode.getId(), header.getHash());
+            return false;
+        }
+        for (int i = 0; i < indexList.size(); i++) {
+            Transaction tx = txGroup.getTxList().get(i);
+            txs[indexList.get(i)] = tx;
+            downloadedList.add(tx);
+        }
+        return true;
+    }
+
+    private List<NulsDigestData> getTxHashList(Transaction[] txs) {
+        List<NulsDigestData> txHashList = new ArrayList<>(txs.length);
+        for (Transaction tx : txs) {
+            txHashList.add(tx.getHash());
+        }
+        return txHashList;
+    }
+}
@@ -26,16 +26,15 @@ package io.nuls.protocol.base.handler;
 
 import io.nuls.core.tools.log.Log;
 import io.nuls.kernel.context.NulsContext;
-import io.nuls.kernel.model.Block;
 import io.nuls.kernel.model.NulsDigestData;
 import io.nuls.kernel.model.Result;
 import io.nuls.message.bus.handler.AbstractMessageHandler;
 import io.nuls.message.bus.service.MessageBusService;
 import io.nuls.network.model.Node;
 import io.nuls.protocol.constant.NotFoundType;
-import io.nuls.protocol.message.BlockMessage;
 import io.nuls.protocol.message.GetBlockMessage;
 import io.nuls.protocol.message.NotFoundMessage;
+import io.nuls.protocol.message.RawBlockMessage;
 import io.nuls.protocol.message.ReactMessage;
 import io.nuls.protocol.model.NotFound;
 import io.nuls.protocol.service.BlockService;
@@ -49,6 +48,15 @@ public class GetBlockHandler extends AbstractMessageHandler<GetBlockMessage> {
     private BlockService blockService = NulsContext.getServiceBean(BlockService.class);
     private MessageBusService messageBusService = NulsContext.getServiceBean(MessageBusService.class);
 
+    /**
+     * 只读的请求处理，可以并行执行
+     * Read-only request handling, can run in parallel.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public void onMessage(GetBlockMessage message, Node fromNode) {
 
@@ -61,13 +69,12 @@ public class GetBlockHandler extends AbstractMessageHandler<GetBlockMessage> {
         // react request
         messageBusService.sendToNode(new ReactMessage(blockHash), fromNode, true);
 
-        Block block= null;
-        Result<Block> result = blockService.getBlock(blockHash);
-        if (result.isFailed() || (block = result.getData()) == null) {
+        Result<byte[]> result = blockService.getBlockBytes(blockHash);
+        if (result.isFailed() || result.getData() == null) {
             sendNotFound(blockHash, fromNode);
             return;
         }
-        sendBlock(block, fromNode);
+        sendBlock(result.getData(), blockHash, fromNode);
     }
 
     private void sendNotFound(NulsDigestData hash, Node node) {
@@ -80,12 +87,11 @@ public class GetBlockHandler extends AbstractMessageHandler<GetBlockMessage> {
         }
     }
 
-    private void sendBlock(Block block, Node fromNode) {
-        BlockMessage blockMessage = new BlockMessage();
-        blockMessage.setMsgBody(block);
+    private void sendBlock(byte[] blockBytes, NulsDigestData hash, Node fromNode) {
+        RawBlockMessage blockMessage = new RawBlockMessage(blockBytes);
         Result result = this.messageBusService.sendToNode(blockMessage, fromNode, true);
         if (result.isFailed()) {
-            Log.warn("send block failed:" + fromNode.getId() + ",height:" + block.getHeader().getHeight());
+            Log.warn("send block failed:" + fromNode.getId() + ",hash:" + hash);
         }
     }
 }
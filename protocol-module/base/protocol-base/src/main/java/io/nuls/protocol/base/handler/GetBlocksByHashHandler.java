@@ -26,7 +26,6 @@ package io.nuls.protocol.base.handler;
 
 import io.nuls.core.tools.log.Log;
 import io.nuls.kernel.context.NulsContext;
-import io.nuls.kernel.model.Block;
 import io.nuls.kernel.model.BlockHeader;
 import io.nuls.kernel.model.NulsDigestData;
 import io.nuls.kernel.model.Result;
@@ -54,6 +53,15 @@ public class GetBlocksByHashHandler extends AbstractMessageHandler<GetBlocksByHa
     private BlockService blockService = NulsContext.getServiceBean(BlockService.class);
     private MessageBusService messageBusService = NulsContext.getServiceBean(MessageBusService.class);
 
+    /**
+     * 只读的请求处理，可以并行执行
+     * Read-only request handling, can run in parallel.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public void onMessage(GetBlocksByHashMessage message, Node fromNode) {
 
@@ -81,26 +89,23 @@ public class GetBlocksByHashHandler extends AbstractMessageHandler<GetBlocksByHa
             sendNotFound(requestHash, fromNode);
             return;
         }
-        Block endBlock = blockService.getBlock(param.getEndHash()).getData();
-        if(endBlock == null) {
+        BlockHeader endBlockHeader = blockService.getBlockHeader(param.getEndHash()).getData();
+        if(endBlockHeader == null) {
             sendNotFound(requestHash, fromNode);
             return;
         }
-        if(endBlock.getHeader().getHeight() - startBlockHeader.getHeight() >= MAX_SIZE) {
+        if(endBlockHeader.getHeight() < startBlockHeader.getHeight() || endBlockHeader.getHeight() - startBlockHeader.getHeight() >= MAX_SIZE) {
             return;
         }
 
-        Block block = endBlock;
-        while(true) {
-            sendBlock(block, fromNode);
-            if(block.getHeader().getHash().equals(startBlockHeader.getHash())) {
-                break;
-            }
-            Result<Block> result = blockService.getBlock(block.getHeader().getPreHash());
-            if (result.isFailed() || (block = result.getData()) == null) {
+        // 按高度顺序直接发送存储的区块数据，不再逐个组装区块
+        for (long height = startBlockHeader.getHeight(); height <= endBlockHeader.getHeight(); height++) {
+            Result<byte[]> result = blockService.getBlockBytes(height);
+            if (result.isFailed() || result.getData() == null) {
                 sendNotFound(requestHash, fromNode);
                 return;
             }
+            sendBlock(result.getData(), height, fromNode);
         }
 
         CompleteMessage completeMessage = new CompleteMessage();
@@ -118,12 +123,11 @@ public class GetBlocksByHashHandler extends AbstractMessageHandler<GetBlocksByHa
         }
     }
 
-    private void sendBlock(Block block, Node fromNode) {
-        BlockMessage blockMessage = new BlockMessage();
-        blockMessage.setMsgBody(block);
+    private void sendBlock(byte[] blockBytes, long height, Node fromNode) {
+        RawBlockMessage blockMessage = new RawBlockMessage(blockBytes);
         Result result = this.messageBusService.sendToNode(blockMessage, fromNode, true);
         if (result.isFailed()) {
-            Log.warn("send block failed:" + fromNode.getId() + ",height:" + block.getHeader().getHeight());
+            Log.warn("send block failed:" + fromNode.getId() + ",height:" + height);
         }
     }
 }
@@ -27,7 +27,6 @@ package io.nuls.protocol.base.handler;
 import io.nuls.core.tools.array.ArraysTool;
 import io.nuls.core.tools.log.Log;
 import io.nuls.kernel.context.NulsContext;
-import io.nuls.kernel.model.Block;
 import io.nuls.kernel.model.BlockHeader;
 import io.nuls.kernel.model.NulsDigestData;
 import io.nuls.kernel.model.Result;
@@ -57,6 +56,15 @@ public class GetBlocksByHeightHandler extends AbstractMessageHandler<GetBlocksBy
     private BlockService blockService = NulsContext.getServiceBean(BlockService.class);
     private MessageBusService messageBusService = NulsContext.getServiceBean(MessageBusService.class);
 
+    /**
+     * 只读的请求处理，可以并行执行
+     * Read-only request handling, can run in parallel.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public void onMessage(GetBlocksByHeightMessage message, Node fromNode) {
 
@@ -87,23 +95,20 @@ public class GetBlocksByHeightHandler extends AbstractMessageHandler<GetBlocksBy
             sendNotFound(requestHash, fromNode);
             return;
         }
-        Block endBlock = blockService.getBlock(param.getEndHeight()).getData();
-        if(endBlock == null) {
+        BlockHeader endBlockHeader = blockService.getBlockHeader(param.getEndHeight()).getData();
+        if(endBlockHeader == null) {
             sendNotFound(requestHash, fromNode);
             return;
         }
 
-        Block block = endBlock;
-        while(true) {
-            sendBlock(block, fromNode);
-            if(block.getHeader().getHash().equals(startBlockHeader.getHash())) {
-                break;
-            }
-            Result<Block> result = blockService.getBlock(block.getHeader().getPreHash());
-            if (result.isFailed() || (block = result.getData()) == null) {
+        // 按高度顺序直接发送存储的区块数据，不再逐个组装区块
+        for (long height = startBlockHeader.getHeight(); height <= endBlockHeader.getHeight(); height++) {
+            Result<byte[]> result = blockService.getBlockBytes(height);
+            if (result.isFailed() || result.getData() == null) {
                 sendNotFound(requestHash, fromNode);
                 return;
             }
+            sendBlock(result.getData(), height, fromNode);
         }
 
         CompleteMessage completeMessage = new CompleteMessage();
@@ -121,12 +126,11 @@ public class GetBlocksByHeightHandler extends AbstractMessageHandler<GetBlocksBy
         }
     }
 
-    private void sendBlock(Block block, Node fromNode) {
-        BlockMessage blockMessage = new BlockMessage();
-        blockMessage.setMsgBody(block);
+    private void sendBlock(byte[] blockBytes, long height, Node fromNode) {
+        RawBlockMessage blockMessage = new RawBlockMessage(blockBytes);
         Result result = this.messageBusService.sendToNode(blockMessage, fromNode, true);
         if (result.isFailed()) {
-            Log.warn("send block failed:" + fromNode.getId() + ",height:" + block.getHeader().getHeight());
+            Log.warn("send block failed:" + fromNode.getId() + ",height:" + height);
         }
     }
 }
@@ -55,6 +55,15 @@ public class GetBlocksHashHandler extends AbstractMessageHandler<GetBlocksHashMe
     private BlockService blockService = NulsContext.getServiceBean(BlockService.class);
     private MessageBusService messageBusService = NulsContext.getServiceBean(MessageBusService.class);
 
+    /**
+     * 只读的请求处理，可以并行执行
+     * Read-only request handling, can run in parallel.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public void onMessage(GetBlocksHashMessage message, Node fromNode) {
         GetBlocksHashParam param = message.getMsgBody();
@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.protocol.base.handler;
+
+import io.nuls.core.tools.log.Log;
+import io.nuls.kernel.context.NulsContext;
+import io.nuls.kernel.model.Block;
+import io.nuls.kernel.model.NulsDigestData;
+import io.nuls.kernel.model.Result;
+import io.nuls.kernel.model.Transaction;
+import io.nuls.ledger.service.LedgerService;
+import io.nuls.message.bus.handler.AbstractMessageHandler;
+import io.nuls.message.bus.service.MessageBusService;
+import io.nuls.network.model.Node;
+import io.nuls.protocol.cache.TemporaryCacheManager;
+import io.nuls.protocol.constant.NotFoundType;
+import io.nuls.protocol.message.GetCompactTxsRequest;
+import io.nuls.protocol.message.NotFoundMessage;
+import io.nuls.protocol.message.ReactMessage;
+import io.nuls.protocol.message.TxGroupMessage;
+import io.nuls.protocol.model.GetCompactTxsParam;
+import io.nuls.protocol.model.NotFound;
+import io.nuls.protocol.model.SmallBlock;
+import io.nuls.protocol.model.TxGroup;
+import io.nuls.protocol.service.BlockService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按序号应答紧凑区块中交易的请求，应答的交易与请求的序号顺序一致
+ * Answers the requests of the transactions of a compact block by index, the answered transactions are in the order of the indexes.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class GetCompactTxsHandler extends AbstractMessageHandler<GetCompactTxsRequest> {
+
+    private static final int MAX_SIZE = 10000;
+
+    private BlockService blockService = NulsContext.getServiceBean(BlockService.class);
+
+    private LedgerService ledgerService = NulsContext.getServiceBean(LedgerService.class);
+
+    private MessageBusService messageBusService = NulsContext.getServiceBean(MessageBusService.class);
+
+    private TemporaryCacheManager temporaryCacheManager = TemporaryCacheManager.getInstance();
+
+    /**
+     * 只读的请求处理，可以并行执行
+     * Read-only request handling, can run in parallel.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public void onMessage(GetCompactTxsRequest message, Node fromNode) {
+
+        if (message == null || fromNode == null) {
+            return;
+        }
+
+        GetCompactTxsParam param = message.getMsgBody();
+        if (param == null || param.getBlockHash() == null || param.getIndexList() == null || param.getIndexList().isEmpty() || param.getIndexList().size() > MAX_SIZE) {
+            return;
+        }
+        NulsDigestData requestHash = null;
+        try {
+            requestHash = NulsDigestData.calcDigestData(param.serialize());
+        } catch (IOException e) {
+            Log.error(e);
+            return;
+        }
+
+        // react request
+        messageBusService.sendToNode(new ReactMessage(requestHash), fromNode, true);
+
+        List<Transaction> txList = getTxList(param);
+        if (null == txList) {
+            this.sendNotFound(requestHash, fromNode);
+            return;
+        }
+
+        TxGroup txGroup = new TxGroup();
+        txGroup.setTxList(txList);
+        txGroup.setRequestHash(requestHash);
+
+        TxGroupMessage txGroupMessage = new TxGroupMessage();
+        txGroupMessage.setMsgBody(txGroup);
+        messageBusService.sendToNode(txGroupMessage, fromNode, true);
+    }
+
+    /**
+     * 优先从缓存的小区块中查找交易，区块已保存时从区块中获取
+     * Look up the transactions through the cached small block first, get them from the block when it has been saved.
+     */
+    private List<Transaction> getTxList(GetCompactTxsParam param) {
+        List<Transaction> txList = new ArrayList<>(param.getIndexList().size());
+        SmallBlock smallBlock = temporaryCacheManager.getSmallBlock(param.getBlockHash());
+        if (null != smallBlock) {
+            Map<NulsDigestData, Transaction> subTxMap = new HashMap<>();
+            for (Transaction tx : smallBlock.getSubTxList()) {
+                subTxMap.put(tx.getHash(), tx);
+            }
+            List<NulsDigestData> txHashList = smallBlock.getTxHashList();
+            for (Integer index : param.getIndexList()) {
+                if (index < 0 || index >= txHashList.size()) {
+                    return null;
+                }
+                NulsDigestData hash = txHashList.get(index);
+                Transaction tx = subTxMap.get(hash);
+                if (null == tx) {
+                    tx = temporaryCacheManager.getTx(hash);
+                }
+                if (null == tx) {
+                    tx = ledgerService.getTx(hash);
+                }
+                if (null == tx) {
+                    return null;
+                }
+                txList.add(tx);
+            }
+            return txList;
+        }
+        Result<Block> result = blockService.getBlock(param.getBlockHash());
+        if (result.isFailed() || null == result.getData()) {
+            return null;
+        }
+        List<Transaction> blockTxs = result.getData().getTxs();
+        for (Integer index : param.getIndexList()) {
+            if (index < 0 || index >= blockTxs.size()) {
+                return null;
+            }
+            txList.add(blockTxs.get(index));
+        }
+        return txList;
+    }
+
+    private void sendNotFound(NulsDigestData hash, Node fromNode) {
+        NotFoundMessage event = new NotFoundMessage();
+        NotFound data = new NotFound(NotFoundType.TRANSACTION, hash);
+        event.setMsgBody(data);
+        Result result = this.messageBusService.sendToNode(event, fromNode, true);
+        if (result.isFailed()) {
+            Log.warn("send not found failed:" + fromNode.getId() + ", hash:" + hash);
+        }
+    }
+}
@@ -55,6 +55,15 @@ public class GetTxGroupHandler extends AbstractMessageHandler<GetTxGroupRequest>
     private LedgerService ledgerService = NulsContext.getServiceBean(LedgerService.class);
     private TemporaryCacheManager temporaryCacheManager = TemporaryCacheManager.getInstance();
 
+    /**
+     * 只读的请求处理，可以并行执行
+     * Read-only request handling, can run in parallel.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public void onMessage(GetTxGroupRequest message, Node fromNode) {
 
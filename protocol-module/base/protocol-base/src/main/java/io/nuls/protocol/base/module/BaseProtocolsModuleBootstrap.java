@@ -32,6 +32,7 @@ import io.nuls.kernel.context.NulsContext;
 import io.nuls.kernel.exception.NulsException;
 import io.nuls.kernel.exception.NulsRuntimeException;
 import io.nuls.kernel.model.Block;
+import io.nuls.kernel.model.Result;
 import io.nuls.kernel.thread.manager.TaskManager;
 import io.nuls.kernel.utils.TransactionManager;
 import io.nuls.kernel.validate.ValidateResult;
@@ -66,6 +67,14 @@ public class BaseProtocolsModuleBootstrap extends AbstractProtocolModule {
         this.waitForDependencyRunning(MessageBusConstant.MODULE_ID_MESSAGE_BUS);
         this.waitForDependencyInited(ConsensusConstant.MODULE_ID_CONSENSUS, NetworkConstant.NETWORK_MODULE_ID);
         BlockService blockService = NulsContext.getServiceBean(BlockService.class);
+        try {
+            Result recoverResult = blockService.recoverUncommittedBlock();
+            if (recoverResult.isFailed()) {
+                Log.error("recover the uncommitted block failed: " + recoverResult.getMsg());
+            }
+        } catch (NulsException e) {
+            Log.error(e);
+        }
         Block block0 = blockService.getGengsisBlock().getData();
         Block genesisBlock = NulsContext.getInstance().getGenesisBlock();
         if (null == block0) {
@@ -111,6 +120,8 @@ public class BaseProtocolsModuleBootstrap extends AbstractProtocolModule {
         messageBusService.subscribeMessage(TxGroupMessage.class, new TxGroupHandler());
         messageBusService.subscribeMessage(TransactionMessage.class, new NewTxMessageHandler());
         messageBusService.subscribeMessage(SmallBlockMessage.class, new SmallBlockHandler());
+        messageBusService.subscribeMessage(CompactBlockMessage.class, new CompactBlockHandler());
+        messageBusService.subscribeMessage(GetCompactTxsRequest.class, new GetCompactTxsHandler());
         messageBusService.subscribeMessage(CompleteMessage.class, new CompleteHandler());
         messageBusService.subscribeMessage(ReactMessage.class, new ReactMessageHandler());
     }
@@ -32,19 +32,28 @@ import io.nuls.kernel.exception.NulsException;
 import io.nuls.kernel.lite.annotation.Autowired;
 import io.nuls.kernel.lite.annotation.Service;
 import io.nuls.kernel.model.*;
+import io.nuls.kernel.utils.NulsByteBuffer;
 import io.nuls.ledger.service.LedgerService;
 import io.nuls.message.bus.service.MessageBusService;
 import io.nuls.network.model.Node;
+import io.nuls.network.service.NetworkService;
+import io.nuls.protocol.base.utils.CompactBlockUtil;
 import io.nuls.protocol.base.utils.PoConvertUtil;
+import io.nuls.protocol.cache.TemporaryCacheManager;
+import io.nuls.protocol.message.CompactBlockMessage;
 import io.nuls.protocol.message.SmallBlockMessage;
 import io.nuls.protocol.model.SmallBlock;
 import io.nuls.protocol.service.BlockService;
 import io.nuls.protocol.service.TransactionService;
 import io.nuls.protocol.storage.po.BlockHeaderPo;
+import io.nuls.protocol.storage.service.BlockBodyStorageService;
 import io.nuls.protocol.storage.service.BlockHeaderStorageService;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 区块处理服务类
@@ -63,6 +72,9 @@ public class BlockServiceImpl implements BlockService {
     @Autowired
     private BlockHeaderStorageService blockHeaderStorageService;
 
+    @Autowired
+    private BlockBodyStorageService blockBodyStorageService;
+
     @Autowired
     private LedgerService ledgerService;
 
@@ -71,9 +83,15 @@ public class BlockServiceImpl implements BlockService {
 
     @Autowired
     private MessageBusService messageBusService;
+
     @Autowired
     private AccountLedgerService accountLedgerService;
 
+    @Autowired
+    private NetworkService networkService;
+
+    private TemporaryCacheManager temporaryCacheManager = TemporaryCacheManager.getInstance();
+
     /**
      * 获取创世块（从存储中）
      * Get the creation block (from storage)
@@ -98,7 +116,10 @@ public class BlockServiceImpl implements BlockService {
         if (null == headerPo) {
             return Result.getFailed(KernelErrorCode.DATA_NOT_FOUND);
         }
-        Block block = getBlock(headerPo);
+        Block block = parseBlock(blockBodyStorageService.getBlockBytes(headerPo.getHash()));
+        if (null == block) {
+            block = getBlock(headerPo);
+        }
         return Result.getSuccess().setData(block);
     }
 
@@ -110,10 +131,12 @@ public class BlockServiceImpl implements BlockService {
      * @return 完整的区块/the complete block
      */
     private Block getBlock(BlockHeaderPo headerPo) {
-        List<Transaction> txList = new ArrayList<>();
-        for (NulsDigestData hash : headerPo.getTxHashList()) {
-            Transaction tx = ledgerService.getTx(hash);
-            txList.add(tx);
+        List<Transaction> txList = ledgerService.getTxList(headerPo.getTxHashList());
+        if (txList == null) {
+            txList = new ArrayList<>();
+            for (NulsDigestData hash : headerPo.getTxHashList()) {
+                txList.add(ledgerService.getTx(hash));
+            }
         }
         Block block = new Block();
         block.setHeader(PoConvertUtil.fromBlockHeaderPo(headerPo));
@@ -175,11 +198,15 @@ public class BlockServiceImpl implements BlockService {
      */
     @Override
     public Result<Block> getBlock(NulsDigestData hash) {
+        Block block = parseBlock(blockBodyStorageService.getBlockBytes(hash));
+        if (null != block) {
+            return Result.getSuccess().setData(block);
+        }
         BlockHeaderPo headerPo = blockHeaderStorageService.getBlockHeaderPo(hash);
         if (null == headerPo) {
             return Result.getFailed(KernelErrorCode.DATA_NOT_FOUND);
         }
-        Block block = getBlock(headerPo);
+        block = getBlock(headerPo);
         return Result.getSuccess().setData(block);
     }
 
@@ -192,14 +219,83 @@ public class BlockServiceImpl implements BlockService {
      */
     @Override
     public Result<Block> getBlock(long height) {
+        Block block = parseBlock(blockBodyStorageService.getBlockBytes(height));
+        if (null != block) {
+            return Result.getSuccess().setData(block);
+        }
         BlockHeaderPo headerPo = blockHeaderStorageService.getBlockHeaderPo(height);
         if (null == headerPo) {
             return Result.getFailed(KernelErrorCode.DATA_NOT_FOUND);
         }
-        Block block = getBlock(headerPo);
+        block = getBlock(headerPo);
         return Result.getSuccess().setData(block);
     }
 
+    /**
+     * 根据区块摘要获取序列化后的完整区块（从存储中）
+     * Get the serialized whole block (from storage) according to the block hash
+     *
+     * @param hash 区块摘要/block hash
+     * @return 序列化后的区块/serialized block
+     */
+    @Override
+    public Result<byte[]> getBlockBytes(NulsDigestData hash) {
+        byte[] bytes = blockBodyStorageService.getBlockBytes(hash);
+        if (null != bytes) {
+            return Result.getSuccess().setData(bytes);
+        }
+        return serializeBlock(blockHeaderStorageService.getBlockHeaderPo(hash));
+    }
+
+    /**
+     * 根据区块高度获取序列化后的完整区块（从存储中）
+     * Get the serialized whole block (from storage) according to the block height
+     *
+     * @param height 区块高度/block height
+     * @return 序列化后的区块/serialized block
+     */
+    @Override
+    public Result<byte[]> getBlockBytes(long height) {
+        byte[] bytes = blockBodyStorageService.getBlockBytes(height);
+        if (null != bytes) {
+            return Result.getSuccess().setData(bytes);
+        }
+        return serializeBlock(blockHeaderStorageService.getBlockHeaderPo(height));
+    }
+
+    /**
+     * 分段文件中没有的区块（升级前保存的区块），组装后序列化
+     * Blocks not in the segment files (saved before the upgrade) are assembled and serialized.
+     */
+    private Result<byte[]> serializeBlock(BlockHeaderPo headerPo) {
+        if (null == headerPo) {
+            return Result.getFailed(KernelErrorCode.DATA_NOT_FOUND);
+        }
+        Block block = getBlock(headerPo);
+        try {
+            return Result.getSuccess().setData(block.serialize());
+        } catch (IOException e) {
+            Log.error(e);
+            return Result.getFailed(KernelErrorCode.IO_ERROR);
+        }
+    }
+
+    /**
+     * 从分段文件中读取并解析区块，不存在时返回null
+     * Read and parse the block from the segment files, null if not exists.
+     */
+    private Block parseBlock(byte[] bytes) {
+        if (null == bytes) {
+            return null;
+        }
+        try {
+            return new NulsByteBuffer(bytes).readNulsData(new Block());
+        } catch (Exception e) {
+            Log.error(e);
+            return null;
+        }
+    }
+
     /**
      * 保存区块到存储中
      * Save the block to the store.
@@ -213,25 +309,49 @@ public class BlockServiceImpl implements BlockService {
         if (null == block || block.getHeader() == null || block.getTxs() == null) {
             return Result.getFailed(KernelErrorCode.NULL_PARAMETER);
         }
-        List<Transaction> savedList = new ArrayList<>();
         for (Transaction transaction : block.getTxs()) {
             transaction.setBlockHeight(block.getHeader().getHeight());
-            Result result = transactionService.commitTx(transaction, block.getHeader());
-            if (result.isSuccess()) {
-                result = ledgerService.saveTx(transaction);
-            }
+        }
+        BlockHeaderPo headerPo = PoConvertUtil.toBlockHeaderPo(block);
+        // 先记录提交标记，提交中途退出时，下次启动据此回滚已写入的数据
+        Result result = this.blockHeaderStorageService.saveCommitMarker(headerPo);
+        if (result.isFailed()) {
+            return result;
+        }
+        // 整个区块的coindata和交易各一次批量写入
+        result = ledgerService.saveTxList(block.getTxs());
+        if (result.isFailed()) {
+            this.blockHeaderStorageService.removeCommitMarker();
+            return result;
+        }
+        // 保存序列化后的完整区块，提供区块下载时直接读取
+        try {
+            result = this.blockBodyStorageService.saveBlockBytes(headerPo.getHeight(), headerPo.getHash(), block.serialize());
+        } catch (IOException e) {
+            Log.error(e);
+            result = Result.getFailed(KernelErrorCode.IO_ERROR);
+        }
+        if (result.isFailed()) {
+            ledgerService.rollbackTxList(block.getTxs());
+            this.blockHeaderStorageService.removeCommitMarker();
+            return result;
+        }
+        List<Transaction> savedList = new ArrayList<>();
+        for (Transaction transaction : block.getTxs()) {
+            result = transactionService.commitTx(transaction, block.getHeader());
             if (result.isSuccess()) {
                 savedList.add(transaction);
             } else {
-                this.rollbackTxList(savedList, block.getHeader());
+                this.rollbackTxList(savedList, block);
                 return result;
             }
         }
-        Result result = this.blockHeaderStorageService.saveBlockHeader(PoConvertUtil.toBlockHeaderPo(block));
+        result = this.blockHeaderStorageService.saveBlockHeader(headerPo);
         if (result.isFailed()) {
-            this.rollbackTxList(savedList, block.getHeader());
+            this.rollbackTxList(savedList, block);
             return result;
         }
+        this.blockHeaderStorageService.removeCommitMarker();
         try {
             accountLedgerService.saveConfirmedTransactionList(block.getTxs());
         } catch (Exception e) {
@@ -244,12 +364,47 @@ public class BlockServiceImpl implements BlockService {
      * 保存区块失败时，需要将已经存储的交易回滚
      * When you fail to save the block, you need to roll back the already stored transaction.
      */
-    private void rollbackTxList(List<Transaction> savedList, BlockHeader blockHeader) throws NulsException {
-        for(int i = savedList.size() - 1 ; i >= 0 ; i --) {
-            Transaction tx = savedList.get(i);
-            transactionService.rollbackTx(tx, blockHeader);
-            ledgerService.rollbackTx(tx);
+    private void rollbackTxList(List<Transaction> savedList, Block block) throws NulsException {
+        for (int i = savedList.size() - 1; i >= 0; i--) {
+            transactionService.rollbackTx(savedList.get(i), block.getHeader());
+        }
+        ledgerService.rollbackTxList(block.getTxs());
+        this.blockBodyStorageService.removeBlockBytes(block.getHeader().getHeight());
+        this.blockHeaderStorageService.removeCommitMarker();
+    }
+
+    /**
+     * 回滚上次退出时未完成提交的区块，区块头已保存则说明提交已完成
+     * Roll back the block whose commit was not finished last time, the commit is finished if the block header was saved.
+     */
+    @Override
+    public Result recoverUncommittedBlock() throws NulsException {
+        BlockHeaderPo markerPo = this.blockHeaderStorageService.getCommitMarker();
+        if (null == markerPo) {
+            return Result.getSuccess();
+        }
+        if (null != this.blockHeaderStorageService.getBlockHeaderPo(markerPo.getHash())) {
+            return this.blockHeaderStorageService.removeCommitMarker();
+        }
+        Log.warn("roll back the uncommitted block: " + markerPo.getHeight() + " - " + markerPo.getHash());
+        BlockHeader header = PoConvertUtil.fromBlockHeaderPo(markerPo);
+        List<Transaction> txList = new ArrayList<>();
+        for (NulsDigestData txHash : markerPo.getTxHashList()) {
+            Transaction tx = ledgerService.getTx(txHash);
+            if (null != tx) {
+                txList.add(tx);
+            }
         }
+        // 交易处理器的回滚会检查数据状态，未提交过的交易回滚失败时忽略
+        for (int i = txList.size() - 1; i >= 0; i--) {
+            transactionService.rollbackTx(txList.get(i), header);
+        }
+        Result result = ledgerService.rollbackTxList(txList);
+        if (result.isFailed()) {
+            return result;
+        }
+        this.blockBodyStorageService.removeBlockBytes(markerPo.getHeight());
+        return this.blockHeaderStorageService.removeCommitMarker();
     }
 
     /**
@@ -265,7 +420,11 @@ public class BlockServiceImpl implements BlockService {
         if (null == block) {
             return Result.getFailed(KernelErrorCode.NULL_PARAMETER);
         }
-        this.rollbackTxList(block.getTxs(), block.getHeader());
+        List<Transaction> txList = block.getTxs();
+        for (int i = txList.size() - 1; i >= 0; i--) {
+            transactionService.rollbackTx(txList.get(i), block.getHeader());
+        }
+        ledgerService.rollbackTxList(txList);
         BlockHeaderPo po = new BlockHeaderPo();
         po.setHash(block.getHeader().getHash());
         po.setHeight(block.getHeader().getHeight());
@@ -274,6 +433,7 @@ public class BlockServiceImpl implements BlockService {
         if (result.isFailed()) {
             return result;
         }
+        this.blockBodyStorageService.removeBlockBytes(po.getHeight());
         try {
             accountLedgerService.rollbackTransaction(block.getTxs());
         } catch (Exception e) {
@@ -292,8 +452,7 @@ public class BlockServiceImpl implements BlockService {
      */
     @Override
     public Result forwardBlock(SmallBlock smallBlock, Node excludeNode) {
-        SmallBlockMessage message = fillSmallBlockMessage(smallBlock);
-        return messageBusService.broadcastHashAndCache(message, excludeNode, true);
+        return broadcastBlockMessage(smallBlock, excludeNode, true);
     }
 
     /**
@@ -305,9 +464,8 @@ public class BlockServiceImpl implements BlockService {
      */
     @Override
     public Result broadcastBlock(SmallBlock smallBlock) {
-        SmallBlockMessage message = fillSmallBlockMessage(smallBlock);
         //todo test
-        Result<List<String>> result = messageBusService.broadcastHashAndCache(message, null, false);
+        Result<List<String>> result = broadcastBlockMessage(smallBlock, null, false);
         StringBuilder str = new StringBuilder("broadcast " + smallBlock.getHeader().getHash() + " to: ");
         for (String node : result.getData()) {
             str.append(", " + node);
@@ -316,6 +474,40 @@ public class BlockServiceImpl implements BlockService {
         return result;
     }
 
+    /**
+     * 握手时声明支持紧凑区块的节点发送紧凑区块消息，其他节点(旧版本)仍发送小区块消息
+     * The nodes declaring compact block support in the handshake are sent the compact block message,
+     * the other (older) nodes are still sent the small block message.
+     *
+     * @param smallBlock  小区块/the small block
+     * @param excludeNode 需要排除的节点/the node to exclude
+     * @param aysn        是否异步/Asynchronous execution
+     * @return 所有广播到的节点id/the ids of all the broadcast nodes
+     */
+    private Result<List<String>> broadcastBlockMessage(SmallBlock smallBlock, Node excludeNode, boolean aysn) {
+        List<Node> compactNodeList = new ArrayList<>();
+        List<Node> smallNodeList = new ArrayList<>();
+        for (Node node : networkService.getAvailableNodes()) {
+            if (node.isCompactBlockSupported()) {
+                compactNodeList.add(node);
+            } else {
+                smallNodeList.add(node);
+            }
+        }
+        // 先转换紧凑区块，接收时下载的交易会一起放入小区块
+        // the compact block goes first, the txs downloaded when receiving are added to the small block as well
+        CompactBlockMessage compactMessage = fillCompactBlockMessage(smallBlock);
+        List<String> nodeIdList = new ArrayList<>();
+        if (!compactNodeList.isEmpty()) {
+            nodeIdList.addAll(messageBusService.broadcastHashAndCache(compactMessage, compactNodeList, excludeNode, aysn).getData());
+        }
+        if (!smallNodeList.isEmpty()) {
+            nodeIdList.addAll(messageBusService.broadcastHashAndCache(fillSmallBlockMessage(smallBlock), smallNodeList, excludeNode, aysn).getData());
+        }
+        Result<List<String>> result = nodeIdList.isEmpty() ? Result.getFailed() : Result.getSuccess();
+        return result.setData(nodeIdList);
+    }
+
     /**
      * 将小区块放入消息容器中，返回消息容器
      * the block is put into the message container and the message container is returned.
@@ -328,4 +520,32 @@ public class BlockServiceImpl implements BlockService {
         message.setMsgBody(smallBlock);
         return message;
     }
+
+    /**
+     * 将小区块转换为紧凑区块放入消息容器中，返回消息容器
+     * 接收时需要下载的交易(记录在缓存的小区块中)对其他节点很可能也缺少，一起预先填充；
+     * 小区块放入缓存，用于应答对等节点按序号获取交易的请求
+     * The small block is converted to the compact block and put into the message container, the message container is returned.
+     * The transactions downloaded when receiving (recorded in the cached small block) are likely missing for other nodes too,
+     * so they are prefilled as well; the small block is cached to answer the requests of the transactions by index.
+     *
+     * @param smallBlock 小区块对象
+     * @return 紧凑区块消息容器/Compact block message container.
+     */
+    private CompactBlockMessage fillCompactBlockMessage(SmallBlock smallBlock) {
+        SmallBlock received = temporaryCacheManager.getSmallBlock(smallBlock.getHeader().getHash());
+        if (null != received && received != smallBlock) {
+            Set<NulsDigestData> subTxHashSet = new HashSet<>();
+            for (Transaction tx : smallBlock.getSubTxList()) {
+                subTxHashSet.add(tx.getHash());
+            }
+            for (Transaction tx : received.getSubTxList()) {
+                if (subTxHashSet.add(tx.getHash())) {
+                    smallBlock.addBaseTx(tx);
+                }
+            }
+        }
+        temporaryCacheManager.cacheSmallBlock(smallBlock);
+        return new CompactBlockMessage(CompactBlockUtil.toCompactBlock(smallBlock));
+    }
 }
@@ -92,6 +92,20 @@ public class DownloadServiceImpl implements DownloadService {
         return Result.getSuccess().setData(txGroup);
     }
 
+    @Override
+    public Result<TxGroup> downloadCompactTxs(NulsDigestData blockHash, List<Integer> indexList, Node node) {
+        TxGroup txGroup = null;
+        try {
+            txGroup = DownloadUtils.getCompactTxs(blockHash, indexList, node);
+        } catch (Exception e) {
+            return Result.getFailed(e.getMessage());
+        }
+        if (txGroup == null) {
+            return Result.getFailed(KernelErrorCode.FAILED);
+        }
+        return Result.getSuccess().setData(txGroup);
+    }
+
     /**
      * 返回下载是否完成的结果
      * Returns the results of the download.
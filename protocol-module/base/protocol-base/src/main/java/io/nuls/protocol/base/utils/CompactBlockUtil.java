@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.protocol.base.utils;
+
+import io.nuls.kernel.model.NulsDigestData;
+import io.nuls.kernel.model.Transaction;
+import io.nuls.protocol.model.CompactBlock;
+import io.nuls.protocol.model.SmallBlock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 小区块与紧凑区块之间的转换
+ * The conversion between the small block and the compact block.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class CompactBlockUtil {
+
+    /**
+     * 将小区块转换为紧凑区块，小区块中的完整交易(共识交易及很可能缺少的交易)预先填充，其他交易用短ID表示
+     * Convert the small block to the compact block, the whole transactions of the small block (the consensus transactions
+     * and the likely missing ones) are prefilled, the other transactions are represented by short ids.
+     */
+    public static CompactBlock toCompactBlock(SmallBlock smallBlock) {
+        CompactBlock compactBlock = new CompactBlock();
+        compactBlock.setHeader(smallBlock.getHeader());
+        compactBlock.setNonce(ThreadLocalRandom.current().nextLong());
+
+        Map<NulsDigestData, Transaction> txMap = new HashMap<>();
+        for (Transaction tx : smallBlock.getSubTxList()) {
+            txMap.put(tx.getHash(), tx);
+        }
+        List<NulsDigestData> txHashList = smallBlock.getTxHashList();
+        List<Long> shortIdList = new ArrayList<>(txHashList.size());
+        for (int i = 0; i < txHashList.size(); i++) {
+            NulsDigestData hash = txHashList.get(i);
+            Transaction tx = txMap.get(hash);
+            if (null != tx) {
+                compactBlock.addPrefilledTx(i, tx);
+            } else {
+                shortIdList.add(compactBlock.getShortId(hash));
+            }
+        }
+        compactBlock.setShortIdList(shortIdList);
+        return compactBlock;
+    }
+}
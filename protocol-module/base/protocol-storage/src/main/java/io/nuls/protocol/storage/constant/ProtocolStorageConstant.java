@@ -45,9 +45,33 @@ public interface ProtocolStorageConstant {
      */
     String DB_NAME_BLOCK_HEADER = "block_header";
 
+    /**
+     * 完整区块的摘要到高度索引表名称
+     * The table name of the block hash to height index of the whole blocks.
+     */
+    String DB_NAME_BLOCK_BODY_INDEX = "block_body_index";
+
+    /**
+     * 完整区块分段文件所在的目录名称，位于数据库数据目录下
+     * The directory name of the whole block segment files, under the database data directory.
+     */
+    String BLOCK_SEGMENT_DIR = "block_segment";
+
+    /**
+     * 完整区块分段文件的大小
+     * The size of a whole block segment file.
+     */
+    int BLOCK_SEGMENT_SIZE = 128 * 1024 * 1024;
+
     /**
      * 数据库中存储的最新区块hash的索引值
      * The index value of the latest block hash stored in the database.
      */
     String BEST_BLOCK_HASH_INDEX = "best_block_hash_index";
+
+    /**
+     * 数据库中存储的正在提交的区块头的索引值
+     * The index value of the block header being committed stored in the database.
+     */
+    String COMMIT_MARKER_INDEX = "block_commit_marker_index";
 }
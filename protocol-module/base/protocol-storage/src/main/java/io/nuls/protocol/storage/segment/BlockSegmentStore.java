@@ -0,0 +1,411 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.protocol.storage.segment;
+
+import io.nuls.core.tools.log.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 只追加的区块分段文件存储，序列化后的区块按高度顺序写入固定大小的内存映射分段文件
+ * 高度索引文件记录每个高度的区块在分段文件中的位置，回滚时截断索引即可
+ * Append-only block segment store, serialized blocks are written in height order into fixed-size memory-mapped segment files.
+ * The height index file records the location of the block of every height, rolling back only truncates the index.
+ * <p>
+ * 分段文件中每条记录的格式/record format in the segment file: [int length][block hash][block bytes]
+ * 高度索引文件的格式/height index file format: [long firstHeight]([int segment][int offset][int length])*
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class BlockSegmentStore {
+
+    /**
+     * 区块摘要的序列化长度
+     * The serialized length of the block hash.
+     */
+    public static final int HASH_LENGTH = 34;
+
+    private static final String SEGMENT_FILE_FORMAT = "segment_%05d.dat";
+
+    private static final String INDEX_FILE_NAME = "height.idx";
+
+    private static final int INDEX_HEADER_SIZE = 8;
+
+    private static final int INDEX_ENTRY_SIZE = 12;
+
+    private static final int RECORD_HEADER_SIZE = 4 + HASH_LENGTH;
+
+    private final File dir;
+
+    private final int segmentSize;
+
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel indexChannel;
+
+    private long firstHeight;
+
+    private long count;
+
+    private int writeSegment;
+
+    private int writeOffset;
+
+    public BlockSegmentStore(File dir, int segmentSize) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * 打开存储，映射已有的分段文件，根据索引恢复写入位置，索引末尾不完整的条目会被丢弃
+     * Open the store, map the existing segment files and restore the write position from the index,
+     * an incomplete entry at the end of the index is discarded.
+     */
+    public void open() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (!dir.exists() && !dir.mkdirs()) {
+                throw new IOException("create block segment dir failed: " + dir.getPath());
+            }
+            for (int i = 0; ; i++) {
+                File file = segmentFile(i);
+                if (!file.exists()) {
+                    break;
+                }
+                segments.add(mapSegment(file));
+            }
+            indexChannel = new RandomAccessFile(new File(dir, INDEX_FILE_NAME), "rw").getChannel();
+            long indexSize = indexChannel.size();
+            if (indexSize < INDEX_HEADER_SIZE) {
+                resetIndex();
+                return;
+            }
+            ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_SIZE);
+            indexChannel.read(header, 0);
+            header.flip();
+            firstHeight = header.getLong();
+            count = (indexSize - INDEX_HEADER_SIZE) / INDEX_ENTRY_SIZE;
+            if (indexSize != indexPosition(count)) {
+                indexChannel.truncate(indexPosition(count));
+            }
+            // 最后一条记录所在分段文件缺失时，说明数据已损坏，从头开始
+            while (count > 0) {
+                int[] entry = readEntry(count - 1);
+                if (entry[0] < segments.size()) {
+                    break;
+                }
+                Log.warn("block segment " + entry[0] + " missing, truncate the height index");
+                count--;
+                indexChannel.truncate(indexPosition(count));
+            }
+            restoreWritePosition();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 关闭存储，将映射的分段文件刷到磁盘
+     * Close the store, flush the mapped segment files to disk.
+     */
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+            segments.clear();
+            if (null != indexChannel) {
+                indexChannel.force(true);
+                indexChannel.close();
+                indexChannel = null;
+            }
+        } catch (IOException e) {
+            Log.error(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        lock.readLock().lock();
+        try {
+            return count == 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 存储中的最低高度，存储为空时返回-1
+     * The lowest height in the store, -1 if the store is empty.
+     */
+    public long getFirstHeight() {
+        lock.readLock().lock();
+        try {
+            return count == 0 ? -1L : firstHeight;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 存储中的最高高度，存储为空时返回-1
+     * The highest height in the store, -1 if the store is empty.
+     */
+    public long getLastHeight() {
+        lock.readLock().lock();
+        try {
+            return count == 0 ? -1L : firstHeight + count - 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 在末尾追加一个区块，高度必须紧接最高高度，存储为空时可以从任意高度开始；
+     * 返回前分段文件和索引都已刷到磁盘，调用方随后写入的数据库索引不会指向丢失的区块
+     * Append a block at the end, the height must follow the highest height, an empty store can start at any height.
+     * The segment and the index are forced to disk before returning, so database rows written by the caller afterwards
+     * never point to a lost block.
+     *
+     * @param height    区块高度/block height
+     * @param hashBytes 序列化后的区块摘要/serialized block hash
+     * @param data      序列化后的区块/serialized block
+     */
+    public void append(long height, byte[] hashBytes, byte[] data) throws IOException {
+        if (null == hashBytes || hashBytes.length != HASH_LENGTH) {
+            throw new IllegalArgumentException("invalid block hash");
+        }
+        int recordSize = RECORD_HEADER_SIZE + data.length;
+        if (recordSize > segmentSize) {
+            throw new IOException("block is larger than the segment size: " + data.length);
+        }
+        lock.writeLock().lock();
+        try {
+            if (count == 0) {
+                firstHeight = height;
+                ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_SIZE);
+                header.putLong(height);
+                header.flip();
+                indexChannel.write(header, 0);
+            } else if (height != firstHeight + count) {
+                throw new IOException("block height " + height + " does not follow " + (firstHeight + count - 1));
+            }
+            if (writeOffset + recordSize > segmentSize) {
+                writeSegment++;
+                writeOffset = 0;
+            }
+            MappedByteBuffer segment = getSegment(writeSegment);
+            ByteBuffer buffer = segment.duplicate();
+            buffer.position(writeOffset);
+            buffer.putInt(data.length);
+            buffer.put(hashBytes);
+            buffer.put(data);
+            // 记录先落盘，再写索引条目，索引条目落盘后记录才生效
+            segment.force();
+            ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+            entry.putInt(writeSegment);
+            entry.putInt(writeOffset);
+            entry.putInt(data.length);
+            entry.flip();
+            indexChannel.write(entry, indexPosition(count));
+            indexChannel.force(false);
+            count++;
+            writeOffset += recordSize;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 读取指定高度的区块
+     * Read the block of the height.
+     *
+     * @return 序列化后的区块，不存在或记录损坏时返回null/serialized block, null if not exists or the record is broken
+     */
+    public byte[] read(long height) {
+        return read(height, null);
+    }
+
+    /**
+     * 读取指定高度的区块，并校验区块摘要
+     * Read the block of the height and check the block hash.
+     *
+     * @param hashBytes 期望的区块摘要，为null时不校验/expected block hash, not checked if null
+     * @return 序列化后的区块，不存在、摘要不符或记录损坏时返回null/serialized block, null if not exists, hash mismatch or the record is broken
+     */
+    public byte[] read(long height, byte[] hashBytes) {
+        lock.readLock().lock();
+        try {
+            if (count == 0 || height < firstHeight || height >= firstHeight + count) {
+                return null;
+            }
+            int[] entry = readEntry(height - firstHeight);
+            ByteBuffer buffer = segments.get(entry[0]).duplicate();
+            buffer.position(entry[1]);
+            if (buffer.getInt() != entry[2]) {
+                Log.warn("broken block segment record, height: " + height);
+                return null;
+            }
+            byte[] hash = new byte[HASH_LENGTH];
+            buffer.get(hash);
+            if (null != hashBytes && !Arrays.equals(hash, hashBytes)) {
+                return null;
+            }
+            byte[] data = new byte[entry[2]];
+            buffer.get(data);
+            return data;
+        } catch (Exception e) {
+            Log.error(e);
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 截断存储，删除指定高度及以上的所有区块，用于回滚
+     * Truncate the store, remove the blocks of the height and above, used to roll back.
+     *
+     * @param height 需要删除的最低高度/the lowest height to remove
+     * @return 被删除区块的摘要/hashes of the removed blocks
+     */
+    public List<byte[]> truncate(long height) throws IOException {
+        List<byte[]> hashList = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            if (count == 0 || height >= firstHeight + count) {
+                return hashList;
+            }
+            long newCount = Math.max(0L, height - firstHeight);
+            for (long i = newCount; i < count; i++) {
+                int[] entry = readEntry(i);
+                ByteBuffer buffer = segments.get(entry[0]).duplicate();
+                buffer.position(entry[1] + 4);
+                byte[] hash = new byte[HASH_LENGTH];
+                buffer.get(hash);
+                hashList.add(hash);
+            }
+            if (newCount == 0) {
+                resetIndex();
+            } else {
+                count = newCount;
+                indexChannel.truncate(indexPosition(count));
+                indexChannel.force(false);
+                restoreWritePosition();
+            }
+            return hashList;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 清空存储，分段文件保留下来供后续写入复用
+     * Clear the store, the segment files are kept to be reused by later writes.
+     */
+    public void clear() throws IOException {
+        lock.writeLock().lock();
+        try {
+            resetIndex();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void resetIndex() throws IOException {
+        indexChannel.truncate(0);
+        indexChannel.force(false);
+        firstHeight = 0;
+        count = 0;
+        writeSegment = 0;
+        writeOffset = 0;
+    }
+
+    private void restoreWritePosition() throws IOException {
+        if (count == 0) {
+            writeSegment = 0;
+            writeOffset = 0;
+            return;
+        }
+        int[] entry = readEntry(count - 1);
+        writeSegment = entry[0];
+        writeOffset = entry[1] + RECORD_HEADER_SIZE + entry[2];
+    }
+
+    private int[] readEntry(long index) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+        long position = indexPosition(index);
+        while (entry.hasRemaining()) {
+            if (indexChannel.read(entry, position + entry.position()) < 0) {
+                throw new IOException("height index is broken at " + index);
+            }
+        }
+        entry.flip();
+        return new int[]{entry.getInt(), entry.getInt(), entry.getInt()};
+    }
+
+    private long indexPosition(long index) {
+        return INDEX_HEADER_SIZE + index * INDEX_ENTRY_SIZE;
+    }
+
+    private MappedByteBuffer getSegment(int index) throws IOException {
+        while (segments.size() <= index) {
+            segments.add(mapSegment(segmentFile(segments.size())));
+        }
+        return segments.get(index);
+    }
+
+    private File segmentFile(int index) {
+        return new File(dir, String.format(SEGMENT_FILE_FORMAT, index));
+    }
+
+    /**
+     * 映射分段文件，文件不足分段大小时先扩展，映射建立后文件通道可以关闭
+     * Map the segment file, extend it first if it is smaller than the segment size,
+     * the file channel can be closed once the mapping is established.
+     */
+    private MappedByteBuffer mapSegment(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() < segmentSize) {
+                raf.setLength(segmentSize);
+            }
+            return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.nuls.protocol.storage.service;
+
+import io.nuls.kernel.model.NulsDigestData;
+import io.nuls.kernel.model.Result;
+
+/**
+ * 区块体存储服务接口，保存序列化后的完整区块，提供区块下载时不需要重新组装和序列化
+ * 区块按高度顺序追加到分段文件中，只能在末尾追加或从某个高度截断
+ * Block body storage service interface, stores the serialized whole block,
+ * so serving blocks to other nodes needs no reassembling and serializing.
+ * Blocks are appended to the segment files in height order, they can only be appended at the end or truncated from a height.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public interface BlockBodyStorageService {
+
+    /**
+     * 保存序列化后的完整区块，已存在该高度及以上的区块时先删除它们
+     * Save the serialized whole block, the blocks of the height and above are removed first if they exist.
+     *
+     * @param height 区块高度/block height
+     * @param hash   区块摘要/block hash
+     * @param bytes  序列化后的区块/serialized block
+     * @return 操作结果/operating result
+     */
+    Result saveBlockBytes(long height, NulsDigestData hash, byte[] bytes);
+
+    /**
+     * 根据区块高度获取序列化后的完整区块
+     * Get the serialized whole block according to the block height.
+     *
+     * @param height 区块高度/block height
+     * @return 序列化后的区块，不存在时返回null/serialized block, null if not exists
+     */
+    byte[] getBlockBytes(long height);
+
+    /**
+     * 根据区块摘要获取序列化后的完整区块
+     * Get the serialized whole block according to the block hash.
+     *
+     * @param hash 区块摘要/block hash
+     * @return 序列化后的区块，不存在时返回null/serialized block, null if not exists
+     */
+    byte[] getBlockBytes(NulsDigestData hash);
+
+    /**
+     * 删除指定高度及以上的所有完整区块，用于回滚
+     * Remove the serialized whole blocks of the height and above, used to roll back.
+     *
+     * @param height 需要删除的最低高度/the lowest height to remove
+     * @return 操作结果/operating result
+     */
+    Result removeBlockBytes(long height);
+}
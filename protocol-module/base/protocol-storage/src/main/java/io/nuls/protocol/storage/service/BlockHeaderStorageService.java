@@ -79,4 +79,26 @@ public interface BlockHeaderStorageService {
      * Get the latest block header.
      */
     BlockHeaderPo getBestBlockHeaderPo();
+
+    /**
+     * 保存区块提交标记，区块的数据全部写入后删除，启动时存在则说明上次提交中断
+     * Save the block commit marker, it is removed after all the data of the block is written.
+     * If it exists at startup, the last commit was interrupted.
+     *
+     * @param po 正在提交的区块头/the block header being committed
+     * @return 操作结果/operating result
+     */
+    Result saveCommitMarker(BlockHeaderPo po);
+
+    /**
+     * 获取区块提交标记，没有未完成的提交时返回null
+     * Get the block commit marker, null if there is no unfinished commit.
+     */
+    BlockHeaderPo getCommitMarker();
+
+    /**
+     * 删除区块提交标记
+     * Remove the block commit marker.
+     */
+    Result removeCommitMarker();
 }
@@ -0,0 +1,155 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.nuls.protocol.storage.service.impl;
+
+import io.nuls.core.tools.log.Log;
+import io.nuls.db.constant.DBErrorCode;
+import io.nuls.db.manager.LevelDBManager;
+import io.nuls.db.service.DBService;
+import io.nuls.kernel.constant.KernelErrorCode;
+import io.nuls.kernel.exception.NulsRuntimeException;
+import io.nuls.kernel.lite.annotation.Autowired;
+import io.nuls.kernel.lite.annotation.Service;
+import io.nuls.kernel.lite.core.bean.InitializingBean;
+import io.nuls.kernel.model.NulsDigestData;
+import io.nuls.kernel.model.Result;
+import io.nuls.kernel.utils.VarInt;
+import io.nuls.protocol.storage.constant.ProtocolStorageConstant;
+import io.nuls.protocol.storage.segment.BlockSegmentStore;
+import io.nuls.protocol.storage.service.BlockBodyStorageService;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 区块体存储服务实现类，区块保存在只追加的分段文件中，摘要到高度的索引保存在数据库中
+ * Block body storage service implementation class, blocks are kept in the append-only segment files,
+ * the hash to height index is kept in the database.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+@Service
+public class BlockBodyStorageServiceImpl implements BlockBodyStorageService, InitializingBean {
+
+    /**
+     * 通用数据存储服务
+     * Universal data storage services.
+     */
+    @Autowired
+    private DBService dbService;
+
+    private BlockSegmentStore segmentStore;
+
+    /**
+     * 创建存储表并打开分段文件，创建失败时如果是因为已存在则正常，否则抛出异常
+     * Create a storage table and open the segment files, or throw an exception if it is normal if it is already existing.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        Result result = this.dbService.createArea(ProtocolStorageConstant.DB_NAME_BLOCK_BODY_INDEX);
+        if (result.isFailed() && !DBErrorCode.DB_AREA_EXIST.equals(result.getErrorCode())) {
+            throw new NulsRuntimeException(result.getErrorCode());
+        }
+        try {
+            File dir = new File(LevelDBManager.loadDataPath(), ProtocolStorageConstant.BLOCK_SEGMENT_DIR);
+            segmentStore = new BlockSegmentStore(dir, ProtocolStorageConstant.BLOCK_SEGMENT_SIZE);
+            segmentStore.open();
+        } catch (Exception e) {
+            throw new NulsRuntimeException(e);
+        }
+    }
+
+    @Override
+    public Result saveBlockBytes(long height, NulsDigestData hash, byte[] bytes) {
+        if (null == hash || null == bytes) {
+            return Result.getFailed(KernelErrorCode.NULL_PARAMETER);
+        }
+        try {
+            byte[] hashBytes = hash.serialize();
+            long lastHeight = segmentStore.getLastHeight();
+            if (lastHeight >= 0 && height <= lastHeight) {
+                Result result = removeBlockBytes(height);
+                if (result.isFailed()) {
+                    return result;
+                }
+            } else if (lastHeight >= 0 && height > lastHeight + 1) {
+                // 高度不连续时无法追加，清空后从该高度重新开始，同时删除旧区块的摘要索引，更低的区块由调用方自行组装
+                // The height gap cannot be appended, clear the store and restart at the height, the hash index rows of
+                // the old blocks are deleted too, lower blocks are assembled by the caller
+                Log.warn("block segment store restarts at height " + height + ", last height: " + lastHeight);
+                Result result = removeBlockBytes(segmentStore.getFirstHeight());
+                if (result.isFailed()) {
+                    return result;
+                }
+            }
+            // 分段文件在append返回前已落盘，随后写入的摘要索引和区块头不会指向丢失的区块
+            segmentStore.append(height, hashBytes, bytes);
+            return dbService.put(ProtocolStorageConstant.DB_NAME_BLOCK_BODY_INDEX, hashBytes, new VarInt(height).encode());
+        } catch (IOException e) {
+            Log.error(e);
+            return Result.getFailed(KernelErrorCode.IO_ERROR);
+        }
+    }
+
+    @Override
+    public byte[] getBlockBytes(long height) {
+        return segmentStore.read(height);
+    }
+
+    @Override
+    public byte[] getBlockBytes(NulsDigestData hash) {
+        if (null == hash) {
+            return null;
+        }
+        try {
+            byte[] hashBytes = hash.serialize();
+            byte[] heightBytes = dbService.get(ProtocolStorageConstant.DB_NAME_BLOCK_BODY_INDEX, hashBytes);
+            if (null == heightBytes) {
+                return null;
+            }
+            return segmentStore.read(new VarInt(heightBytes, 0).value, hashBytes);
+        } catch (IOException e) {
+            Log.error(e);
+            return null;
+        }
+    }
+
+    @Override
+    public Result removeBlockBytes(long height) {
+        try {
+            List<byte[]> hashList = segmentStore.truncate(height);
+            for (byte[] hashBytes : hashList) {
+                dbService.delete(ProtocolStorageConstant.DB_NAME_BLOCK_BODY_INDEX, hashBytes);
+            }
+            return Result.getSuccess();
+        } catch (IOException e) {
+            Log.error(e);
+            return Result.getFailed(KernelErrorCode.IO_ERROR);
+        }
+    }
+}
@@ -25,8 +25,10 @@
 
 package io.nuls.protocol.storage.service.impl;
 
+import io.nuls.core.tools.array.ArraysTool;
 import io.nuls.core.tools.log.Log;
 import io.nuls.db.constant.DBErrorCode;
+import io.nuls.db.service.BatchOperation;
 import io.nuls.db.service.DBService;
 import io.nuls.kernel.constant.KernelErrorCode;
 import io.nuls.kernel.exception.NulsException;
@@ -36,6 +38,7 @@ import io.nuls.kernel.lite.annotation.Service;
 import io.nuls.kernel.lite.core.bean.InitializingBean;
 import io.nuls.kernel.model.NulsDigestData;
 import io.nuls.kernel.model.Result;
+import io.nuls.kernel.utils.NulsByteBuffer;
 import io.nuls.kernel.utils.VarInt;
 import io.nuls.protocol.storage.constant.ProtocolStorageConstant;
 import io.nuls.protocol.storage.po.BlockHeaderPo;
@@ -56,6 +59,8 @@ public class BlockHeaderStorageServiceImpl implements BlockHeaderStorageService,
 
     private byte[] BEST_BLOCK_KEY;
 
+    private byte[] COMMIT_MARKER_KEY;
+
     /**
      * 通用数据存储服务
      * Universal data storage services.
@@ -79,6 +84,7 @@ public class BlockHeaderStorageServiceImpl implements BlockHeaderStorageService,
         }
         try {
             BEST_BLOCK_KEY = NulsDigestData.calcDigestData(ProtocolStorageConstant.BEST_BLOCK_HASH_INDEX.getBytes()).serialize();
+            COMMIT_MARKER_KEY = NulsDigestData.calcDigestData(ProtocolStorageConstant.COMMIT_MARKER_INDEX.getBytes()).serialize();
         } catch (IOException e) {
             throw new NulsRuntimeException(e.getCause());
         }
@@ -180,12 +186,15 @@ public class BlockHeaderStorageServiceImpl implements BlockHeaderStorageService,
         if (result.isFailed()) {
             return result;
         }
-        result = dbService.put(ProtocolStorageConstant.DB_NAME_BLOCK_HEADER_INDEX, new VarInt(po.getHeight()).encode(), hashBytes);
+        // 高度索引和最新区块在一次批量中写入
+        BatchOperation batch = dbService.createWriteBatch(ProtocolStorageConstant.DB_NAME_BLOCK_HEADER_INDEX);
+        batch.put(new VarInt(po.getHeight()).encode(), hashBytes);
+        batch.put(BEST_BLOCK_KEY, hashBytes);
+        result = batch.executeBatch();
         if (result.isFailed()) {
             this.removeBlockHerader(hashBytes);
             return result;
         }
-        dbService.put(ProtocolStorageConstant.DB_NAME_BLOCK_HEADER_INDEX, BEST_BLOCK_KEY, hashBytes);
         return Result.getSuccess();
     }
 
@@ -235,4 +244,45 @@ public class BlockHeaderStorageServiceImpl implements BlockHeaderStorageService,
         return getBlockHeaderPo(hashBytes);
     }
 
+
+    /**
+     * 保存区块提交标记，内容为区块hash加区块头数据
+     * Save the block commit marker, the content is the block hash followed by the block header data.
+     */
+    @Override
+    public Result saveCommitMarker(BlockHeaderPo po) {
+        if (null == po || null == po.getHash()) {
+            return Result.getFailed(KernelErrorCode.NULL_PARAMETER);
+        }
+        try {
+            byte[] bytes = ArraysTool.joinintTogether(po.getHash().serialize(), po.serialize());
+            return dbService.put(ProtocolStorageConstant.DB_NAME_BLOCK_HEADER_INDEX, COMMIT_MARKER_KEY, bytes);
+        } catch (IOException e) {
+            Log.error(e);
+            return Result.getFailed(e.getMessage());
+        }
+    }
+
+    @Override
+    public BlockHeaderPo getCommitMarker() {
+        byte[] bytes = dbService.get(ProtocolStorageConstant.DB_NAME_BLOCK_HEADER_INDEX, COMMIT_MARKER_KEY);
+        if (null == bytes) {
+            return null;
+        }
+        try {
+            NulsByteBuffer buffer = new NulsByteBuffer(bytes);
+            NulsDigestData hash = buffer.readHash();
+            BlockHeaderPo po = buffer.readNulsData(new BlockHeaderPo());
+            po.setHash(hash);
+            return po;
+        } catch (NulsException e) {
+            Log.error(e);
+            return null;
+        }
+    }
+
+    @Override
+    public Result removeCommitMarker() {
+        return dbService.delete(ProtocolStorageConstant.DB_NAME_BLOCK_HEADER_INDEX, COMMIT_MARKER_KEY);
+    }
 }
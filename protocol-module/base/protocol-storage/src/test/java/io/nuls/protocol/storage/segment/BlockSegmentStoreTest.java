@@ -0,0 +1,162 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.protocol.storage.segment;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 区块分段文件存储单元测试类
+ * Block segment store unit test class.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class BlockSegmentStoreTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    private File dir;
+
+    private BlockSegmentStore store;
+
+    @Before
+    public void init() throws IOException {
+        dir = new File(System.getProperty("java.io.tmpdir"), "block_segment_test_" + System.nanoTime());
+        store = new BlockSegmentStore(dir, SEGMENT_SIZE);
+        store.open();
+    }
+
+    @After
+    public void destroy() {
+        store.close();
+        File[] files = dir.listFiles();
+        if (null != files) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    /**
+     * 追加的区块可以按高度和摘要读出，记录放不下时写入下一个分段文件
+     * Appended blocks can be read by height and hash, a record that does not fit goes to the next segment file.
+     */
+    @Test
+    public void appendAndRead() throws IOException {
+        assertTrue(store.isEmpty());
+        for (long height = 100; height < 110; height++) {
+            store.append(height, hash(height), data(height, 300));
+        }
+        assertEquals(100L, store.getFirstHeight());
+        assertEquals(109L, store.getLastHeight());
+        for (long height = 100; height < 110; height++) {
+            assertArrayEquals(data(height, 300), store.read(height));
+            assertArrayEquals(data(height, 300), store.read(height, hash(height)));
+        }
+        assertNull(store.read(99L));
+        assertNull(store.read(110L));
+        assertNull(store.read(105L, hash(106L)));
+        assertTrue(new File(dir, "segment_00003.dat").exists());
+    }
+
+    /**
+     * 追加的高度必须连续
+     * The appended height must be continuous.
+     */
+    @Test(expected = IOException.class)
+    public void appendGap() throws IOException {
+        store.append(1L, hash(1L), data(1L, 10));
+        store.append(3L, hash(3L), data(3L, 10));
+    }
+
+    /**
+     * 截断后返回被删除区块的摘要，并可以从截断处继续追加
+     * Truncating returns the hashes of the removed blocks, and appending continues from the truncated height.
+     */
+    @Test
+    public void truncate() throws IOException {
+        for (long height = 0; height < 10; height++) {
+            store.append(height, hash(height), data(height, 200));
+        }
+        List<byte[]> hashList = store.truncate(7L);
+        assertEquals(3, hashList.size());
+        assertArrayEquals(hash(7L), hashList.get(0));
+        assertArrayEquals(hash(9L), hashList.get(2));
+        assertEquals(6L, store.getLastHeight());
+        assertNull(store.read(7L));
+
+        store.append(7L, hash(70L), data(70L, 500));
+        assertArrayEquals(data(70L, 500), store.read(7L, hash(70L)));
+        assertArrayEquals(data(6L, 200), store.read(6L));
+
+        store.truncate(0L);
+        assertTrue(store.isEmpty());
+        store.append(50L, hash(50L), data(50L, 10));
+        assertEquals(50L, store.getFirstHeight());
+    }
+
+    /**
+     * 重新打开后数据和写入位置可以恢复
+     * Data and the write position are restored after reopening.
+     */
+    @Test
+    public void reopen() throws IOException {
+        for (long height = 0; height < 5; height++) {
+            store.append(height, hash(height), data(height, 400));
+        }
+        store.close();
+        store = new BlockSegmentStore(dir, SEGMENT_SIZE);
+        store.open();
+        assertEquals(4L, store.getLastHeight());
+        assertArrayEquals(data(3L, 400), store.read(3L));
+        store.append(5L, hash(5L), data(5L, 400));
+        assertArrayEquals(data(4L, 400), store.read(4L));
+        assertArrayEquals(data(5L, 400), store.read(5L));
+    }
+
+    private byte[] hash(long height) {
+        byte[] hash = new byte[BlockSegmentStore.HASH_LENGTH];
+        Arrays.fill(hash, (byte) height);
+        return hash;
+    }
+
+    private byte[] data(long height, int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (height + i);
+        }
+        return data;
+    }
+}
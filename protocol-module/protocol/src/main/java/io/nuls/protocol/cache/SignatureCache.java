@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.protocol.cache;
+
+import io.nuls.core.tools.crypto.Sha256Hash;
+import io.nuls.kernel.model.NulsDigestData;
+
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 已验证签名缓存，保存验证通过的(交易hash, 公钥, 签名)，交易入池时验证过的签名在区块验证时不再重复做ECDSA验证。
+ * 分两代保存，当前一代满了之后整体替换上一代，占用有上限且读写都不加锁
+ * The verified signature cache, keeps the (tx hash, public key, signature) triples that passed verification, so the
+ * signatures verified when the tx entered the pool skip ECDSA when the block is verified.
+ * Kept in two generations, the full current generation replaces the previous one, bounded and lock-free for reads and writes.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public final class SignatureCache {
+
+    private static final int DEFAULT_GENERATION_SIZE = 100000;
+
+    private static final SignatureCache INSTANCE = new SignatureCache(DEFAULT_GENERATION_SIZE);
+
+    private final int generationSize;
+
+    private volatile Set<ByteBuffer> current = ConcurrentHashMap.newKeySet();
+
+    private volatile Set<ByteBuffer> previous = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    SignatureCache(int generationSize) {
+        this.generationSize = generationSize;
+    }
+
+    public static SignatureCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 签名是否已验证通过，计入命中率，由区块验证使用
+     * Whether the signature has passed verification, counted in the hit rate, used by the block verification.
+     */
+    public boolean contains(NulsDigestData txHash, byte[] publicKey, byte[] signBytes) {
+        if (peek(txHash, publicKey, signBytes)) {
+            hitCount.incrementAndGet();
+            return true;
+        }
+        missCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * 签名是否已验证通过，不计入命中率
+     * Whether the signature has passed verification, not counted in the hit rate.
+     */
+    public boolean peek(NulsDigestData txHash, byte[] publicKey, byte[] signBytes) {
+        ByteBuffer key = getKey(txHash, publicKey, signBytes);
+        return current.contains(key) || previous.contains(key);
+    }
+
+    /**
+     * 记录一个验证通过的签名
+     * Records a signature that passed verification.
+     */
+    public void add(NulsDigestData txHash, byte[] publicKey, byte[] signBytes) {
+        if (current.size() >= generationSize) {
+            rotate();
+        }
+        current.add(getKey(txHash, publicKey, signBytes));
+    }
+
+    private synchronized void rotate() {
+        if (current.size() >= generationSize) {
+            previous = current;
+            current = ConcurrentHashMap.newKeySet();
+        }
+    }
+
+    /**
+     * 三者拼接后的sha256，任何一项不同都不会命中
+     * The sha256 of the three joined, any difference misses.
+     */
+    private ByteBuffer getKey(NulsDigestData txHash, byte[] publicKey, byte[] signBytes) {
+        byte[] hashBytes = txHash.getDigestBytes();
+        byte[] input = new byte[hashBytes.length + 1 + publicKey.length + signBytes.length];
+        System.arraycopy(hashBytes, 0, input, 0, hashBytes.length);
+        input[hashBytes.length] = (byte) publicKey.length;
+        System.arraycopy(publicKey, 0, input, hashBytes.length + 1, publicKey.length);
+        System.arraycopy(signBytes, 0, input, hashBytes.length + 1 + publicKey.length, signBytes.length);
+        return ByteBuffer.wrap(Sha256Hash.hash(input));
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * 命中率，没有查询时为0
+     * The hit rate, 0 before any lookup.
+     */
+    public double getHitRate() {
+        long hit = hitCount.get();
+        long total = hit + missCount.get();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    public int size() {
+        return current.size() + previous.size();
+    }
+
+    public void clear() {
+        current = ConcurrentHashMap.newKeySet();
+        previous = ConcurrentHashMap.newKeySet();
+        hitCount.set(0);
+        missCount.set(0);
+    }
+}
@@ -24,13 +24,19 @@
  */
 package io.nuls.protocol.cache;
 
+import com.github.benmanes.caffeine.cache.Weigher;
 import io.nuls.cache.CacheMap;
+import io.nuls.cache.model.CacheMapParams;
 import io.nuls.kernel.model.NulsDigestData;
 import io.nuls.kernel.model.Transaction;
 import io.nuls.protocol.model.SmallBlock;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
 
 /**
  * Used for sharing temporary data between multiple hander.
@@ -42,10 +48,10 @@ import java.util.Map;
 public class TemporaryCacheManager {
     private static final TemporaryCacheManager INSTANCE = new TemporaryCacheManager();
 
-    private CacheMap<NulsDigestData, SmallBlock> smallBlockCacheMap = new CacheMap<>("temp-small-block-cache", 16, NulsDigestData.class, SmallBlock.class, 1000, 0, null);
+    private CacheMap<NulsDigestData, SmallBlock> smallBlockCacheMap = new CacheMap<>("temp-small-block-cache", createSmallBlockCacheParams());
 //    private CacheMap<NulsDigestData, Transaction> txCacheMap = new CacheMap<>("temp-tx-cache", 128, NulsDigestData.class, Transaction.class, 0, 3600);
 
-    private Map<NulsDigestData, Transaction> txCacheMap = new HashMap<>();
+    private Map<NulsDigestData, Transaction> txCacheMap = new ConcurrentHashMap<>();
 
     private TemporaryCacheManager() {
     }
@@ -54,6 +60,16 @@ public class TemporaryCacheManager {
         return INSTANCE;
     }
 
+    /**
+     * SmallBlock按序列化大小计算权重，缓存占用不超过16MB
+     * The SmallBlocks are weighed by the serialized size, so the cache holds no more than 16MB.
+     */
+    private static CacheMapParams createSmallBlockCacheParams() {
+        CacheMapParams params = new CacheMapParams(16, NulsDigestData.class, SmallBlock.class, 1000, 0, null, null);
+        params.setWeigher((Weigher<NulsDigestData, SmallBlock>) (hash, smallBlock) -> Math.max(1, smallBlock.size()));
+        return params;
+    }
+
     /**
      * 将一个SmallBlock放入内存中，若不主动删除，则在缓存存满或者存在时间超过1000秒时，自动清理
      * <p>
@@ -102,6 +118,30 @@ public class TemporaryCacheManager {
         return txCacheMap.get(hash);
     }
 
+    /**
+     * 获取缓存中的所有交易，用于还原紧凑区块
+     * Get all the cached transactions, used to rebuild the compact blocks.
+     */
+    public List<Transaction> getTxList() {
+        return new ArrayList<>(txCacheMap.values());
+    }
+
+    /**
+     * 按短ID查找缓存中的交易，已找到全部短ID时停止，已找到的短ID不覆盖
+     * Find the cached txs by short id, stops once every short id is found, a short id already found is not replaced.
+     */
+    public void findTxsByShortId(Set<Long> shortIdSet, ToLongFunction<NulsDigestData> shortIdFunction, Map<Long, Transaction> txMap) {
+        for (Map.Entry<NulsDigestData, Transaction> entry : txCacheMap.entrySet()) {
+            if (txMap.size() >= shortIdSet.size()) {
+                return;
+            }
+            long shortId = shortIdFunction.applyAsLong(entry.getKey());
+            if (shortIdSet.contains(shortId)) {
+                txMap.putIfAbsent(shortId, entry.getValue());
+            }
+        }
+    }
+
     /**
      * 根据区块摘要对象从缓存中移出一个SmallBlock，移除后再获取时将返回null
      * A SmallBlock is removed from the cache based on the block summary object, and null is returned when it is removed.
@@ -154,4 +154,14 @@ public interface ProtocolConstant extends NulsConstant {
      * Request reply message type, used to immediately know if the target node received this request
      */
     short REQUEST_REACT = 16;
+    /**
+     * 新紧凑区块的消息类型
+     * The message type of the new compact block
+     */
+    short MESSAGE_TYPE_COMPACT_BLOCK = 17;
+    /**
+     * 按序号获取紧凑区块中交易的消息类型
+     * The message type of getting the transactions of a compact block by index
+     */
+    short MESSAGE_TYPE_GET_COMPACT_TXS = 18;
 }
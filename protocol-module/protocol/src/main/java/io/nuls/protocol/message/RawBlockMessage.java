@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.protocol.message;
+
+import io.nuls.core.tools.log.Log;
+import io.nuls.kernel.exception.NulsException;
+import io.nuls.kernel.model.Block;
+import io.nuls.kernel.utils.NulsByteBuffer;
+import io.nuls.kernel.utils.NulsOutputStreamBuffer;
+
+import java.io.IOException;
+
+/**
+ * 直接承载序列化后区块的区块消息，提供区块下载时不需要重新组装和序列化区块
+ * 网络上的格式与{@link BlockMessage}完全相同，接收方仍按{@link BlockMessage}解析
+ * The block message carrying the serialized block directly, so serving blocks needs no reassembling and serializing.
+ * The wire format is exactly the same as {@link BlockMessage}, the receiver still parses it as a {@link BlockMessage}.
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class RawBlockMessage extends BlockMessage {
+
+    private byte[] blockBytes;
+
+    public RawBlockMessage(byte[] blockBytes) {
+        super();
+        this.blockBytes = blockBytes;
+    }
+
+    @Override
+    protected void serializeToStream(NulsOutputStreamBuffer stream) throws IOException {
+        getHeader().serializeTo(stream);
+        stream.write(blockBytes);
+    }
+
+    @Override
+    public int size() {
+        return getHeader().size() + blockBytes.length;
+    }
+
+    @Override
+    public byte caculateXor() {
+        if (getHeader() == null || blockBytes == null) {
+            return 0x00;
+        }
+        byte xor = 0x00;
+        for (int i = 0; i < blockBytes.length; i++) {
+            xor ^= blockBytes[i];
+        }
+        getHeader().setXor(xor);
+        return xor;
+    }
+
+    /**
+     * 只有需要区块对象时才解析
+     * Parse the block only when the block object is needed.
+     */
+    @Override
+    public Block getMsgBody() {
+        Block block = super.getMsgBody();
+        if (null == block && null != blockBytes) {
+            try {
+                block = new NulsByteBuffer(blockBytes).readNulsData(new Block());
+                super.setMsgBody(block);
+            } catch (NulsException e) {
+                Log.error(e);
+            }
+        }
+        return block;
+    }
+
+    public byte[] getBlockBytes() {
+        return blockBytes;
+    }
+}
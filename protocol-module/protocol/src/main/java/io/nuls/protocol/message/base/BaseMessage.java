@@ -31,6 +31,7 @@ import io.nuls.kernel.utils.NulsByteBuffer;
 import io.nuls.kernel.utils.NulsOutputStreamBuffer;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * 所有网络上传输的消息的基类，定义了网络消息的基本格式
@@ -64,8 +65,11 @@ public abstract class BaseMessage<T extends BaseNulsData> extends BaseNulsData {
      */
     @Override
     protected void serializeToStream(NulsOutputStreamBuffer stream) throws IOException {
-        stream.write(header.serialize());
-        stream.write(msgBody.serialize());
+        // 消息头声明消息体长度，接收方解析失败时才能按该长度跳过这条消息
+        // declare the body length in the header, so the receiver can skip this message when it fails to parse it
+        header.setLength(msgBody.size());
+        header.serializeTo(stream);
+        msgBody.serializeTo(stream);
     }
 
     @Override
@@ -97,16 +101,13 @@ public abstract class BaseMessage<T extends BaseNulsData> extends BaseNulsData {
         if (header == null || msgBody == null) {
             return 0x00;
         }
-        byte xor = 0x00;
-        byte[] data = new byte[0];
+        XorOutputStream out = new XorOutputStream();
         try {
-            data = msgBody.serialize();
+            msgBody.serializeTo(new NulsOutputStreamBuffer(out));
         } catch (IOException e) {
             Log.error(e);
         }
-        for (int i = 0; i < data.length; i++) {
-            xor ^= data[i];
-        }
+        byte xor = out.getXor();
         header.setXor(xor);
         return xor;
     }
@@ -138,4 +139,29 @@ public abstract class BaseMessage<T extends BaseNulsData> extends BaseNulsData {
         return hash;
     }
 
+    /**
+     * 只累计异或值的输出流，计算校验值时不再生成消息体的字节数组
+     * An output stream that only accumulates the xor value, the msgBody bytes are not materialized when calculating the check value.
+     */
+    private static class XorOutputStream extends OutputStream {
+
+        private byte xor = 0x00;
+
+        @Override
+        public void write(int b) {
+            xor ^= (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                xor ^= b[i];
+            }
+        }
+
+        public byte getXor() {
+            return xor;
+        }
+    }
+
 }
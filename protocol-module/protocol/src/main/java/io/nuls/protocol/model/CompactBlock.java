@@ -0,0 +1,244 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.protocol.model;
+
+import io.nuls.core.tools.crypto.Sha256Hash;
+import io.nuls.core.tools.crypto.SipHash;
+import io.nuls.kernel.exception.NulsException;
+import io.nuls.kernel.model.BaseNulsData;
+import io.nuls.kernel.model.BlockHeader;
+import io.nuls.kernel.model.NulsDigestData;
+import io.nuls.kernel.model.Transaction;
+import io.nuls.kernel.utils.NulsByteBuffer;
+import io.nuls.kernel.utils.NulsOutputStreamBuffer;
+import io.nuls.kernel.utils.SerializeUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 紧凑区块，用于新区块的广播和转发
+ * 区块中的交易用加盐的6字节短ID表示，接收方用交易池和临时缓存中的交易还原区块，
+ * 其他节点一定没有或很可能没有的交易(如共识奖励交易)直接预先填充，还原时缺少的交易按序号向发送方请求
+ * 2000笔交易的区块，交易摘要列表从约68KB减少到约12KB
+ * <p>
+ * The compact block, used to broadcast and forward the new block.
+ * The transactions of the block are represented by salted 6-byte short ids, the receiver rebuilds the block
+ * with the transactions in the tx pool and the temporary cache, the transactions that other nodes must not have
+ * or are likely missing (such as the coinbase) are prefilled, the missing ones are requested from the sender by index.
+ * For a block of 2000 transactions the hash list shrinks from about 68KB to about 12KB.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class CompactBlock extends BaseNulsData {
+
+    public static final int SHORT_ID_LENGTH = 6;
+
+    private static final long SHORT_ID_MASK = 0xFFFFFFFFFFFFL;
+
+    /**
+     * 区块头
+     * block header
+     */
+    private BlockHeader header;
+
+    /**
+     * 计算短ID的盐，每次发送随机生成
+     * The salt of the short ids, random for every sending.
+     */
+    private long nonce;
+
+    /**
+     * 未预先填充的交易的短ID，按区块中的顺序排列
+     * The short ids of the transactions not prefilled, in the order of the block.
+     */
+    private List<Long> shortIdList = new ArrayList<>();
+
+    /**
+     * 预先填充的交易在区块中的序号，递增
+     * The indexes in the block of the prefilled transactions, increasing.
+     */
+    private List<Integer> prefilledIndexList = new ArrayList<>();
+
+    /**
+     * 预先填充的交易
+     * The prefilled transactions.
+     */
+    private List<Transaction> prefilledTxList = new ArrayList<>();
+
+    private transient long k0;
+
+    private transient long k1;
+
+    private transient boolean keyReady;
+
+    public CompactBlock() {
+    }
+
+    @Override
+    public int size() {
+        int size = header.size();
+        size += SerializeUtils.sizeOfInt64();
+        size += SerializeUtils.sizeOfVarInt(shortIdList.size());
+        size += shortIdList.size() * SHORT_ID_LENGTH;
+        size += SerializeUtils.sizeOfVarInt(prefilledTxList.size());
+        for (int i = 0; i < prefilledTxList.size(); i++) {
+            size += SerializeUtils.sizeOfVarInt(prefilledIndexList.get(i));
+            size += SerializeUtils.sizeOfNulsData(prefilledTxList.get(i));
+        }
+        return size;
+    }
+
+    @Override
+    protected void serializeToStream(NulsOutputStreamBuffer stream) throws IOException {
+        stream.writeNulsData(header);
+        stream.writeInt64(nonce);
+        stream.writeVarInt(shortIdList.size());
+        byte[] bytes = new byte[SHORT_ID_LENGTH];
+        for (Long shortId : shortIdList) {
+            for (int i = 0; i < SHORT_ID_LENGTH; i++) {
+                bytes[i] = (byte) (shortId >>> (8 * i));
+            }
+            stream.write(bytes);
+        }
+        stream.writeVarInt(prefilledTxList.size());
+        for (int i = 0; i < prefilledTxList.size(); i++) {
+            stream.writeVarInt(prefilledIndexList.get(i));
+            stream.writeNulsData(prefilledTxList.get(i));
+        }
+    }
+
+    @Override
+    protected void parse(NulsByteBuffer byteBuffer) throws NulsException {
+        this.header = byteBuffer.readNulsData(new BlockHeader());
+        this.nonce = byteBuffer.readInt64();
+
+        long shortIdCount = byteBuffer.readVarInt();
+        this.shortIdList = new ArrayList<>();
+        for (int i = 0; i < shortIdCount; i++) {
+            // readUint48把全1当作-1且不移动游标，短ID可能是任意值，这里自行解码
+            // readUint48 treats all ones as -1 without moving the cursor, a short id can be any value so it is decoded here
+            byte[] bytes = byteBuffer.readBytes(SHORT_ID_LENGTH);
+            long shortId = 0;
+            for (int j = SHORT_ID_LENGTH - 1; j >= 0; j--) {
+                shortId = (shortId << 8) | (bytes[j] & 0xFFL);
+            }
+            this.shortIdList.add(shortId);
+        }
+
+        long prefilledCount = byteBuffer.readVarInt();
+        this.prefilledIndexList = new ArrayList<>();
+        this.prefilledTxList = new ArrayList<>();
+        for (int i = 0; i < prefilledCount; i++) {
+            this.prefilledIndexList.add((int) byteBuffer.readVarInt());
+            Transaction tx = byteBuffer.readTransaction();
+            tx.setBlockHeight(header.getHeight());
+            this.prefilledTxList.add(tx);
+        }
+        this.keyReady = false;
+    }
+
+    /**
+     * 计算交易的短ID：以sha256(区块hash + nonce)的前16字节为密钥，对交易hash做SipHash-2-4，取低48位
+     * Calculate the short id of the transaction: SipHash-2-4 of the tx hash keyed by the first 16 bytes of
+     * sha256(block hash + nonce), the low 48 bits are kept.
+     */
+    public long getShortId(NulsDigestData txHash) {
+        if (!keyReady) {
+            initKey();
+        }
+        return SipHash.hash24(k0, k1, txHash.getDigestBytes()) & SHORT_ID_MASK;
+    }
+
+    private void initKey() {
+        byte[] blockHash = header.getHash().getDigestBytes();
+        byte[] input = new byte[blockHash.length + 8];
+        System.arraycopy(blockHash, 0, input, 0, blockHash.length);
+        for (int i = 0; i < 8; i++) {
+            input[blockHash.length + i] = (byte) (nonce >>> (8 * i));
+        }
+        byte[] key = Sha256Hash.hash(input);
+        this.k0 = SipHash.readLongLE(key, 0);
+        this.k1 = SipHash.readLongLE(key, 8);
+        this.keyReady = true;
+    }
+
+    /**
+     * 区块中的交易总数
+     * The count of all the transactions of the block.
+     */
+    public int getTxCount() {
+        return shortIdList.size() + prefilledTxList.size();
+    }
+
+    /**
+     * 添加一个预先填充的交易，序号需要递增
+     * Add a prefilled transaction, the index must be increasing.
+     */
+    public void addPrefilledTx(int index, Transaction tx) {
+        this.prefilledIndexList.add(index);
+        this.prefilledTxList.add(tx);
+    }
+
+    /**
+     * 区块头
+     * block header
+     */
+    public BlockHeader getHeader() {
+        return header;
+    }
+
+    public void setHeader(BlockHeader header) {
+        this.header = header;
+        this.keyReady = false;
+    }
+
+    public long getNonce() {
+        return nonce;
+    }
+
+    public void setNonce(long nonce) {
+        this.nonce = nonce;
+        this.keyReady = false;
+    }
+
+    public List<Long> getShortIdList() {
+        return shortIdList;
+    }
+
+    public void setShortIdList(List<Long> shortIdList) {
+        this.shortIdList = shortIdList;
+    }
+
+    public List<Integer> getPrefilledIndexList() {
+        return prefilledIndexList;
+    }
+
+    public List<Transaction> getPrefilledTxList() {
+        return prefilledTxList;
+    }
+}
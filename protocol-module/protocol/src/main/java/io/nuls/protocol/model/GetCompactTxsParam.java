@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.protocol.model;
+
+import io.nuls.kernel.exception.NulsException;
+import io.nuls.kernel.model.BaseNulsData;
+import io.nuls.kernel.model.NulsDigestData;
+import io.nuls.kernel.utils.NulsByteBuffer;
+import io.nuls.kernel.utils.NulsOutputStreamBuffer;
+import io.nuls.kernel.utils.SerializeUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按序号请求紧凑区块中缺少的交易的数据封装
+ * The data encapsulation of requesting the missing transactions of a compact block by index.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class GetCompactTxsParam extends BaseNulsData {
+
+    /**
+     * 区块hash
+     * block hash
+     */
+    private NulsDigestData blockHash;
+
+    /**
+     * 请求的交易在区块中的序号
+     * The indexes in the block of the requested transactions.
+     */
+    private List<Integer> indexList = new ArrayList<>();
+
+    public GetCompactTxsParam() {
+    }
+
+    @Override
+    public int size() {
+        int size = SerializeUtils.sizeOfNulsData(blockHash);
+        size += SerializeUtils.sizeOfVarInt(indexList.size());
+        for (Integer index : indexList) {
+            size += SerializeUtils.sizeOfVarInt(index);
+        }
+        return size;
+    }
+
+    @Override
+    protected void serializeToStream(NulsOutputStreamBuffer stream) throws IOException {
+        stream.writeNulsData(blockHash);
+        stream.writeVarInt(indexList.size());
+        for (Integer index : indexList) {
+            stream.writeVarInt(index);
+        }
+    }
+
+    @Override
+    protected void parse(NulsByteBuffer byteBuffer) throws NulsException {
+        this.blockHash = byteBuffer.readHash();
+        long count = byteBuffer.readVarInt();
+        this.indexList = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            this.indexList.add((int) byteBuffer.readVarInt());
+        }
+    }
+
+    public NulsDigestData getBlockHash() {
+        return blockHash;
+    }
+
+    public void setBlockHash(NulsDigestData blockHash) {
+        this.blockHash = blockHash;
+    }
+
+    public List<Integer> getIndexList() {
+        return indexList;
+    }
+
+    public void setIndexList(List<Integer> indexList) {
+        this.indexList = indexList;
+    }
+}
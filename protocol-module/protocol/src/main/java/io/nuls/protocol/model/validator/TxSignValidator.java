@@ -31,6 +31,7 @@ import io.nuls.kernel.script.P2PKHScriptSig;
 import io.nuls.kernel.utils.NulsByteBuffer;
 import io.nuls.kernel.validate.NulsDataValidator;
 import io.nuls.kernel.validate.ValidateResult;
+import io.nuls.protocol.cache.SignatureCache;
 
 import java.io.IOException;
 
@@ -54,7 +55,18 @@ public class TxSignValidator implements NulsDataValidator<Transaction> {
             return ValidateResult.getFailedResult(this.getClass().getName(), KernelErrorCode.SIGNATURE_ERROR);
         }
         try {
-            return p2PKHScriptSig.verifySign(tx.getHash());
+            // 交易入池时已验证过的签名，区块验证时不再做ECDSA验证
+            // A signature verified when the tx entered the pool skips ECDSA when the block is verified
+            SignatureCache signatureCache = SignatureCache.getInstance();
+            byte[] signBytes = p2PKHScriptSig.getSignData().getSignBytes();
+            if (signatureCache.peek(tx.getHash(), p2PKHScriptSig.getPublicKey(), signBytes)) {
+                return ValidateResult.getSuccessResult();
+            }
+            ValidateResult result = p2PKHScriptSig.verifySign(tx.getHash());
+            if (result.isSuccess()) {
+                signatureCache.add(tx.getHash(), p2PKHScriptSig.getPublicKey(), signBytes);
+            }
+            return result;
         } catch (Exception e) {
             Log.error(e);
             return ValidateResult.getFailedResult(this.getClass().getName(), KernelErrorCode.SIGNATURE_ERROR);
@@ -94,6 +94,24 @@ public interface BlockService {
      */
     Result<Block> getBlock(long height);
 
+    /**
+     * 根据区块摘要获取序列化后的完整区块，用于向其他节点提供区块时不需要重新组装
+     * Get the serialized whole block according to the block hash, used to serve blocks to other peers without reassembling.
+     *
+     * @param hash 区块摘要/block hash
+     * @return 序列化后的区块/serialized block
+     */
+    Result<byte[]> getBlockBytes(NulsDigestData hash);
+
+    /**
+     * 根据区块高度获取序列化后的完整区块
+     * Get the serialized whole block according to the block height.
+     *
+     * @param height 区块高度/block height
+     * @return 序列化后的区块/serialized block
+     */
+    Result<byte[]> getBlockBytes(long height);
+
     /**
      * 保存区块到存储中
      * Save the block to the store.
@@ -114,6 +132,15 @@ public interface BlockService {
      */
     Result rollbackBlock(Block block) throws NulsException;
 
+    /**
+     * 回滚上次退出时未完成提交的区块，启动时调用
+     * Roll back the block whose commit was interrupted last time, called at startup.
+     *
+     * @return 操作结果/operating result
+     * @throws NulsException 回滚区块有可能出现异常，请捕获后谨慎处理/There may be exceptions to the roll back block, please handle it carefully after capture.
+     */
+    Result recoverUncommittedBlock() throws NulsException;
+
     /**
      * 转发区块给连接的其他对等节点，允许一个列外（不转发给它）
      * Forward block to other peers of the connection, allowing one column (not forward to it)
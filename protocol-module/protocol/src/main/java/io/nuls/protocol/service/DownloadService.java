@@ -62,6 +62,18 @@ public interface DownloadService {
      */
     Result<TxGroup> downloadTxGroup(List<NulsDigestData> txHashList, Node node);
 
+    /**
+     * 按序号从指定节点处下载紧凑区块中缺少的交易，下载过程中线程是阻塞的，返回的交易与序号顺序一致
+     * Download the missing transactions of a compact block by index from the specified node, the thread is blocked in the download process,
+     * the returned transactions are in the order of the indexes.
+     *
+     * @param blockHash 区块摘要/block hash
+     * @param indexList 交易在区块中的序号/The indexes in the block of the transactions
+     * @param node      指定的节点/Specified node
+     * @return 交易列表的封装对象/A wrapper object for a transaction list.
+     */
+    Result<TxGroup> downloadCompactTxs(NulsDigestData blockHash, List<Integer> indexList, Node node);
+
     /**
      * 返回下载是否完成的结果
      * Returns the results of the download.
@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.protocol.cache;
+
+import io.nuls.kernel.model.NulsDigestData;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 已验证签名缓存测试类，测试命中、未命中、命中率和分代淘汰
+ * Verified signature cache test class, test the hits, the misses, the hit rate and the generation eviction.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class SignatureCacheTest {
+
+    private byte[] publicKey = new byte[]{2, 1, 2, 3};
+
+    private byte[] signBytes = new byte[]{48, 6, 7, 8};
+
+    @Test
+    public void containsAndHitRate() {
+        SignatureCache cache = new SignatureCache(10);
+        NulsDigestData hash = NulsDigestData.calcDigestData("tx".getBytes());
+        assertFalse(cache.contains(hash, publicKey, signBytes));
+
+        cache.add(hash, publicKey, signBytes);
+        assertTrue(cache.contains(hash, publicKey, signBytes));
+        assertFalse(cache.contains(hash, publicKey, new byte[]{48, 6, 7, 9}));
+        assertFalse(cache.contains(NulsDigestData.calcDigestData("tx2".getBytes()), publicKey, signBytes));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(0.25, cache.getHitRate(), 0.0001);
+    }
+
+    /**
+     * 超过两代容量后，最早的签名被淘汰
+     * After more than two generations, the oldest signature is evicted.
+     */
+    @Test
+    public void bounded() {
+        SignatureCache cache = new SignatureCache(10);
+        NulsDigestData first = NulsDigestData.calcDigestData("tx0".getBytes());
+        cache.add(first, publicKey, signBytes);
+        for (int i = 1; i < 25; i++) {
+            cache.add(NulsDigestData.calcDigestData(("tx" + i).getBytes()), publicKey, signBytes);
+        }
+        assertTrue(cache.size() <= 20);
+        assertFalse(cache.contains(first, publicKey, signBytes));
+    }
+}
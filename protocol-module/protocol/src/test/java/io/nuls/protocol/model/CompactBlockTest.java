@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.protocol.model;
+
+import io.nuls.kernel.exception.NulsException;
+import io.nuls.kernel.model.BlockHeader;
+import io.nuls.kernel.model.NulsDigestData;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * 紧凑区块测试类，测试短ID的确定性和序列化
+ * Compact block test class, test the determinism of the short ids and the serialization.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class CompactBlockTest {
+
+    private BlockHeader header;
+
+    @Before
+    public void init() {
+        header = new BlockHeader();
+        header.setPreHash(NulsDigestData.calcDigestData("pre".getBytes()));
+        header.setMerkleHash(NulsDigestData.calcDigestData("merkle".getBytes()));
+        header.setTime(1532000000000L);
+        header.setHeight(100);
+        header.setTxCount(3);
+        header.setExtend(new byte[]{1, 2, 3});
+        header.setHash(NulsDigestData.calcDigestData("block".getBytes()));
+    }
+
+    /**
+     * 相同区块和nonce得到相同的短ID，不同nonce得到不同的短ID，短ID不超过48位
+     * The same block and nonce give the same short id, another nonce gives another one, short ids fit in 48 bits.
+     */
+    @Test
+    public void shortId() {
+        NulsDigestData txHash = NulsDigestData.calcDigestData("tx".getBytes());
+        CompactBlock compactBlock = new CompactBlock();
+        compactBlock.setHeader(header);
+        compactBlock.setNonce(1L);
+        long shortId = compactBlock.getShortId(txHash);
+        assertEquals(0L, shortId >>> 48);
+
+        CompactBlock same = new CompactBlock();
+        same.setHeader(header);
+        same.setNonce(1L);
+        assertEquals(shortId, same.getShortId(txHash));
+
+        CompactBlock other = new CompactBlock();
+        other.setHeader(header);
+        other.setNonce(2L);
+        assertNotEquals(shortId, other.getShortId(txHash));
+    }
+
+    /**
+     * 序列化后再解析，短ID保持不变，包括全1的短ID
+     * Serialize then parse, the short ids stay the same, including the all-ones short id.
+     */
+    @Test
+    public void serialize() throws IOException, NulsException {
+        CompactBlock compactBlock = new CompactBlock();
+        compactBlock.setHeader(header);
+        compactBlock.setNonce(-7L);
+        compactBlock.getShortIdList().add(0xFFFFFFFFFFFFL);
+        compactBlock.getShortIdList().add(0L);
+        compactBlock.getShortIdList().add(0x123456789ABCL);
+        byte[] bytes = compactBlock.serialize();
+        assertEquals(compactBlock.size(), bytes.length);
+
+        CompactBlock parsed = new CompactBlock();
+        parsed.parse(bytes);
+        assertEquals(-7L, parsed.getNonce());
+        assertEquals(compactBlock.getShortIdList(), parsed.getShortIdList());
+        assertEquals(3, parsed.getTxCount());
+        assertEquals(header.getHeight(), parsed.getHeader().getHeight());
+    }
+}
@@ -24,10 +24,13 @@
  */
 package io.nuls.cache;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.nuls.cache.listener.intf.NulsCacheListener;
+import io.nuls.cache.manager.CaffeineCacheManager;
 import io.nuls.cache.manager.EhCacheManager;
+import io.nuls.cache.model.CacheListenerItem;
 import io.nuls.cache.model.CacheMapParams;
-import org.ehcache.Cache;
 import org.ehcache.spi.copy.Copier;
 
 import java.io.Serializable;
@@ -35,7 +38,9 @@ import java.util.*;
 
 /**
  * 缓存使用的键值对存储结构，提供一些基本的方法
+ * 默认存储在Caffeine堆内缓存中，设置了堆外大小时使用Ehcache的堆内+堆外存储
  * The key values used by the cache provide some basic methods for storing the structure.
+ * By default it is stored in the Caffeine on-heap cache, Ehcache with heap and off-heap tiers is used when the off-heap size is set.
  *
  * @author Niels
  * @date 2017/12/20
@@ -44,8 +49,18 @@ public class CacheMap<K, V> {
 
     private EhCacheManager cacheManager = EhCacheManager.getInstance();
 
+    private CaffeineCacheManager heapCacheManager = CaffeineCacheManager.getInstance();
+
     private final String cacheName;
 
+    private final boolean offHeap;
+
+    private final NulsCacheListener<K, V> listener;
+
+    private final Copier<V> valueCopier;
+
+    private volatile Cache<K, V> heapCache;
+
     public CacheMap(String cacheName, int heapMb, Class keyType, Class<? extends Serializable> valueType, Copier<V> valueCopier) {
         this(cacheName, heapMb, keyType, valueType, 0, 0, valueCopier);
     }
@@ -68,91 +83,198 @@ public class CacheMap<K, V> {
 
     public CacheMap(String cacheName, CacheMapParams params) {
         this.cacheName = cacheName;
-        this.cacheManager.createCache(cacheName, params);
+        this.offHeap = params.getOffHeapMb() > 0;
+        if (offHeap) {
+            this.listener = null;
+            this.valueCopier = null;
+            this.cacheManager.createCache(cacheName, params);
+        } else {
+            this.listener = params.getListener();
+            this.valueCopier = params.getValueCopier();
+            this.heapCache = heapCacheManager.createCache(cacheName, params);
+        }
     }
 
     public int size() {
-        return this.keySet().size();
+        if (offHeap) {
+            return this.keySet().size();
+        }
+        Cache<K, V> cache = this.heapCache;
+        if (null == cache) {
+            return 0;
+        }
+        return (int) cache.estimatedSize();
     }
 
     public boolean isEmpty() {
-        return this.keySet().isEmpty();
+        return this.size() == 0;
     }
 
     public boolean containsKey(K key) {
-        Cache cache = this.cacheManager.getCache(cacheName);
-        if (cache == null) {
+        if (null == key) {
             return false;
         }
-        return cache.containsKey(key);
+        if (offHeap) {
+            org.ehcache.Cache cache = this.cacheManager.getCache(cacheName);
+            if (cache == null) {
+                return false;
+            }
+            return cache.containsKey(key);
+        }
+        Cache<K, V> cache = this.heapCache;
+        return null != cache && cache.getIfPresent(key) != null;
     }
 
     public boolean containsValue(V value) {
-        List<V> vlist = this.values();
-        return vlist.contains(value);
+        if (offHeap) {
+            List<V> vlist = this.values();
+            return vlist.contains(value);
+        }
+        Cache<K, V> cache = this.heapCache;
+        return null != cache && cache.asMap().containsValue(value);
     }
 
 
     public V get(K key) {
-        if (null == cacheManager.getCache(cacheName) || null == key) {
+        if (null == key) {
+            return null;
+        }
+        if (offHeap) {
+            if (null == cacheManager.getCache(cacheName)) {
+                return null;
+            }
+            return ((V) cacheManager.getCache(cacheName).get(key));
+        }
+        Cache<K, V> cache = this.heapCache;
+        if (null == cache) {
             return null;
         }
-        return ((V) cacheManager.getCache(cacheName).get(key));
+        V value = cache.getIfPresent(key);
+        if (null != value && null != valueCopier) {
+            return valueCopier.copyForRead(value);
+        }
+        return value;
     }
 
 
     public void put(K key, V value) {
-        Object valueObj = value;
-        if (null == cacheManager.getCache(cacheName)) {
+        if (offHeap) {
+            Object valueObj = value;
+            if (null == cacheManager.getCache(cacheName)) {
+                throw new RuntimeException("Cache not exist!");
+            }
+            cacheManager.getCache(cacheName).put(key, valueObj);
+            return;
+        }
+        Cache<K, V> cache = this.heapCache;
+        if (null == cache) {
             throw new RuntimeException("Cache not exist!");
         }
-        cacheManager.getCache(cacheName).put(key, valueObj);
+        if (null != valueCopier) {
+            value = valueCopier.copyForWrite(value);
+        }
+        V oldValue = cache.asMap().put(key, value);
+        if (null != listener) {
+            CacheListenerItem<K, V> item = new CacheListenerItem<>(key, value, oldValue);
+            if (null == oldValue) {
+                listener.onCreate(item);
+            } else {
+                listener.onUpdate(item);
+            }
+        }
     }
 
     public void remove(K key) {
-        if (null == cacheManager.getCache(cacheName)) {
+        if (offHeap) {
+            if (null == cacheManager.getCache(cacheName)) {
+                return;
+            }
+            cacheManager.getCache(cacheName).remove(key);
             return;
         }
-        cacheManager.getCache(cacheName).remove(key);
+        Cache<K, V> cache = this.heapCache;
+        if (null == cache || null == key) {
+            return;
+        }
+        cache.invalidate(key);
     }
 
     public void clear() {
-        if (null == cacheManager.getCache(cacheName)) {
+        if (offHeap) {
+            if (null == cacheManager.getCache(cacheName)) {
+                return;
+            }
+            cacheManager.getCache(cacheName).clear();
+            return;
+        }
+        Cache<K, V> cache = this.heapCache;
+        if (null == cache) {
             return;
         }
-        cacheManager.getCache(cacheName).clear();
+        cache.invalidateAll();
     }
 
     public Set<K> keySet() {
-        Cache cache = this.cacheManager.getCache(cacheName);
+        if (!offHeap) {
+            Cache<K, V> cache = this.heapCache;
+            if (null == cache) {
+                return new HashSet<>();
+            }
+            return new HashSet<>(cache.asMap().keySet());
+        }
+        org.ehcache.Cache cache = this.cacheManager.getCache(cacheName);
         if (null == cache) {
             return new HashSet<>();
         }
         Iterator it = cache.iterator();
         Set<K> set = new HashSet<>();
         while (it.hasNext()) {
-            Cache.Entry<K, V> entry = (Cache.Entry<K, V>) it.next();
+            org.ehcache.Cache.Entry<K, V> entry = (org.ehcache.Cache.Entry<K, V>) it.next();
             set.add((K) entry.getKey());
         }
         return set;
     }
 
     public List<V> values() {
+        if (!offHeap) {
+            Cache<K, V> cache = this.heapCache;
+            if (null == cache) {
+                return new ArrayList<>();
+            }
+            return new ArrayList<>(cache.asMap().values());
+        }
         if (cacheManager == null || null == cacheManager.getCache(cacheName)) {
             return new ArrayList<>();
         }
         Iterator it = cacheManager.getCache(cacheName).iterator();
         List<V> list = new ArrayList<>();
         while (it.hasNext()) {
-            Cache.Entry<K, V> entry = (Cache.Entry<K, V>) it.next();
+            org.ehcache.Cache.Entry<K, V> entry = (org.ehcache.Cache.Entry<K, V>) it.next();
             V t = entry.getValue();
             list.add(t);
         }
         return list;
     }
 
+    /**
+     * 命中率、淘汰数等统计，仅堆内缓存可用
+     * The statistics of hits, evictions etc, only available for the on-heap cache.
+     */
+    public CacheStats getStats() {
+        Cache<K, V> cache = this.heapCache;
+        if (offHeap || null == cache) {
+            return CacheStats.empty();
+        }
+        return cache.stats();
+    }
+
     public void destroy() {
-        this.cacheManager.removeCache(cacheName);
+        if (offHeap) {
+            this.cacheManager.removeCache(cacheName);
+            return;
+        }
+        this.heapCache = null;
+        this.heapCacheManager.removeCache(cacheName);
     }
 
 
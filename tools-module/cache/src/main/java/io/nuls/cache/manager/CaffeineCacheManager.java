@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.cache.manager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import io.nuls.cache.listener.intf.NulsCacheListener;
+import io.nuls.cache.model.CacheListenerItem;
+import io.nuls.cache.model.CacheMapParams;
+import io.nuls.core.tools.param.AssertUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 堆内缓存管理器，基于Caffeine(W-TinyLFU淘汰策略的并发Map)，
+ * 提供O(1)的数量统计、存活/空闲过期、按权重淘汰和命中率统计
+ * The on-heap cache manager, based on Caffeine (a concurrent map with W-TinyLFU eviction),
+ * provides O(1) size, time-to-live/time-to-idle expiry, weight-based eviction and hit statistics.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public class CaffeineCacheManager {
+
+    private static final CaffeineCacheManager INSTANCE = new CaffeineCacheManager();
+
+    /**
+     * 默认权重计算器无法得知元素大小时，每个元素按1KB计算
+     * When the default weigher can not tell the size of an entry, the entry is weighed as 1KB.
+     */
+    private static final int ESTIMATED_ENTRY_BYTES = 1024;
+
+    private static final long BYTES_PER_MB = 1024 * 1024;
+
+    /**
+     * 默认按字节数淘汰，heapMb始终是字节上限，存放消息、区块等大对象的缓存应设置按序列化大小计算的权重计算器
+     * Entries are evicted by bytes by default, so heapMb is always a byte bound,
+     * the caches holding big values such as messages or blocks should set a weigher by the serialized size.
+     */
+    private static final Weigher<Object, Object> DEFAULT_WEIGHER = (key, value) -> {
+        if (value instanceof byte[]) {
+            return Math.max(1, ((byte[]) value).length);
+        }
+        if (value instanceof CharSequence) {
+            return Math.max(1, ((CharSequence) value).length() * 2);
+        }
+        return ESTIMATED_ENTRY_BYTES;
+    };
+
+    private final Map<String, Cache> cacheMap = new ConcurrentHashMap<>();
+
+    private CaffeineCacheManager() {
+    }
+
+    public static CaffeineCacheManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 创建一个缓存容器
+     * Create a cache container.
+     *
+     * @param title  容器标识,cache name
+     * @param params 初始化参数,init parameters
+     */
+    public <K, V> Cache<K, V> createCache(String title, CacheMapParams params) {
+        AssertUtil.canNotEmpty(params.getHeapMb());
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (params.getWeigher() != null) {
+            builder = builder.maximumWeight(params.getHeapMb() * BYTES_PER_MB).weigher(params.getWeigher());
+        } else if (params.getMaxEntries() > 0) {
+            builder = builder.maximumSize(params.getMaxEntries());
+        } else {
+            builder = builder.maximumWeight(params.getHeapMb() * BYTES_PER_MB).weigher(DEFAULT_WEIGHER);
+        }
+        if (params.getTimeToLiveSeconds() > 0) {
+            builder = builder.expireAfterWrite(params.getTimeToLiveSeconds(), TimeUnit.SECONDS);
+        }
+        if (params.getTimeToIdleSeconds() > 0) {
+            builder = builder.expireAfterAccess(params.getTimeToIdleSeconds(), TimeUnit.SECONDS);
+        }
+        NulsCacheListener listener = params.getListener();
+        if (listener != null) {
+            builder = builder.removalListener((key, value, cause) -> {
+                CacheListenerItem item = new CacheListenerItem(key, null, value);
+                switch (cause) {
+                    case EXPLICIT:
+                        listener.onRemove(item);
+                        break;
+                    case EXPIRED:
+                        listener.onExpire(item);
+                        break;
+                    case SIZE:
+                    case COLLECTED:
+                        listener.onEvict(item);
+                        break;
+                    default:
+                        // 更新事件由CacheMap.put发出 / the update event is fired by CacheMap.put
+                        return;
+                }
+            });
+        }
+        Cache<K, V> cache = builder.build();
+        cacheMap.put(title, cache);
+        return cache;
+    }
+
+    public <K, V> Cache<K, V> getCache(String title) {
+        return cacheMap.get(title);
+    }
+
+    public void removeCache(String title) {
+        cacheMap.remove(title);
+    }
+
+    public List<String> getCacheTitleList() {
+        return new ArrayList<>(cacheMap.keySet());
+    }
+}
@@ -81,9 +81,11 @@ public class EhCacheManager {
         AssertUtil.canNotEmpty(params.getHeapMb());
         AssertUtil.canNotEmpty(params.getKeyType());
         AssertUtil.canNotEmpty(params.getValueType());
-        CacheConfigurationBuilder builder = CacheConfigurationBuilder.newCacheConfigurationBuilder(params.getKeyType(), params.getValueType(),
-                ResourcePoolsBuilder.newResourcePoolsBuilder().heap(params.getHeapMb(), MemoryUnit.MB)
-        );
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.newResourcePoolsBuilder().heap(params.getHeapMb(), MemoryUnit.MB);
+        if (params.getOffHeapMb() > 0) {
+            resourcePools = resourcePools.offheap(params.getOffHeapMb(), MemoryUnit.MB);
+        }
+        CacheConfigurationBuilder builder = CacheConfigurationBuilder.newCacheConfigurationBuilder(params.getKeyType(), params.getValueType(), resourcePools);
         if (params.getListener() != null) {
             Set<EventType> types = new HashSet<>();
             types.add(EventType.CREATED);
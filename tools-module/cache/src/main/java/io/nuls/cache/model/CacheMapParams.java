@@ -25,6 +25,7 @@
 
 package io.nuls.cache.model;
 
+import com.github.benmanes.caffeine.cache.Weigher;
 import io.nuls.cache.listener.intf.NulsCacheListener;
 import org.ehcache.spi.copy.Copier;
 
@@ -42,6 +43,21 @@ public class CacheMapParams {
     private Copier valueCopier;
     private Class keyType;
     private Class<? extends Serializable> valueType;
+    /**
+     * 堆内缓存的最大元素数，未设置时按堆内存大小估算
+     * The max entries of the on-heap cache, estimated from heapMb when it is not set.
+     */
+    private long maxEntries;
+    /**
+     * 元素权重(字节数)计算器，设置后按heapMb对应的字节数淘汰
+     * The weigher of the entries in bytes, when it is set the entries are evicted by the bytes of heapMb.
+     */
+    private Weigher weigher;
+    /**
+     * 大于0时使用Ehcache，并增加对应大小的堆外存储层
+     * When it is greater than 0 Ehcache is used, with an off-heap tier of this size.
+     */
+    private int offHeapMb;
 
     public CacheMapParams (){}
 
@@ -110,4 +126,28 @@ public class CacheMapParams {
     public void setValueCopier(Copier valueCopier) {
         this.valueCopier = valueCopier;
     }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(long maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Weigher getWeigher() {
+        return weigher;
+    }
+
+    public void setWeigher(Weigher weigher) {
+        this.weigher = weigher;
+    }
+
+    public int getOffHeapMb() {
+        return offHeapMb;
+    }
+
+    public void setOffHeapMb(int offHeapMb) {
+        this.offHeapMb = offHeapMb;
+    }
 }
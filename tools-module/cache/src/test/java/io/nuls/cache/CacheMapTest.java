@@ -156,6 +156,35 @@ public class CacheMapTest {
         assertTrue(map.get(data1.getName() + "_remove"));
     }
 
+    /**
+     * 数量不需要遍历即可得到，命中和未命中都有统计
+     * The size is got without iterating, and both hits and misses are counted.
+     */
+    @Test
+    public void sizeAndStats() {
+        CacheMap<String, ValueData> cacheMap = new CacheMap<>("test-cache-stats", 1, String.class, ValueData.class);
+        assertTrue(cacheMap.isEmpty());
+        for (int i = 0; i < 10; i++) {
+            ValueData data = new ValueData();
+            data.setName("stats" + i);
+            data.setCode(i);
+            cacheMap.put(data.getName(), data);
+        }
+        assertEquals(10, cacheMap.size());
+        assertFalse(cacheMap.isEmpty());
+        assertEquals(10, cacheMap.keySet().size());
+        assertNotNull(cacheMap.get("stats1"));
+        assertNull(cacheMap.get("stats10"));
+        assertEquals(1, cacheMap.getStats().hitCount());
+        assertEquals(1, cacheMap.getStats().missCount());
+
+        cacheMap.remove("stats1");
+        assertEquals(9, cacheMap.size());
+        cacheMap.clear();
+        assertEquals(0, cacheMap.size());
+        cacheMap.destroy();
+    }
+
     public void testSpeed(){
         CacheMap<String,ValueData> cacheMap = new CacheMap("test-cache-speed", 1024, String.class, ValueData.class, 0, 0, null, null);
         Map<String,ValueData> map = new HashMap<>();
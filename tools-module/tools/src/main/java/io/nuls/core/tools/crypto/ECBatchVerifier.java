@@ -0,0 +1,255 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.tools.crypto;
+
+import io.nuls.core.tools.log.Log;
+import org.spongycastle.crypto.params.ECPublicKeyParameters;
+import org.spongycastle.crypto.signers.ECDSASigner;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * secp256k1签名的批量验证：按CPU核数把签名分块并行验证，每个线程复用ECDSASigner，缓存解码后的公钥点，
+ * 存在libsecp256k1的JNI实现时优先使用
+ * Batch verification of secp256k1 signatures: splits the signatures into per-core chunks verified in parallel,
+ * each thread reuses its ECDSASigner, the decoded public key points are cached, and the JNI libsecp256k1 is used
+ * first when present.
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+public final class ECBatchVerifier {
+
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 每块最少的签名数，太少时并行的开销大于收益
+     * The min signatures of a chunk, below it the parallel overhead outweighs the gain.
+     */
+    private static final int MIN_CHUNK_SIZE = 16;
+
+    /**
+     * 公钥点缓存每一代的数量，打包地址等常用公钥会一直留在缓存中
+     * The public key points per cache generation, hot keys such as the packing addresses stay cached.
+     */
+    private static final int KEY_GENERATION_SIZE = 4096;
+
+    private static final ThreadLocal<ECDSASigner> SIGNER = ThreadLocal.withInitial(ECDSASigner::new);
+
+    private static volatile Map<ByteBuffer, ECPublicKeyParameters> currentKeys = new ConcurrentHashMap<>();
+
+    private static volatile Map<ByteBuffer, ECPublicKeyParameters> previousKeys = new ConcurrentHashMap<>();
+
+    private static final Method NATIVE_VERIFY = loadNativeVerify();
+
+    private ECBatchVerifier() {
+    }
+
+    /**
+     * 一个待验证的签名
+     * A signature to verify.
+     */
+    public static class VerifyItem {
+
+        private final byte[] digest;
+
+        private final byte[] signature;
+
+        private final byte[] publicKey;
+
+        public VerifyItem(byte[] digest, byte[] signature, byte[] publicKey) {
+            this.digest = digest;
+            this.signature = signature;
+            this.publicKey = publicKey;
+        }
+
+        public byte[] getDigest() {
+            return digest;
+        }
+
+        public byte[] getSignature() {
+            return signature;
+        }
+
+        public byte[] getPublicKey() {
+            return publicKey;
+        }
+    }
+
+    private static class ExecutorHolder {
+        private static final AtomicInteger THREAD_INDEX = new AtomicInteger();
+        private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(CORES, runnable -> {
+            Thread thread = new Thread(runnable, "ec-batch-verify-" + THREAD_INDEX.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 批量验证，结果与输入顺序一致，单个签名格式错误时该项为false
+     * Batch verification, the results are in the input order, a malformed signature gives false for that item.
+     */
+    public static boolean[] verifyBatch(List<VerifyItem> itemList) {
+        int size = itemList.size();
+        boolean[] results = new boolean[size];
+        int chunkCount = Math.min(CORES, (size + MIN_CHUNK_SIZE - 1) / MIN_CHUNK_SIZE);
+        if (chunkCount <= 1) {
+            verifyRange(itemList, results, 0, size);
+            return results;
+        }
+        int chunkSize = (size + chunkCount - 1) / chunkCount;
+        List<Future<?>> futureList = new ArrayList<>(chunkCount);
+        for (int start = 0; start < size; start += chunkSize) {
+            int from = start;
+            int to = Math.min(size, start + chunkSize);
+            futureList.add(ExecutorHolder.EXECUTOR.submit(() -> verifyRange(itemList, results, from, to)));
+        }
+        try {
+            for (Future<?> future : futureList) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Arrays.fill(results, false);
+        } catch (ExecutionException e) {
+            Log.error(e);
+            Arrays.fill(results, false);
+        }
+        return results;
+    }
+
+    /**
+     * 全部验证通过才返回true
+     * True only when all of them pass.
+     */
+    public static boolean verifyAll(List<VerifyItem> itemList) {
+        for (boolean result : verifyBatch(itemList)) {
+            if (!result) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void verifyRange(List<VerifyItem> itemList, boolean[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            VerifyItem item = itemList.get(i);
+            try {
+                results[i] = verify(item.getDigest(), item.getSignature(), item.getPublicKey());
+            } catch (Exception e) {
+                results[i] = false;
+            }
+        }
+    }
+
+    /**
+     * 验证一个DER编码的签名，JNI返回false时仍用BouncyCastle确认，两者对高S值和DER格式的要求不同
+     * Verifies one DER signature, a false from JNI is confirmed by BouncyCastle as the two differ on high S and DER strictness.
+     */
+    public static boolean verify(byte[] data, byte[] signature, byte[] pub) {
+        if (null != NATIVE_VERIFY) {
+            try {
+                if ((Boolean) NATIVE_VERIFY.invoke(null, data, signature, pub)) {
+                    return true;
+                }
+            } catch (Exception e) {
+                // fall through to BouncyCastle
+            }
+        }
+        return verify(data, ECKey.ECDSASignature.decodeFromDER(signature), pub);
+    }
+
+    public static boolean verify(byte[] data, ECKey.ECDSASignature signature, byte[] pub) {
+        ECDSASigner signer = SIGNER.get();
+        signer.init(false, getPublicKey(pub));
+        try {
+            return signer.verifySignature(data, signature.r, signature.s);
+        } catch (NullPointerException e) {
+            Log.error("Caught NPE inside bouncy castle", e);
+            return false;
+        }
+    }
+
+    /**
+     * 解码后的公钥点同时保存了BouncyCastle的预计算表，复用可以省去解码和预计算
+     * The decoded point also keeps the precomputation of BouncyCastle, reusing it saves the decoding and the precomputation.
+     */
+    static ECPublicKeyParameters getPublicKey(byte[] pub) {
+        ByteBuffer key = ByteBuffer.wrap(pub.clone());
+        ECPublicKeyParameters params = currentKeys.get(key);
+        if (null != params) {
+            return params;
+        }
+        params = previousKeys.get(key);
+        if (null == params) {
+            params = new ECPublicKeyParameters(ECKey.CURVE.getCurve().decodePoint(pub), ECKey.CURVE);
+        }
+        if (currentKeys.size() >= KEY_GENERATION_SIZE) {
+            rotateKeys();
+        }
+        currentKeys.put(key, params);
+        return params;
+    }
+
+    private static synchronized void rotateKeys() {
+        if (currentKeys.size() >= KEY_GENERATION_SIZE) {
+            previousKeys = currentKeys;
+            currentKeys = new ConcurrentHashMap<>();
+        }
+    }
+
+    public static boolean isNativeEnabled() {
+        return null != NATIVE_VERIFY;
+    }
+
+    /**
+     * 类路径中有libsecp256k1的JNI绑定且本地库已加载时启用，-Dnuls.secp256k1.native=false可关闭
+     * Enabled when the libsecp256k1 JNI binding is on the classpath and the native library is loaded,
+     * -Dnuls.secp256k1.native=false turns it off.
+     */
+    private static Method loadNativeVerify() {
+        if ("false".equals(System.getProperty("nuls.secp256k1.native"))) {
+            return null;
+        }
+        try {
+            Class<?> context = Class.forName("org.bitcoin.Secp256k1Context");
+            if (!(Boolean) context.getMethod("isEnabled").invoke(null)) {
+                return null;
+            }
+            Method method = Class.forName("org.bitcoin.NativeSecp256k1").getMethod("verify", byte[].class, byte[].class, byte[].class);
+            Log.info("secp256k1 verification uses libsecp256k1");
+            return method;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+}
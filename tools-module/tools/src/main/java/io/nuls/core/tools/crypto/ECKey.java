@@ -266,22 +266,14 @@ public class ECKey {
      * 验证签名
      */
     public static boolean verify(byte[] data, ECDSASignature signature, byte[] pub) {
-        ECDSASigner signer = new ECDSASigner();
-        ECPublicKeyParameters params = new ECPublicKeyParameters(CURVE.getCurve().decodePoint(pub), CURVE);
-        signer.init(false, params);
-        try {
-            return signer.verifySignature(data, signature.r, signature.s);
-        } catch (NullPointerException e) {
-            log.error("Caught NPE inside bouncy castle", e);
-            return false;
-        }
+        return ECBatchVerifier.verify(data, signature, pub);
     }
 
     /**
      * 验证签名
      */
     public static boolean verify(byte[] data, byte[] signature, byte[] pub) {
-        return verify(data, ECDSASignature.decodeFromDER(signature), pub);
+        return ECBatchVerifier.verify(data, signature, pub);
     }
 
     /**
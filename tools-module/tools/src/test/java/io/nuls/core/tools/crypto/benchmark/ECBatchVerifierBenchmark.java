@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.tools.crypto.benchmark;
+
+import io.nuls.core.tools.crypto.ECBatchVerifier;
+import io.nuls.core.tools.crypto.ECKey;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.spongycastle.crypto.params.ECPublicKeyParameters;
+import org.spongycastle.crypto.signers.ECDSASigner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * secp256k1签名验证的JMH测试：原来每次新建签名器并解码公钥的方式、单笔缓存验证、按核分块的批量验证。
+ * 单线程的结果即每核每秒的验证数，批量验证的结果除以核数得到每核的数值
+ * JMH suite of the secp256k1 verification: the former new signer and key decoding per call, the cached single
+ * verification, and the per-core chunked batch. Single thread results are the verifies per second per core,
+ * divide the batch result by the core count for the per-core figure.
+ * <p>
+ * 运行/run: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=io.nuls.core.tools.crypto.benchmark.ECBatchVerifierBenchmark
+ *
+ * @author: agent
+ * @date: 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ECBatchVerifierBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+
+    /**
+     * 少量公钥签大量交易，与打包地址的情况相同
+     * A few keys sign many txs, as the packing addresses do.
+     */
+    private static final int KEY_COUNT = 16;
+
+    private List<ECBatchVerifier.VerifyItem> itemList;
+
+    private int index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        ECKey[] keys = new ECKey[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = new ECKey();
+        }
+        itemList = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            byte[] digest = new byte[32];
+            random.nextBytes(digest);
+            ECKey key = keys[i % KEY_COUNT];
+            itemList.add(new ECBatchVerifier.VerifyItem(digest, key.sign(digest), key.getPubKey()));
+        }
+    }
+
+    private ECBatchVerifier.VerifyItem next() {
+        index = (index + 1) % BATCH_SIZE;
+        return itemList.get(index);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean uncachedVerify() {
+        ECBatchVerifier.VerifyItem item = next();
+        ECKey.ECDSASignature signature = ECKey.ECDSASignature.decodeFromDER(item.getSignature());
+        ECDSASigner signer = new ECDSASigner();
+        signer.init(false, new ECPublicKeyParameters(ECKey.CURVE.getCurve().decodePoint(item.getPublicKey()), ECKey.CURVE));
+        return signer.verifySignature(item.getDigest(), signature.r, signature.s);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean cachedVerify() {
+        ECBatchVerifier.VerifyItem item = next();
+        return ECBatchVerifier.verify(item.getDigest(), item.getSignature(), item.getPublicKey());
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public boolean batchVerify() {
+        return ECBatchVerifier.verifyAll(itemList);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(ECBatchVerifierBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}